@@ -9,6 +9,8 @@
 --   - portfolios: User investment portfolios
 --   - positions: Holdings within portfolios (stocks and quantities)
 --   - transactions: History of buy/sell activities
+--   - portfolio_summary: Totals per portfolio, kept up to date by the application
+--   - holdings: Positions consolidated per portfolio and stock, kept up to date by the application
 -- ========================================================================
 
 -- Create database if it doesn't exist
@@ -76,6 +78,47 @@ CREATE TABLE transactions (
     CONSTRAINT chk_transaction_price CHECK (price > 0)
 );
 
+-- --------------------------------------------------------
+-- Table: portfolio_summary
+-- Purpose: Materialised totals per portfolio, so portfolios can be listed with
+--          their values without reading their positions. The application updates
+--          a row in the same transaction as every position insert, and applies a
+--          price change to all holders of a stock as one set-based delta.
+-- --------------------------------------------------------
+CREATE TABLE portfolio_summary (
+    portfolio_id INT PRIMARY KEY,
+    market_value DECIMAL(19,4) NOT NULL DEFAULT 0,
+    cost_basis DECIMAL(19,4) NOT NULL DEFAULT 0,
+    position_count INT NOT NULL DEFAULT 0,
+    last_updated TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    FOREIGN KEY (portfolio_id) REFERENCES portfolios(portfolio_id)
+);
+
+-- An existing database is upgraded with Portfolio_migration.sql, which creates
+-- this table and fills it from the positions.
+
+-- --------------------------------------------------------
+-- Table: holdings
+-- Purpose: One row per stock held in a portfolio, summing its positions, so
+--          holdings can be read and valued without reading every purchase. The
+--          application upserts a row in the same transaction as every position
+--          insert; the positions remain the individual lots.
+-- --------------------------------------------------------
+CREATE TABLE holdings (
+    portfolio_id INT NOT NULL,
+    stock_id INT NOT NULL,
+    quantity DECIMAL(19,4) NOT NULL,
+    cost_basis DECIMAL(19,4) NOT NULL,
+    lot_count INT NOT NULL,
+    last_updated TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    PRIMARY KEY (portfolio_id, stock_id),
+    FOREIGN KEY (portfolio_id) REFERENCES portfolios(portfolio_id),
+    FOREIGN KEY (stock_id) REFERENCES stocks(stock_id)
+);
+
+-- An existing database is upgraded with Portfolio_migration.sql, which creates
+-- this table and fills it from the positions.
+
 -- --------------------------------------------------------
 -- Indexes for better query performance
 -- --------------------------------------------------------
@@ -89,6 +132,8 @@ CREATE INDEX idx_portfolio_name ON portfolios(name);
 -- Indexes for foreign key relationships to improve JOIN performance
 CREATE INDEX idx_position_portfolio ON positions(portfolio_id);
 CREATE INDEX idx_position_stock ON positions(stock_id);
+-- Finds the holders of a stock and their quantities when a price change is applied to portfolio_summary
+CREATE INDEX idx_holding_stock ON holdings(stock_id, portfolio_id, quantity);
 CREATE INDEX idx_transaction_portfolio ON transactions(portfolio_id);
 CREATE INDEX idx_transaction_stock ON transactions(stock_id);
 
@@ -0,0 +1,66 @@
+-- ========================================================================
+-- Investment Portfolio Analyzer Schema Migration
+-- Author: Gaoussou Thiam
+-- Date: 10/19/2026
+--
+-- This script upgrades a database created by an earlier Portfolio.sql to the
+-- current schema. It creates the tables the application now keeps up to date
+-- and fills them from the existing positions. New databases need only
+-- Portfolio.sql; running this script again rebuilds the tables' contents.
+--   - portfolio_summary: Totals per portfolio
+--   - holdings: Positions consolidated per portfolio and stock
+-- ========================================================================
+
+USE investment_portfolio;
+
+-- --------------------------------------------------------
+-- Table: portfolio_summary
+-- Purpose: See Portfolio.sql.
+-- --------------------------------------------------------
+CREATE TABLE IF NOT EXISTS portfolio_summary (
+    portfolio_id INT PRIMARY KEY,
+    market_value DECIMAL(19,4) NOT NULL DEFAULT 0,
+    cost_basis DECIMAL(19,4) NOT NULL DEFAULT 0,
+    position_count INT NOT NULL DEFAULT 0,
+    last_updated TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    FOREIGN KEY (portfolio_id) REFERENCES portfolios(portfolio_id)
+);
+
+-- Rebuilds the totals from the positions
+INSERT INTO portfolio_summary (portfolio_id, market_value, cost_basis, position_count)
+SELECT p.portfolio_id,
+       COALESCE(SUM(pos.quantity * s.current_price), 0),
+       COALESCE(SUM(pos.quantity * pos.purchase_price), 0),
+       COUNT(pos.position_id)
+FROM portfolios p
+LEFT JOIN positions pos ON pos.portfolio_id = p.portfolio_id
+LEFT JOIN stocks s ON s.stock_id = pos.stock_id
+GROUP BY p.portfolio_id
+ON DUPLICATE KEY UPDATE market_value = VALUES(market_value), cost_basis = VALUES(cost_basis),
+                        position_count = VALUES(position_count);
+
+-- --------------------------------------------------------
+-- Table: holdings
+-- Purpose: See Portfolio.sql. The index is declared with the table, since
+--          CREATE INDEX cannot be skipped when it already exists.
+-- --------------------------------------------------------
+CREATE TABLE IF NOT EXISTS holdings (
+    portfolio_id INT NOT NULL,
+    stock_id INT NOT NULL,
+    quantity DECIMAL(19,4) NOT NULL,
+    cost_basis DECIMAL(19,4) NOT NULL,
+    lot_count INT NOT NULL,
+    last_updated TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    PRIMARY KEY (portfolio_id, stock_id),
+    FOREIGN KEY (portfolio_id) REFERENCES portfolios(portfolio_id),
+    FOREIGN KEY (stock_id) REFERENCES stocks(stock_id),
+    INDEX idx_holding_stock (stock_id, portfolio_id, quantity)
+);
+
+-- Rebuilds the holdings from the positions
+INSERT INTO holdings (portfolio_id, stock_id, quantity, cost_basis, lot_count)
+SELECT portfolio_id, stock_id, SUM(quantity), SUM(quantity * purchase_price), COUNT(*)
+FROM positions
+GROUP BY portfolio_id, stock_id
+ON DUPLICATE KEY UPDATE quantity = VALUES(quantity), cost_basis = VALUES(cost_basis),
+                        lot_count = VALUES(lot_count);
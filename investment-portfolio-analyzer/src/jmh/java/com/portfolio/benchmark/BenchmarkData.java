@@ -0,0 +1,72 @@
+package com.portfolio.benchmark;
+
+import com.portfolio.model.Portfolio;
+import com.portfolio.model.Position;
+import com.portfolio.model.Stock;
+import com.portfolio.util.TickerSymbols;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * This class builds the deterministic fixtures shared by the benchmarks: stock universes
+ * spread over a given number of sectors, and portfolios of a given size drawn from them.
+ * @author Gaoussou Thiam
+ * @date 10/19/2026
+ */
+final class BenchmarkData {
+
+
+    /** Seed used for every fixture so runs are comparable across versions. */
+    static final long SEED = 20260219L;
+
+    /** Largest number of distinct stocks in a fixture universe. */
+    static final int MAX_STOCKS = 5000;
+
+    /**
+     * Prevents instantiation of this utility class.
+     */
+    private BenchmarkData() {
+    }
+
+    /**
+     * Builds a stock universe spread round-robin over a number of sectors.
+     *
+     * @param count   The number of stocks.
+     * @param sectors The number of sectors.
+     * @return The stocks, with IDs assigned from 1.
+     */
+    static List<Stock> stocks(int count, int sectors) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        List<Stock> stocks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Stock stock = new Stock(TickerSymbols.symbol(i), "Company " + i, "Sector" + (i % sectors),
+                    Math.round(random.nextDouble(5.0, 500.0) * 100) / 100.0);
+            stock.setStockId(i + 1);
+            stocks.add(stock);
+        }
+        return stocks;
+    }
+
+    /**
+     * Builds a portfolio with the given number of positions drawn from a universe.
+     *
+     * @param stocks    The stock universe.
+     * @param positions The number of positions.
+     * @return The portfolio.
+     */
+    static Portfolio portfolio(List<Stock> stocks, int positions) {
+        SplittableRandom random = new SplittableRandom(SEED + positions);
+        Portfolio portfolio = new Portfolio("Benchmark " + positions, "JMH fixture");
+        portfolio.setPortfolioId(1);
+        for (int i = 0; i < positions; i++) {
+            Stock stock = stocks.get(random.nextInt(stocks.size()));
+            double purchasePrice = Math.round(stock.getCurrentPrice() * random.nextDouble(0.5, 1.5) * 100) / 100.0;
+            Position position = new Position(stock, 1 + random.nextInt(500), purchasePrice);
+            position.setPositionId(i + 1);
+            portfolio.addPosition(position);
+        }
+        return portfolio;
+    }
+}
@@ -0,0 +1,51 @@
+package com.portfolio.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * This is the entry point for the benchmark suite. It accepts the standard JMH command line
+ * options and, unless overridden, attaches the GC profiler to report allocation rates and
+ * writes machine-readable JSON results to {@code target/jmh-result.json} so runs can be
+ * compared across versions.
+ * @author Gaoussou Thiam
+ * @date 10/19/2026
+ * @see com.portfolio.benchmark.PortfolioBenchmark
+ * @see com.portfolio.benchmark.RepositoryBenchmark
+ */
+public class BenchmarkRunner {
+
+
+    /** Default location of the JSON results. */
+    private static final String RESULT_FILE = "target/jmh-result.json";
+
+    /**
+     * Runs the benchmarks.
+     *
+     * @param args Standard JMH command line options, for example a benchmark regex or {@code -p positions=1000}.
+     * @throws RunnerException If a benchmark fails.
+     * @throws CommandLineOptionException If the options cannot be parsed.
+     */
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        CommandLineOptions cli = new CommandLineOptions(args);
+        ChainedOptionsBuilder options = new OptionsBuilder()
+                .parent(cli)
+                .addProfiler(GCProfiler.class);
+        if (!cli.getResultFormat().hasValue()) {
+            options.resultFormat(ResultFormatType.JSON);
+        }
+        if (!cli.getResult().hasValue()) {
+            options.result(RESULT_FILE);
+        }
+        if (cli.getIncludes().isEmpty()) {
+            options.include("com\\.portfolio\\.benchmark\\..*");
+        }
+        new Runner(options.build()).run();
+    }
+}
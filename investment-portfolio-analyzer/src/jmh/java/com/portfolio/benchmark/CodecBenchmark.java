@@ -0,0 +1,124 @@
+package com.portfolio.benchmark;
+
+import com.portfolio.codec.ModelCodec;
+import com.portfolio.model.Portfolio;
+import com.portfolio.model.Position;
+import com.portfolio.model.Stock;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class benchmarks {@link ModelCodec} against hand-written JSON of the same portfolio,
+ * the format used to cache and ship portfolios until now. The encoded sizes of both are
+ * printed during setup.
+ * @author Gaoussou Thiam
+ * @date 10/19/2026
+ * @see com.portfolio.codec.ModelCodec
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class CodecBenchmark {
+
+
+    /** Number of positions in the portfolio. */
+    @Param({"10", "1000", "100000"})
+    public int positions;
+
+    /** The portfolio under test. */
+    private Portfolio portfolio;
+
+    /** The codec under test. */
+    private final ModelCodec codec = new ModelCodec();
+
+    /** The buffer portfolios are encoded into. */
+    private ByteBuffer buffer;
+
+    /** The encoded portfolio, decoded by {@link #decode()}. */
+    private ByteBuffer encoded;
+
+    /**
+     * Builds the portfolio fixture, encodes it once and prints both encoded sizes.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        portfolio = BenchmarkData.portfolio(BenchmarkData.stocks(BenchmarkData.MAX_STOCKS, 11), positions);
+        buffer = ByteBuffer.allocate(256 + positions * 256);
+        codec.encode(portfolio, buffer);
+        encoded = ByteBuffer.wrap(buffer.array(), 0, buffer.position()).slice();
+        System.out.printf("%n%d positions: binary %d bytes, JSON %d bytes%n", positions, encoded.remaining(),
+                encodeJson().length);
+    }
+
+    /**
+     * Measures {@link ModelCodec#encode(Portfolio, ByteBuffer)}.
+     *
+     * @return The encoded size, consumed by JMH.
+     */
+    @Benchmark
+    public int encode() {
+        buffer.clear();
+        codec.encode(portfolio, buffer);
+        return buffer.position();
+    }
+
+    /**
+     * Measures {@link ModelCodec#decodePortfolio(ByteBuffer)}.
+     *
+     * @return The decoded portfolio, consumed by JMH.
+     */
+    @Benchmark
+    public Portfolio decode() {
+        return codec.decodePortfolio(encoded.duplicate());
+    }
+
+    /**
+     * Measures encoding the same portfolio as JSON UTF-8 bytes.
+     *
+     * @return The encoded bytes, consumed by JMH.
+     */
+    @Benchmark
+    public byte[] encodeJson() {
+        StringBuilder json = new StringBuilder(256 + positions * 256);
+        json.append("{\"portfolioId\":").append(portfolio.getPortfolioId())
+                .append(",\"name\":\"").append(portfolio.getName())
+                .append("\",\"description\":\"").append(portfolio.getDescription())
+                .append("\",\"creationDate\":\"").append(portfolio.getCreationDate())
+                .append("\",\"positions\":[");
+        boolean first = true;
+        for (Position position : portfolio.getPositions()) {
+            Stock stock = position.getStock();
+            json.append(first ? "" : ",")
+                    .append("{\"positionId\":").append(position.getPositionId())
+                    .append(",\"stock\":{\"stockId\":").append(stock.getStockId())
+                    .append(",\"symbol\":\"").append(stock.getSymbol())
+                    .append("\",\"companyName\":\"").append(stock.getCompanyName())
+                    .append("\",\"sector\":\"").append(stock.getSector())
+                    .append("\",\"currentPrice\":").append(stock.getCurrentPrice())
+                    .append(",\"lastUpdated\":\"").append(stock.getLastUpdated())
+                    .append("\"},\"quantity\":").append(position.getQuantity())
+                    .append(",\"purchasePrice\":").append(position.getPurchasePrice())
+                    .append(",\"purchaseDate\":\"").append(position.getPurchaseDate())
+                    .append("\"}");
+            first = false;
+        }
+        return json.append("]}").toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,94 @@
+package com.portfolio.benchmark;
+
+import com.portfolio.model.Portfolio;
+import com.portfolio.model.Position;
+import com.portfolio.service.PortfolioManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class benchmarks the in-memory model and service hot paths: portfolio valuation,
+ * the defensive copy of the position list, and the statistics computed by
+ * {@link PortfolioManager#getPortfolioStats(Portfolio)}.
+ * @author Gaoussou Thiam
+ * @date 10/19/2026
+ * @see com.portfolio.model.Portfolio
+ * @see com.portfolio.service.PortfolioManager
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class PortfolioBenchmark {
+
+
+    /** Number of positions in the portfolio. */
+    @Param({"10", "1000", "100000", "1000000"})
+    public int positions;
+
+    /** Number of sectors the stock universe is spread over. */
+    @Param({"1", "11", "100"})
+    public int sectors;
+
+    /** The portfolio under test. */
+    private Portfolio portfolio;
+
+    /** The service under test; statistics do not touch the database. */
+    private PortfolioManager portfolioManager;
+
+    /**
+     * Builds the portfolio fixture.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        int stocks = Math.min(BenchmarkData.MAX_STOCKS, Math.max(sectors, positions));
+        portfolio = BenchmarkData.portfolio(BenchmarkData.stocks(stocks, sectors), positions);
+        portfolioManager = new PortfolioManager();
+    }
+
+    /**
+     * Measures {@link Portfolio#getTotalValue()}.
+     *
+     * @return The total value, consumed by JMH.
+     */
+    @Benchmark
+    public double totalValue() {
+        return portfolio.getTotalValue();
+    }
+
+    /**
+     * Measures the defensive copy made by {@link Portfolio#getPositions()}.
+     *
+     * @return The copied list, consumed by JMH.
+     */
+    @Benchmark
+    public List<Position> positionsCopy() {
+        return portfolio.getPositions();
+    }
+
+    /**
+     * Measures {@link PortfolioManager#getPortfolioStats(Portfolio)}.
+     *
+     * @return The statistics map, consumed by JMH.
+     */
+    @Benchmark
+    public Map<String, Object> portfolioStats() {
+        return portfolioManager.getPortfolioStats(portfolio);
+    }
+}
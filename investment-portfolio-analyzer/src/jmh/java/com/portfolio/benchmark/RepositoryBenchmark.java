@@ -0,0 +1,210 @@
+package com.portfolio.benchmark;
+
+import com.portfolio.model.Portfolio;
+import com.portfolio.model.PortfolioSummary;
+import com.portfolio.model.Position;
+import com.portfolio.model.Stock;
+import com.portfolio.repository.DatabaseService;
+import com.portfolio.util.SchemaLoader;
+import com.portfolio.util.TickerSymbols;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class benchmarks {@link DatabaseService} row mapping against an embedded H2 database in
+ * MySQL compatibility mode, so results reflect JDBC and object materialisation costs without a
+ * network round trip. The database is created from the same schema script as production.
+ * @author Gaoussou Thiam
+ * @date 10/19/2026
+ * @see com.portfolio.repository.DatabaseService
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class RepositoryBenchmark {
+
+
+    /** Rows inserted per JDBC batch while loading the fixture. */
+    private static final int BATCH_SIZE = 10_000;
+
+    /** Number of positions in the benchmarked portfolio. */
+    @Param({"10", "1000", "100000", "1000000"})
+    public int positions;
+
+    /** Number of sectors the stock universe is spread over. */
+    @Param({"11"})
+    public int sectors;
+
+    /** Number of portfolios listed by the getAllPortfolios and getPortfolioSummaries benchmarks. */
+    @Param({"1000"})
+    public int portfolios;
+
+    /** Connection that keeps the in-memory database alive for the whole trial. */
+    private Connection keepAlive;
+
+    /** The repository under test. */
+    private DatabaseService databaseService;
+
+    /** The ID of the large portfolio. */
+    private int portfolioId;
+
+    /**
+     * Creates the embedded database and loads the fixture with batched inserts.
+     *
+     * @throws SQLException If the fixture cannot be loaded.
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        String url = "jdbc:h2:mem:bench" + System.nanoTime() + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE";
+        keepAlive = DriverManager.getConnection(url, "sa", "");
+        SchemaLoader.apply(keepAlive);
+        databaseService = new DatabaseService(url, "sa", "");
+
+        int stockCount = Math.min(BenchmarkData.MAX_STOCKS, Math.max(sectors, positions));
+        List<Stock> stocks = BenchmarkData.stocks(stockCount, sectors);
+        keepAlive.setAutoCommit(false);
+        try (PreparedStatement pstmt = keepAlive.prepareStatement(
+                "INSERT INTO stocks (stock_id, symbol, company_name, sector, current_price) VALUES (?, ?, ?, ?, ?)")) {
+            for (Stock stock : stocks) {
+                pstmt.setInt(1, stock.getStockId());
+                pstmt.setString(2, stock.getSymbol());
+                pstmt.setString(3, stock.getCompanyName());
+                pstmt.setString(4, stock.getSector());
+                pstmt.setDouble(5, stock.getCurrentPrice());
+                pstmt.addBatch();
+            }
+            pstmt.executeBatch();
+        }
+        try (PreparedStatement pstmt = keepAlive.prepareStatement(
+                "INSERT INTO portfolios (portfolio_id, name, description) VALUES (?, ?, ?)")) {
+            for (int i = 1; i <= portfolios; i++) {
+                pstmt.setInt(1, i);
+                pstmt.setString(2, "Portfolio " + i);
+                pstmt.setString(3, "JMH fixture");
+                pstmt.addBatch();
+            }
+            pstmt.executeBatch();
+        }
+        portfolioId = 1;
+        Portfolio fixture = BenchmarkData.portfolio(stocks, positions);
+        try (PreparedStatement pstmt = keepAlive.prepareStatement(
+                "INSERT INTO positions (portfolio_id, stock_id, quantity, purchase_price) VALUES (?, ?, ?, ?)")) {
+            int pending = 0;
+            for (Position position : fixture.getPositions()) {
+                pstmt.setInt(1, portfolioId);
+                pstmt.setInt(2, position.getStock().getStockId());
+                pstmt.setDouble(3, position.getQuantity());
+                pstmt.setDouble(4, position.getPurchasePrice());
+                pstmt.addBatch();
+                if (++pending == BATCH_SIZE) {
+                    pstmt.executeBatch();
+                    pending = 0;
+                }
+            }
+            pstmt.executeBatch();
+        }
+        // The positions bypass the repository, so derive its summary and holding rows as an upgrade would.
+        try (Statement stmt = keepAlive.createStatement()) {
+            stmt.execute("INSERT INTO portfolio_summary (portfolio_id, market_value, cost_basis, position_count) "
+                    + "SELECT p.portfolio_id, COALESCE(SUM(pos.quantity * s.current_price), 0), "
+                    + "COALESCE(SUM(pos.quantity * pos.purchase_price), 0), COUNT(pos.position_id) "
+                    + "FROM portfolios p LEFT JOIN positions pos ON pos.portfolio_id = p.portfolio_id "
+                    + "LEFT JOIN stocks s ON s.stock_id = pos.stock_id GROUP BY p.portfolio_id");
+            stmt.execute("INSERT INTO holdings (portfolio_id, stock_id, quantity, cost_basis, lot_count) "
+                    + "SELECT portfolio_id, stock_id, SUM(quantity), SUM(quantity * purchase_price), COUNT(*) "
+                    + "FROM positions GROUP BY portfolio_id, stock_id");
+        }
+        keepAlive.commit();
+        keepAlive.setAutoCommit(true);
+    }
+
+    /**
+     * Drops the embedded database.
+     *
+     * @throws SQLException If the database cannot be shut down.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        try (Statement stmt = keepAlive.createStatement()) {
+            stmt.execute("SHUTDOWN");
+        }
+        keepAlive.close();
+    }
+
+    /**
+     * Measures loading one portfolio with all its positions.
+     *
+     * @return The loaded portfolio, consumed by JMH.
+     * @throws SQLException If a database access error occurs.
+     */
+    @Benchmark
+    public Portfolio getPortfolio() throws SQLException {
+        return databaseService.getPortfolio(portfolioId);
+    }
+
+    /**
+     * Measures loading one portfolio with its positions consolidated per stock.
+     *
+     * @return The loaded portfolio, consumed by JMH.
+     * @throws SQLException If a database access error occurs.
+     */
+    @Benchmark
+    public Portfolio getHoldings() throws SQLException {
+        return databaseService.getHoldings(portfolioId);
+    }
+
+    /**
+     * Measures listing every portfolio header.
+     *
+     * @return The portfolios, consumed by JMH.
+     * @throws SQLException If a database access error occurs.
+     */
+    @Benchmark
+    public List<Portfolio> getAllPortfolios() throws SQLException {
+        return databaseService.getAllPortfolios();
+    }
+
+    /**
+     * Measures listing every portfolio with its value from the summary table.
+     *
+     * @return The summaries, consumed by JMH.
+     * @throws SQLException If a database access error occurs.
+     */
+    @Benchmark
+    public List<PortfolioSummary> getPortfolioSummaries() throws SQLException {
+        return databaseService.getPortfolioSummaries();
+    }
+
+    /**
+     * Measures a single-row stock lookup by symbol.
+     *
+     * @return The stock, consumed by JMH.
+     * @throws SQLException If a database access error occurs.
+     */
+    @Benchmark
+    public Stock getStockBySymbol() throws SQLException {
+        return databaseService.getStockBySymbol(TickerSymbols.symbol(0));
+    }
+}
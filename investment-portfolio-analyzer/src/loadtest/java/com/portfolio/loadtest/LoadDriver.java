@@ -0,0 +1,281 @@
+package com.portfolio.loadtest;
+
+import com.portfolio.metrics.LatencyHistogram;
+import com.portfolio.model.Portfolio;
+import com.portfolio.model.Stock;
+import com.portfolio.service.PortfolioManager;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * This class drives a weighted mix of service calls at a fixed target rate, each on its own
+ * virtual thread. The schedule is open-loop: calls are issued when they are due whether or not
+ * earlier ones have finished, and latency is measured from the time a call was due rather than
+ * when it started, so a stalled database shows up in the percentiles instead of silently
+ * lowering the offered load.
+ * <p>
+ * The operation sequence and its arguments are drawn on the scheduling thread from a seeded
+ * generator, so two runs with the same settings issue the same calls.
+ * @author Gaoussou Thiam
+ * @date 10/19/2026
+ * @see com.portfolio.loadtest.LoadTestRunner
+ */
+final class LoadDriver {
+
+
+    /** Upper bound on calls in flight, which keeps a saturated database from exhausting memory. */
+    private static final int MAX_IN_FLIGHT = 10_000;
+
+    /** The service under load. */
+    private final PortfolioManager portfolioManager;
+
+    /** The book the calls target. */
+    private final Workload workload;
+
+    /** The load settings. */
+    private final LoadTestConfig config;
+
+    /** The operations in mix order. */
+    private final Operation[] operations;
+
+    /** Cumulative mix weight of each operation. */
+    private final int[] cumulativeWeights;
+
+    /** Symbol popularity used to pick the stock of a call. */
+    private final ZipfDistribution popularity;
+
+    /** Source of the operation sequence; only used by the scheduling thread. */
+    private final SplittableRandom random;
+
+    /**
+     * Constructs a driver.
+     *
+     * @param portfolioManager The service under load.
+     * @param workload         The book the calls target.
+     * @param config           The load settings.
+     */
+    LoadDriver(PortfolioManager portfolioManager, Workload workload, LoadTestConfig config) {
+        this.portfolioManager = portfolioManager;
+        this.workload = workload;
+        this.config = config;
+        this.operations = config.mix.keySet().toArray(new Operation[0]);
+        this.cumulativeWeights = new int[operations.length];
+        int total = 0;
+        for (int i = 0; i < operations.length; i++) {
+            total += config.mix.get(operations[i]);
+            cumulativeWeights[i] = total;
+        }
+        this.popularity = new ZipfDistribution(workload.getStocks().size(), config.symbolSkew);
+        this.random = new SplittableRandom(config.seed ^ 0x5DEECE66DL);
+    }
+
+    /**
+     * Offers load for a fixed time and waits for every issued call to finish.
+     *
+     * @param seconds The length of the phase.
+     * @return The latencies and error counts of the phase.
+     * @throws InterruptedException If interrupted while waiting for calls to finish.
+     */
+    Phase run(int seconds) throws InterruptedException {
+        Phase phase = new Phase();
+        long interval = TimeUnit.SECONDS.toNanos(1) / config.rate;
+        long start = System.nanoTime();
+        long end = start + TimeUnit.SECONDS.toNanos(seconds);
+        Semaphore inFlight = new Semaphore(MAX_IN_FLIGHT);
+
+        try (ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long due = start; due < end; due += interval) {
+                long wait = due - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                Operation operation = nextOperation();
+                Runnable call = call(operation);
+                OperationStats stats = phase.stats.get(operation);
+                long dueAt = due;
+                inFlight.acquire();
+                callers.submit(() -> {
+                    long started = System.nanoTime();
+                    try {
+                        call.run();
+                    } catch (RuntimeException e) {
+                        stats.errors.increment();
+                    } finally {
+                        long finished = System.nanoTime();
+                        stats.latency.record(finished - dueAt);
+                        stats.service.record(finished - started);
+                        inFlight.release();
+                    }
+                });
+            }
+        }
+        phase.elapsedNanos = System.nanoTime() - start;
+        return phase;
+    }
+
+    /**
+     * Draws the next operation from the mix.
+     *
+     * @return The operation.
+     */
+    private Operation nextOperation() {
+        int ticket = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < operations.length; i++) {
+            if (ticket < cumulativeWeights[i]) {
+                return operations[i];
+            }
+        }
+        return operations[operations.length - 1];
+    }
+
+    /**
+     * Draws the arguments of a call and binds them to the service method.
+     *
+     * @param operation The operation to call.
+     * @return The call, which rethrows checked failures unchecked.
+     */
+    private Runnable call(Operation operation) {
+        int[] portfolioIds = workload.getPortfolioIds();
+        int portfolioId = portfolioIds[random.nextInt(portfolioIds.length)];
+        List<Stock> stocks = workload.getStocks();
+        Stock stock = stocks.get(popularity.sample(random));
+
+        return switch (operation) {
+            case GET_PORTFOLIO -> unchecked(() -> portfolioManager.getPortfolio(portfolioId));
+            case ADD_POSITION -> {
+                double quantity = 1 + random.nextInt(100);
+                double price = cents(stock.getCurrentPrice() * random.nextDouble(0.9, 1.1));
+                yield unchecked(() -> {
+                    portfolioManager.addPosition(portfolioId, stock, quantity, price);
+                    return null;
+                });
+            }
+            case UPDATE_STOCK_PRICE -> {
+                double price = cents(stock.getCurrentPrice() * random.nextDouble(0.99, 1.01));
+                yield unchecked(() -> {
+                    portfolioManager.updateStockPrice(stock.getSymbol(), price);
+                    return null;
+                });
+            }
+            case STATS -> unchecked(() -> {
+                Portfolio portfolio = portfolioManager.getPortfolio(portfolioId);
+                return portfolio == null ? null : portfolioManager.getPortfolioStats(portfolio);
+            });
+        };
+    }
+
+    /**
+     * Rounds a price to whole cents, keeping it positive as the schema requires.
+     *
+     * @param price The price.
+     * @return The rounded price, at least one cent.
+     */
+    private static double cents(double price) {
+        return Math.max(0.01, Math.round(price * 100) / 100.0);
+    }
+
+    /**
+     * Adapts a call that throws checked exceptions to a runnable.
+     *
+     * @param call The call.
+     * @return A runnable that wraps checked failures in an {@link IllegalStateException}.
+     */
+    private static Runnable unchecked(Callable<?> call) {
+        return () -> {
+            try {
+                call.call();
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        };
+    }
+
+    /**
+     * Latency and error counts of one operation during a phase.
+     */
+    static final class OperationStats {
+
+        /** Latency from when the call was due to when it finished. */
+        final LatencyHistogram latency = new LatencyHistogram();
+
+        /** Latency from when the call started to when it finished. */
+        final LatencyHistogram service = new LatencyHistogram();
+
+        /** Calls that failed. */
+        final LongAdder errors = new LongAdder();
+    }
+
+    /**
+     * Results of one load phase.
+     */
+    static final class Phase {
+
+        /** Statistics per operation. */
+        final Map<Operation, OperationStats> stats = new EnumMap<>(Operation.class);
+
+        /** Wall-clock length of the phase including the drain of in-flight calls. */
+        long elapsedNanos;
+
+        /**
+         * Constructs empty results for every operation.
+         */
+        Phase() {
+            for (Operation operation : Operation.values()) {
+                stats.put(operation, new OperationStats());
+            }
+        }
+
+        /**
+         * Formats the phase as a table of throughput and latency percentiles in milliseconds.
+         *
+         * @return The report.
+         */
+        String report() {
+            double seconds = elapsedNanos / 1e9;
+            StringBuilder report = new StringBuilder();
+            report.append(String.format("%-18s %9s %7s %10s %9s %9s %9s %9s %9s %11s%n", "operation", "calls",
+                    "errors", "ops/s", "p50", "p90", "p99", "p99.9", "max", "svc p99"));
+            long calls = 0;
+            long errors = 0;
+            for (Map.Entry<Operation, OperationStats> entry : stats.entrySet()) {
+                OperationStats operation = entry.getValue();
+                long count = operation.latency.getCount();
+                if (count == 0) {
+                    continue;
+                }
+                calls += count;
+                errors += operation.errors.sum();
+                report.append(String.format("%-18s %9d %7d %10.1f %9.3f %9.3f %9.3f %9.3f %9.3f %11.3f%n",
+                        entry.getKey().getLabel(), count, operation.errors.sum(), count / seconds,
+                        millis(operation.latency.percentile(0.50)), millis(operation.latency.percentile(0.90)),
+                        millis(operation.latency.percentile(0.99)), millis(operation.latency.percentile(0.999)),
+                        millis(operation.latency.getMaxNanos()), millis(operation.service.percentile(0.99))));
+            }
+            report.append(String.format("total: %d calls, %d errors, %.1f ops/s over %.1f s%n",
+                    calls, errors, calls / seconds, seconds));
+            return report.toString();
+        }
+
+        /**
+         * Converts nanoseconds to milliseconds.
+         *
+         * @param nanos The duration in nanoseconds.
+         * @return The duration in milliseconds.
+         */
+        private static double millis(long nanos) {
+            return nanos / 1e6;
+        }
+    }
+}
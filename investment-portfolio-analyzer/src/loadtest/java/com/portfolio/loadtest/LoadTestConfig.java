@@ -0,0 +1,160 @@
+package com.portfolio.loadtest;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * This class holds the settings of a load test, parsed from {@code name=value} arguments, with
+ * an optional leading {@code --}. Every setting has a default so the tool runs out of the box
+ * against an in-memory database.
+ * <ul>
+ *   <li>{@code portfolios}, {@code stocks}, {@code positions}: size of the generated book</li>
+ *   <li>{@code symbol-skew}: Zipf exponent of symbol popularity</li>
+ *   <li>{@code size-skew}: power-law exponent of portfolio sizes</li>
+ *   <li>{@code rate}: target operations per second</li>
+ *   <li>{@code warmup}, {@code duration}: phase lengths in seconds</li>
+ *   <li>{@code mix}: operation weights, for example {@code getPortfolio:70,addPosition:10}</li>
+ *   <li>{@code url}, {@code user}, {@code password}: target database; defaults to embedded H2</li>
+ *   <li>{@code storage}: {@code jdbc} for a database, {@code memory} for the in-memory baseline or
+ *       {@code log} for the log-structured engine in a temporary directory</li>
+ *   <li>{@code seed}: seed of the generated book and operation sequence</li>
+ * </ul>
+ * @author Gaoussou Thiam
+ * @date 10/19/2026
+ */
+final class LoadTestConfig {
+
+
+    /** Number of portfolios to create. */
+    int portfolios = 1_000;
+
+    /** Number of stocks to create. */
+    int stocks = 500;
+
+    /** Total number of positions spread over the portfolios. */
+    int positions = 50_000;
+
+    /** Zipf exponent of symbol popularity. */
+    double symbolSkew = 1.1;
+
+    /** Power-law exponent of portfolio sizes by rank. */
+    double sizeSkew = 1.0;
+
+    /** Target operations per second. */
+    int rate = 2_000;
+
+    /** Warm-up length in seconds; its results are discarded. */
+    int warmupSeconds = 10;
+
+    /** Measured run length in seconds. */
+    int durationSeconds = 30;
+
+    /** Relative weight of each operation. */
+    final Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+
+    /** JDBC URL of the target database, or null for a fresh embedded database. */
+    String url;
+
+    /** The storage to run against: {@code jdbc}, {@code memory} or {@code log}. */
+    String storage = "jdbc";
+
+    /** Database user. */
+    String user = "sa";
+
+    /** Database password. */
+    String password = "";
+
+    /** Seed of the generated book and operation sequence. */
+    long seed = 20260219L;
+
+    /**
+     * Constructs a configuration with the default read-heavy mix.
+     */
+    LoadTestConfig() {
+        mix.put(Operation.GET_PORTFOLIO, 60);
+        mix.put(Operation.ADD_POSITION, 10);
+        mix.put(Operation.UPDATE_STOCK_PRICE, 20);
+        mix.put(Operation.STATS, 10);
+    }
+
+    /**
+     * Parses command line arguments over the defaults.
+     *
+     * @param args Arguments of the form {@code name=value}.
+     * @return The configuration.
+     * @throws IllegalArgumentException If an argument is unknown or malformed.
+     */
+    static LoadTestConfig parse(String[] args) {
+        LoadTestConfig config = new LoadTestConfig();
+        for (String arg : args) {
+            String option = arg.startsWith("--") ? arg.substring(2) : arg;
+            int equals = option.indexOf('=');
+            if (equals < 0) {
+                throw new IllegalArgumentException("Expected name=value but got " + arg);
+            }
+            String name = option.substring(0, equals);
+            String value = option.substring(equals + 1);
+            switch (name) {
+                case "portfolios" -> config.portfolios = positive(name, Integer.parseInt(value));
+                case "stocks" -> config.stocks = positive(name, Integer.parseInt(value));
+                case "positions" -> config.positions = Integer.parseInt(value);
+                case "symbol-skew" -> config.symbolSkew = Double.parseDouble(value);
+                case "size-skew" -> config.sizeSkew = Double.parseDouble(value);
+                case "rate" -> config.rate = positive(name, Integer.parseInt(value));
+                case "warmup" -> config.warmupSeconds = Integer.parseInt(value);
+                case "duration" -> config.durationSeconds = positive(name, Integer.parseInt(value));
+                case "mix" -> config.parseMix(value);
+                case "storage" -> config.storage = switch (value) {
+                    case "jdbc", "memory", "log" -> value;
+                    default -> throw new IllegalArgumentException("storage must be jdbc, memory or log");
+                };
+                case "url" -> config.url = value;
+                case "user" -> config.user = value;
+                case "password" -> config.password = value;
+                case "seed" -> config.seed = Long.parseLong(value);
+                default -> throw new IllegalArgumentException("Unknown option " + name);
+            }
+        }
+        if (config.positions < config.portfolios) {
+            throw new IllegalArgumentException("positions must be at least portfolios");
+        }
+        return config;
+    }
+
+    /**
+     * Replaces the operation mix.
+     *
+     * @param value Comma-separated {@code operation:weight} pairs.
+     */
+    private void parseMix(String value) {
+        mix.clear();
+        for (String entry : value.split(",")) {
+            String[] parts = entry.split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Expected operation:weight but got " + entry);
+            }
+            int weight = Integer.parseInt(parts[1].trim());
+            if (weight < 0) {
+                throw new IllegalArgumentException("Weight of " + parts[0] + " must not be negative");
+            }
+            mix.put(Operation.fromLabel(parts[0].trim()), weight);
+        }
+        if (mix.values().stream().mapToInt(Integer::intValue).sum() == 0) {
+            throw new IllegalArgumentException("mix needs at least one positive weight");
+        }
+    }
+
+    /**
+     * Checks that a setting is positive.
+     *
+     * @param name  The setting name.
+     * @param value The value.
+     * @return The value.
+     */
+    private static int positive(String name, int value) {
+        if (value <= 0) {
+            throw new IllegalArgumentException(name + " must be positive");
+        }
+        return value;
+    }
+}
@@ -0,0 +1,102 @@
+package com.portfolio.loadtest;
+
+import com.portfolio.metrics.MetricsRegistry;
+import com.portfolio.repository.DatabaseService;
+import com.portfolio.repository.InMemoryRepository;
+import com.portfolio.repository.PortfolioRepository;
+import com.portfolio.repository.log.LogStructuredRepository;
+import com.portfolio.service.PortfolioManager;
+import com.portfolio.util.SchemaLoader;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+
+/**
+ * This is the entry point of the load test. It generates a skewed book through the service
+ * layer, offers a warm-up phase whose results are discarded, then a measured phase, and
+ * prints throughput and latency percentiles per operation followed by the repository metrics.
+ * <p>
+ * Without a {@code url} option it runs against a fresh embedded H2 database in MySQL
+ * compatibility mode created from the production schema, so no external service is needed.
+ * With one, the target database must already hold the schema. With {@code storage=memory} it
+ * runs against the in-memory repository instead, which shows how much time the database costs,
+ * and with {@code storage=log} against the log-structured engine in a fresh temporary directory.
+ * @author Gaoussou Thiam
+ * @date 10/19/2026
+ * @see com.portfolio.loadtest.LoadTestConfig
+ * @see com.portfolio.loadtest.WorkloadGenerator
+ * @see com.portfolio.loadtest.LoadDriver
+ */
+public class LoadTestRunner {
+
+
+    /**
+     * Runs the load test.
+     *
+     * @param args Options of the form {@code name=value}; see {@link LoadTestConfig}.
+     * @throws SQLException If the database cannot be prepared or loaded.
+     * @throws IOException If the log directory cannot be created.
+     * @throws InterruptedException If interrupted while running.
+     */
+    public static void main(String[] args) throws SQLException, IOException, InterruptedException {
+        LoadTestConfig config = LoadTestConfig.parse(args);
+        if (config.storage.equals("memory")) {
+            run(config, new InMemoryRepository());
+            return;
+        }
+        if (config.storage.equals("log")) {
+            try (LogStructuredRepository repository =
+                         new LogStructuredRepository(Files.createTempDirectory("portfolio-log"))) {
+                run(config, repository);
+            }
+            return;
+        }
+
+        boolean embedded = config.url == null;
+        String url = embedded
+                ? "jdbc:h2:mem:load" + System.nanoTime() + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE"
+                : config.url;
+
+        // Keep the in-memory database alive between the per-call connections.
+        try (Connection keepAlive = DriverManager.getConnection(url, config.user, config.password)) {
+            if (embedded) {
+                SchemaLoader.apply(keepAlive);
+            }
+            run(config, new DatabaseService(url, config.user, config.password));
+        }
+    }
+
+    /**
+     * Generates the book, then runs the warm-up and measured phases and prints the results.
+     *
+     * @param config     The load settings.
+     * @param repository The repository under load.
+     * @throws SQLException If the book cannot be generated.
+     * @throws InterruptedException If interrupted while running.
+     */
+    private static void run(LoadTestConfig config, PortfolioRepository repository)
+            throws SQLException, InterruptedException {
+        PortfolioManager portfolioManager = new PortfolioManager(repository);
+
+        long start = System.nanoTime();
+        Workload workload = new WorkloadGenerator(portfolioManager, config).generate();
+        System.out.printf("Generated %d stocks, %d portfolios and %d positions in %.1f s%n",
+                workload.getStocks().size(), workload.getPortfolioIds().length, workload.getPositions(),
+                (System.nanoTime() - start) / 1e9);
+
+        LoadDriver driver = new LoadDriver(portfolioManager, workload, config);
+        if (config.warmupSeconds > 0) {
+            System.out.printf("Warming up for %d s at %d ops/s%n", config.warmupSeconds, config.rate);
+            driver.run(config.warmupSeconds);
+        }
+        System.out.printf("Measuring for %d s at %d ops/s; latencies in ms from when each call was due%n",
+                config.durationSeconds, config.rate);
+        LoadDriver.Phase phase = driver.run(config.durationSeconds);
+
+        System.out.print(phase.report());
+        System.out.print(MetricsRegistry.getDefault().report());
+    }
+}
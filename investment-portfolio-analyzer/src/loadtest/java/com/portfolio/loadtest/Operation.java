@@ -0,0 +1,55 @@
+package com.portfolio.loadtest;
+
+/**
+ * This enum lists the operations the load driver can issue against the service layer.
+ * @author Gaoussou Thiam
+ * @date 10/19/2026
+ * @see com.portfolio.service.PortfolioManager
+ */
+enum Operation {
+    /** Loads a portfolio with all its positions. */
+    GET_PORTFOLIO("getPortfolio"),
+    /** Adds a position in a popular symbol to a portfolio. */
+    ADD_POSITION("addPosition"),
+    /** Moves the price of a popular symbol. */
+    UPDATE_STOCK_PRICE("updateStockPrice"),
+    /** Loads a portfolio and computes its statistics. */
+    STATS("stats");
+
+    /** The name used on the command line and in reports. */
+    private final String label;
+
+    /**
+     * Constructs an operation.
+     *
+     * @param label The name used on the command line and in reports.
+     */
+    Operation(String label) {
+        this.label = label;
+    }
+
+    /**
+     * Gets the name used on the command line and in reports.
+     *
+     * @return The label.
+     */
+    String getLabel() {
+        return label;
+    }
+
+    /**
+     * Finds an operation by its label.
+     *
+     * @param label The label, for example {@code getPortfolio}.
+     * @return The operation.
+     * @throws IllegalArgumentException If no operation has the label.
+     */
+    static Operation fromLabel(String label) {
+        for (Operation operation : values()) {
+            if (operation.label.equalsIgnoreCase(label)) {
+                return operation;
+            }
+        }
+        throw new IllegalArgumentException("Unknown operation: " + label);
+    }
+}
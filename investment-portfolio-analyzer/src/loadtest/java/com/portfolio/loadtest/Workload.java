@@ -0,0 +1,59 @@
+package com.portfolio.loadtest;
+
+import com.portfolio.model.Stock;
+
+import java.util.List;
+
+/**
+ * This class describes a generated book: the stocks in popularity order and the IDs of the
+ * portfolios, so the load driver can target them without querying the database.
+ * @author Gaoussou Thiam
+ * @date 10/19/2026
+ * @see com.portfolio.loadtest.WorkloadGenerator
+ */
+final class Workload {
+
+
+    /** The stocks, most popular first. */
+    private final List<Stock> stocks;
+
+    /** The portfolio IDs, largest portfolio first. */
+    private final int[] portfolioIds;
+
+    /** Total number of positions created. */
+    private final long positions;
+
+    /**
+     * Constructs a workload description.
+     *
+     * @param stocks       The stocks, most popular first.
+     * @param portfolioIds The portfolio IDs, largest portfolio first.
+     * @param positions    Total number of positions created.
+     */
+    Workload(List<Stock> stocks, int[] portfolioIds, long positions) {
+        this.stocks = stocks;
+        this.portfolioIds = portfolioIds;
+        this.positions = positions;
+    }
+
+    /**
+     * Gets the stocks, most popular first.
+     *
+     * @return The stocks.
+     */
+    List<Stock> getStocks() { return stocks; }
+
+    /**
+     * Gets the portfolio IDs, largest portfolio first.
+     *
+     * @return The portfolio IDs.
+     */
+    int[] getPortfolioIds() { return portfolioIds; }
+
+    /**
+     * Gets the total number of positions created.
+     *
+     * @return The position count.
+     */
+    long getPositions() { return positions; }
+}
@@ -0,0 +1,129 @@
+package com.portfolio.loadtest;
+
+import com.portfolio.model.Portfolio;
+import com.portfolio.model.Stock;
+import com.portfolio.service.PortfolioManager;
+import com.portfolio.util.TickerSymbols;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * This class creates a synthetic book through the service layer with the skew seen in
+ * production: symbol popularity follows a Zipf law, so a few symbols appear in most portfolios,
+ * and portfolio sizes follow a power law by rank, so a few portfolios hold most positions.
+ * <p>
+ * Generation is deterministic for a given seed. Portfolios are filled concurrently on virtual
+ * threads, each with its own random stream, so the result does not depend on scheduling.
+ * @author Gaoussou Thiam
+ * @date 10/19/2026
+ * @see com.portfolio.loadtest.Workload
+ */
+final class WorkloadGenerator {
+
+
+    /** Number of sectors stocks are spread over. */
+    private static final int SECTORS = 11;
+
+    /** The service the book is created through. */
+    private final PortfolioManager portfolioManager;
+
+    /** The generation settings. */
+    private final LoadTestConfig config;
+
+    /**
+     * Constructs a generator.
+     *
+     * @param portfolioManager The service the book is created through.
+     * @param config           The generation settings.
+     */
+    WorkloadGenerator(PortfolioManager portfolioManager, LoadTestConfig config) {
+        this.portfolioManager = portfolioManager;
+        this.config = config;
+    }
+
+    /**
+     * Creates the stocks, portfolios and positions.
+     *
+     * @return The generated book.
+     * @throws SQLException If a database access error occurs.
+     * @throws InterruptedException If interrupted while waiting for the loaders.
+     */
+    Workload generate() throws SQLException, InterruptedException {
+        SplittableRandom random = new SplittableRandom(config.seed);
+        List<Stock> stocks = new ArrayList<>(config.stocks);
+        for (int i = 0; i < config.stocks; i++) {
+            double price = Math.round(random.nextDouble(5.0, 500.0) * 100) / 100.0;
+            stocks.add(portfolioManager.addStock(TickerSymbols.symbol(i), "Company " + i, "Sector" + (i % SECTORS), price));
+        }
+
+        int[] sizes = portfolioSizes(config.portfolios, config.positions, config.sizeSkew);
+        int[] portfolioIds = new int[config.portfolios];
+        for (int i = 0; i < config.portfolios; i++) {
+            Portfolio portfolio = portfolioManager.createPortfolio("Load " + i, "Synthetic load test portfolio");
+            portfolioIds[i] = portfolio.getPortfolioId();
+        }
+
+        ZipfDistribution popularity = new ZipfDistribution(stocks.size(), config.symbolSkew);
+        try (ExecutorService loaders = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<Void>> loads = new ArrayList<>(config.portfolios);
+            for (int i = 0; i < config.portfolios; i++) {
+                final int rank = i;
+                loads.add(loaders.submit(() -> {
+                    SplittableRandom positions = new SplittableRandom(config.seed + 31L * (rank + 1));
+                    for (int p = 0; p < sizes[rank]; p++) {
+                        Stock stock = stocks.get(popularity.sample(positions));
+                        double purchasePrice = Math.round(stock.getCurrentPrice()
+                                * positions.nextDouble(0.5, 1.5) * 100) / 100.0;
+                        portfolioManager.addPosition(portfolioIds[rank], stock,
+                                1 + positions.nextInt(500), Math.max(0.01, purchasePrice));
+                    }
+                    return null;
+                }));
+            }
+            for (Future<Void> load : loads) {
+                load.get();
+            }
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof SQLException sqlException) {
+                throw sqlException;
+            }
+            throw new IllegalStateException("Loading positions failed", e.getCause());
+        }
+        return new Workload(List.copyOf(stocks), portfolioIds, config.positions);
+    }
+
+    /**
+     * Splits a number of positions over portfolios in proportion to {@code 1 / rank^exponent},
+     * giving every portfolio at least one position.
+     *
+     * @param portfolios The number of portfolios.
+     * @param positions  The total number of positions, at least the number of portfolios.
+     * @param exponent   The power-law exponent; 0 gives equal sizes.
+     * @return The size of each portfolio by rank, summing to the number of positions.
+     */
+    static int[] portfolioSizes(int portfolios, int positions, double exponent) {
+        double[] weights = new double[portfolios];
+        double total = 0.0;
+        for (int r = 0; r < portfolios; r++) {
+            weights[r] = 1.0 / Math.pow(r + 1, exponent);
+            total += weights[r];
+        }
+        int[] sizes = new int[portfolios];
+        int spare = positions - portfolios;
+        int assigned = 0;
+        for (int r = 0; r < portfolios; r++) {
+            sizes[r] = 1 + (int) (spare * weights[r] / total);
+            assigned += sizes[r];
+        }
+        // Rounding leaves a remainder that goes to the largest portfolio.
+        sizes[0] += positions - assigned;
+        return sizes;
+    }
+}
@@ -0,0 +1,53 @@
+package com.portfolio.loadtest;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * This class samples ranks from a Zipf distribution, where rank {@code k} is drawn with
+ * probability proportional to {@code 1 / k^s}. It models the skew of real books, in which a
+ * handful of popular symbols appear in most portfolios and receive most price updates.
+ * <p>
+ * The cumulative distribution is precomputed once, so each draw is a binary search.
+ * @author Gaoussou Thiam
+ * @date 10/19/2026
+ */
+final class ZipfDistribution {
+
+
+    /** Cumulative probability of each rank, ending at 1. */
+    private final double[] cumulative;
+
+    /**
+     * Constructs a distribution over a number of ranks.
+     *
+     * @param size     The number of ranks.
+     * @param exponent The skew exponent; 0 is uniform, around 1 is typical of real popularity.
+     */
+    ZipfDistribution(int size, double exponent) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("A Zipf distribution needs at least one rank");
+        }
+        cumulative = new double[size];
+        double total = 0.0;
+        for (int k = 0; k < size; k++) {
+            total += 1.0 / Math.pow(k + 1, exponent);
+            cumulative[k] = total;
+        }
+        for (int k = 0; k < size; k++) {
+            cumulative[k] /= total;
+        }
+        cumulative[size - 1] = 1.0;
+    }
+
+    /**
+     * Draws a rank.
+     *
+     * @param random The source of randomness.
+     * @return A zero-based rank, 0 being the most popular.
+     */
+    int sample(SplittableRandom random) {
+        int index = Arrays.binarySearch(cumulative, random.nextDouble());
+        return index >= 0 ? index : Math.min(-index - 1, cumulative.length - 1);
+    }
+}
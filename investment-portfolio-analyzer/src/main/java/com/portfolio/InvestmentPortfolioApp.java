@@ -1,12 +1,35 @@
 package com.portfolio;
 
+import com.portfolio.metrics.MetricsRegistry;
+import com.portfolio.model.CorporateAction;
 import com.portfolio.model.Portfolio;
+import com.portfolio.model.PortfolioSummary;
+import com.portfolio.model.Position;
 import com.portfolio.model.Stock;
+import com.portfolio.repository.CachingRepository;
+import com.portfolio.repository.DatabaseService;
+import com.portfolio.repository.InMemoryRepository;
+import com.portfolio.repository.PortfolioRepository;
+import com.portfolio.repository.ShardedRepository;
+import com.portfolio.repository.log.LogStructuredRepository;
+import com.portfolio.service.LazyPortfolio;
 import com.portfolio.service.PortfolioManager;
-
+import com.portfolio.service.StartupWarmer;
+import com.portfolio.service.alert.AlertEngine;
+import com.portfolio.service.price.PriceBoard;
+import com.portfolio.service.ranking.PositionRanker;
+import com.portfolio.service.ranking.RankedPosition;
+import com.portfolio.util.DatabaseConfig;
+
+import java.io.IOException;
+import java.nio.file.Path;
 import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
 import java.util.Scanner;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
 
 /**
  * This is the main application class for the Investment Portfolio Analyzer.
@@ -21,7 +44,19 @@ public class InvestmentPortfolioApp {
 
 
     /** The portfolio manager service that handles business logic. */
-    private static final PortfolioManager portfolioManager = new PortfolioManager();
+    private static PortfolioManager portfolioManager;
+
+    /** Warms the caches in the background at startup. */
+    private static StartupWarmer warmer;
+
+    /** Number of positions shown per page when browsing a portfolio. */
+    private static final int POSITION_PAGE_SIZE = 20;
+
+    /** Number of portfolios of each kind kept in the cache. */
+    private static final int PORTFOLIO_CACHE_SIZE = 1000;
+
+    /** Number of most read portfolios loaded into the cache at startup. */
+    private static final int WARM_PORTFOLIOS = 200;
 
     /** Scanner for reading user input. */
     private static final Scanner scanner = new Scanner(System.in);
@@ -29,10 +64,62 @@ public class InvestmentPortfolioApp {
     /**
      * The main method that starts the application.
      *
-     * @param args Command line arguments (not used).
+     * @param args Command line arguments; {@code --in-memory} runs standalone without a database,
+     *             {@code --local=<directory>} runs standalone, keeping data in a local log,
+     *             {@code --publish-prices=<file>} publishes price changes to a shared price board,
+     *             {@code --price-board=<file>} values portfolios at the prices on one and
+     *             {@code --warm-up=<file>} loads the portfolios read most often in earlier
+     *             sessions, as counted in the file, into the cache at startup, and
+     *             {@code --metrics-log=<seconds>} logs every metric at that interval.
      */
     public static void main(String[] args) {
         System.out.println("Welcome to Investment Portfolio Analyzer");
+        String local = option(args, "--local=");
+        Callable<PortfolioRepository> opener;
+        if (Arrays.asList(args).contains("--in-memory")) {
+            System.out.println("Running in memory; data is discarded on exit.");
+            opener = InMemoryRepository::new;
+        } else if (local != null) {
+            System.out.println("Running with local storage in " + local);
+            opener = () -> new LogStructuredRepository(Path.of(local));
+        } else {
+            opener = () -> DatabaseConfig.getShardUrls().isEmpty() ? new DatabaseService()
+                    : new ShardedRepository(DatabaseConfig.getShardUrls(), DatabaseConfig.getUser(),
+                            DatabaseConfig.getPassword());
+        }
+        // Storage is opened and warmed in the background, so the menu comes up at once.
+        CachingRepository repository = new CachingRepository(opener, PORTFOLIO_CACHE_SIZE);
+        String warmUp = option(args, "--warm-up=");
+        warmer = new StartupWarmer(repository, warmUp == null ? null : Path.of(warmUp), WARM_PORTFOLIOS);
+        warmer.start();
+
+        String publishTo = option(args, "--publish-prices=");
+        String readFrom = option(args, "--price-board=");
+        PriceBoard priceBoard = null;
+        try {
+            if (publishTo != null) {
+                priceBoard = PriceBoard.openWriter(Path.of(publishTo));
+                System.out.println("Publishing prices to " + publishTo);
+            } else if (readFrom != null) {
+                priceBoard = PriceBoard.openReader(Path.of(readFrom));
+                System.out.println("Reading prices from " + readFrom);
+            }
+        } catch (IOException e) {
+            System.out.println("Error opening price board: " + e.getMessage());
+            return;
+        }
+        AlertEngine alertEngine = new AlertEngine(alert -> System.out.println("\nALERT: " + alert));
+        portfolioManager = new PortfolioManager(repository, priceBoard, alertEngine);
+        MetricsRegistry.getDefault().publishJmx();
+        String metricsLog = option(args, "--metrics-log=");
+        if (metricsLog != null) {
+            long seconds = metricsLog.matches("\\d{1,9}") ? Long.parseLong(metricsLog) : 0;
+            if (seconds > 0) {
+                MetricsRegistry.getDefault().startLogReporter(seconds, TimeUnit.SECONDS);
+            } else {
+                System.out.println("Invalid metrics log interval: " + metricsLog);
+            }
+        }
 
         try {
             boolean running = true;
@@ -59,6 +146,21 @@ public class InvestmentPortfolioApp {
                     case 6:
                         updateStockPrice();
                         break;
+                    case 7:
+                        addPriceAlert();
+                        break;
+                    case 8:
+                        addPortfolioAlert();
+                        break;
+                    case 9:
+                        applyCorporateAction();
+                        break;
+                    case 10:
+                        browsePositions();
+                        break;
+                    case 11:
+                        rankPositions();
+                        break;
                     case 0:
                         running = false;
                         break;
@@ -67,27 +169,65 @@ public class InvestmentPortfolioApp {
                 }
             }
 
+            saveAccessCounts();
             System.out.println("Thank you for using Investment Portfolio Analyzer!");
 
         } catch (Exception e) {
             System.out.println("An error occurred: " + e.getMessage());
             e.printStackTrace();
         } finally {
+            MetricsRegistry.getDefault().stopLogReporter();
+            alertEngine.close();
             scanner.close();
         }
     }
 
+    /**
+     * Finds the value of a command line option.
+     *
+     * @param args   The command line arguments.
+     * @param prefix The option name including its equals sign.
+     * @return The value, or null if the option is absent.
+     */
+    private static String option(String[] args, String prefix) {
+        return Arrays.stream(args)
+                .filter(arg -> arg.startsWith(prefix))
+                .map(arg -> arg.substring(prefix.length()))
+                .findFirst()
+                .orElse(null);
+    }
+
+    /**
+     * Saves how often each portfolio was read, to warm the most read ones on the next start.
+     */
+    private static void saveAccessCounts() {
+        try {
+            warmer.saveAccessCounts();
+        } catch (IOException e) {
+            System.out.println("Error saving portfolio access counts: " + e.getMessage());
+        }
+    }
+
     /**
      * Displays the main menu options.
      */
     private static void printMenu() {
         System.out.println("\n===== MENU =====");
+        if (!warmer.isReady()) {
+            System.out.printf("(warming up in the background: %d of %d portfolios cached)%n", warmer.getWarmed(),
+                    warmer.getPlanned());
+        }
         System.out.println("1. Create new portfolio");
         System.out.println("2. View all portfolios");
         System.out.println("3. Add stock to database");
         System.out.println("4. Add position to portfolio");
         System.out.println("5. View portfolio details");
         System.out.println("6. Update stock price");
+        System.out.println("7. Add price alert");
+        System.out.println("8. Add portfolio drop alert");
+        System.out.println("9. Apply stock split or ticker change");
+        System.out.println("10. Browse positions page by page");
+        System.out.println("11. Rank positions across portfolios");
         System.out.println("0. Exit");
         System.out.println("================");
     }
@@ -113,15 +253,16 @@ public class InvestmentPortfolioApp {
      */
     private static void viewPortfolios() throws SQLException {
         System.out.println("\n--- All Portfolios ---");
-        var portfolios = portfolioManager.getAllPortfolios();
+        var summaries = portfolioManager.getPortfolioSummaries();
 
-        if (portfolios.isEmpty()) {
+        if (summaries.isEmpty()) {
             System.out.println("No portfolios found.");
             return;
         }
 
-        for (Portfolio p : portfolios) {
-            System.out.println(p.getPortfolioId() + ": " + p.getName());
+        for (PortfolioSummary s : summaries) {
+            System.out.printf("%d: %s (%d positions, Value: $%.2f, P/L: $%.2f)\n", s.getPortfolioId(), s.getName(),
+                    s.getPositionCount(), s.getMarketValue(), s.getUnrealizedPnL());
         }
     }
 
@@ -169,7 +310,8 @@ public class InvestmentPortfolioApp {
     }
 
     /**
-     * Displays detailed information about a portfolio including positions and statistics.
+     * Displays detailed information about a portfolio including its holdings, consolidated per
+     * stock, and statistics.
      *
      * @throws SQLException If a database access error occurs.
      */
@@ -177,7 +319,7 @@ public class InvestmentPortfolioApp {
         System.out.println("\n--- Portfolio Details ---");
         int portfolioId = getIntInput("Enter portfolio ID: ");
 
-        Portfolio portfolio = portfolioManager.getPortfolio(portfolioId);
+        Portfolio portfolio = portfolioManager.getHoldings(portfolioId);
         if (portfolio == null) {
             System.out.println("Portfolio not found.");
             return;
@@ -192,7 +334,7 @@ public class InvestmentPortfolioApp {
             return;
         }
 
-        System.out.println("\nPositions:");
+        System.out.println("\nHoldings (average cost):");
         for (var position : positions) {
             System.out.printf("%-6s %-20s %8.2f shares @ $%-8.2f Current: $%-8.2f P/L: $%.2f (%.2f%%)\n",
                     position.getStock().getSymbol(),
@@ -220,6 +362,86 @@ public class InvestmentPortfolioApp {
         }
     }
 
+    /**
+     * Displays a portfolio's totals and then its individual positions one page at a time, so
+     * a portfolio with many purchases is never loaded at once.
+     *
+     * @throws SQLException If a database access error occurs.
+     */
+    private static void browsePositions() throws SQLException {
+        System.out.println("\n--- Browse Positions ---");
+        int portfolioId = getIntInput("Enter portfolio ID: ");
+
+        LazyPortfolio portfolio = portfolioManager.getLazyPortfolio(portfolioId, POSITION_PAGE_SIZE);
+        if (portfolio == null) {
+            System.out.println("Portfolio not found.");
+            return;
+        }
+
+        PortfolioSummary summary = portfolio.getSummary();
+        System.out.println("Portfolio: " + portfolio.getName());
+        System.out.printf("Positions: %d  Value: $%.2f  Cost: $%.2f  P/L: $%.2f\n",
+                summary.getPositionCount(), summary.getMarketValue(), summary.getCostBasis(),
+                summary.getMarketValue() - summary.getCostBasis());
+
+        while (portfolio.hasMore()) {
+            List<Position> page = portfolio.nextPage();
+            for (Position position : page) {
+                System.out.printf("#%-8d %-6s %8.2f shares @ $%-8.2f Current: $%-8.2f P/L: $%.2f\n",
+                        position.getPositionId(),
+                        position.getStock().getSymbol(),
+                        position.getQuantity(),
+                        position.getPurchasePrice(),
+                        position.getStock().getCurrentPrice(),
+                        position.getUnrealizedPnL());
+            }
+            if (!portfolio.hasMore() || !getStringInput("More? (y/n) ").equalsIgnoreCase("y")) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * Displays the top or bottom positions across every portfolio by a chosen metric,
+     * optionally within one sector.
+     *
+     * @throws SQLException If a database access error occurs.
+     */
+    private static void rankPositions() throws SQLException {
+        System.out.println("\n--- Rank Positions ---");
+        PositionRanker.Metric[] metrics = PositionRanker.Metric.values();
+        for (int i = 0; i < metrics.length; i++) {
+            System.out.println((i + 1) + ". " + metrics[i]);
+        }
+        int choice = getIntInput("Rank by: ");
+        if (choice < 1 || choice > metrics.length) {
+            System.out.println("Invalid metric.");
+            return;
+        }
+        boolean top = !getStringInput("Top or bottom? (t/b) ").equalsIgnoreCase("b");
+        int count = getIntInput("How many positions: ");
+        if (count <= 0) {
+            System.out.println("Count must be positive.");
+            return;
+        }
+        String sector = getStringInput("Sector (blank for all): ").trim();
+
+        PositionRanker.Metric metric = metrics[choice - 1];
+        List<RankedPosition> ranked = top
+                ? portfolioManager.getTopPositions(metric, count, sector.isEmpty() ? null : sector)
+                : portfolioManager.getBottomPositions(metric, count, sector.isEmpty() ? null : sector);
+        if (ranked.isEmpty()) {
+            System.out.println("No positions found.");
+            return;
+        }
+        for (RankedPosition r : ranked) {
+            Position position = r.getPosition();
+            System.out.printf("%3d. %-6s %-20s #%-8d %8.2f shares  %s: %.2f\n", r.getRank(),
+                    position.getStock().getSymbol(), r.getPortfolioName(), position.getPositionId(),
+                    position.getQuantity(), metric, r.getValue());
+        }
+    }
+
     /**
      * Handles updating a stock's price.
      *
@@ -234,6 +456,70 @@ public class InvestmentPortfolioApp {
         System.out.println("Stock price updated successfully.");
     }
 
+    /**
+     * Handles applying a split, reverse split or ticker change to a stock.
+     *
+     * @throws SQLException If a database access error occurs.
+     */
+    private static void applyCorporateAction() throws SQLException {
+        System.out.println("\n--- Apply Stock Split or Ticker Change ---");
+        String symbol = getStringInput("Enter stock symbol: ");
+        String kind = getStringInput("Split (S) or ticker change (T)? ");
+
+        CorporateAction action;
+        try {
+            if (kind.equalsIgnoreCase("T")) {
+                action = new CorporateAction(symbol, getStringInput("Enter new symbol: "));
+            } else {
+                double newShares = getDoubleInput("Enter new shares per split (e.g. 4 for 4-for-1): ");
+                double oldShares = getDoubleInput("Enter old shares per split (e.g. 1 for 4-for-1): ");
+                action = new CorporateAction(symbol, newShares / oldShares);
+            }
+        } catch (IllegalArgumentException e) {
+            System.out.println(e.getMessage());
+            return;
+        }
+
+        portfolioManager.applyCorporateAction(action, List.of());
+        System.out.println("Applied " + action);
+    }
+
+    /**
+     * Handles adding an alert on a stock's price.
+     *
+     * @throws SQLException If a database access error occurs.
+     */
+    private static void addPriceAlert() throws SQLException {
+        System.out.println("\n--- Add Price Alert ---");
+        String symbol = getStringInput("Enter stock symbol: ");
+        double threshold = getDoubleInput("Enter price threshold: ");
+
+        try {
+            long ruleId = portfolioManager.addPriceAlert(symbol, threshold);
+            System.out.println("Price alert added with ID: " + ruleId);
+        } catch (IllegalArgumentException e) {
+            System.out.println(e.getMessage());
+        }
+    }
+
+    /**
+     * Handles adding an alert on a drop in a portfolio's value.
+     *
+     * @throws SQLException If a database access error occurs.
+     */
+    private static void addPortfolioAlert() throws SQLException {
+        System.out.println("\n--- Add Portfolio Drop Alert ---");
+        int portfolioId = getIntInput("Enter portfolio ID: ");
+        double dropPercent = getDoubleInput("Enter drop percentage: ");
+
+        try {
+            long ruleId = portfolioManager.addPortfolioAlert(portfolioId, dropPercent);
+            System.out.println("Portfolio alert added with ID: " + ruleId);
+        } catch (IllegalArgumentException e) {
+            System.out.println(e.getMessage());
+        }
+    }
+
     /**
      * Gets a string input from the user.
      *
@@ -0,0 +1,735 @@
+package com.portfolio.codec;
+
+import com.portfolio.model.Portfolio;
+import com.portfolio.model.Position;
+import com.portfolio.model.Stock;
+import com.portfolio.model.Transaction;
+
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * This class encodes stocks, portfolios with their positions, and transactions into a compact,
+ * versioned binary format for caching out of process or sending between services, and decodes
+ * them back.
+ * <p>
+ * Every message starts with its kind and the format version. IDs, lengths and counts are
+ * unsigned varints, prices and quantities are fixed 8-byte doubles, and dates are a zigzag
+ * varint of UTC epoch seconds followed by a varint of nanoseconds. Symbols and sectors are
+ * dictionary-encoded: the first occurrence in a message is written out and later ones refer to
+ * it by index. Stocks are dictionary-encoded the same way by ID, so the positions and
+ * transactions of one stock carry it once, and decode to one shared {@link Stock}.
+ * <p>
+ * Encoding writes strings as UTF-8 directly into the buffer and looks up the dictionaries in
+ * reusable tables, so it allocates nothing per field; decoding allocates only the model objects
+ * and their strings. A codec reuses these tables between messages, so it is not thread-safe.
+ * @author Gaoussou Thiam
+ * @date 10/19/2026
+ * @see com.portfolio.model.Portfolio
+ * @see com.portfolio.model.Transaction
+ */
+public final class ModelCodec {
+
+
+    /** Version of the format written by this codec; older versions can still be read. */
+    public static final int VERSION = 1;
+
+    /** Kind of a message holding one stock. */
+    static final byte STOCK = 1;
+
+    /** Kind of a message holding one portfolio and its positions. */
+    static final byte PORTFOLIO = 2;
+
+    /** Kind of a message holding a list of transactions. */
+    static final byte TRANSACTIONS = 3;
+
+    /** Dictionary reference for null. */
+    private static final int NULL_REFERENCE = 0;
+
+    /** Dictionary reference for a new entry written out in full; higher ones are indexes plus 2. */
+    private static final int NEW_REFERENCE = 1;
+
+    /** Transaction types by ordinal. */
+    private static final Transaction.TransactionType[] TRANSACTION_TYPES = Transaction.TransactionType.values();
+
+    /** Strings written in the current message, for encoding. */
+    private final ReferenceTable encodedStrings = new ReferenceTable();
+
+    /** Stock IDs written in the current message, for encoding. */
+    private final ReferenceTable encodedStocks = new ReferenceTable();
+
+    /** Strings read in the current message, by index. */
+    private String[] decodedStrings = new String[16];
+
+    /** The number of strings read in the current message. */
+    private int decodedStringCount;
+
+    /** Stocks read in the current message, by index. */
+    private Stock[] decodedStocks = new Stock[16];
+
+    /** The number of stocks read in the current message. */
+    private int decodedStockCount;
+
+    /** Scratch space for decoding strings from buffers without an accessible array. */
+    private byte[] scratch = new byte[64];
+
+    /**
+     * Encodes a stock.
+     *
+     * @param stock  The stock.
+     * @param target The buffer to write to, from its position.
+     * @throws BufferOverflowException If the buffer is too small; its content is then undefined.
+     */
+    public void encode(Stock stock, ByteBuffer target) {
+        beginEncoding(target, STOCK);
+        putStock(target, stock);
+    }
+
+    /**
+     * Encodes a portfolio with its positions.
+     *
+     * @param portfolio The portfolio.
+     * @param target    The buffer to write to, from its position.
+     * @throws BufferOverflowException If the buffer is too small; its content is then undefined.
+     */
+    public void encode(Portfolio portfolio, ByteBuffer target) {
+        beginEncoding(target, PORTFOLIO);
+        putVarint(target, portfolio.getPortfolioId());
+        putString(target, portfolio.getName());
+        putString(target, portfolio.getDescription());
+        putDate(target, portfolio.getCreationDate());
+        List<Position> positions = portfolio.getPositions();
+        putVarint(target, positions.size());
+        for (Position position : positions) {
+            putVarint(target, position.getPositionId());
+            putStock(target, position.getStock());
+            target.putDouble(position.getQuantity());
+            target.putDouble(position.getPurchasePrice());
+            putDate(target, position.getPurchaseDate());
+        }
+    }
+
+    /**
+     * Encodes a list of transactions.
+     *
+     * @param transactions The transactions.
+     * @param target       The buffer to write to, from its position.
+     * @throws BufferOverflowException If the buffer is too small; its content is then undefined.
+     */
+    public void encode(List<Transaction> transactions, ByteBuffer target) {
+        beginEncoding(target, TRANSACTIONS);
+        putVarint(target, transactions.size());
+        for (Transaction transaction : transactions) {
+            putVarint(target, transaction.getTransactionId());
+            putVarint(target, transaction.getPortfolioId());
+            putStock(target, transaction.getStock());
+            target.put((byte) transaction.getType().ordinal());
+            target.putDouble(transaction.getQuantity());
+            target.putDouble(transaction.getPrice());
+            putDate(target, transaction.getTransactionDate());
+        }
+    }
+
+    /**
+     * Decodes a stock.
+     *
+     * @param source The buffer to read from, from its position.
+     * @return The stock.
+     * @throws IllegalArgumentException If the message is not a stock, has an unknown version or
+     *                                  is malformed.
+     * @throws BufferUnderflowException If the message is truncated.
+     */
+    public Stock decodeStock(ByteBuffer source) {
+        beginDecoding(source, STOCK);
+        return getStock(source);
+    }
+
+    /**
+     * Decodes a portfolio with its positions.
+     *
+     * @param source The buffer to read from, from its position.
+     * @return The portfolio.
+     * @throws IllegalArgumentException If the message is not a portfolio, has an unknown version
+     *                                  or is malformed.
+     * @throws BufferUnderflowException If the message is truncated.
+     */
+    public Portfolio decodePortfolio(ByteBuffer source) {
+        beginDecoding(source, PORTFOLIO);
+        int portfolioId = getVarint(source);
+        Portfolio portfolio = new Portfolio(getString(source), getString(source), getDate(source));
+        portfolio.setPortfolioId(portfolioId);
+        int count = getCount(source);
+        for (int i = 0; i < count; i++) {
+            int positionId = getVarint(source);
+            Position position = new Position(getStock(source), source.getDouble(), source.getDouble(),
+                    getDate(source));
+            position.setPositionId(positionId);
+            portfolio.addPosition(position);
+        }
+        return portfolio;
+    }
+
+    /**
+     * Decodes a list of transactions.
+     *
+     * @param source The buffer to read from, from its position.
+     * @return The transactions, in encoded order.
+     * @throws IllegalArgumentException If the message is not a transaction list, has an unknown
+     *                                  version or is malformed.
+     * @throws BufferUnderflowException If the message is truncated.
+     */
+    public List<Transaction> decodeTransactions(ByteBuffer source) {
+        beginDecoding(source, TRANSACTIONS);
+        int count = getCount(source);
+        List<Transaction> transactions = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int transactionId = getVarint(source);
+            int portfolioId = getVarint(source);
+            Stock stock = getStock(source);
+            int type = source.get();
+            if (type < 0 || type >= TRANSACTION_TYPES.length) {
+                throw new IllegalArgumentException("Unknown transaction type " + type);
+            }
+            Transaction transaction = new Transaction(portfolioId, stock, TRANSACTION_TYPES[type], source.getDouble(),
+                    source.getDouble(), getDate(source));
+            transaction.setTransactionId(transactionId);
+            transactions.add(transaction);
+        }
+        return transactions;
+    }
+
+    /**
+     * Writes the header of a message and clears the encoding dictionaries.
+     *
+     * @param target The buffer.
+     * @param kind   The kind of message.
+     */
+    private void beginEncoding(ByteBuffer target, byte kind) {
+        encodedStrings.clear();
+        encodedStocks.clear();
+        target.put(kind);
+        putVarint(target, VERSION);
+    }
+
+    /**
+     * Reads and checks the header of a message and clears the decoding dictionaries.
+     *
+     * @param source The buffer.
+     * @param kind   The expected kind of message.
+     */
+    private void beginDecoding(ByteBuffer source, byte kind) {
+        Arrays.fill(decodedStrings, 0, decodedStringCount, null);
+        Arrays.fill(decodedStocks, 0, decodedStockCount, null);
+        decodedStringCount = 0;
+        decodedStockCount = 0;
+        byte actual = source.get();
+        if (actual != kind) {
+            throw new IllegalArgumentException("Expected message kind " + kind + " but found " + actual);
+        }
+        int version = getVarint(source);
+        if (version < 1 || version > VERSION) {
+            throw new IllegalArgumentException("Unsupported codec version " + version);
+        }
+    }
+
+    /**
+     * Writes a stock, or a reference to one already written in this message.
+     *
+     * @param target The buffer.
+     * @param stock  The stock, or null.
+     */
+    private void putStock(ByteBuffer target, Stock stock) {
+        if (stock == null) {
+            putVarint(target, NULL_REFERENCE);
+            return;
+        }
+        // Unsaved stocks have no ID to share, so each is written in full.
+        int stockId = stock.getStockId();
+        if (stockId != 0) {
+            int index = encodedStocks.indexOf(stockId);
+            if (index >= 0) {
+                putVarint(target, index + 2);
+                return;
+            }
+            encodedStocks.add(stockId);
+        }
+        putVarint(target, NEW_REFERENCE);
+        putVarint(target, stockId);
+        putDictionaryString(target, stock.getSymbol());
+        putString(target, stock.getCompanyName());
+        putDictionaryString(target, stock.getSector());
+        target.putDouble(stock.getCurrentPrice());
+        putDate(target, stock.getLastUpdated());
+    }
+
+    /**
+     * Reads a stock, or resolves a reference to one already read in this message.
+     *
+     * @param source The buffer.
+     * @return The stock, or null.
+     */
+    private Stock getStock(ByteBuffer source) {
+        int reference = getVarint(source);
+        if (reference == NULL_REFERENCE) {
+            return null;
+        }
+        if (reference != NEW_REFERENCE) {
+            return resolve(decodedStocks, decodedStockCount, reference);
+        }
+        int stockId = getVarint(source);
+        Stock stock = new Stock(getDictionaryString(source), getString(source), getDictionaryString(source),
+                source.getDouble(), getDate(source));
+        stock.setStockId(stockId);
+        if (stockId != 0) {
+            if (decodedStockCount == decodedStocks.length) {
+                decodedStocks = Arrays.copyOf(decodedStocks, decodedStockCount * 2);
+            }
+            decodedStocks[decodedStockCount++] = stock;
+        }
+        return stock;
+    }
+
+    /**
+     * Writes a string from a small, repetitive set, or a reference to it if already written in
+     * this message.
+     *
+     * @param target The buffer.
+     * @param value  The string, or null.
+     */
+    private void putDictionaryString(ByteBuffer target, String value) {
+        if (value == null) {
+            putVarint(target, NULL_REFERENCE);
+            return;
+        }
+        int index = encodedStrings.indexOf(value);
+        if (index >= 0) {
+            putVarint(target, index + 2);
+            return;
+        }
+        encodedStrings.add(value);
+        putVarint(target, NEW_REFERENCE);
+        putUtf8(target, value);
+    }
+
+    /**
+     * Reads a dictionary-encoded string.
+     *
+     * @param source The buffer.
+     * @return The string, or null.
+     */
+    private String getDictionaryString(ByteBuffer source) {
+        int reference = getVarint(source);
+        if (reference == NULL_REFERENCE) {
+            return null;
+        }
+        if (reference != NEW_REFERENCE) {
+            return resolve(decodedStrings, decodedStringCount, reference);
+        }
+        String value = getUtf8(source);
+        if (decodedStringCount == decodedStrings.length) {
+            decodedStrings = Arrays.copyOf(decodedStrings, decodedStringCount * 2);
+        }
+        decodedStrings[decodedStringCount++] = value;
+        return value;
+    }
+
+    /**
+     * Resolves a dictionary reference.
+     *
+     * @param entries   The entries read so far.
+     * @param count     The number of entries.
+     * @param reference The reference.
+     * @param <T>       The type of entry.
+     * @return The entry.
+     */
+    private static <T> T resolve(T[] entries, int count, int reference) {
+        int index = reference - 2;
+        if (index < 0 || index >= count) {
+            throw new IllegalArgumentException("Dangling dictionary reference " + reference);
+        }
+        return entries[index];
+    }
+
+    /**
+     * Writes a nullable string that is not dictionary-encoded.
+     *
+     * @param target The buffer.
+     * @param value  The string, or null.
+     */
+    private static void putString(ByteBuffer target, String value) {
+        if (value == null) {
+            putVarint(target, NULL_REFERENCE);
+            return;
+        }
+        putVarint(target, NEW_REFERENCE);
+        putUtf8(target, value);
+    }
+
+    /**
+     * Reads a nullable string that is not dictionary-encoded.
+     *
+     * @param source The buffer.
+     * @return The string, or null.
+     */
+    private String getString(ByteBuffer source) {
+        int reference = getVarint(source);
+        if (reference == NULL_REFERENCE) {
+            return null;
+        }
+        if (reference != NEW_REFERENCE) {
+            throw new IllegalArgumentException("Unexpected string reference " + reference);
+        }
+        return getUtf8(source);
+    }
+
+    /**
+     * Writes a string as its UTF-8 length and bytes, encoding it directly into the buffer.
+     * Unpaired surrogates are written as '?', as {@link String#getBytes} does.
+     *
+     * @param target The buffer.
+     * @param value  The string.
+     */
+    private static void putUtf8(ByteBuffer target, String value) {
+        int length = value.length();
+        int size = 0;
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                size++;
+            } else if (c < 0x800) {
+                size += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < length
+                    && Character.isLowSurrogate(value.charAt(i + 1))) {
+                size += 4;
+                i++;
+            } else {
+                size += Character.isSurrogate(c) ? 1 : 3;
+            }
+        }
+        putVarint(target, size);
+        if (target.remaining() < size) {
+            throw new BufferOverflowException();
+        }
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                target.put((byte) c);
+            } else if (c < 0x800) {
+                target.put((byte) (0xC0 | c >> 6));
+                target.put((byte) (0x80 | c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < length
+                    && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                target.put((byte) (0xF0 | codePoint >> 18));
+                target.put((byte) (0x80 | codePoint >> 12 & 0x3F));
+                target.put((byte) (0x80 | codePoint >> 6 & 0x3F));
+                target.put((byte) (0x80 | codePoint & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                target.put((byte) '?');
+            } else {
+                target.put((byte) (0xE0 | c >> 12));
+                target.put((byte) (0x80 | c >> 6 & 0x3F));
+                target.put((byte) (0x80 | c & 0x3F));
+            }
+        }
+    }
+
+    /**
+     * Reads a string written by {@link #putUtf8}.
+     *
+     * @param source The buffer.
+     * @return The string.
+     */
+    private String getUtf8(ByteBuffer source) {
+        int size = getVarint(source);
+        if (size < 0 || size > source.remaining()) {
+            throw new IllegalArgumentException("String of " + size + " bytes overruns the message");
+        }
+        String value;
+        if (source.hasArray()) {
+            value = new String(source.array(), source.arrayOffset() + source.position(), size, StandardCharsets.UTF_8);
+            source.position(source.position() + size);
+        } else {
+            if (scratch.length < size) {
+                scratch = new byte[Math.max(size, scratch.length * 2)];
+            }
+            source.get(scratch, 0, size);
+            value = new String(scratch, 0, size, StandardCharsets.UTF_8);
+        }
+        return value;
+    }
+
+    /**
+     * Reads the number of entries that follow, each at least one byte long.
+     *
+     * @param source The buffer.
+     * @return The count.
+     * @throws IllegalArgumentException If the count is negative or more than the bytes left.
+     */
+    private static int getCount(ByteBuffer source) {
+        int count = getVarint(source);
+        if (count < 0 || count > source.remaining()) {
+            throw new IllegalArgumentException("Count of " + count + " entries overruns the message");
+        }
+        return count;
+    }
+
+    /**
+     * Writes a nullable date as zigzag epoch seconds plus one, so that 0 means null, followed by
+     * the nanoseconds.
+     *
+     * @param target The buffer.
+     * @param date   The date, or null.
+     */
+    private static void putDate(ByteBuffer target, LocalDateTime date) {
+        if (date == null) {
+            putVarlong(target, 0);
+            return;
+        }
+        long seconds = date.toEpochSecond(ZoneOffset.UTC);
+        putVarlong(target, ((seconds << 1) ^ (seconds >> 63)) + 1);
+        putVarint(target, date.getNano());
+    }
+
+    /**
+     * Reads a date written by {@link #putDate}.
+     *
+     * @param source The buffer.
+     * @return The date, or null.
+     */
+    private static LocalDateTime getDate(ByteBuffer source) {
+        long encoded = getVarlong(source);
+        if (encoded == 0) {
+            return null;
+        }
+        long zigzag = encoded - 1;
+        long seconds = (zigzag >>> 1) ^ -(zigzag & 1);
+        return LocalDateTime.ofEpochSecond(seconds, getVarint(source), ZoneOffset.UTC);
+    }
+
+    /**
+     * Writes an int as an unsigned varint of 1 to 5 bytes.
+     *
+     * @param target The buffer.
+     * @param value  The value.
+     */
+    static void putVarint(ByteBuffer target, int value) {
+        while ((value & ~0x7F) != 0) {
+            target.put((byte) (value & 0x7F | 0x80));
+            value >>>= 7;
+        }
+        target.put((byte) value);
+    }
+
+    /**
+     * Reads an unsigned varint.
+     *
+     * @param source The buffer.
+     * @return The value.
+     */
+    static int getVarint(ByteBuffer source) {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            byte b = source.get();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint");
+    }
+
+    /**
+     * Writes a long as an unsigned varint of 1 to 10 bytes.
+     *
+     * @param target The buffer.
+     * @param value  The value.
+     */
+    static void putVarlong(ByteBuffer target, long value) {
+        while ((value & ~0x7FL) != 0) {
+            target.put((byte) (value & 0x7F | 0x80));
+            value >>>= 7;
+        }
+        target.put((byte) value);
+    }
+
+    /**
+     * Reads an unsigned varint of up to 64 bits.
+     *
+     * @param source The buffer.
+     * @return The value.
+     */
+    static long getVarlong(ByteBuffer source) {
+        long value = 0;
+        for (int shift = 0; shift < 70; shift += 7) {
+            byte b = source.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint");
+    }
+
+    /**
+     * An open-addressing table from strings or ints to the order they were added in, cleared
+     * in constant time between messages by bumping a generation number instead of wiping the
+     * slots. Int keys are stored unboxed, so lookups never allocate.
+     */
+    private static final class ReferenceTable {
+
+        /** The string keys, by slot; null for int keys. */
+        private String[] keys = new String[64];
+
+        /** The hash code of each slot's key; the key itself for int keys. */
+        private int[] hashes = new int[64];
+
+        /** The index of each slot's key. */
+        private int[] indexes = new int[64];
+
+        /** The generation each slot was filled in; slots of older generations are empty. */
+        private int[] generations = new int[64];
+
+        /** The current generation. */
+        private int generation = 1;
+
+        /** The number of keys in the current generation. */
+        private int size;
+
+        /**
+         * Empties the table.
+         */
+        void clear() {
+            size = 0;
+            if (++generation == 0) {
+                Arrays.fill(generations, 0);
+                generation = 1;
+            }
+        }
+
+        /**
+         * Finds the index of a string key.
+         *
+         * @param key The key.
+         * @return The order it was added in, or -1 if absent.
+         */
+        int indexOf(String key) {
+            return find(key, key.hashCode());
+        }
+
+        /**
+         * Finds the index of an int key.
+         *
+         * @param key The key.
+         * @return The order it was added in, or -1 if absent.
+         */
+        int indexOf(int key) {
+            return find(null, key);
+        }
+
+        /**
+         * Adds a string key that is not in the table, giving it the next index.
+         *
+         * @param key The key.
+         */
+        void add(String key) {
+            add(key, key.hashCode());
+        }
+
+        /**
+         * Adds an int key that is not in the table, giving it the next index.
+         *
+         * @param key The key.
+         */
+        void add(int key) {
+            add(null, key);
+        }
+
+        /**
+         * Finds the index of a key.
+         *
+         * @param key  The string key, or null for an int key.
+         * @param hash The hash code of the string key, or the int key.
+         * @return The order it was added in, or -1 if absent.
+         */
+        private int find(String key, int hash) {
+            int mask = keys.length - 1;
+            for (int slot = spread(hash) & mask; generations[slot] == generation; slot = (slot + 1) & mask) {
+                if (hashes[slot] == hash && (key == null ? keys[slot] == null : key.equals(keys[slot]))) {
+                    return indexes[slot];
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * Adds a key, giving it the next index.
+         *
+         * @param key  The string key, or null for an int key.
+         * @param hash The hash code of the string key, or the int key.
+         */
+        private void add(String key, int hash) {
+            if ((size + 1) * 2 > keys.length) {
+                grow();
+            }
+            insert(key, hash, size++);
+        }
+
+        /**
+         * Places a key in its slot.
+         *
+         * @param key   The string key, or null for an int key.
+         * @param hash  The hash code of the string key, or the int key.
+         * @param index Its index.
+         */
+        private void insert(String key, int hash, int index) {
+            int mask = keys.length - 1;
+            int slot = spread(hash) & mask;
+            while (generations[slot] == generation) {
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = key;
+            hashes[slot] = hash;
+            indexes[slot] = index;
+            generations[slot] = generation;
+        }
+
+        /**
+         * Doubles the number of slots, keeping the keys of the current generation.
+         */
+        private void grow() {
+            String[] oldKeys = keys;
+            int[] oldHashes = hashes;
+            int[] oldIndexes = indexes;
+            int[] oldGenerations = generations;
+            int capacity = oldKeys.length * 2;
+            keys = new String[capacity];
+            hashes = new int[capacity];
+            indexes = new int[capacity];
+            generations = new int[capacity];
+            for (int slot = 0; slot < oldKeys.length; slot++) {
+                if (oldGenerations[slot] == generation) {
+                    insert(oldKeys[slot], oldHashes[slot], oldIndexes[slot]);
+                }
+            }
+        }
+
+        /**
+         * Spreads the bits of a hash code so that consecutive IDs do not cluster.
+         *
+         * @param hash The hash code.
+         * @return The spread hash.
+         */
+        private static int spread(int hash) {
+            hash *= 0x9E3779B9;
+            return hash ^ (hash >>> 16);
+        }
+    }
+}
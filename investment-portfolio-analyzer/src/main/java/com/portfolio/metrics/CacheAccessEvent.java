@@ -0,0 +1,35 @@
+package com.portfolio.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * This is the Flight Recorder event emitted for every cache lookup, recording the cache and
+ * whether the lookup hit. Lookups are frequent, so the event is disabled by default and
+ * records no stack trace; enable it with {@code com.portfolio.CacheAccess#enabled=true}.
+ * @author Gaoussou Thiam
+ * @date 10/19/2026
+ * @see com.portfolio.metrics.MetricsRegistry#recordCacheHit(String)
+ */
+@Name("com.portfolio.CacheAccess")
+@Label("Cache Access")
+@Category({"Portfolio Analyzer", "Cache"})
+@Description("A lookup in an application cache")
+@Enabled(false)
+@StackTrace(false)
+final class CacheAccessEvent extends Event {
+
+
+    /** The cache looked up. */
+    @Label("Cache")
+    String cache;
+
+    /** Whether the lookup hit. */
+    @Label("Hit")
+    boolean hit;
+}
@@ -0,0 +1,54 @@
+package com.portfolio.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * This is the Flight Recorder event emitted for every {@code DatabaseService} call. It records
+ * the operation, the parameterised SQL it ran, which identifies the query shape without leaking
+ * values, and the number of rows read or written.
+ * <p>
+ * Every recording captures it unless {@code com.portfolio.DatabaseQuery#enabled=false} is set. When no
+ * recording has it enabled, {@link #shouldCommit()} is false and the JIT removes the event entirely.
+ * @author Gaoussou Thiam
+ * @date 10/19/2026
+ * @see com.portfolio.repository.DatabaseService
+ */
+@Name("com.portfolio.DatabaseQuery")
+@Label("Database Query")
+@Category({"Portfolio Analyzer", "Database"})
+@Description("A call into the database repository")
+public final class DatabaseQueryEvent extends Event {
+
+
+    /** The repository operation, for example {@code DatabaseService.getPortfolio}. */
+    @Label("Operation")
+    String operation;
+
+    /** The parameterised SQL statement. */
+    @Label("SQL")
+    String sql;
+
+    /** The rows read or written. */
+    @Label("Rows")
+    long rows;
+
+    /**
+     * Ends the event and commits it if a recording has it enabled and it exceeds the threshold.
+     *
+     * @param operation The repository operation.
+     * @param sql       The parameterised SQL statement.
+     * @param rows      The rows read or written.
+     */
+    public void complete(String operation, String sql, long rows) {
+        if (shouldCommit()) {
+            this.operation = operation;
+            this.sql = sql;
+            this.rows = rows;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.portfolio.metrics;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This class records latencies into HDR-style log-linear buckets. Each power of two is split
+ * into 16 linear sub-buckets, which bounds the relative error of any reported percentile to
+ * about 6% across the full range from nanoseconds to hours.
+ * <p>
+ * Every bucket is a striped {@link LongAdder}, so recording is lock-free and stays cheap under
+ * contention. Percentiles are computed on demand from a point-in-time read of the buckets.
+ * @author Gaoussou Thiam
+ * @date 10/19/2026
+ * @see com.portfolio.metrics.MetricsRegistry
+ */
+public final class LatencyHistogram {
+
+
+    /** Number of bits used for the linear sub-buckets of each power of two. */
+    private static final int SUB_BUCKET_BITS = 4;
+
+    /** Number of linear sub-buckets per power of two. */
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    /** Number of buckets needed to cover every non-negative long. */
+    private static final int BUCKET_COUNT = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    /** Count of recorded values per bucket. */
+    private final LongAdder[] buckets = new LongAdder[BUCKET_COUNT];
+
+    /** Total number of recorded values. */
+    private final LongAdder count = new LongAdder();
+
+    /** Sum of recorded values in nanoseconds. */
+    private final LongAdder sum = new LongAdder();
+
+    /** Largest recorded value in nanoseconds. */
+    private final LongAccumulator max = new LongAccumulator(Long::max, 0L);
+
+    /**
+     * Constructs an empty histogram.
+     */
+    public LatencyHistogram() {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Records one latency.
+     *
+     * @param nanos The latency in nanoseconds; negative values are recorded as zero.
+     */
+    public void record(long nanos) {
+        long value = Math.max(0L, nanos);
+        buckets[index(value)].increment();
+        count.increment();
+        sum.add(value);
+        max.accumulate(value);
+    }
+
+    /**
+     * Gets the number of recorded values.
+     *
+     * @return The count.
+     */
+    public long getCount() { return count.sum(); }
+
+    /**
+     * Gets the mean recorded latency.
+     *
+     * @return The mean in nanoseconds, or 0 if nothing was recorded.
+     */
+    public double getMeanNanos() {
+        long n = count.sum();
+        return n == 0 ? 0.0 : (double) sum.sum() / n;
+    }
+
+    /**
+     * Gets the largest recorded latency.
+     *
+     * @return The maximum in nanoseconds.
+     */
+    public long getMaxNanos() { return max.get(); }
+
+    /**
+     * Estimates a percentile of the recorded latencies.
+     *
+     * @param quantile The quantile, for example 0.99 for p99.
+     * @return The upper bound of the bucket holding the quantile, in nanoseconds, capped at
+     *         the recorded maximum; 0 if nothing was recorded.
+     */
+    public long percentile(double quantile) {
+        long[] counts = new long[BUCKET_COUNT];
+        long total = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts[i] = buckets[i].sum();
+            total += counts[i];
+        }
+        if (total == 0) {
+            return 0L;
+        }
+        long rank = Math.max(1L, (long) Math.ceil(quantile * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(upperBound(i), max.get());
+            }
+        }
+        return max.get();
+    }
+
+    /**
+     * Maps a value to its bucket.
+     *
+     * @param value A non-negative value.
+     * @return The bucket index.
+     */
+    static int index(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int shift = exponent - SUB_BUCKET_BITS;
+        return (shift + 1) * SUB_BUCKETS + (int) ((value >>> shift) - SUB_BUCKETS);
+    }
+
+    /**
+     * Gets the largest value that maps to a bucket.
+     *
+     * @param index The bucket index.
+     * @return The bucket's inclusive upper bound.
+     */
+    static long upperBound(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int shift = index / SUB_BUCKETS - 1;
+        long subBucket = index % SUB_BUCKETS + SUB_BUCKETS;
+        long upper = ((subBucket + 1) << shift) - 1;
+        return upper < 0 ? Long.MAX_VALUE : upper;
+    }
+}
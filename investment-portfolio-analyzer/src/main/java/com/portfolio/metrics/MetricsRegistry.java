@@ -0,0 +1,323 @@
+package com.portfolio.metrics;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This class collects the application's performance metrics: a latency histogram per
+ * repository and service operation, plus counters for rows read and written, connection
+ * acquisition and cache activity. Recording only touches striped {@link LongAdder}s, so it
+ * is lock-free and does not become a bottleneck itself.
+ * <p>
+ * Metrics can be published as JMX MBeans under the {@code com.portfolio} domain and dumped
+ * periodically to the log.
+ * @author Gaoussou Thiam
+ * @date 10/19/2026
+ * @see com.portfolio.metrics.LatencyHistogram
+ * @see com.portfolio.metrics.OperationMetricsMXBean
+ * @see com.portfolio.metrics.RepositoryMetricsMXBean
+ */
+public final class MetricsRegistry implements RepositoryMetricsMXBean {
+
+
+    /** Logger used by the periodic metrics dump. */
+    private static final Logger logger = LoggerFactory.getLogger(MetricsRegistry.class);
+
+    /** The JMX domain metrics are published under. */
+    private static final String JMX_DOMAIN = "com.portfolio";
+
+    /** The registry shared by the application. */
+    private static final MetricsRegistry DEFAULT = new MetricsRegistry();
+
+    /** Latency histogram per operation name. */
+    private final Map<String, LatencyHistogram> timers = new ConcurrentHashMap<>();
+
+    /** Rows read from the database. */
+    private final LongAdder rowsRead = new LongAdder();
+
+    /** Rows written to the database. */
+    private final LongAdder rowsWritten = new LongAdder();
+
+    /** Connections acquired. */
+    private final LongAdder connectionsAcquired = new LongAdder();
+
+    /** Total nanoseconds spent acquiring connections. */
+    private final LongAdder poolWaitNanos = new LongAdder();
+
+    /** Cache hits. */
+    private final LongAdder cacheHits = new LongAdder();
+
+    /** Cache misses. */
+    private final LongAdder cacheMisses = new LongAdder();
+
+    /** The MBean server metrics are published to, or null if not published. */
+    private volatile MBeanServer mbeanServer;
+
+    /** The scheduler running the periodic log dump, or null if not started. */
+    private ScheduledExecutorService reporter;
+
+    /**
+     * Gets the registry shared by the application.
+     *
+     * @return The default registry.
+     */
+    public static MetricsRegistry getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Gets or creates the latency histogram of an operation.
+     *
+     * @param operation The operation name, for example {@code DatabaseService.getPortfolio}.
+     * @return The histogram.
+     */
+    public LatencyHistogram timer(String operation) {
+        LatencyHistogram timer = timers.get(operation);
+        if (timer != null) {
+            return timer;
+        }
+        return timers.computeIfAbsent(operation, name -> {
+            LatencyHistogram created = new LatencyHistogram();
+            MBeanServer server = mbeanServer;
+            if (server != null) {
+                register(server, name, created);
+            }
+            return created;
+        });
+    }
+
+    /**
+     * Records the latency of an operation that started at the given time.
+     *
+     * @param operation  The operation name.
+     * @param startNanos The {@link System#nanoTime()} value taken when the operation started.
+     */
+    public void recordLatency(String operation, long startNanos) {
+        timer(operation).record(System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Adds to the number of rows read.
+     *
+     * @param rows The rows read.
+     */
+    public void addRowsRead(long rows) { rowsRead.add(rows); }
+
+    /**
+     * Adds to the number of rows written.
+     *
+     * @param rows The rows written.
+     */
+    public void addRowsWritten(long rows) { rowsWritten.add(rows); }
+
+    /**
+     * Records one connection acquisition and the time spent waiting for it.
+     *
+     * @param nanos The wait in nanoseconds.
+     */
+    public void recordPoolWait(long nanos) {
+        connectionsAcquired.increment();
+        poolWaitNanos.add(nanos);
+    }
+
+    /**
+     * Records a cache hit and emits a {@code com.portfolio.CacheAccess} Flight Recorder event
+     * if one is enabled.
+     *
+     * @param cache The name of the cache.
+     */
+    public void recordCacheHit(String cache) {
+        cacheHits.increment();
+        emitCacheAccess(cache, true);
+    }
+
+    /**
+     * Records a cache miss and emits a {@code com.portfolio.CacheAccess} Flight Recorder event
+     * if one is enabled.
+     *
+     * @param cache The name of the cache.
+     */
+    public void recordCacheMiss(String cache) {
+        cacheMisses.increment();
+        emitCacheAccess(cache, false);
+    }
+
+    @Override
+    public long getRowsRead() { return rowsRead.sum(); }
+
+    @Override
+    public long getRowsWritten() { return rowsWritten.sum(); }
+
+    @Override
+    public long getConnectionsAcquired() { return connectionsAcquired.sum(); }
+
+    @Override
+    public double getPoolWaitMillis() { return poolWaitNanos.sum() / 1_000_000.0; }
+
+    @Override
+    public long getCacheHits() { return cacheHits.sum(); }
+
+    @Override
+    public long getCacheMisses() { return cacheMisses.sum(); }
+
+    @Override
+    public double getCacheHitRatio() {
+        long hits = cacheHits.sum();
+        long lookups = hits + cacheMisses.sum();
+        return lookups == 0 ? 0.0 : (double) hits / lookups;
+    }
+
+    /**
+     * Publishes the counters and every current and future operation histogram as MBeans on the
+     * platform MBean server. Calling it again has no effect.
+     */
+    public synchronized void publishJmx() {
+        if (mbeanServer != null) {
+            return;
+        }
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            ObjectName name = new ObjectName(JMX_DOMAIN + ":type=Repository");
+            if (!server.isRegistered(name)) {
+                server.registerMBean(this, name);
+            }
+        } catch (JMException e) {
+            logger.warn("Unable to register repository metrics MBean", e);
+        }
+        mbeanServer = server;
+        timers.forEach((operation, timer) -> register(server, operation, timer));
+    }
+
+    /**
+     * Starts dumping every metric to the log at a fixed period on a daemon thread.
+     * Calling it again has no effect.
+     *
+     * @param period The period between dumps.
+     * @param unit   The unit of the period.
+     */
+    public synchronized void startLogReporter(long period, TimeUnit unit) {
+        if (reporter != null) {
+            return;
+        }
+        reporter = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "metrics-reporter");
+            thread.setDaemon(true);
+            return thread;
+        });
+        reporter.scheduleAtFixedRate(() -> logger.info("{}", report()), period, period, unit);
+    }
+
+    /**
+     * Stops the periodic log dump if it is running.
+     */
+    public synchronized void stopLogReporter() {
+        if (reporter != null) {
+            reporter.shutdownNow();
+            reporter = null;
+        }
+    }
+
+    /**
+     * Formats every metric as a multi-line report.
+     *
+     * @return The report.
+     */
+    public String report() {
+        StringBuilder report = new StringBuilder("Performance metrics\n");
+        report.append(String.format("  rows read=%d, rows written=%d, connections=%d, pool wait=%.2f ms%n",
+                getRowsRead(), getRowsWritten(), getConnectionsAcquired(), getPoolWaitMillis()));
+        report.append(String.format("  cache hits=%d, misses=%d, hit ratio=%.2f%%%n",
+                getCacheHits(), getCacheMisses(), getCacheHitRatio() * 100));
+        for (Map.Entry<String, LatencyHistogram> entry : new TreeMap<>(timers).entrySet()) {
+            OperationMetrics metrics = new OperationMetrics(entry.getValue());
+            report.append(String.format("  %-45s count=%d mean=%.1fus p50=%.1fus p99=%.1fus p999=%.1fus max=%.1fus%n",
+                    entry.getKey(), metrics.getCount(), metrics.getMeanMicros(), metrics.getP50Micros(),
+                    metrics.getP99Micros(), metrics.getP999Micros(), metrics.getMaxMicros()));
+        }
+        return report.toString();
+    }
+
+    /**
+     * Emits a cache access event.
+     *
+     * @param cache The name of the cache.
+     * @param hit   Whether the lookup hit.
+     */
+    private static void emitCacheAccess(String cache, boolean hit) {
+        CacheAccessEvent event = new CacheAccessEvent();
+        if (event.shouldCommit()) {
+            event.cache = cache;
+            event.hit = hit;
+            event.commit();
+        }
+    }
+
+    /**
+     * Registers the MBean of one operation histogram.
+     *
+     * @param server    The MBean server.
+     * @param operation The operation name.
+     * @param timer     The histogram.
+     */
+    private static void register(MBeanServer server, String operation, LatencyHistogram timer) {
+        try {
+            ObjectName name = new ObjectName(JMX_DOMAIN + ":type=Operation,name=" + ObjectName.quote(operation));
+            if (!server.isRegistered(name)) {
+                server.registerMBean(new OperationMetrics(timer), name);
+            }
+        } catch (JMException e) {
+            logger.warn("Unable to register metrics MBean for {}", operation, e);
+        }
+    }
+
+    /**
+     * JMX view of one operation's latency histogram.
+     */
+    static final class OperationMetrics implements OperationMetricsMXBean {
+
+        /** Nanoseconds per microsecond. */
+        private static final double NANOS_PER_MICRO = 1_000.0;
+
+        /** The histogram exposed. */
+        private final LatencyHistogram timer;
+
+        /**
+         * Constructs a view over a histogram.
+         *
+         * @param timer The histogram.
+         */
+        OperationMetrics(LatencyHistogram timer) {
+            this.timer = timer;
+        }
+
+        @Override
+        public long getCount() { return timer.getCount(); }
+
+        @Override
+        public double getMeanMicros() { return timer.getMeanNanos() / NANOS_PER_MICRO; }
+
+        @Override
+        public double getP50Micros() { return timer.percentile(0.50) / NANOS_PER_MICRO; }
+
+        @Override
+        public double getP99Micros() { return timer.percentile(0.99) / NANOS_PER_MICRO; }
+
+        @Override
+        public double getP999Micros() { return timer.percentile(0.999) / NANOS_PER_MICRO; }
+
+        @Override
+        public double getMaxMicros() { return timer.getMaxNanos() / NANOS_PER_MICRO; }
+    }
+}
@@ -0,0 +1,53 @@
+package com.portfolio.metrics;
+
+/**
+ * This interface exposes the latency statistics of one repository or service operation over JMX.
+ * All latencies are reported in microseconds.
+ * @author Gaoussou Thiam
+ * @date 10/19/2026
+ * @see com.portfolio.metrics.MetricsRegistry
+ */
+public interface OperationMetricsMXBean {
+
+    /**
+     * Gets the number of calls recorded.
+     *
+     * @return The call count.
+     */
+    long getCount();
+
+    /**
+     * Gets the mean latency.
+     *
+     * @return The mean latency in microseconds.
+     */
+    double getMeanMicros();
+
+    /**
+     * Gets the median latency.
+     *
+     * @return The p50 latency in microseconds.
+     */
+    double getP50Micros();
+
+    /**
+     * Gets the 99th percentile latency.
+     *
+     * @return The p99 latency in microseconds.
+     */
+    double getP99Micros();
+
+    /**
+     * Gets the 99.9th percentile latency.
+     *
+     * @return The p999 latency in microseconds.
+     */
+    double getP999Micros();
+
+    /**
+     * Gets the largest latency recorded.
+     *
+     * @return The maximum latency in microseconds.
+     */
+    double getMaxMicros();
+}
@@ -0,0 +1,60 @@
+package com.portfolio.metrics;
+
+/**
+ * This interface exposes the repository-wide counters over JMX: rows read and written,
+ * connection acquisition, and cache effectiveness.
+ * @author Gaoussou Thiam
+ * @date 10/19/2026
+ * @see com.portfolio.metrics.MetricsRegistry
+ */
+public interface RepositoryMetricsMXBean {
+
+    /**
+     * Gets the number of rows read from the database.
+     *
+     * @return The rows read.
+     */
+    long getRowsRead();
+
+    /**
+     * Gets the number of rows written to the database.
+     *
+     * @return The rows written.
+     */
+    long getRowsWritten();
+
+    /**
+     * Gets the number of connections acquired.
+     *
+     * @return The connections acquired.
+     */
+    long getConnectionsAcquired();
+
+    /**
+     * Gets the total time spent waiting to acquire connections.
+     *
+     * @return The wait time in milliseconds.
+     */
+    double getPoolWaitMillis();
+
+    /**
+     * Gets the number of cache hits.
+     *
+     * @return The cache hits.
+     */
+    long getCacheHits();
+
+    /**
+     * Gets the number of cache misses.
+     *
+     * @return The cache misses.
+     */
+    long getCacheMisses();
+
+    /**
+     * Gets the fraction of cache lookups that were hits.
+     *
+     * @return The hit ratio between 0 and 1, or 0 if there were no lookups.
+     */
+    double getCacheHitRatio();
+}
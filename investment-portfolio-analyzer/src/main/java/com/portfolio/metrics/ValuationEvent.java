@@ -0,0 +1,54 @@
+package com.portfolio.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * This is the Flight Recorder event emitted for every valuation pass: portfolio statistics,
+ * scenario runs and Value-at-Risk simulations. It records how many portfolios and positions
+ * the pass covered so slow passes can be told apart from large ones.
+ * <p>
+ * Every recording captures it unless {@code com.portfolio.Valuation#enabled=false} is set. When no
+ * recording has it enabled, {@link #shouldCommit()} is false and the JIT removes the event entirely.
+ * @author Gaoussou Thiam
+ * @date 10/19/2026
+ * @see com.portfolio.service.PortfolioManager#getPortfolioStats
+ */
+@Name("com.portfolio.Valuation")
+@Label("Valuation Pass")
+@Category({"Portfolio Analyzer", "Valuation"})
+@Description("A pass that values one or more portfolios")
+public final class ValuationEvent extends Event {
+
+
+    /** The valuation operation, for example {@code ScenarioEngine.run}. */
+    @Label("Operation")
+    String operation;
+
+    /** The portfolios valued. */
+    @Label("Portfolios")
+    int portfolios;
+
+    /** The positions valued. */
+    @Label("Positions")
+    long positions;
+
+    /**
+     * Ends the event and commits it if a recording has it enabled and it exceeds the threshold.
+     *
+     * @param operation  The valuation operation.
+     * @param portfolios The portfolios valued.
+     * @param positions  The positions valued.
+     */
+    public void complete(String operation, int portfolios, long positions) {
+        if (shouldCommit()) {
+            this.operation = operation;
+            this.portfolios = portfolios;
+            this.positions = positions;
+            commit();
+        }
+    }
+}
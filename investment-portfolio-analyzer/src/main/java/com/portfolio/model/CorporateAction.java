@@ -0,0 +1,167 @@
+package com.portfolio.model;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
+/**
+ * This class represents a corporate action on a stock that changes how its shares are counted
+ * or named without changing what they are worth: a split, a reverse split or a ticker change.
+ * <p>
+ * A split is given as the number of new shares per old share, so a 4-for-1 split has a ratio
+ * of 4 and a 1-for-10 reverse split a ratio of 0.1. Quantities are multiplied by the ratio and
+ * prices divided by it, so values and costs are unchanged. A ticker change only renames the
+ * stock; positions and transactions refer to it by ID.
+ * @author Gaoussou Thiam
+ * @date 10/19/2026
+ * @see com.portfolio.model.Stock
+ * @see com.portfolio.model.Position
+ * @see com.portfolio.repository.PortfolioRepository
+ */
+public class CorporateAction {
+
+
+    /**
+     * The kinds of corporate action.
+     */
+    public enum Type {
+        /** A split or reverse split. */
+        SPLIT,
+        /** A ticker change. */
+        SYMBOL_CHANGE
+    }
+
+    /**
+     * The kind of action.
+     */
+    private final Type type;
+
+    /**
+     * The symbol of the stock before the action.
+     */
+    private final String symbol;
+
+    /**
+     * New shares per old share; 1 for a ticker change.
+     */
+    private final double ratio;
+
+    /**
+     * The symbol after a ticker change, or null for a split.
+     */
+    private final String newSymbol;
+
+
+    /**
+     * Constructs a split or reverse split.
+     *
+     * @param symbol The symbol of the stock.
+     * @param ratio  New shares per old share, for example 4 for a 4-for-1 split or 0.25 for a
+     *               1-for-4 reverse split.
+     * @throws IllegalArgumentException If the ratio is not positive and finite.
+     */
+    public CorporateAction(String symbol, double ratio) {
+        if (!(ratio > 0 && ratio < Double.POSITIVE_INFINITY)) {
+            throw new IllegalArgumentException("Split ratio must be positive: " + ratio);
+        }
+        this.type = Type.SPLIT;
+        this.symbol = symbol;
+        this.ratio = ratio;
+        this.newSymbol = null;
+    }
+
+    /**
+     * Constructs a ticker change.
+     *
+     * @param symbol    The current symbol of the stock.
+     * @param newSymbol The symbol it trades under from now on.
+     */
+    public CorporateAction(String symbol, String newSymbol) {
+        this.type = Type.SYMBOL_CHANGE;
+        this.symbol = symbol;
+        this.ratio = 1;
+        this.newSymbol = newSymbol;
+    }
+
+    /**
+     * Applies the action to loaded portfolios, so they need not be read again. Every position
+     * in the stock is adjusted, and every distinct stock object it refers to is adjusted once,
+     * even when positions share one.
+     *
+     * @param portfolios The loaded portfolios.
+     * @return The number of positions adjusted.
+     */
+    public int applyTo(Iterable<Portfolio> portfolios) {
+        Set<Stock> stocks = Collections.newSetFromMap(new IdentityHashMap<>());
+        int adjusted = 0;
+        for (Portfolio portfolio : portfolios) {
+            for (Position position : portfolio.getPositions()) {
+                Stock stock = position.getStock();
+                if (!symbol.equals(stock.getSymbol()) && !stocks.contains(stock)) {
+                    continue;
+                }
+                if (stocks.add(stock)) {
+                    applyTo(stock);
+                }
+                if (type == Type.SPLIT) {
+                    position.split(ratio);
+                }
+                adjusted++;
+            }
+        }
+        return adjusted;
+    }
+
+    /**
+     * Applies the action to one stock object.
+     *
+     * @param stock The stock, under its symbol before the action.
+     */
+    public void applyTo(Stock stock) {
+        if (type == Type.SPLIT) {
+            stock.setCurrentPrice(stock.getCurrentPrice() / ratio);
+        } else {
+            stock.setSymbol(newSymbol);
+        }
+    }
+
+    /**
+     * Gets the kind of action.
+     *
+     * @return The type.
+     */
+    public Type getType() { return type; }
+
+    /**
+     * Gets the symbol of the stock before the action.
+     *
+     * @return The symbol.
+     */
+    public String getSymbol() { return symbol; }
+
+    /**
+     * Gets the number of new shares per old share.
+     *
+     * @return The ratio; 1 for a ticker change.
+     */
+    public double getRatio() { return ratio; }
+
+    /**
+     * Gets the symbol after a ticker change.
+     *
+     * @return The new symbol, or null for a split.
+     */
+    public String getNewSymbol() { return newSymbol; }
+
+    /**
+     * Returns a string representation of the action.
+     *
+     * @return A formatted string describing the action.
+     */
+    @Override
+    public String toString() {
+        return type == Type.SPLIT
+                ? String.format("CorporateAction[split %s, ratio=%s]", symbol, ratio)
+                : String.format("CorporateAction[rename %s to %s]", symbol, newSymbol);
+    }
+}
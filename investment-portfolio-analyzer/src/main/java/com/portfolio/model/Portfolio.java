@@ -53,6 +53,18 @@ public class Portfolio {
         this.positions = new ArrayList<>();
     }
 
+    /**
+     * Constructs a Portfolio created at a known time, such as one decoded from a stored copy.
+     *
+     * @param name         The name of the portfolio.
+     * @param description  A brief description of the portfolio.
+     * @param creationDate The date the portfolio was created.
+     */
+    public Portfolio(String name, String description, LocalDateTime creationDate) {
+        this(name, description);
+        this.creationDate = creationDate;
+    }
+
     /**
      * Adds a new position to the portfolio.
      *
@@ -0,0 +1,128 @@
+package com.portfolio.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * This class represents the totals of a portfolio, as listed next to its name without loading
+ * its positions: market value, cost basis and position count.
+ * @author Gaoussou Thiam
+ * @date 10/19/2026
+ * @see com.portfolio.model.Portfolio
+ */
+public class PortfolioSummary {
+
+
+    /**
+     * The ID of the summarised portfolio.
+     */
+    private final int portfolioId;
+
+    /**
+     * The name of the portfolio.
+     */
+    private final String name;
+
+    /**
+     * The value of all positions at current prices.
+     */
+    private final double marketValue;
+
+    /**
+     * The purchase cost of all positions.
+     */
+    private final double costBasis;
+
+    /**
+     * The number of positions.
+     */
+    private final int positionCount;
+
+    /**
+     * When the totals last changed.
+     */
+    private final LocalDateTime lastUpdated;
+
+
+    /**
+     * Constructs a new PortfolioSummary instance.
+     *
+     * @param portfolioId   The ID of the summarised portfolio.
+     * @param name          The name of the portfolio.
+     * @param marketValue   The value of all positions at current prices.
+     * @param costBasis     The purchase cost of all positions.
+     * @param positionCount The number of positions.
+     * @param lastUpdated   When the totals last changed.
+     */
+    public PortfolioSummary(int portfolioId, String name, double marketValue, double costBasis, int positionCount,
+                            LocalDateTime lastUpdated) {
+        this.portfolioId = portfolioId;
+        this.name = name;
+        this.marketValue = marketValue;
+        this.costBasis = costBasis;
+        this.positionCount = positionCount;
+        this.lastUpdated = lastUpdated;
+    }
+
+
+    /**
+     * Calculates the unrealized profit or loss of the portfolio.
+     *
+     * @return The market value minus the cost basis.
+     */
+    public double getUnrealizedPnL() {
+        return marketValue - costBasis;
+    }
+
+    /**
+     * Gets the ID of the summarised portfolio.
+     *
+     * @return The portfolio ID.
+     */
+    public int getPortfolioId() { return portfolioId; }
+
+    /**
+     * Gets the name of the portfolio.
+     *
+     * @return The name.
+     */
+    public String getName() { return name; }
+
+    /**
+     * Gets the value of all positions at current prices.
+     *
+     * @return The market value.
+     */
+    public double getMarketValue() { return marketValue; }
+
+    /**
+     * Gets the purchase cost of all positions.
+     *
+     * @return The cost basis.
+     */
+    public double getCostBasis() { return costBasis; }
+
+    /**
+     * Gets the number of positions.
+     *
+     * @return The position count.
+     */
+    public int getPositionCount() { return positionCount; }
+
+    /**
+     * Gets when the totals last changed.
+     *
+     * @return The time of the last change.
+     */
+    public LocalDateTime getLastUpdated() { return lastUpdated; }
+
+    /**
+     * Returns a string representation of the summary.
+     *
+     * @return A formatted string containing the summary.
+     */
+    @Override
+    public String toString() {
+        return String.format("PortfolioSummary[id=%d, name=%s, positions=%d, value=%.2f, pnl=%.2f]",
+                portfolioId, name, positionCount, marketValue, getUnrealizedPnL());
+    }
+}
@@ -53,6 +53,19 @@ public class Position {
         this.purchaseDate = LocalDateTime.now();
     }
 
+    /**
+     * Constructs a Position purchased at a known time, such as one decoded from a stored copy.
+     *
+     * @param stock         The stock associated with this position.
+     * @param quantity      The number of shares purchased.
+     * @param purchasePrice The price per share at the time of purchase.
+     * @param purchaseDate  The date of purchase.
+     */
+    public Position(Stock stock, double quantity, double purchasePrice, LocalDateTime purchaseDate) {
+        this(stock, quantity, purchasePrice);
+        this.purchaseDate = purchaseDate;
+    }
+
 
     /**
      * Calculates the current value of the position based on the stock's current price.
@@ -137,6 +150,17 @@ public class Position {
      */
     public LocalDateTime getPurchaseDate() { return purchaseDate; }
 
+    /**
+     * Adjusts the position for a stock split, multiplying the quantity and dividing the
+     * purchase price by the same ratio so the cost is unchanged.
+     *
+     * @param ratio New shares per old share.
+     */
+    public void split(double ratio) {
+        this.quantity = quantity * ratio;
+        this.purchasePrice = purchasePrice / ratio;
+    }
+
 
     /**
      * Returns a string representation of the position.
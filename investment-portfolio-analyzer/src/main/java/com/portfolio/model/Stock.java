@@ -60,6 +60,21 @@ public class Stock {
         this.lastUpdated = LocalDateTime.now();
     }
 
+    /**
+     * Constructs a Stock whose price was last updated at a known time, such as one decoded
+     * from a stored copy.
+     *
+     * @param symbol       The ticker symbol of the stock.
+     * @param companyName  The name of the company.
+     * @param sector       The industry sector of the company.
+     * @param currentPrice The current price of the stock.
+     * @param lastUpdated  The timestamp of the last price update.
+     */
+    public Stock(String symbol, String companyName, String sector, double currentPrice, LocalDateTime lastUpdated) {
+        this(symbol, companyName, sector, currentPrice);
+        this.lastUpdated = lastUpdated;
+    }
+
     // Getters and setters
     /**
      * Gets the stock ID.
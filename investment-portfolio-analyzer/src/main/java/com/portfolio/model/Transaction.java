@@ -60,6 +60,22 @@ public class Transaction {
         this.transactionDate = LocalDateTime.now();
     }
 
+    /**
+     * Constructs a Transaction that took place at a known time, such as one loaded from the database.
+     *
+     * @param portfolioId     The ID of the portfolio related to the transaction.
+     * @param stock           The stock being transacted.
+     * @param type            The type of transaction (BUY or SELL).
+     * @param quantity        The quantity of stock transacted.
+     * @param price           The price per unit of stock.
+     * @param transactionDate The date and time of the transaction.
+     */
+    public Transaction(int portfolioId, Stock stock, TransactionType type, double quantity, double price,
+                       LocalDateTime transactionDate) {
+        this(portfolioId, stock, type, quantity, price);
+        this.transactionDate = transactionDate;
+    }
+
     /**
      * Calculates the total amount of the transaction.
      *
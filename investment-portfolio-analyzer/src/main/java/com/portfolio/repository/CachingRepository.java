@@ -0,0 +1,615 @@
+package com.portfolio.repository;
+
+import com.portfolio.codec.ModelCodec;
+import com.portfolio.metrics.MetricsRegistry;
+import com.portfolio.model.CorporateAction;
+import com.portfolio.model.Portfolio;
+import com.portfolio.model.PortfolioSummary;
+import com.portfolio.model.Position;
+import com.portfolio.model.Stock;
+import com.portfolio.model.Transaction;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This class caches the stock master and recently read portfolios in front of another
+ * repository, which it opens only when it is first needed.
+ * <p>
+ * Stocks are cached by symbol, and portfolios, both as lots and as consolidated holdings, as
+ * {@link ModelCodec} messages evicted least recently used beyond a capacity, so every read
+ * still returns fresh model objects. Writes go through to the repository and invalidate what
+ * they change: a new position or transaction its portfolio, a price update the stock and every
+ * cached portfolio holding it, and a corporate action everything. A read that raced with a
+ * write is returned but not cached, detected by a generation counter that every invalidation
+ * advances.
+ * <p>
+ * {@link #prefetchStocks()} and {@link #prefetchPortfolio(int)} fill the cache for a
+ * background warm-up. They wait while any other call is in progress, so requests that arrive
+ * during the warm-up go straight to the repository rather than queueing behind it. Other reads
+ * of a portfolio are counted, so the most accessed portfolios can be warmed on the next start.
+ * @author Gaoussou Thiam
+ * @date 10/19/2026
+ * @see com.portfolio.repository.PortfolioRepository
+ * @see com.portfolio.service.StartupWarmer
+ * @see com.portfolio.codec.ModelCodec
+ */
+public class CachingRepository implements PortfolioRepository {
+
+
+    /** Opens the repository on first use. */
+    private final Callable<? extends PortfolioRepository> opener;
+
+    /** The repository, once opened. */
+    private volatile PortfolioRepository repository;
+
+    /** Cached stocks by symbol. */
+    private final ConcurrentHashMap<String, Stock> stocks = new ConcurrentHashMap<>();
+
+    /** Cached portfolios with their lots. */
+    private final PortfolioCache lots;
+
+    /** Cached portfolios with their consolidated holdings. */
+    private final PortfolioCache holdings;
+
+    /** The IDs of the cached portfolios holding each symbol, possibly including evicted ones. */
+    private final ConcurrentHashMap<String, Set<Integer>> holders = new ConcurrentHashMap<>();
+
+    /** The number of reads of each portfolio. */
+    private final ConcurrentHashMap<Integer, LongAdder> accesses = new ConcurrentHashMap<>();
+
+    /** Advanced by every invalidation, so loads that raced with a write are not cached. */
+    private final AtomicLong generation = new AtomicLong();
+
+    /** The number of calls in progress other than prefetches. */
+    private final AtomicInteger foreground = new AtomicInteger();
+
+    /** Monitor signalled when the last call in progress finishes. */
+    private final Object idle = new Object();
+
+    /** Codecs per thread, since a codec is not thread-safe. */
+    private final ThreadLocal<ModelCodec> codecs = ThreadLocal.withInitial(ModelCodec::new);
+
+    /** Encoding buffers per thread, grown as needed. */
+    private final ThreadLocal<ByteBuffer> buffers = ThreadLocal.withInitial(() -> ByteBuffer.allocate(4096));
+
+    /** Registry that records cache hits and misses. */
+    private final MetricsRegistry metrics = MetricsRegistry.getDefault();
+
+    /**
+     * Constructs a cache in front of an open repository.
+     *
+     * @param repository The repository.
+     * @param capacity   The largest number of portfolios cached of each kind.
+     */
+    public CachingRepository(PortfolioRepository repository, int capacity) {
+        this(() -> repository, capacity);
+        this.repository = repository;
+    }
+
+    /**
+     * Constructs a cache in front of a repository that is opened by the first call that needs
+     * it. If opening fails, that call fails and the next one tries again.
+     *
+     * @param opener   Opens the repository, for example connecting to a database or replaying
+     *                 a local log.
+     * @param capacity The largest number of portfolios cached of each kind.
+     * @throws IllegalArgumentException If the capacity is not positive.
+     */
+    public CachingRepository(Callable<? extends PortfolioRepository> opener, int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        this.opener = opener;
+        this.lots = new PortfolioCache(capacity);
+        this.holdings = new PortfolioCache(capacity);
+    }
+
+    @Override
+    public void saveStock(Stock stock) throws SQLException {
+        call(repository -> {
+            repository.saveStock(stock);
+            return null;
+        });
+    }
+
+    @Override
+    public Stock getStockBySymbol(String symbol) throws SQLException {
+        return call(repository -> {
+            Stock cached = stocks.get(symbol);
+            if (cached != null) {
+                metrics.recordCacheHit("CachingRepository.stocks");
+                return copy(cached);
+            }
+            metrics.recordCacheMiss("CachingRepository.stocks");
+            long seen = generation.get();
+            Stock stock = repository.getStockBySymbol(symbol);
+            if (stock != null) {
+                cacheStock(stock, seen);
+            }
+            return stock;
+        });
+    }
+
+    @Override
+    public List<Stock> getAllStocks() throws SQLException {
+        return call(repository -> {
+            long seen = generation.get();
+            List<Stock> all = repository.getAllStocks();
+            for (Stock stock : all) {
+                cacheStock(stock, seen);
+            }
+            return all;
+        });
+    }
+
+    @Override
+    public void savePortfolio(Portfolio portfolio) throws SQLException {
+        call(repository -> {
+            repository.savePortfolio(portfolio);
+            return null;
+        });
+    }
+
+    @Override
+    public void savePosition(int portfolioId, Position position) throws SQLException {
+        call(repository -> {
+            try {
+                repository.savePosition(portfolioId, position);
+            } finally {
+                invalidate(portfolioId);
+            }
+            return null;
+        });
+    }
+
+    @Override
+    public void saveTransactions(List<Transaction> transactions) throws SQLException {
+        call(repository -> {
+            try {
+                repository.saveTransactions(transactions);
+            } finally {
+                transactions.stream().mapToInt(Transaction::getPortfolioId).distinct().forEach(this::invalidate);
+            }
+            return null;
+        });
+    }
+
+    @Override
+    public List<Transaction> getTransactions(int portfolioId) throws SQLException {
+        return call(repository -> repository.getTransactions(portfolioId));
+    }
+
+    @Override
+    public List<Transaction> getAllTransactions() throws SQLException {
+        return call(PortfolioRepository::getAllTransactions);
+    }
+
+    @Override
+    public Portfolio getPortfolio(int portfolioId) throws SQLException {
+        return call(repository -> {
+            countAccess(portfolioId);
+            return read(lots, portfolioId, repository);
+        });
+    }
+
+    @Override
+    public Portfolio getHoldings(int portfolioId) throws SQLException {
+        return call(repository -> {
+            countAccess(portfolioId);
+            return read(holdings, portfolioId, repository);
+        });
+    }
+
+    @Override
+    public List<Position> getPositions(int portfolioId, int afterPositionId, int limit) throws SQLException {
+        return call(repository -> repository.getPositions(portfolioId, afterPositionId, limit));
+    }
+
+    @Override
+    public List<Portfolio> getAllPositions(int afterPortfolioId, int afterPositionId, int limit)
+            throws SQLException {
+        return call(repository -> repository.getAllPositions(afterPortfolioId, afterPositionId, limit));
+    }
+
+    @Override
+    public List<Portfolio> getAllPortfolios() throws SQLException {
+        return call(PortfolioRepository::getAllPortfolios);
+    }
+
+    @Override
+    public List<PortfolioSummary> getPortfolioSummaries() throws SQLException {
+        return call(PortfolioRepository::getPortfolioSummaries);
+    }
+
+    @Override
+    public PortfolioSummary getPortfolioSummary(int portfolioId) throws SQLException {
+        return call(repository -> {
+            countAccess(portfolioId);
+            return repository.getPortfolioSummary(portfolioId);
+        });
+    }
+
+    @Override
+    public void updateStockPrice(String symbol, double newPrice) throws SQLException {
+        call(repository -> {
+            try {
+                repository.updateStockPrice(symbol, newPrice);
+            } finally {
+                generation.incrementAndGet();
+                stocks.remove(symbol);
+                Set<Integer> held = holders.remove(symbol);
+                if (held != null) {
+                    for (int portfolioId : held) {
+                        lots.remove(portfolioId);
+                        holdings.remove(portfolioId);
+                    }
+                }
+            }
+            return null;
+        });
+    }
+
+    @Override
+    public void applyCorporateAction(CorporateAction action) throws SQLException {
+        call(repository -> {
+            try {
+                repository.applyCorporateAction(action);
+            } finally {
+                generation.incrementAndGet();
+                stocks.clear();
+                holders.clear();
+                lots.clear();
+                holdings.clear();
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Opens the repository if it is not open yet, so the first request does not pay for it.
+     *
+     * @throws SQLException If the repository cannot be opened.
+     */
+    public void open() throws SQLException {
+        repository();
+    }
+
+    /**
+     * Loads the whole stock master into the cache, once no other call is in progress.
+     *
+     * @return The number of stocks cached.
+     * @throws SQLException If the stocks cannot be read.
+     * @throws InterruptedException If interrupted while waiting for other calls to finish.
+     */
+    public int prefetchStocks() throws SQLException, InterruptedException {
+        awaitIdle();
+        long seen = generation.get();
+        List<Stock> all = repository().getAllStocks();
+        for (Stock stock : all) {
+            cacheStock(stock, seen);
+        }
+        return all.size();
+    }
+
+    /**
+     * Loads a portfolio's consolidated holdings into the cache, once no other call is in
+     * progress, unless they are cached already. The read is not counted as an access.
+     *
+     * @param portfolioId The portfolio ID.
+     * @return True if the portfolio exists.
+     * @throws SQLException If the portfolio cannot be read.
+     * @throws InterruptedException If interrupted while waiting for other calls to finish.
+     */
+    public boolean prefetchPortfolio(int portfolioId) throws SQLException, InterruptedException {
+        awaitIdle();
+        if (holdings.get(portfolioId) != null) {
+            return true;
+        }
+        long seen = generation.get();
+        Portfolio portfolio = repository().getHoldings(portfolioId);
+        if (portfolio == null) {
+            return false;
+        }
+        cachePortfolio(holdings, portfolio, seen);
+        return true;
+    }
+
+    /**
+     * Gets how often each portfolio has been read since the cache was created.
+     *
+     * @return The number of reads keyed by portfolio ID.
+     */
+    public Map<Integer, Long> getAccessCounts() {
+        Map<Integer, Long> counts = new HashMap<>();
+        accesses.forEach((portfolioId, count) -> counts.put(portfolioId, count.sum()));
+        return counts;
+    }
+
+    /**
+     * Gets the number of portfolios cached, counting lots and holdings separately.
+     *
+     * @return The number of cached portfolios.
+     */
+    public int getCachedPortfolioCount() {
+        return lots.size() + holdings.size();
+    }
+
+    /**
+     * Gets the number of stocks cached.
+     *
+     * @return The number of cached stocks.
+     */
+    public int getCachedStockCount() {
+        return stocks.size();
+    }
+
+    /**
+     * Runs a call on the repository as a foreground call, which prefetches wait for.
+     *
+     * @param call The call.
+     * @param <T>  The type of the result.
+     * @return The result.
+     * @throws SQLException If the repository cannot be opened or the call fails.
+     */
+    private <T> T call(RepositoryCall<T> call) throws SQLException {
+        foreground.incrementAndGet();
+        try {
+            return call.apply(repository());
+        } finally {
+            if (foreground.decrementAndGet() == 0) {
+                synchronized (idle) {
+                    idle.notifyAll();
+                }
+            }
+        }
+    }
+
+    /**
+     * Waits until no foreground call is in progress.
+     *
+     * @throws InterruptedException If interrupted while waiting.
+     */
+    private void awaitIdle() throws InterruptedException {
+        synchronized (idle) {
+            while (foreground.get() > 0) {
+                idle.wait();
+            }
+        }
+    }
+
+    /**
+     * Gets the repository, opening it if this is the first call to need it.
+     *
+     * @return The repository.
+     * @throws SQLException If the repository cannot be opened.
+     */
+    private PortfolioRepository repository() throws SQLException {
+        PortfolioRepository open = repository;
+        if (open != null) {
+            return open;
+        }
+        synchronized (opener) {
+            if (repository == null) {
+                try {
+                    repository = opener.call();
+                } catch (SQLException e) {
+                    throw e;
+                } catch (Exception e) {
+                    throw new SQLException("Cannot open repository: " + e.getMessage(), e);
+                }
+            }
+            return repository;
+        }
+    }
+
+    /**
+     * Reads a portfolio through a cache.
+     *
+     * @param cache       The cache of the kind of portfolio read.
+     * @param portfolioId The portfolio ID.
+     * @param repository  The repository to read a miss from.
+     * @return The portfolio, or null if not found.
+     * @throws SQLException If the portfolio cannot be read.
+     */
+    private Portfolio read(PortfolioCache cache, int portfolioId, PortfolioRepository repository)
+            throws SQLException {
+        byte[] cached = cache.get(portfolioId);
+        if (cached != null) {
+            metrics.recordCacheHit("CachingRepository.portfolios");
+            return codecs.get().decodePortfolio(ByteBuffer.wrap(cached));
+        }
+        metrics.recordCacheMiss("CachingRepository.portfolios");
+        long seen = generation.get();
+        Portfolio portfolio = cache == lots ? repository.getPortfolio(portfolioId)
+                : repository.getHoldings(portfolioId);
+        if (portfolio != null) {
+            cachePortfolio(cache, portfolio, seen);
+        }
+        return portfolio;
+    }
+
+    /**
+     * Caches a portfolio unless a write may have changed it since it was read.
+     *
+     * @param cache     The cache of its kind.
+     * @param portfolio The portfolio.
+     * @param seen      The generation before it was read.
+     */
+    private void cachePortfolio(PortfolioCache cache, Portfolio portfolio, long seen) {
+        int portfolioId = portfolio.getPortfolioId();
+        // Register as a holder first, so a price update from here on finds the entry.
+        for (Position position : portfolio.getPositions()) {
+            holders.computeIfAbsent(position.getStock().getSymbol(), symbol -> ConcurrentHashMap.newKeySet())
+                    .add(portfolioId);
+        }
+        cache.put(portfolioId, encode(portfolio));
+        if (generation.get() != seen) {
+            cache.remove(portfolioId);
+        }
+    }
+
+    /**
+     * Caches a copy of a stock unless a write may have changed it since it was read.
+     *
+     * @param stock The stock.
+     * @param seen  The generation before it was read.
+     */
+    private void cacheStock(Stock stock, long seen) {
+        stocks.put(stock.getSymbol(), copy(stock));
+        if (generation.get() != seen) {
+            stocks.remove(stock.getSymbol());
+        }
+    }
+
+    /**
+     * Drops a portfolio from the cache after a write to it.
+     *
+     * @param portfolioId The portfolio ID.
+     */
+    private void invalidate(int portfolioId) {
+        generation.incrementAndGet();
+        lots.remove(portfolioId);
+        holdings.remove(portfolioId);
+    }
+
+    /**
+     * Counts a read of a portfolio.
+     *
+     * @param portfolioId The portfolio ID.
+     */
+    private void countAccess(int portfolioId) {
+        accesses.computeIfAbsent(portfolioId, id -> new LongAdder()).increment();
+    }
+
+    /**
+     * Encodes a portfolio, growing this thread's buffer until it fits.
+     *
+     * @param portfolio The portfolio.
+     * @return The message.
+     */
+    private byte[] encode(Portfolio portfolio) {
+        ByteBuffer buffer = buffers.get();
+        while (true) {
+            try {
+                buffer.clear();
+                codecs.get().encode(portfolio, buffer);
+                return Arrays.copyOf(buffer.array(), buffer.position());
+            } catch (BufferOverflowException e) {
+                buffer = ByteBuffer.allocate(buffer.capacity() * 2);
+                buffers.set(buffer);
+            }
+        }
+    }
+
+    /**
+     * Copies a stock, so cached stocks are never shared with callers.
+     *
+     * @param stock The stock.
+     * @return The copy.
+     */
+    private static Stock copy(Stock stock) {
+        Stock copy = new Stock(stock.getSymbol(), stock.getCompanyName(), stock.getSector(), stock.getCurrentPrice(),
+                stock.getLastUpdated());
+        copy.setStockId(stock.getStockId());
+        return copy;
+    }
+
+    /**
+     * A call made on the repository.
+     *
+     * @param <T> The type of the result.
+     */
+    @FunctionalInterface
+    private interface RepositoryCall<T> {
+
+        /**
+         * Runs the call.
+         *
+         * @param repository The repository.
+         * @return The result.
+         * @throws SQLException If a data access error occurs.
+         */
+        T apply(PortfolioRepository repository) throws SQLException;
+    }
+
+    /**
+     * Encoded portfolios by ID, evicted least recently used beyond a capacity.
+     */
+    private static final class PortfolioCache {
+
+        /** The entries in access order. */
+        private final LinkedHashMap<Integer, byte[]> entries;
+
+        /**
+         * Constructs an empty cache.
+         *
+         * @param capacity The largest number of entries.
+         */
+        PortfolioCache(int capacity) {
+            this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Integer, byte[]> eldest) {
+                    return size() > capacity;
+                }
+            };
+        }
+
+        /**
+         * Gets an entry, marking it recently used.
+         *
+         * @param portfolioId The portfolio ID.
+         * @return The message, or null if not cached.
+         */
+        synchronized byte[] get(int portfolioId) {
+            return entries.get(portfolioId);
+        }
+
+        /**
+         * Adds or replaces an entry.
+         *
+         * @param portfolioId The portfolio ID.
+         * @param message     The message.
+         */
+        synchronized void put(int portfolioId, byte[] message) {
+            entries.put(portfolioId, message);
+        }
+
+        /**
+         * Removes an entry.
+         *
+         * @param portfolioId The portfolio ID.
+         */
+        synchronized void remove(int portfolioId) {
+            entries.remove(portfolioId);
+        }
+
+        /**
+         * Removes every entry.
+         */
+        synchronized void clear() {
+            entries.clear();
+        }
+
+        /**
+         * Gets the number of entries.
+         *
+         * @return The size.
+         */
+        synchronized int size() {
+            return entries.size();
+        }
+    }
+}
@@ -1,9 +1,17 @@
 package com.portfolio.repository;
 
+import com.portfolio.metrics.DatabaseQueryEvent;
+import com.portfolio.metrics.MetricsRegistry;
+import com.portfolio.model.CorporateAction;
 import com.portfolio.model.Portfolio;
+import com.portfolio.model.PortfolioSummary;
 import com.portfolio.model.Position;
 import com.portfolio.model.Stock;
+import com.portfolio.model.Transaction;
+import com.portfolio.util.DatabaseConfig;
 
+import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
@@ -12,27 +20,88 @@ import java.time.LocalDateTime;
 /**
  * This class handles all database operations for the investment portfolio application.
  * It provides methods to save, retrieve, and update data in the MySQL database.
+ * Writes go to the primary database and reads are balanced across any configured read
+ * replicas, with failover to the primary.
  * @author Gaoussou Thiam
  * @date 02/19/2026
  * @see com.portfolio.model.Stock
  * @see com.portfolio.model.Portfolio
  * @see com.portfolio.model.Position
+ * @see com.portfolio.model.Transaction
+ * @see com.portfolio.repository.PortfolioRepository
+ * @see com.portfolio.repository.ReplicaRouter
  */
-public class DatabaseService {
+public class DatabaseService implements PortfolioRepository {
 
 
+    /** Routes writes to the primary and reads to replicas. */
+    private final ReplicaRouter router;
+
+    /** Registry that records call latencies, row counts and connection waits. */
+    private final MetricsRegistry metrics = MetricsRegistry.getDefault();
+
+    /**
+     * Constructs a DatabaseService using the configuration from DatabaseConfig,
+     * including its read replicas.
+     */
+    public DatabaseService() {
+        this(DatabaseConfig.getUrl(), DatabaseConfig.getReplicaUrls(), DatabaseConfig.getUser(),
+                DatabaseConfig.getPassword(), DatabaseConfig.getReadYourWritesMillis(),
+                DatabaseConfig.getReplicaRetryMillis());
+    }
+
+    /**
+     * Constructs a DatabaseService for an explicit database, such as an embedded
+     * database used by benchmarks and load tests.
+     *
+     * @param url The JDBC URL of the database.
+     * @param user The username for the database connection.
+     * @param password The password for the database connection.
+     */
+    public DatabaseService(String url, String user, String password) {
+        this(url, List.of(), user, password, 0, 0);
+    }
+
+    /**
+     * Constructs a DatabaseService that writes to a primary database and reads from replicas.
+     *
+     * @param primaryUrl The JDBC URL of the primary database.
+     * @param replicaUrls The JDBC URLs of the read replicas; empty to read from the primary.
+     * @param user The username, shared by the primary and replicas.
+     * @param password The password, shared by the primary and replicas.
+     * @param readYourWritesMillis How long a thread reads from the primary after it writes; 0 for never.
+     * @param replicaRetryMillis How long a failed replica is left out before it is tried again.
+     */
+    public DatabaseService(String primaryUrl, List<String> replicaUrls, String user, String password,
+                           long readYourWritesMillis, long replicaRetryMillis) {
+        this.router = new ReplicaRouter(primaryUrl, replicaUrls, user, password, readYourWritesMillis,
+                replicaRetryMillis);
+    }
+
     /**
-     * Gets a database connection using the configuration from DatabaseConfig.
+     * Gets a connection to the primary database, for writes.
      *
-     * @return A connection to the database.
+     * @return A connection to the primary database.
      * @throws SQLException If a database access error occurs.
      */
     private Connection getConnection() throws SQLException {
-        return DriverManager.getConnection(
-                com.portfolio.util.DatabaseConfig.getUrl(),
-                com.portfolio.util.DatabaseConfig.getUser(),
-                com.portfolio.util.DatabaseConfig.getPassword()
-        );
+        long start = System.nanoTime();
+        Connection conn = router.openPrimary();
+        metrics.recordPoolWait(System.nanoTime() - start);
+        return conn;
+    }
+
+    /**
+     * Gets a connection for a read, to a replica if one is configured and healthy.
+     *
+     * @return A connection to a replica or the primary database.
+     * @throws SQLException If a database access error occurs.
+     */
+    private Connection getReadConnection() throws SQLException {
+        long start = System.nanoTime();
+        Connection conn = router.openRead();
+        metrics.recordPoolWait(System.nanoTime() - start);
+        return conn;
     }
 
     /**
@@ -41,7 +110,12 @@ public class DatabaseService {
      * @param stock The stock to save.
      * @throws SQLException If a database access error occurs.
      */
+    @Override
     public void saveStock(Stock stock) throws SQLException {
+        long start = System.nanoTime();
+        DatabaseQueryEvent event = new DatabaseQueryEvent();
+        event.begin();
+        long rows = 0;
         String sql = "INSERT INTO stocks (symbol, company_name, sector, current_price) VALUES (?, ?, ?, ?)";
 
         try (Connection conn = getConnection();
@@ -52,7 +126,7 @@ public class DatabaseService {
             pstmt.setString(3, stock.getSector());
             pstmt.setDouble(4, stock.getCurrentPrice());
 
-            pstmt.executeUpdate();
+            rows = pstmt.executeUpdate();
 
             // Get the generated ID
             try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
@@ -60,6 +134,47 @@ public class DatabaseService {
                     stock.setStockId(generatedKeys.getInt(1));
                 }
             }
+        } finally {
+            if (rows > 0) {
+                router.recordWrite();
+            }
+            metrics.addRowsWritten(rows);
+            metrics.recordLatency("DatabaseService.saveStock", start);
+            event.complete("DatabaseService.saveStock", sql, rows);
+        }
+    }
+
+    /**
+     * Saves a copy of a stock that another database already assigned an ID, keeping that ID,
+     * so reference data is identical on every shard.
+     *
+     * @param stock The stock to copy, with its ID set.
+     * @throws SQLException If a database access error occurs.
+     */
+    void replicateStock(Stock stock) throws SQLException {
+        long start = System.nanoTime();
+        DatabaseQueryEvent event = new DatabaseQueryEvent();
+        event.begin();
+        long rows = 0;
+        String sql = "INSERT INTO stocks (stock_id, symbol, company_name, sector, current_price) VALUES (?, ?, ?, ?, ?)";
+
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setInt(1, stock.getStockId());
+            pstmt.setString(2, stock.getSymbol());
+            pstmt.setString(3, stock.getCompanyName());
+            pstmt.setString(4, stock.getSector());
+            pstmt.setDouble(5, stock.getCurrentPrice());
+
+            rows = pstmt.executeUpdate();
+        } finally {
+            if (rows > 0) {
+                router.recordWrite();
+            }
+            metrics.addRowsWritten(rows);
+            metrics.recordLatency("DatabaseService.replicateStock", start);
+            event.complete("DatabaseService.replicateStock", sql, rows);
         }
     }
 
@@ -70,10 +185,15 @@ public class DatabaseService {
      * @return The stock with the given symbol, or null if not found.
      * @throws SQLException If a database access error occurs.
      */
+    @Override
     public Stock getStockBySymbol(String symbol) throws SQLException {
+        long start = System.nanoTime();
+        DatabaseQueryEvent event = new DatabaseQueryEvent();
+        event.begin();
+        long rows = 0;
         String sql = "SELECT * FROM stocks WHERE symbol = ?";
 
-        try (Connection conn = getConnection();
+        try (Connection conn = getReadConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
             pstmt.setString(1, symbol);
@@ -87,68 +207,352 @@ public class DatabaseService {
                             rs.getDouble("current_price")
                     );
                     stock.setStockId(rs.getInt("stock_id"));
+                    rows = 1;
                     return stock;
                 }
                 return null;
             }
+        } finally {
+            metrics.addRowsRead(rows);
+            metrics.recordLatency("DatabaseService.getStockBySymbol", start);
+            event.complete("DatabaseService.getStockBySymbol", sql, rows);
         }
     }
 
     /**
-     * Saves a portfolio to the database.
+     * Retrieves every stock from the database.
      *
-     * @param portfolio The portfolio to save.
+     * @return The stocks in symbol order.
      * @throws SQLException If a database access error occurs.
      */
+    @Override
+    public List<Stock> getAllStocks() throws SQLException {
+        long start = System.nanoTime();
+        DatabaseQueryEvent event = new DatabaseQueryEvent();
+        event.begin();
+        List<Stock> stocks = new ArrayList<>();
+        String sql = "SELECT * FROM stocks ORDER BY symbol";
+
+        try (Connection conn = getReadConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+
+            while (rs.next()) {
+                Stock stock = new Stock(
+                        rs.getString("symbol"),
+                        rs.getString("company_name"),
+                        rs.getString("sector"),
+                        rs.getDouble("current_price")
+                );
+                stock.setStockId(rs.getInt("stock_id"));
+                stocks.add(stock);
+            }
+            return stocks;
+        } finally {
+            metrics.addRowsRead(stocks.size());
+            metrics.recordLatency("DatabaseService.getAllStocks", start);
+            event.complete("DatabaseService.getAllStocks", sql, stocks.size());
+        }
+    }
+
+    /**
+     * Saves a portfolio to the database together with its empty summary row.
+     *
+     * @param portfolio The portfolio to save.
+     * @throws SQLException If a database access error occurs; nothing is saved in that case.
+     */
+    @Override
     public void savePortfolio(Portfolio portfolio) throws SQLException {
+        long start = System.nanoTime();
+        DatabaseQueryEvent event = new DatabaseQueryEvent();
+        event.begin();
+        long rows = 0;
         String sql = "INSERT INTO portfolios (name, description) VALUES (?, ?)";
+        String summarySql = "INSERT INTO portfolio_summary (portfolio_id) VALUES (?)";
 
-        try (Connection conn = getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+        try (Connection conn = getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
+                 PreparedStatement summary = conn.prepareStatement(summarySql)) {
 
-            pstmt.setString(1, portfolio.getName());
-            pstmt.setString(2, portfolio.getDescription());
+                pstmt.setString(1, portfolio.getName());
+                pstmt.setString(2, portfolio.getDescription());
 
-            pstmt.executeUpdate();
+                rows = pstmt.executeUpdate();
 
-            // Get the generated ID
-            try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
-                if (generatedKeys.next()) {
-                    portfolio.setPortfolioId(generatedKeys.getInt(1));
+                // Get the generated ID
+                int portfolioId = 0;
+                try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
+                    if (generatedKeys.next()) {
+                        portfolioId = generatedKeys.getInt(1);
+                    }
                 }
+
+                summary.setInt(1, portfolioId);
+                rows += summary.executeUpdate();
+                conn.commit();
+                portfolio.setPortfolioId(portfolioId);
+            } catch (SQLException e) {
+                rows = 0;
+                conn.rollback();
+                throw e;
+            }
+        } finally {
+            if (rows > 0) {
+                router.recordWrite();
             }
+            metrics.addRowsWritten(rows);
+            metrics.recordLatency("DatabaseService.savePortfolio", start);
+            event.complete("DatabaseService.savePortfolio", sql, rows);
         }
     }
 
     /**
-     * Saves a position to the database and associates it with a portfolio.
+     * Saves a position to the database and associates it with a portfolio, adding it to the
+     * portfolio's summary and to its holding of the stock in the same database transaction.
      *
      * @param portfolioId The ID of the portfolio that contains this position.
      * @param position The position to save.
-     * @throws SQLException If a database access error occurs.
+     * @throws SQLException If a database access error occurs; nothing is saved in that case.
      */
+    @Override
     public void savePosition(int portfolioId, Position position) throws SQLException {
+        long start = System.nanoTime();
+        DatabaseQueryEvent event = new DatabaseQueryEvent();
+        event.begin();
+        long rows = 0;
         String sql = "INSERT INTO positions (portfolio_id, stock_id, quantity, purchase_price) VALUES (?, ?, ?, ?)";
+        String lockSql = "SELECT current_price FROM stocks WHERE stock_id = ? FOR UPDATE";
+        String summarySql = "UPDATE portfolio_summary SET market_value = market_value + ?, " +
+                "cost_basis = cost_basis + ? * ?, position_count = position_count + 1 " +
+                "WHERE portfolio_id = ?";
+        String holdingSql = "INSERT INTO holdings (portfolio_id, stock_id, quantity, cost_basis, lot_count) " +
+                "VALUES (?, ?, ?, ?, 1) ON DUPLICATE KEY UPDATE quantity = quantity + VALUES(quantity), " +
+                "cost_basis = cost_basis + VALUES(cost_basis), lot_count = lot_count + 1";
+        // Bind the values as they are stored so the summary adds exactly what the row holds.
+        BigDecimal quantity = toDecimal(position.getQuantity());
+        BigDecimal purchasePrice = toDecimal(position.getPurchasePrice());
 
-        try (Connection conn = getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+        try (Connection conn = getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement lock = conn.prepareStatement(lockSql);
+                 PreparedStatement summary = conn.prepareStatement(summarySql);
+                 PreparedStatement holding = conn.prepareStatement(holdingSql);
+                 PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
 
-            pstmt.setInt(1, portfolioId);
-            pstmt.setInt(2, position.getStock().getStockId());
-            pstmt.setDouble(3, position.getQuantity());
-            pstmt.setDouble(4, position.getPurchasePrice());
+                // Lock the stock before the summary, in the order a price change takes them,
+                // so the two cannot deadlock and the price read stays current until commit
+                lock.setInt(1, position.getStock().getStockId());
+                BigDecimal currentPrice = null;
+                try (ResultSet rs = lock.executeQuery()) {
+                    if (rs.next()) {
+                        currentPrice = rs.getBigDecimal("current_price");
+                    }
+                }
 
-            pstmt.executeUpdate();
+                summary.setBigDecimal(1, currentPrice == null ? BigDecimal.ZERO : quantity.multiply(currentPrice));
+                summary.setBigDecimal(2, quantity);
+                summary.setBigDecimal(3, purchasePrice);
+                summary.setInt(4, portfolioId);
+                rows = summary.executeUpdate();
 
-            // Get the generated ID
-            try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
-                if (generatedKeys.next()) {
-                    position.setPositionId(generatedKeys.getInt(1));
+                holding.setInt(1, portfolioId);
+                holding.setInt(2, position.getStock().getStockId());
+                holding.setBigDecimal(3, quantity);
+                holding.setBigDecimal(4, quantity.multiply(purchasePrice));
+                holding.executeUpdate();
+
+                pstmt.setInt(1, portfolioId);
+                pstmt.setInt(2, position.getStock().getStockId());
+                pstmt.setBigDecimal(3, quantity);
+                pstmt.setBigDecimal(4, purchasePrice);
+
+                rows += pstmt.executeUpdate();
+
+                // Get the generated ID
+                int positionId = 0;
+                try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
+                    if (generatedKeys.next()) {
+                        positionId = generatedKeys.getInt(1);
+                    }
+                }
+                conn.commit();
+                position.setPositionId(positionId);
+            } catch (SQLException e) {
+                rows = 0;
+                conn.rollback();
+                throw e;
+            }
+        } finally {
+            if (rows > 0) {
+                router.recordWrite();
+            }
+            metrics.addRowsWritten(rows);
+            metrics.recordLatency("DatabaseService.savePosition", start);
+            event.complete("DatabaseService.savePosition", sql, rows);
+        }
+    }
+
+    /**
+     * Saves a batch of transactions in a single database transaction using a JDBC batch,
+     * so a whole book of orders costs one round trip instead of one per order.
+     *
+     * @param transactions The transactions to save.
+     * @throws SQLException If a database access error occurs; no transaction is saved in that case.
+     */
+    @Override
+    public void saveTransactions(List<Transaction> transactions) throws SQLException {
+        if (transactions.isEmpty()) {
+            return;
+        }
+        long start = System.nanoTime();
+        DatabaseQueryEvent event = new DatabaseQueryEvent();
+        event.begin();
+        long rows = 0;
+        String sql = "INSERT INTO transactions (portfolio_id, stock_id, type, quantity, price, transaction_date) " +
+                "VALUES (?, ?, ?, ?, ?, ?)";
+
+        try (Connection conn = getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                for (Transaction transaction : transactions) {
+                    pstmt.setInt(1, transaction.getPortfolioId());
+                    pstmt.setInt(2, transaction.getStock().getStockId());
+                    pstmt.setString(3, transaction.getType().name());
+                    pstmt.setDouble(4, transaction.getQuantity());
+                    pstmt.setDouble(5, transaction.getPrice());
+                    pstmt.setTimestamp(6, Timestamp.valueOf(transaction.getTransactionDate()));
+                    pstmt.addBatch();
                 }
+                for (int count : pstmt.executeBatch()) {
+                    rows += Math.max(count, 0);
+                }
+
+                // Get the generated IDs, returned in insertion order
+                try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
+                    for (Transaction transaction : transactions) {
+                        if (!generatedKeys.next()) {
+                            break;
+                        }
+                        transaction.setTransactionId(generatedKeys.getInt(1));
+                    }
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                rows = 0;
+                conn.rollback();
+                throw e;
             }
+        } finally {
+            if (rows > 0) {
+                router.recordWrite();
+            }
+            metrics.addRowsWritten(rows);
+            metrics.recordLatency("DatabaseService.saveTransactions", start);
+            event.complete("DatabaseService.saveTransactions", sql, rows);
         }
     }
 
+    /**
+     * Retrieves the transactions of a portfolio in the order they took place.
+     *
+     * @param portfolioId The ID of the portfolio.
+     * @return The portfolio's transactions, oldest first.
+     * @throws SQLException If a database access error occurs.
+     */
+    @Override
+    public List<Transaction> getTransactions(int portfolioId) throws SQLException {
+        long start = System.nanoTime();
+        DatabaseQueryEvent event = new DatabaseQueryEvent();
+        event.begin();
+        long rows = 0;
+        String sql = "SELECT t.*, s.* FROM transactions t " +
+                "JOIN stocks s ON t.stock_id = s.stock_id " +
+                "WHERE t.portfolio_id = ? ORDER BY t.transaction_date, t.transaction_id";
+        List<Transaction> transactions = new ArrayList<>();
+
+        try (Connection conn = getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setInt(1, portfolioId);
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    transactions.add(toTransaction(rs));
+                }
+                rows = transactions.size();
+            }
+        } finally {
+            metrics.addRowsRead(rows);
+            metrics.recordLatency("DatabaseService.getTransactions", start);
+            event.complete("DatabaseService.getTransactions", sql, rows);
+        }
+
+        return transactions;
+    }
+
+    /**
+     * Retrieves the transactions of every portfolio with a single query.
+     *
+     * @return The transactions in ascending portfolio ID order, each portfolio's oldest first.
+     * @throws SQLException If a database access error occurs.
+     */
+    @Override
+    public List<Transaction> getAllTransactions() throws SQLException {
+        long start = System.nanoTime();
+        DatabaseQueryEvent event = new DatabaseQueryEvent();
+        event.begin();
+        long rows = 0;
+        String sql = "SELECT t.*, s.* FROM transactions t " +
+                "JOIN stocks s ON t.stock_id = s.stock_id " +
+                "ORDER BY t.portfolio_id, t.transaction_date, t.transaction_id";
+        List<Transaction> transactions = new ArrayList<>();
+
+        try (Connection conn = getReadConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+
+            while (rs.next()) {
+                transactions.add(toTransaction(rs));
+            }
+            rows = transactions.size();
+        } finally {
+            metrics.addRowsRead(rows);
+            metrics.recordLatency("DatabaseService.getAllTransactions", start);
+            event.complete("DatabaseService.getAllTransactions", sql, rows);
+        }
+
+        return transactions;
+    }
+
+    /**
+     * Reads a transaction and its stock from the current row of a result set.
+     *
+     * @param rs The result set, positioned on a row of transactions joined with stocks.
+     * @return The transaction.
+     * @throws SQLException If a column cannot be read.
+     */
+    private static Transaction toTransaction(ResultSet rs) throws SQLException {
+        Stock stock = new Stock(
+                rs.getString("symbol"),
+                rs.getString("company_name"),
+                rs.getString("sector"),
+                rs.getDouble("current_price")
+        );
+        stock.setStockId(rs.getInt("stock_id"));
+
+        Transaction transaction = new Transaction(
+                rs.getInt("portfolio_id"),
+                stock,
+                Transaction.TransactionType.valueOf(rs.getString("type")),
+                rs.getDouble("quantity"),
+                rs.getDouble("price"),
+                rs.getTimestamp("transaction_date").toLocalDateTime()
+        );
+        transaction.setTransactionId(rs.getInt("transaction_id"));
+        return transaction;
+    }
+
     /**
      * Retrieves a portfolio with all its positions from the database.
      *
@@ -156,13 +560,18 @@ public class DatabaseService {
      * @return The portfolio with all its positions, or null if not found.
      * @throws SQLException If a database access error occurs.
      */
+    @Override
     public Portfolio getPortfolio(int portfolioId) throws SQLException {
+        long start = System.nanoTime();
+        DatabaseQueryEvent event = new DatabaseQueryEvent();
+        event.begin();
+        long rows = 0;
         String sql = "SELECT p.*, pos.*, s.* FROM portfolios p " +
                 "LEFT JOIN positions pos ON p.portfolio_id = pos.portfolio_id " +
                 "LEFT JOIN stocks s ON pos.stock_id = s.stock_id " +
                 "WHERE p.portfolio_id = ?";
 
-        try (Connection conn = getConnection();
+        try (Connection conn = getReadConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
             pstmt.setInt(1, portfolioId);
@@ -176,6 +585,7 @@ public class DatabaseService {
                     portfolio.setPortfolioId(rs.getInt("portfolio_id"));
 
                     do {
+                        rows++;
                         if (rs.getInt("stock_id") != 0) {  // Check if there are positions
                             Stock stock = new Stock(
                                     rs.getString("symbol"),
@@ -200,7 +610,188 @@ public class DatabaseService {
                 }
                 return null;
             }
+        } finally {
+            metrics.addRowsRead(rows);
+            metrics.recordLatency("DatabaseService.getPortfolio", start);
+            event.complete("DatabaseService.getPortfolio", sql, rows);
+        }
+    }
+
+    /**
+     * Retrieves a portfolio with its consolidated holdings from the holdings table, reading one
+     * row per stock rather than one per purchase.
+     *
+     * @param portfolioId The ID of the portfolio to retrieve.
+     * @return The portfolio with its holdings, or null if not found.
+     * @throws SQLException If a database access error occurs.
+     */
+    @Override
+    public Portfolio getHoldings(int portfolioId) throws SQLException {
+        long start = System.nanoTime();
+        DatabaseQueryEvent event = new DatabaseQueryEvent();
+        event.begin();
+        long rows = 0;
+        String sql = "SELECT p.name, p.description, h.stock_id, h.quantity, h.cost_basis, " +
+                "s.symbol, s.company_name, s.sector, s.current_price FROM portfolios p " +
+                "LEFT JOIN holdings h ON p.portfolio_id = h.portfolio_id " +
+                "LEFT JOIN stocks s ON h.stock_id = s.stock_id " +
+                "WHERE p.portfolio_id = ?";
+
+        try (Connection conn = getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setInt(1, portfolioId);
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (!rs.next()) {
+                    return null;
+                }
+                Portfolio portfolio = new Portfolio(rs.getString("name"), rs.getString("description"));
+                portfolio.setPortfolioId(portfolioId);
+                do {
+                    rows++;
+                    if (rs.getInt("stock_id") != 0) {  // Check if there are holdings
+                        Stock stock = new Stock(
+                                rs.getString("symbol"),
+                                rs.getString("company_name"),
+                                rs.getString("sector"),
+                                rs.getDouble("current_price")
+                        );
+                        stock.setStockId(rs.getInt("stock_id"));
+
+                        double quantity = rs.getDouble("quantity");
+                        portfolio.addPosition(new Position(stock, quantity, rs.getDouble("cost_basis") / quantity));
+                    }
+                } while (rs.next());
+                return portfolio;
+            }
+        } finally {
+            metrics.addRowsRead(rows);
+            metrics.recordLatency("DatabaseService.getHoldings", start);
+            event.complete("DatabaseService.getHoldings", sql, rows);
+        }
+    }
+
+    /**
+     * Retrieves one page of a portfolio's positions by keyset: the positions after the last one
+     * of the previous page, in position ID order. The portfolio index stores the primary key
+     * after the portfolio ID, so each page is a range read of that index however deep it is,
+     * unlike an OFFSET that reads and discards every earlier row.
+     *
+     * @param portfolioId     The ID of the portfolio.
+     * @param afterPositionId The last position ID of the previous page, or 0 for the first page.
+     * @param limit           The maximum number of positions to return.
+     * @return The positions; fewer than the limit only on the last page.
+     * @throws SQLException If a database access error occurs.
+     */
+    @Override
+    public List<Position> getPositions(int portfolioId, int afterPositionId, int limit) throws SQLException {
+        long start = System.nanoTime();
+        DatabaseQueryEvent event = new DatabaseQueryEvent();
+        event.begin();
+        long rows = 0;
+        String sql = "SELECT pos.position_id, pos.quantity, pos.purchase_price, s.* FROM positions pos " +
+                "JOIN stocks s ON pos.stock_id = s.stock_id " +
+                "WHERE pos.portfolio_id = ? AND pos.position_id > ? ORDER BY pos.position_id LIMIT ?";
+        List<Position> positions = new ArrayList<>(Math.min(limit, 1024));
+
+        try (Connection conn = getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setInt(1, portfolioId);
+            pstmt.setInt(2, afterPositionId);
+            pstmt.setInt(3, limit);
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    Stock stock = new Stock(
+                            rs.getString("symbol"),
+                            rs.getString("company_name"),
+                            rs.getString("sector"),
+                            rs.getDouble("current_price")
+                    );
+                    stock.setStockId(rs.getInt("stock_id"));
+
+                    Position position = new Position(stock, rs.getDouble("quantity"), rs.getDouble("purchase_price"));
+                    position.setPositionId(rs.getInt("position_id"));
+                    positions.add(position);
+                }
+                rows = positions.size();
+            }
+        } finally {
+            metrics.addRowsRead(rows);
+            metrics.recordLatency("DatabaseService.getPositions", start);
+            event.complete("DatabaseService.getPositions", sql, rows);
+        }
+
+        return positions;
+    }
+
+    /**
+     * Retrieves one page of the positions of every portfolio by keyset on (portfolio ID,
+     * position ID). The portfolio index stores the primary key after the portfolio ID, so it is
+     * ordered by exactly that pair and each page is one range read of it, however deep into the
+     * book the page is.
+     *
+     * @param afterPortfolioId The portfolio of the last position of the previous page, or 0 for
+     *                         the first page.
+     * @param afterPositionId  The last position ID of the previous page, or 0 for the first page.
+     * @param limit            The maximum number of positions to return.
+     * @return The portfolios of the page in ascending ID order, each with its positions of the
+     *         page; fewer than the limit positions in total only on the last page.
+     * @throws SQLException If a database access error occurs.
+     */
+    @Override
+    public List<Portfolio> getAllPositions(int afterPortfolioId, int afterPositionId, int limit)
+            throws SQLException {
+        long start = System.nanoTime();
+        DatabaseQueryEvent event = new DatabaseQueryEvent();
+        event.begin();
+        long rows = 0;
+        String sql = "SELECT pos.portfolio_id, p.name, pos.position_id, pos.quantity, pos.purchase_price, s.* " +
+                "FROM positions pos JOIN portfolios p ON pos.portfolio_id = p.portfolio_id " +
+                "JOIN stocks s ON pos.stock_id = s.stock_id " +
+                "WHERE (pos.portfolio_id, pos.position_id) > (?, ?) " +
+                "ORDER BY pos.portfolio_id, pos.position_id LIMIT ?";
+        List<Portfolio> portfolios = new ArrayList<>();
+
+        try (Connection conn = getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setInt(1, afterPortfolioId);
+            pstmt.setInt(2, afterPositionId);
+            pstmt.setInt(3, limit);
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                Portfolio portfolio = null;
+                while (rs.next()) {
+                    int portfolioId = rs.getInt("portfolio_id");
+                    if (portfolio == null || portfolio.getPortfolioId() != portfolioId) {
+                        portfolio = new Portfolio(rs.getString("name"), null);
+                        portfolio.setPortfolioId(portfolioId);
+                        portfolios.add(portfolio);
+                    }
+                    Stock stock = new Stock(
+                            rs.getString("symbol"),
+                            rs.getString("company_name"),
+                            rs.getString("sector"),
+                            rs.getDouble("current_price")
+                    );
+                    stock.setStockId(rs.getInt("stock_id"));
+
+                    Position position = new Position(stock, rs.getDouble("quantity"), rs.getDouble("purchase_price"));
+                    position.setPositionId(rs.getInt("position_id"));
+                    portfolio.addPosition(position);
+                    rows++;
+                }
+            }
+        } finally {
+            metrics.addRowsRead(rows);
+            metrics.recordLatency("DatabaseService.getAllPositions", start);
+            event.complete("DatabaseService.getAllPositions", sql, rows);
         }
+
+        return portfolios;
     }
 
     /**
@@ -209,11 +800,16 @@ public class DatabaseService {
      * @return A list of all portfolios.
      * @throws SQLException If a database access error occurs.
      */
+    @Override
     public List<Portfolio> getAllPortfolios() throws SQLException {
+        long start = System.nanoTime();
+        DatabaseQueryEvent event = new DatabaseQueryEvent();
+        event.begin();
+        long rows = 0;
         String sql = "SELECT portfolio_id, name, description, creation_date FROM portfolios";
         List<Portfolio> portfolios = new ArrayList<>();
 
-        try (Connection conn = getConnection();
+        try (Connection conn = getReadConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql);
              ResultSet rs = pstmt.executeQuery()) {
 
@@ -225,28 +821,291 @@ public class DatabaseService {
                 portfolio.setPortfolioId(rs.getInt("portfolio_id"));
                 portfolios.add(portfolio);
             }
+            rows = portfolios.size();
+        } finally {
+            metrics.addRowsRead(rows);
+            metrics.recordLatency("DatabaseService.getAllPortfolios", start);
+            event.complete("DatabaseService.getAllPortfolios", sql, rows);
         }
 
         return portfolios;
     }
 
     /**
-     * Updates the current price of a stock.
+     * Retrieves the summary of every portfolio in one ordered scan of the summary table,
+     * without reading any positions.
+     *
+     * @return The summaries in ascending portfolio ID order.
+     * @throws SQLException If a database access error occurs.
+     */
+    @Override
+    public List<PortfolioSummary> getPortfolioSummaries() throws SQLException {
+        long start = System.nanoTime();
+        DatabaseQueryEvent event = new DatabaseQueryEvent();
+        event.begin();
+        long rows = 0;
+        String sql = "SELECT s.portfolio_id, p.name, s.market_value, s.cost_basis, s.position_count, s.last_updated " +
+                "FROM portfolio_summary s JOIN portfolios p ON p.portfolio_id = s.portfolio_id " +
+                "ORDER BY s.portfolio_id";
+        List<PortfolioSummary> summaries = new ArrayList<>();
+
+        try (Connection conn = getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql);
+             ResultSet rs = pstmt.executeQuery()) {
+
+            while (rs.next()) {
+                Timestamp lastUpdated = rs.getTimestamp("last_updated");
+                summaries.add(new PortfolioSummary(
+                        rs.getInt("portfolio_id"),
+                        rs.getString("name"),
+                        rs.getDouble("market_value"),
+                        rs.getDouble("cost_basis"),
+                        rs.getInt("position_count"),
+                        lastUpdated == null ? null : lastUpdated.toLocalDateTime()
+                ));
+            }
+            rows = summaries.size();
+        } finally {
+            metrics.addRowsRead(rows);
+            metrics.recordLatency("DatabaseService.getPortfolioSummaries", start);
+            event.complete("DatabaseService.getPortfolioSummaries", sql, rows);
+        }
+
+        return summaries;
+    }
+
+    /**
+     * Retrieves the summary of one portfolio from the summary table, a single primary key
+     * lookup whatever the number of positions.
+     *
+     * @param portfolioId The ID of the portfolio.
+     * @return The summary, or null if the portfolio does not exist.
+     * @throws SQLException If a database access error occurs.
+     */
+    @Override
+    public PortfolioSummary getPortfolioSummary(int portfolioId) throws SQLException {
+        long start = System.nanoTime();
+        DatabaseQueryEvent event = new DatabaseQueryEvent();
+        event.begin();
+        long rows = 0;
+        String sql = "SELECT s.portfolio_id, p.name, s.market_value, s.cost_basis, s.position_count, s.last_updated " +
+                "FROM portfolio_summary s JOIN portfolios p ON p.portfolio_id = s.portfolio_id " +
+                "WHERE s.portfolio_id = ?";
+
+        try (Connection conn = getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setInt(1, portfolioId);
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (!rs.next()) {
+                    return null;
+                }
+                rows = 1;
+                Timestamp lastUpdated = rs.getTimestamp("last_updated");
+                return new PortfolioSummary(
+                        rs.getInt("portfolio_id"),
+                        rs.getString("name"),
+                        rs.getDouble("market_value"),
+                        rs.getDouble("cost_basis"),
+                        rs.getInt("position_count"),
+                        lastUpdated == null ? null : lastUpdated.toLocalDateTime()
+                );
+            }
+        } finally {
+            metrics.addRowsRead(rows);
+            metrics.recordLatency("DatabaseService.getPortfolioSummary", start);
+            event.complete("DatabaseService.getPortfolioSummary", sql, rows);
+        }
+    }
+
+    /**
+     * Updates the current price of a stock and, in the same database transaction, moves the
+     * market value of every portfolio holding it by the price change times its quantity.
      *
      * @param symbol The symbol of the stock to update.
      * @param newPrice The new price of the stock.
-     * @throws SQLException If a database access error occurs.
+     * @throws SQLException If a database access error occurs; nothing is changed in that case.
      */
+    @Override
     public void updateStockPrice(String symbol, double newPrice) throws SQLException {
-        String sql = "UPDATE stocks SET current_price = ? WHERE symbol = ?";
+        long start = System.nanoTime();
+        DatabaseQueryEvent event = new DatabaseQueryEvent();
+        event.begin();
+        long rows = 0;
+        String lockSql = "SELECT stock_id, current_price FROM stocks WHERE symbol = ? FOR UPDATE";
+        String sql = "UPDATE stocks SET current_price = ? WHERE stock_id = ?";
+        String deltaSql = "UPDATE portfolio_summary SET market_value = market_value + ? * " +
+                "(SELECT h.quantity FROM holdings h " +
+                "WHERE h.portfolio_id = portfolio_summary.portfolio_id AND h.stock_id = ?) " +
+                "WHERE portfolio_id IN (SELECT portfolio_id FROM holdings WHERE stock_id = ?)";
+        BigDecimal price = toDecimal(newPrice);
 
-        try (Connection conn = getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        try (Connection conn = getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement lock = conn.prepareStatement(lockSql);
+                 PreparedStatement pstmt = conn.prepareStatement(sql);
+                 PreparedStatement delta = conn.prepareStatement(deltaSql)) {
+
+                // Lock the stock so the old price stays current until the deltas are applied
+                lock.setString(1, symbol);
+                int stockId;
+                BigDecimal oldPrice;
+                try (ResultSet rs = lock.executeQuery()) {
+                    if (!rs.next()) {
+                        conn.commit();
+                        return;
+                    }
+                    stockId = rs.getInt("stock_id");
+                    oldPrice = rs.getBigDecimal("current_price");
+                }
 
-            pstmt.setDouble(1, newPrice);
-            pstmt.setString(2, symbol);
+                pstmt.setBigDecimal(1, price);
+                pstmt.setInt(2, stockId);
+                rows = pstmt.executeUpdate();
 
-            pstmt.executeUpdate();
+                BigDecimal change = oldPrice == null ? price : price.subtract(oldPrice);
+                if (change.signum() != 0) {
+                    delta.setBigDecimal(1, change);
+                    delta.setInt(2, stockId);
+                    delta.setInt(3, stockId);
+                    rows += delta.executeUpdate();
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                rows = 0;
+                conn.rollback();
+                throw e;
+            }
+        } finally {
+            if (rows > 0) {
+                router.recordWrite();
+            }
+            metrics.addRowsWritten(rows);
+            metrics.recordLatency("DatabaseService.updateStockPrice", start);
+            event.complete("DatabaseService.updateStockPrice", sql, rows);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Applies a split or ticker change in one database transaction. A split is a fixed number
+     * of set-based updates however widely the stock is held: one each over the stock's
+     * positions, transactions and holdings through their stock indexes, and one delta to the
+     * summaries of its holders, which keeps their market values exact despite the rounding of
+     * the new price. A ticker change only renames the stock row.
+     *
+     * @param action The corporate action.
+     * @throws SQLException If a database access error occurs, or the new symbol is taken;
+     *                      nothing is changed in that case.
+     */
+    @Override
+    public void applyCorporateAction(CorporateAction action) throws SQLException {
+        long start = System.nanoTime();
+        DatabaseQueryEvent event = new DatabaseQueryEvent();
+        event.begin();
+        long rows = 0;
+        String lockSql = "SELECT stock_id, current_price FROM stocks WHERE symbol = ? FOR UPDATE";
+        String renameSql = "UPDATE stocks SET symbol = ? WHERE stock_id = ?";
+        String priceSql = "UPDATE stocks SET current_price = ? WHERE stock_id = ?";
+        String deltaSql = "UPDATE portfolio_summary SET market_value = market_value + ? * " +
+                "(SELECT h.quantity FROM holdings h " +
+                "WHERE h.portfolio_id = portfolio_summary.portfolio_id AND h.stock_id = ?) " +
+                "WHERE portfolio_id IN (SELECT portfolio_id FROM holdings WHERE stock_id = ?)";
+        // The ratio is typed, so dividing by it does not run at the unbounded scale of an untyped decimal
+        String typedRatio = "CAST(? AS DECIMAL(19,10))";
+        String positionSql = "UPDATE positions SET quantity = quantity * " + typedRatio + ", " +
+                "purchase_price = purchase_price / " + typedRatio + " WHERE stock_id = ?";
+        String transactionSql = "UPDATE transactions SET quantity = quantity * " + typedRatio + ", " +
+                "price = price / " + typedRatio + " WHERE stock_id = ?";
+        String holdingSql = "UPDATE holdings SET quantity = quantity * " + typedRatio + " WHERE stock_id = ?";
+        String sql = action.getType() == CorporateAction.Type.SPLIT ? positionSql : renameSql;
+
+        try (Connection conn = getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement lock = conn.prepareStatement(lockSql)) {
+
+                // Lock the stock so no position is added or price changed while it is adjusted
+                lock.setString(1, action.getSymbol());
+                int stockId;
+                BigDecimal oldPrice;
+                try (ResultSet rs = lock.executeQuery()) {
+                    if (!rs.next()) {
+                        conn.commit();
+                        return;
+                    }
+                    stockId = rs.getInt("stock_id");
+                    oldPrice = rs.getBigDecimal("current_price");
+                }
+
+                if (action.getType() == CorporateAction.Type.SYMBOL_CHANGE) {
+                    try (PreparedStatement rename = conn.prepareStatement(renameSql)) {
+                        rename.setString(1, action.getNewSymbol());
+                        rename.setInt(2, stockId);
+                        rows = rename.executeUpdate();
+                    }
+                } else {
+                    try (PreparedStatement price = conn.prepareStatement(priceSql);
+                         PreparedStatement delta = conn.prepareStatement(deltaSql);
+                         PreparedStatement positions = conn.prepareStatement(positionSql);
+                         PreparedStatement transactions = conn.prepareStatement(transactionSql);
+                         PreparedStatement holdings = conn.prepareStatement(holdingSql)) {
+
+                        BigDecimal ratio = BigDecimal.valueOf(action.getRatio());
+                        if (oldPrice != null) {
+                            // Store the price rounded as the column holds it, and move the summaries
+                            // by what the holdings are worth at that price, per share before the split
+                            BigDecimal newPrice = oldPrice.divide(ratio, 2, RoundingMode.HALF_UP);
+                            price.setBigDecimal(1, newPrice);
+                            price.setInt(2, stockId);
+                            rows += price.executeUpdate();
+
+                            BigDecimal change = newPrice.multiply(ratio).subtract(oldPrice);
+                            if (change.signum() != 0) {
+                                delta.setBigDecimal(1, change);
+                                delta.setInt(2, stockId);
+                                delta.setInt(3, stockId);
+                                rows += delta.executeUpdate();
+                            }
+                        }
+
+                        positions.setBigDecimal(1, ratio);
+                        positions.setBigDecimal(2, ratio);
+                        positions.setInt(3, stockId);
+                        rows += positions.executeUpdate();
+
+                        transactions.setBigDecimal(1, ratio);
+                        transactions.setBigDecimal(2, ratio);
+                        transactions.setInt(3, stockId);
+                        rows += transactions.executeUpdate();
+
+                        holdings.setBigDecimal(1, ratio);
+                        holdings.setInt(2, stockId);
+                        rows += holdings.executeUpdate();
+                    }
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                rows = 0;
+                conn.rollback();
+                throw e;
+            }
+        } finally {
+            if (rows > 0) {
+                router.recordWrite();
+            }
+            metrics.addRowsWritten(rows);
+            metrics.recordLatency("DatabaseService.applyCorporateAction", start);
+            event.complete("DatabaseService.applyCorporateAction", sql, rows);
+        }
+    }
+
+    /**
+     * Converts a quantity or price to the {@code DECIMAL(10,2)} value the schema stores.
+     *
+     * @param value The value.
+     * @return The value rounded to two decimal places.
+     */
+    private static BigDecimal toDecimal(double value) {
+        return BigDecimal.valueOf(value).setScale(2, RoundingMode.HALF_UP);
+    }
+}
@@ -0,0 +1,1348 @@
+package com.portfolio.repository;
+
+import com.portfolio.metrics.MetricsRegistry;
+import com.portfolio.model.CorporateAction;
+import com.portfolio.model.Portfolio;
+import com.portfolio.model.PortfolioSummary;
+import com.portfolio.model.Position;
+import com.portfolio.model.Stock;
+import com.portfolio.model.Transaction;
+import com.portfolio.util.ConcurrentIntMap;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.ToIntFunction;
+import java.util.function.UnaryOperator;
+
+/**
+ * This class keeps stocks, portfolios, positions and transactions in memory, for simulations
+ * and tests that should not need a database and as a baseline that shows how much of an
+ * operation's time is spent in MySQL.
+ * <p>
+ * Rows are held in {@link ConcurrentIntMap}s keyed by their primitive IDs, which come from
+ * atomic counters as MySQL's auto-increment would assign them. Secondary indexes map symbols
+ * to stocks, and portfolios and stocks to their positions, so no read scans a table. Each
+ * portfolio also keeps one consolidated holding per stock, updated as positions are added. Every
+ * read builds fresh model objects, so callers can modify what they get back without affecting
+ * the stored rows, just as with {@link DatabaseService}.
+ * <p>
+ * Uniqueness of symbols and the foreign keys of positions and transactions are enforced with
+ * the same exception types the MySQL driver throws. Prices are stored unrounded rather than
+ * as {@code DECIMAL(10,2)}.
+ * <p>
+ * Corporate actions replace the rows they adjust, found through the stock to positions index,
+ * one at a time. Unlike in MySQL, a concurrent reader may see a split partly applied.
+ * @author Gaoussou Thiam
+ * @date 10/19/2026
+ * @see com.portfolio.repository.PortfolioRepository
+ * @see com.portfolio.repository.DatabaseService
+ * @see com.portfolio.repository.log.LogStructuredRepository
+ */
+public class InMemoryRepository implements PortfolioRepository {
+
+
+    /** Stocks by ID. */
+    private final ConcurrentIntMap<StockRow> stocks = new ConcurrentIntMap<>();
+
+    /** Stocks by symbol. */
+    private final ConcurrentHashMap<String, StockRow> stocksBySymbol = new ConcurrentHashMap<>();
+
+    /** Portfolios by ID. */
+    private final ConcurrentIntMap<PortfolioRow> portfolios = new ConcurrentIntMap<>();
+
+    /** Positions by ID. */
+    private final ConcurrentIntMap<PositionRow> positions = new ConcurrentIntMap<>();
+
+    /** Positions by portfolio ID. */
+    private final ConcurrentIntMap<RowList<PositionRow>> positionsByPortfolio = new ConcurrentIntMap<>();
+
+    /** Positions by stock ID. */
+    private final ConcurrentIntMap<RowList<PositionRow>> positionsByStock = new ConcurrentIntMap<>();
+
+    /** Consolidated holdings by portfolio ID. */
+    private final ConcurrentIntMap<HoldingList> holdingsByPortfolio = new ConcurrentIntMap<>();
+
+    /** Transactions by ID. */
+    private final ConcurrentIntMap<TransactionRow> transactions = new ConcurrentIntMap<>();
+
+    /** Transactions by portfolio ID. */
+    private final ConcurrentIntMap<RowList<TransactionRow>> transactionsByPortfolio = new ConcurrentIntMap<>();
+
+    /** Last assigned stock ID. */
+    private final AtomicInteger stockIds = new AtomicInteger();
+
+    /** Last assigned portfolio ID. */
+    private final AtomicInteger portfolioIds = new AtomicInteger();
+
+    /** Last assigned position ID. */
+    private final AtomicInteger positionIds = new AtomicInteger();
+
+    /** Last assigned transaction ID. */
+    private final AtomicInteger transactionIds = new AtomicInteger();
+
+    /** Registry that records call latencies and row counts. */
+    private final MetricsRegistry metrics = MetricsRegistry.getDefault();
+
+    /**
+     * Saves a stock, assigning it the next stock ID.
+     *
+     * @param stock The stock to save; its ID is set.
+     * @throws SQLException If the symbol is already taken; nothing is saved in that case.
+     */
+    @Override
+    public void saveStock(Stock stock) throws SQLException {
+        long start = System.nanoTime();
+        try {
+            StockRow row = new StockRow(stockIds.incrementAndGet(), stock.getSymbol(), stock.getCompanyName(),
+                    stock.getSector(), stock.getCurrentPrice());
+            if (stocksBySymbol.putIfAbsent(row.symbol, row) != null) {
+                throw new SQLIntegrityConstraintViolationException(
+                        "Duplicate entry '" + row.symbol + "' for key 'stocks.symbol'");
+            }
+            stocks.put(row.stockId, row);
+            stock.setStockId(row.stockId);
+            metrics.addRowsWritten(1);
+        } finally {
+            metrics.recordLatency("InMemoryRepository.saveStock", start);
+        }
+    }
+
+    /**
+     * Retrieves a stock by its symbol through the symbol index.
+     *
+     * @param symbol The symbol of the stock to retrieve.
+     * @return A copy of the stock with the given symbol, or null if not found.
+     */
+    @Override
+    public Stock getStockBySymbol(String symbol) {
+        long start = System.nanoTime();
+        try {
+            StockRow row = stocksBySymbol.get(symbol);
+            if (row == null) {
+                return null;
+            }
+            metrics.addRowsRead(1);
+            return row.toStock();
+        } finally {
+            metrics.recordLatency("InMemoryRepository.getStockBySymbol", start);
+        }
+    }
+
+    /**
+     * Retrieves every stock.
+     *
+     * @return Copies of the stocks in symbol order.
+     */
+    @Override
+    public List<Stock> getAllStocks() {
+        long start = System.nanoTime();
+        try {
+            List<StockRow> rows = stocks.values();
+            List<Stock> result = new ArrayList<>(rows.size());
+            for (StockRow row : rows) {
+                result.add(row.toStock());
+            }
+            result.sort(Comparator.comparing(Stock::getSymbol));
+            metrics.addRowsRead(result.size());
+            return result;
+        } finally {
+            metrics.recordLatency("InMemoryRepository.getAllStocks", start);
+        }
+    }
+
+    /**
+     * Saves a portfolio without its positions, assigning it the next portfolio ID.
+     *
+     * @param portfolio The portfolio to save; its ID is set.
+     * @throws SQLException Never; declared by the interface.
+     */
+    @Override
+    public void savePortfolio(Portfolio portfolio) throws SQLException {
+        long start = System.nanoTime();
+        try {
+            PortfolioRow row = new PortfolioRow(portfolioIds.incrementAndGet(), portfolio.getName(),
+                    portfolio.getDescription());
+            portfolios.put(row.portfolioId, row);
+            portfolio.setPortfolioId(row.portfolioId);
+            metrics.addRowsWritten(1);
+        } finally {
+            metrics.recordLatency("InMemoryRepository.savePortfolio", start);
+        }
+    }
+
+    /**
+     * Saves a position, indexing it under its portfolio and stock and folding it into the
+     * portfolio's holding of the stock.
+     *
+     * @param portfolioId The ID of the portfolio that contains this position.
+     * @param position    The position to save; its ID is set.
+     * @throws SQLException If the portfolio or stock does not exist; nothing is saved in that case.
+     */
+    @Override
+    public void savePosition(int portfolioId, Position position) throws SQLException {
+        long start = System.nanoTime();
+        try {
+            int stockId = position.getStock().getStockId();
+            requireParents(portfolioId, stockId, "positions");
+            PositionRow row = new PositionRow(positionIds.incrementAndGet(), portfolioId, stockId,
+                    position.getQuantity(), position.getPurchasePrice());
+            insert(row);
+            position.setPositionId(row.positionId);
+            metrics.addRowsWritten(1);
+        } finally {
+            metrics.recordLatency("InMemoryRepository.savePosition", start);
+        }
+    }
+
+    /**
+     * Saves a batch of transactions, checking every foreign key before storing any row.
+     *
+     * @param transactions The transactions to save; their IDs are set.
+     * @throws SQLException If a portfolio or stock does not exist; no transaction is saved in that case.
+     */
+    @Override
+    public void saveTransactions(List<Transaction> transactions) throws SQLException {
+        if (transactions.isEmpty()) {
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            // Check every row first so a failure saves nothing.
+            for (Transaction transaction : transactions) {
+                requireParents(transaction.getPortfolioId(), transaction.getStock().getStockId(), "transactions");
+            }
+            for (Transaction transaction : transactions) {
+                TransactionRow row = new TransactionRow(transactionIds.incrementAndGet(), transaction.getPortfolioId(),
+                        transaction.getStock().getStockId(), transaction.getType(), transaction.getQuantity(),
+                        transaction.getPrice(), transaction.getTransactionDate());
+                insert(row);
+                transaction.setTransactionId(row.transactionId);
+            }
+            metrics.addRowsWritten(transactions.size());
+        } finally {
+            metrics.recordLatency("InMemoryRepository.saveTransactions", start);
+        }
+    }
+
+    /**
+     * Retrieves the transactions of a portfolio in the order they took place.
+     *
+     * @param portfolioId The ID of the portfolio.
+     * @return The portfolio's transactions, oldest first; empty if it has none.
+     */
+    @Override
+    public List<Transaction> getTransactions(int portfolioId) {
+        long start = System.nanoTime();
+        try {
+            RowList<TransactionRow> rows = transactionsByPortfolio.get(portfolioId);
+            if (rows == null) {
+                return new ArrayList<>();
+            }
+            TransactionRow[] snapshot = rows.toArray(new TransactionRow[0]);
+            Arrays.sort(snapshot, Comparator.comparing((TransactionRow row) -> row.transactionDate)
+                    .thenComparingInt(row -> row.transactionId));
+            List<Transaction> transactions = new ArrayList<>(snapshot.length);
+            for (TransactionRow row : snapshot) {
+                transactions.add(row.toTransaction(stocks.get(row.stockId).toStock()));
+            }
+            metrics.addRowsRead(transactions.size());
+            return transactions;
+        } finally {
+            metrics.recordLatency("InMemoryRepository.getTransactions", start);
+        }
+    }
+
+    /**
+     * Retrieves the transactions of every portfolio in one pass over the portfolio index.
+     *
+     * @return The transactions in ascending portfolio ID order, each portfolio's oldest first.
+     */
+    @Override
+    public List<Transaction> getAllTransactions() {
+        long start = System.nanoTime();
+        try {
+            List<TransactionRow> all = new ArrayList<>();
+            for (RowList<TransactionRow> rows : transactionsByPortfolio.values()) {
+                all.addAll(Arrays.asList(rows.toArray(new TransactionRow[0])));
+            }
+            all.sort(Comparator.comparingInt((TransactionRow row) -> row.portfolioId)
+                    .thenComparing(row -> row.transactionDate)
+                    .thenComparingInt(row -> row.transactionId));
+            List<Transaction> transactions = new ArrayList<>(all.size());
+            for (TransactionRow row : all) {
+                transactions.add(row.toTransaction(stocks.get(row.stockId).toStock()));
+            }
+            metrics.addRowsRead(transactions.size());
+            return transactions;
+        } finally {
+            metrics.recordLatency("InMemoryRepository.getAllTransactions", start);
+        }
+    }
+
+    /**
+     * Retrieves a portfolio with all its positions.
+     *
+     * @param portfolioId The ID of the portfolio to retrieve.
+     * @return The portfolio with all its positions, or null if not found.
+     */
+    @Override
+    public Portfolio getPortfolio(int portfolioId) {
+        long start = System.nanoTime();
+        try {
+            PortfolioRow row = portfolios.get(portfolioId);
+            if (row == null) {
+                return null;
+            }
+            Portfolio portfolio = row.toPortfolio();
+            RowList<PositionRow> rows = positionsByPortfolio.get(portfolioId);
+            int read = 1;
+            if (rows != null) {
+                PositionRow[] snapshot = rows.toArray(new PositionRow[0]);
+                for (PositionRow position : snapshot) {
+                    portfolio.addPosition(position.toPosition(stocks.get(position.stockId).toStock()));
+                }
+                read = Math.max(1, snapshot.length);
+            }
+            metrics.addRowsRead(read);
+            return portfolio;
+        } finally {
+            metrics.recordLatency("InMemoryRepository.getPortfolio", start);
+        }
+    }
+
+    /**
+     * Gets a page of a portfolio's positions by binary search for the keyset in the
+     * portfolio's position list, which is kept in ID order.
+     *
+     * @param portfolioId     The ID of the portfolio.
+     * @param afterPositionId The last position ID of the previous page, or 0 for the first page.
+     * @param limit           The maximum number of positions to return.
+     * @return The positions; fewer than the limit only on the last page.
+     */
+    @Override
+    public List<Position> getPositions(int portfolioId, int afterPositionId, int limit) {
+        long start = System.nanoTime();
+        try {
+            RowList<PositionRow> rows = positionsByPortfolio.get(portfolioId);
+            if (rows == null) {
+                return new ArrayList<>();
+            }
+            PositionRow[] page = rows.page(afterPositionId, limit, new PositionRow[0]);
+            List<Position> positions = new ArrayList<>(page.length);
+            for (PositionRow row : page) {
+                positions.add(row.toPosition(stocks.get(row.stockId).toStock()));
+            }
+            metrics.addRowsRead(positions.size());
+            return positions;
+        } finally {
+            metrics.recordLatency("InMemoryRepository.getPositions", start);
+        }
+    }
+
+    /**
+     * Gets a page of the positions of every portfolio by walking the dense portfolio IDs from
+     * the keyset's portfolio and paging each portfolio's position list until the page is full.
+     *
+     * @param afterPortfolioId The portfolio of the last position of the previous page, or 0 for
+     *                         the first page.
+     * @param afterPositionId  The last position ID of the previous page, or 0 for the first page.
+     * @param limit            The maximum number of positions to return.
+     * @return The portfolios of the page in ascending ID order, each with its positions of the
+     *         page; fewer than the limit positions in total only on the last page.
+     */
+    @Override
+    public List<Portfolio> getAllPositions(int afterPortfolioId, int afterPositionId, int limit) {
+        long start = System.nanoTime();
+        try {
+            List<Portfolio> result = new ArrayList<>();
+            int remaining = limit;
+            int last = portfolioIds.get();
+            for (int id = Math.max(1, afterPortfolioId); id <= last && remaining > 0; id++) {
+                PortfolioRow row = portfolios.get(id);
+                RowList<PositionRow> rows = positionsByPortfolio.get(id);
+                if (row == null || rows == null) {
+                    continue;
+                }
+                PositionRow[] page = rows.page(id == afterPortfolioId ? afterPositionId : 0, remaining,
+                        new PositionRow[0]);
+                if (page.length == 0) {
+                    continue;
+                }
+                Portfolio portfolio = new Portfolio(row.name, null);
+                portfolio.setPortfolioId(id);
+                for (PositionRow position : page) {
+                    portfolio.addPosition(position.toPosition(stocks.get(position.stockId).toStock()));
+                }
+                result.add(portfolio);
+                remaining -= page.length;
+            }
+            metrics.addRowsRead(limit - remaining);
+            return result;
+        } finally {
+            metrics.recordLatency("InMemoryRepository.getAllPositions", start);
+        }
+    }
+
+    /**
+     * Retrieves a portfolio with its consolidated holdings, one position per stock rather than
+     * one per purchase.
+     *
+     * @param portfolioId The ID of the portfolio to retrieve.
+     * @return The portfolio with its holdings, or null if not found.
+     */
+    @Override
+    public Portfolio getHoldings(int portfolioId) {
+        long start = System.nanoTime();
+        try {
+            PortfolioRow row = portfolios.get(portfolioId);
+            if (row == null) {
+                return null;
+            }
+            Portfolio portfolio = row.toPortfolio();
+            HoldingList holdings = holdingsByPortfolio.get(portfolioId);
+            int read = 1;
+            if (holdings != null) {
+                HoldingRow[] snapshot = holdings.toArray();
+                for (HoldingRow holding : snapshot) {
+                    portfolio.addPosition(holding.toPosition(stocks.get(holding.stockId).toStock()));
+                }
+                read = Math.max(1, snapshot.length);
+            }
+            metrics.addRowsRead(read);
+            return portfolio;
+        } finally {
+            metrics.recordLatency("InMemoryRepository.getHoldings", start);
+        }
+    }
+
+    /**
+     * Retrieves all portfolios without their positions.
+     *
+     * @return The portfolios in ascending ID order.
+     */
+    @Override
+    public List<Portfolio> getAllPortfolios() {
+        long start = System.nanoTime();
+        try {
+            int last = portfolioIds.get();
+            List<Portfolio> result = new ArrayList<>(last);
+            // IDs are dense, so walking them returns portfolios in key order without sorting.
+            for (int id = 1; id <= last; id++) {
+                PortfolioRow row = portfolios.get(id);
+                if (row != null) {
+                    result.add(row.toPortfolio());
+                }
+            }
+            metrics.addRowsRead(result.size());
+            return result;
+        } finally {
+            metrics.recordLatency("InMemoryRepository.getAllPortfolios", start);
+        }
+    }
+
+    /**
+     * Computes the summary of every portfolio from its holdings at current prices.
+     * Nothing is materialised, as the positions are already in memory; the time of the last
+     * change is not tracked and is null.
+     *
+     * @return The summaries in ascending portfolio ID order.
+     */
+    @Override
+    public List<PortfolioSummary> getPortfolioSummaries() {
+        long start = System.nanoTime();
+        try {
+            int last = portfolioIds.get();
+            List<PortfolioSummary> result = new ArrayList<>(last);
+            for (int id = 1; id <= last; id++) {
+                PortfolioRow row = portfolios.get(id);
+                if (row != null) {
+                    result.add(summarize(row));
+                }
+            }
+            metrics.addRowsRead(result.size());
+            return result;
+        } finally {
+            metrics.recordLatency("InMemoryRepository.getPortfolioSummaries", start);
+        }
+    }
+
+    /**
+     * Computes the summary of one portfolio from its holdings at current prices.
+     *
+     * @param portfolioId The ID of the portfolio.
+     * @return The summary, or null if the portfolio does not exist.
+     */
+    @Override
+    public PortfolioSummary getPortfolioSummary(int portfolioId) {
+        long start = System.nanoTime();
+        try {
+            PortfolioRow row = portfolios.get(portfolioId);
+            if (row == null) {
+                return null;
+            }
+            metrics.addRowsRead(1);
+            return summarize(row);
+        } finally {
+            metrics.recordLatency("InMemoryRepository.getPortfolioSummary", start);
+        }
+    }
+
+    /**
+     * Updates the current price of a stock. Summaries are computed from the holdings at read
+     * time, so nothing else changes.
+     *
+     * @param symbol   The symbol of the stock to update; an unknown symbol is ignored.
+     * @param newPrice The new price of the stock.
+     * @throws SQLException Never; declared by the interface.
+     */
+    @Override
+    public void updateStockPrice(String symbol, double newPrice) throws SQLException {
+        long start = System.nanoTime();
+        try {
+            StockRow row = stocksBySymbol.get(symbol);
+            if (row != null) {
+                row.currentPrice = newPrice;
+                metrics.addRowsWritten(1);
+            }
+        } finally {
+            metrics.recordLatency("InMemoryRepository.updateStockPrice", start);
+        }
+    }
+
+    /**
+     * Applies a split or ticker change. A split replaces the stock's positions, holdings and
+     * transactions with split copies; a ticker change re-indexes the stock under its new symbol.
+     *
+     * @param action The corporate action; an unknown symbol is ignored.
+     * @throws SQLException If the new symbol is taken; nothing is changed in that case.
+     */
+    @Override
+    public synchronized void applyCorporateAction(CorporateAction action) throws SQLException {
+        long start = System.nanoTime();
+        try {
+            StockRow row = stocksBySymbol.get(action.getSymbol());
+            if (row == null) {
+                return;
+            }
+            if (action.getType() == CorporateAction.Type.SYMBOL_CHANGE) {
+                if (stocksBySymbol.putIfAbsent(action.getNewSymbol(), row) != null) {
+                    throw new SQLIntegrityConstraintViolationException(
+                            "Duplicate entry '" + action.getNewSymbol() + "' for key 'stocks.symbol'");
+                }
+                rename(row, action.getNewSymbol());
+                metrics.addRowsWritten(1);
+            } else {
+                metrics.addRowsWritten(split(row, action.getRatio()));
+            }
+        } finally {
+            metrics.recordLatency("InMemoryRepository.applyCorporateAction", start);
+        }
+    }
+
+    /**
+     * Gets the IDs of the portfolios holding a symbol, using the stock to positions index.
+     *
+     * @param symbol The symbol.
+     * @return The distinct portfolio IDs in ascending order; empty if the symbol is unknown or unheld.
+     */
+    public int[] getPortfolioIdsHolding(String symbol) {
+        StockRow stock = stocksBySymbol.get(symbol);
+        RowList<PositionRow> rows = stock == null ? null : positionsByStock.get(stock.stockId);
+        if (rows == null) {
+            return new int[0];
+        }
+        return Arrays.stream(rows.toArray(new PositionRow[0]))
+                .mapToInt(row -> row.portfolioId)
+                .sorted()
+                .distinct()
+                .toArray();
+    }
+
+    /**
+     * Checks whether a stock with a symbol is stored.
+     *
+     * @param symbol The symbol.
+     * @return True if the stock exists.
+     */
+    protected boolean containsSymbol(String symbol) {
+        return stocksBySymbol.containsKey(symbol);
+    }
+
+    /**
+     * Visits every stored row, for example to write a snapshot. Rows of each table are visited
+     * in ID order, stocks first, then portfolios, positions and transactions. The visit is not
+     * atomic: rows written concurrently may or may not be included, and prices are read as
+     * they are at the time each stock is visited.
+     *
+     * @param visitor The visitor.
+     * @throws IOException If the visitor fails.
+     */
+    protected void visitRows(RowVisitor visitor) throws IOException {
+        List<StockRow> stockRows = stocks.values();
+        stockRows.sort(Comparator.comparingInt(row -> row.stockId));
+        for (StockRow row : stockRows) {
+            visitor.stock(row.stockId, row.symbol, row.companyName, row.sector, row.currentPrice);
+        }
+        List<PortfolioRow> portfolioRows = portfolios.values();
+        portfolioRows.sort(Comparator.comparingInt(row -> row.portfolioId));
+        for (PortfolioRow row : portfolioRows) {
+            visitor.portfolio(row.portfolioId, row.name, row.description);
+        }
+        List<PositionRow> positionRows = positions.values();
+        positionRows.sort(Comparator.comparingInt(row -> row.positionId));
+        for (PositionRow row : positionRows) {
+            visitor.position(row.positionId, row.portfolioId, row.stockId, row.quantity, row.purchasePrice);
+        }
+        List<TransactionRow> transactionRows = transactions.values();
+        transactionRows.sort(Comparator.comparingInt(row -> row.transactionId));
+        for (TransactionRow row : transactionRows) {
+            visitor.transaction(row.transactionId, row.portfolioId, row.stockId, row.type, row.quantity, row.price,
+                    row.transactionDate);
+        }
+    }
+
+    /**
+     * Gets a visitor that stores the rows it is given with their original IDs, for example
+     * while recovering from a snapshot or log. Restoring is idempotent: a row whose ID is
+     * already stored is skipped, so a log may be replayed over a snapshot that already holds
+     * some of its effects. Constraints are not checked and no metrics are recorded.
+     *
+     * @return The restoring visitor.
+     */
+    protected RowVisitor restorer() {
+        return new RowVisitor() {
+            @Override
+            public void stock(int stockId, String symbol, String companyName, String sector, double currentPrice) {
+                stockIds.accumulateAndGet(stockId, Math::max);
+                if (!stocks.containsKey(stockId)) {
+                    StockRow row = new StockRow(stockId, symbol, companyName, sector, currentPrice);
+                    stocks.put(stockId, row);
+                    stocksBySymbol.put(symbol, row);
+                }
+            }
+
+            @Override
+            public void portfolio(int portfolioId, String name, String description) {
+                portfolioIds.accumulateAndGet(portfolioId, Math::max);
+                portfolios.putIfAbsent(portfolioId, new PortfolioRow(portfolioId, name, description));
+            }
+
+            @Override
+            public void position(int positionId, int portfolioId, int stockId, double quantity, double purchasePrice) {
+                positionIds.accumulateAndGet(positionId, Math::max);
+                if (!positions.containsKey(positionId)) {
+                    insert(new PositionRow(positionId, portfolioId, stockId, quantity, purchasePrice));
+                }
+            }
+
+            @Override
+            public void transaction(int transactionId, int portfolioId, int stockId, Transaction.TransactionType type,
+                                    double quantity, double price, LocalDateTime transactionDate) {
+                transactionIds.accumulateAndGet(transactionId, Math::max);
+                if (!transactions.containsKey(transactionId)) {
+                    insert(new TransactionRow(transactionId, portfolioId, stockId, type, quantity, price,
+                            transactionDate));
+                }
+            }
+
+            @Override
+            public void stockPrice(String symbol, double price) {
+                StockRow row = stocksBySymbol.get(symbol);
+                if (row != null) {
+                    row.currentPrice = price;
+                }
+            }
+
+            @Override
+            public void split(String symbol, double ratio) {
+                StockRow row = stocksBySymbol.get(symbol);
+                if (row != null) {
+                    InMemoryRepository.this.split(row, ratio);
+                }
+            }
+
+            @Override
+            public void symbolChange(String symbol, String newSymbol) {
+                StockRow row = stocksBySymbol.get(symbol);
+                if (row != null && stocksBySymbol.putIfAbsent(newSymbol, row) == null) {
+                    rename(row, newSymbol);
+                }
+            }
+        };
+    }
+
+    /**
+     * Splits a stock: divides its price and replaces its positions, their holdings and its
+     * transactions with split copies. Positions are found through the stock index and only the
+     * portfolios holding the stock are touched; transactions have no stock index and are scanned.
+     *
+     * @param stock The stock.
+     * @param ratio New shares per old share.
+     * @return The number of rows replaced.
+     */
+    private int split(StockRow stock, double ratio) {
+        int stockId = stock.stockId;
+        stock.currentPrice = stock.currentPrice / ratio;
+        int replaced = 1;
+        RowList<PositionRow> held = positionsByStock.get(stockId);
+        if (held != null) {
+            held.replaceAll(row -> {
+                PositionRow split = new PositionRow(row.positionId, row.portfolioId, stockId, row.quantity * ratio,
+                        row.purchasePrice / ratio);
+                positions.put(split.positionId, split);
+                return split;
+            });
+            PositionRow[] snapshot = held.toArray(new PositionRow[0]);
+            int[] holders = Arrays.stream(snapshot).mapToInt(row -> row.portfolioId).distinct().toArray();
+            for (int portfolioId : holders) {
+                positionsByPortfolio.get(portfolioId)
+                        .replaceAll(row -> row.stockId == stockId ? positions.get(row.positionId) : row);
+                holdingsByPortfolio.get(portfolioId).split(stockId, ratio);
+            }
+            replaced += snapshot.length;
+        }
+        for (RowList<TransactionRow> traded : transactionsByPortfolio.values()) {
+            traded.replaceAll(row -> {
+                if (row.stockId != stockId) {
+                    return row;
+                }
+                TransactionRow split = new TransactionRow(row.transactionId, row.portfolioId, stockId, row.type,
+                        row.quantity * ratio, row.price / ratio, row.transactionDate);
+                transactions.put(split.transactionId, split);
+                return split;
+            });
+        }
+        return replaced;
+    }
+
+    /**
+     * Renames a stock already indexed under its new symbol as well, and drops the old symbol.
+     *
+     * @param stock     The stock.
+     * @param newSymbol The new symbol.
+     */
+    private void rename(StockRow stock, String newSymbol) {
+        String oldSymbol = stock.symbol;
+        stock.symbol = newSymbol;
+        stocksBySymbol.remove(oldSymbol, stock);
+    }
+
+    /**
+     * Computes the summary of a portfolio from its holdings at current prices.
+     *
+     * @param row The portfolio.
+     * @return The summary, without the time of the last change.
+     */
+    private PortfolioSummary summarize(PortfolioRow row) {
+        HoldingList holdings = holdingsByPortfolio.get(row.portfolioId);
+        double marketValue = 0;
+        double costBasis = 0;
+        int positionCount = 0;
+        if (holdings != null) {
+            for (HoldingRow holding : holdings.toArray()) {
+                marketValue += holding.quantity * stocks.get(holding.stockId).currentPrice;
+                costBasis += holding.costBasis;
+                positionCount += holding.lotCount;
+            }
+        }
+        return new PortfolioSummary(row.portfolioId, row.name, marketValue, costBasis, positionCount, null);
+    }
+
+    /**
+     * Stores a position row, adds it to the portfolio and stock indexes and folds it into the
+     * portfolio's holding of the stock.
+     *
+     * @param row The position row.
+     */
+    private void insert(PositionRow row) {
+        positions.put(row.positionId, row);
+        positionsByPortfolio.computeIfAbsent(row.portfolioId, id -> new RowList<>(PositionRow::id)).add(row);
+        positionsByStock.computeIfAbsent(row.stockId, id -> new RowList<>(PositionRow::id)).add(row);
+        holdingsByPortfolio.computeIfAbsent(row.portfolioId, id -> new HoldingList())
+                .add(row.stockId, row.quantity, row.quantity * row.purchasePrice);
+    }
+
+    /**
+     * Stores a transaction row and adds it to the portfolio index.
+     *
+     * @param row The transaction row.
+     */
+    private void insert(TransactionRow row) {
+        transactions.put(row.transactionId, row);
+        transactionsByPortfolio.computeIfAbsent(row.portfolioId, id -> new RowList<>(TransactionRow::id)).add(row);
+    }
+
+    /**
+     * Enforces the foreign keys of a position or transaction.
+     *
+     * @param portfolioId The referenced portfolio.
+     * @param stockId     The referenced stock.
+     * @param table       The child table, for the error message.
+     * @throws SQLIntegrityConstraintViolationException If either parent does not exist.
+     */
+    private void requireParents(int portfolioId, int stockId, String table)
+            throws SQLIntegrityConstraintViolationException {
+        if (!portfolios.containsKey(portfolioId)) {
+            throw new SQLIntegrityConstraintViolationException("Cannot add or update a child row: a foreign key "
+                    + "constraint fails (" + table + ".portfolio_id = " + portfolioId + ")");
+        }
+        if (!stocks.containsKey(stockId)) {
+            throw new SQLIntegrityConstraintViolationException("Cannot add or update a child row: a foreign key "
+                    + "constraint fails (" + table + ".stock_id = " + stockId + ")");
+        }
+    }
+
+    /**
+     * Receives stored rows column by column, in the form they are kept, without building
+     * model objects.
+     */
+    public interface RowVisitor {
+
+        /**
+         * Receives a stock.
+         *
+         * @param stockId      The stock ID.
+         * @param symbol       The ticker symbol.
+         * @param companyName  The company name.
+         * @param sector       The sector, or null.
+         * @param currentPrice The current price.
+         * @throws IOException If the row cannot be handled.
+         */
+        void stock(int stockId, String symbol, String companyName, String sector, double currentPrice)
+                throws IOException;
+
+        /**
+         * Receives a portfolio.
+         *
+         * @param portfolioId The portfolio ID.
+         * @param name        The name.
+         * @param description The description, or null.
+         * @throws IOException If the row cannot be handled.
+         */
+        void portfolio(int portfolioId, String name, String description) throws IOException;
+
+        /**
+         * Receives a position.
+         *
+         * @param positionId    The position ID.
+         * @param portfolioId   The owning portfolio.
+         * @param stockId       The stock held.
+         * @param quantity      The quantity.
+         * @param purchasePrice The purchase price.
+         * @throws IOException If the row cannot be handled.
+         */
+        void position(int positionId, int portfolioId, int stockId, double quantity, double purchasePrice)
+                throws IOException;
+
+        /**
+         * Receives a transaction.
+         *
+         * @param transactionId   The transaction ID.
+         * @param portfolioId     The portfolio traded.
+         * @param stockId         The stock traded.
+         * @param type            Buy or sell.
+         * @param quantity        The quantity.
+         * @param price           The price.
+         * @param transactionDate When the trade took place.
+         * @throws IOException If the row cannot be handled.
+         */
+        void transaction(int transactionId, int portfolioId, int stockId, Transaction.TransactionType type,
+                         double quantity, double price, LocalDateTime transactionDate) throws IOException;
+
+        /**
+         * Receives a price change of an existing stock. Only logs produce these; snapshots carry
+         * the price in the stock row.
+         *
+         * @param symbol The ticker symbol.
+         * @param price  The new price.
+         * @throws IOException If the change cannot be handled.
+         */
+        void stockPrice(String symbol, double price) throws IOException;
+
+        /**
+         * Receives a split of an existing stock. Only logs produce these; snapshots carry the
+         * split rows.
+         *
+         * @param symbol The ticker symbol.
+         * @param ratio  New shares per old share.
+         * @throws IOException If the split cannot be handled.
+         */
+        void split(String symbol, double ratio) throws IOException;
+
+        /**
+         * Receives a ticker change of an existing stock. Only logs produce these; snapshots
+         * carry the new symbol in the stock row.
+         *
+         * @param symbol    The old ticker symbol.
+         * @param newSymbol The new ticker symbol.
+         * @throws IOException If the change cannot be handled.
+         */
+        void symbolChange(String symbol, String newSymbol) throws IOException;
+    }
+
+    /**
+     * An append-only list of rows in ID order that can be snapshotted or paged while other
+     * threads append, and whose rows can be replaced in place by a corporate action.
+     *
+     * @param <T> The type of the rows.
+     */
+    private static final class RowList<T> {
+
+        /** Gets the ID of a row. */
+        private final ToIntFunction<T> id;
+
+        /** The rows in ascending ID order; only the first {@code size} slots are used. */
+        private Object[] rows = new Object[4];
+
+        /** Number of rows. */
+        private int size;
+
+        /**
+         * Constructs an empty list.
+         *
+         * @param id Gets the ID of a row.
+         */
+        RowList(ToIntFunction<T> id) {
+            this.id = id;
+        }
+
+        /**
+         * Adds a row, normally at the end. IDs are assigned before rows are added, so a
+         * concurrent save can arrive with a lower ID just after a higher one; it is moved
+         * back into place.
+         *
+         * @param row The row.
+         */
+        synchronized void add(T row) {
+            if (size == rows.length) {
+                rows = Arrays.copyOf(rows, size * 2);
+            }
+            int key = id.applyAsInt(row);
+            int at = size;
+            while (at > 0 && idAt(at - 1) > key) {
+                rows[at] = rows[at - 1];
+                at--;
+            }
+            rows[at] = row;
+            size++;
+        }
+
+        /**
+         * Copies the rows with IDs after a given one, found by binary search.
+         *
+         * @param afterId The ID the page starts after.
+         * @param limit   The maximum number of rows.
+         * @param type    An empty array of the row type.
+         * @return The rows in ID order.
+         */
+        @SuppressWarnings("unchecked")
+        synchronized T[] page(int afterId, int limit, T[] type) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (idAt(middle) <= afterId) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return (T[]) Arrays.copyOfRange(rows, low, low + Math.min(limit, size - low), type.getClass());
+        }
+
+        /**
+         * Gets the ID of the row at an index.
+         *
+         * @param index The index.
+         * @return The ID.
+         */
+        @SuppressWarnings("unchecked")
+        private int idAt(int index) {
+            return id.applyAsInt((T) rows[index]);
+        }
+
+        /**
+         * Replaces every row with the result of a function, in place.
+         *
+         * @param function Returns the replacement of a row, or the row itself to keep it.
+         */
+        @SuppressWarnings("unchecked")
+        synchronized void replaceAll(UnaryOperator<T> function) {
+            for (int i = 0; i < size; i++) {
+                rows[i] = function.apply((T) rows[i]);
+            }
+        }
+
+        /**
+         * Copies the rows.
+         *
+         * @param type An empty array of the row type.
+         * @return The rows in insertion order.
+         */
+        @SuppressWarnings("unchecked")
+        synchronized T[] toArray(T[] type) {
+            return (T[]) Arrays.copyOf(rows, size, type.getClass());
+        }
+    }
+
+    /**
+     * The consolidated holdings of one portfolio, one per stock in the order first bought.
+     * Rows are immutable and replaced on every change, so a copy of the array is a consistent
+     * snapshot.
+     */
+    private static final class HoldingList {
+
+        /** The holdings; only the first {@code size} slots are used. */
+        private HoldingRow[] rows = new HoldingRow[4];
+
+        /** Number of holdings. */
+        private int size;
+
+        /** Open-addressing index from stock ID to the position in {@link #rows} plus one; 0 is empty. */
+        private int[] index = new int[8];
+
+        /**
+         * Adds a lot to the holding of a stock, creating the holding if needed.
+         *
+         * @param stockId  The stock bought.
+         * @param quantity The quantity of the lot.
+         * @param cost     The cost of the lot.
+         */
+        synchronized void add(int stockId, double quantity, double cost) {
+            int slot = find(stockId);
+            if (index[slot] != 0) {
+                HoldingRow held = rows[index[slot] - 1];
+                rows[index[slot] - 1] = new HoldingRow(stockId, held.quantity + quantity, held.costBasis + cost,
+                        held.lotCount + 1);
+                return;
+            }
+            if (size == rows.length) {
+                rows = Arrays.copyOf(rows, size * 2);
+            }
+            rows[size++] = new HoldingRow(stockId, quantity, cost, 1);
+            index[slot] = size;
+            if (size * 2 > index.length) {
+                rehash();
+            }
+        }
+
+        /**
+         * Adjusts the holding of a stock for a split; the cost is unchanged.
+         *
+         * @param stockId The stock.
+         * @param ratio   New shares per old share.
+         */
+        synchronized void split(int stockId, double ratio) {
+            int slot = find(stockId);
+            if (index[slot] != 0) {
+                HoldingRow held = rows[index[slot] - 1];
+                rows[index[slot] - 1] = new HoldingRow(stockId, held.quantity * ratio, held.costBasis,
+                        held.lotCount);
+            }
+        }
+
+        /**
+         * Copies the holdings.
+         *
+         * @return The holdings in the order their stocks were first bought.
+         */
+        synchronized HoldingRow[] toArray() {
+            return Arrays.copyOf(rows, size);
+        }
+
+        /**
+         * Finds the index slot of a stock, or the empty slot where it belongs.
+         *
+         * @param stockId The stock ID.
+         * @return The slot.
+         */
+        private int find(int stockId) {
+            int mask = index.length - 1;
+            int hash = stockId * 0x9E3779B9;
+            int slot = (hash ^ (hash >>> 16)) & mask;
+            while (index[slot] != 0 && rows[index[slot] - 1].stockId != stockId) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+
+        /**
+         * Doubles the index and re-inserts every holding.
+         */
+        private void rehash() {
+            index = new int[index.length * 2];
+            for (int i = 0; i < size; i++) {
+                index[find(rows[i].stockId)] = i + 1;
+            }
+        }
+    }
+
+    /**
+     * A portfolio's consolidated holding of one stock: the sum of its lots and their cost.
+     */
+    private static final class HoldingRow {
+
+        /** The stock held. */
+        final int stockId;
+
+        /** The total quantity of all lots. */
+        final double quantity;
+
+        /** The total cost of all lots. */
+        final double costBasis;
+
+        /** The number of lots. */
+        final int lotCount;
+
+        /**
+         * Constructs a holding row.
+         *
+         * @param stockId   The stock held.
+         * @param quantity  The total quantity of all lots.
+         * @param costBasis The total cost of all lots.
+         * @param lotCount  The number of lots.
+         */
+        HoldingRow(int stockId, double quantity, double costBasis, int lotCount) {
+            this.stockId = stockId;
+            this.quantity = quantity;
+            this.costBasis = costBasis;
+            this.lotCount = lotCount;
+        }
+
+        /**
+         * Builds a fresh model object priced at the weighted-average cost of the lots.
+         *
+         * @param stock The stock at its current price.
+         * @return The position, without an ID since it is not a stored row.
+         */
+        Position toPosition(Stock stock) {
+            return new Position(stock, quantity, costBasis / quantity);
+        }
+    }
+
+    /**
+     * A stored stock. The price and, through a ticker change, the symbol are the only columns
+     * that change.
+     */
+    private static final class StockRow {
+
+        /** The stock ID. */
+        final int stockId;
+
+        /** The ticker symbol. */
+        volatile String symbol;
+
+        /** The company name. */
+        final String companyName;
+
+        /** The sector. */
+        final String sector;
+
+        /** The current price. */
+        volatile double currentPrice;
+
+        /**
+         * Constructs a stock row.
+         *
+         * @param stockId      The stock ID.
+         * @param symbol       The ticker symbol.
+         * @param companyName  The company name.
+         * @param sector       The sector.
+         * @param currentPrice The current price.
+         */
+        StockRow(int stockId, String symbol, String companyName, String sector, double currentPrice) {
+            this.stockId = stockId;
+            this.symbol = symbol;
+            this.companyName = companyName;
+            this.sector = sector;
+            this.currentPrice = currentPrice;
+        }
+
+        /**
+         * Builds a fresh model object.
+         *
+         * @return The stock.
+         */
+        Stock toStock() {
+            Stock stock = new Stock(symbol, companyName, sector, currentPrice);
+            stock.setStockId(stockId);
+            return stock;
+        }
+    }
+
+    /**
+     * A stored portfolio.
+     */
+    private static final class PortfolioRow {
+
+        /** The portfolio ID. */
+        final int portfolioId;
+
+        /** The name. */
+        final String name;
+
+        /** The description. */
+        final String description;
+
+        /**
+         * Constructs a portfolio row.
+         *
+         * @param portfolioId The portfolio ID.
+         * @param name        The name.
+         * @param description The description.
+         */
+        PortfolioRow(int portfolioId, String name, String description) {
+            this.portfolioId = portfolioId;
+            this.name = name;
+            this.description = description;
+        }
+
+        /**
+         * Builds a fresh model object without positions.
+         *
+         * @return The portfolio.
+         */
+        Portfolio toPortfolio() {
+            Portfolio portfolio = new Portfolio(name, description);
+            portfolio.setPortfolioId(portfolioId);
+            return portfolio;
+        }
+    }
+
+    /**
+     * A stored position.
+     */
+    private static final class PositionRow {
+
+        /** The position ID. */
+        final int positionId;
+
+        /** The owning portfolio. */
+        final int portfolioId;
+
+        /** The stock held. */
+        final int stockId;
+
+        /** The quantity. */
+        final double quantity;
+
+        /** The purchase price. */
+        final double purchasePrice;
+
+        /**
+         * Constructs a position row.
+         *
+         * @param positionId    The position ID.
+         * @param portfolioId   The owning portfolio.
+         * @param stockId       The stock held.
+         * @param quantity      The quantity.
+         * @param purchasePrice The purchase price.
+         */
+        PositionRow(int positionId, int portfolioId, int stockId, double quantity, double purchasePrice) {
+            this.positionId = positionId;
+            this.portfolioId = portfolioId;
+            this.stockId = stockId;
+            this.quantity = quantity;
+            this.purchasePrice = purchasePrice;
+        }
+
+        /**
+         * Gets the position ID.
+         *
+         * @return The position ID.
+         */
+        int id() {
+            return positionId;
+        }
+
+        /**
+         * Builds a fresh model object.
+         *
+         * @param stock The stock at its current price.
+         * @return The position.
+         */
+        Position toPosition(Stock stock) {
+            Position position = new Position(stock, quantity, purchasePrice);
+            position.setPositionId(positionId);
+            return position;
+        }
+    }
+
+    /**
+     * A stored transaction.
+     */
+    private static final class TransactionRow {
+
+        /** The transaction ID. */
+        final int transactionId;
+
+        /** The portfolio traded. */
+        final int portfolioId;
+
+        /** The stock traded. */
+        final int stockId;
+
+        /** Buy or sell. */
+        final Transaction.TransactionType type;
+
+        /** The quantity. */
+        final double quantity;
+
+        /** The price. */
+        final double price;
+
+        /** When the trade took place. */
+        final LocalDateTime transactionDate;
+
+        /**
+         * Constructs a transaction row.
+         *
+         * @param transactionId   The transaction ID.
+         * @param portfolioId     The portfolio traded.
+         * @param stockId         The stock traded.
+         * @param type            Buy or sell.
+         * @param quantity        The quantity.
+         * @param price           The price.
+         * @param transactionDate When the trade took place.
+         */
+        TransactionRow(int transactionId, int portfolioId, int stockId, Transaction.TransactionType type,
+                       double quantity, double price, LocalDateTime transactionDate) {
+            this.transactionId = transactionId;
+            this.portfolioId = portfolioId;
+            this.stockId = stockId;
+            this.type = type;
+            this.quantity = quantity;
+            this.price = price;
+            this.transactionDate = transactionDate;
+        }
+
+        /**
+         * Gets the transaction ID.
+         *
+         * @return The transaction ID.
+         */
+        int id() {
+            return transactionId;
+        }
+
+        /**
+         * Builds a fresh model object.
+         *
+         * @param stock The stock at its current price.
+         * @return The transaction.
+         */
+        Transaction toTransaction(Stock stock) {
+            Transaction transaction = new Transaction(portfolioId, stock, type, quantity, price, transactionDate);
+            transaction.setTransactionId(transactionId);
+            return transaction;
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package com.portfolio.repository;
+
+import com.portfolio.model.CorporateAction;
+import com.portfolio.model.Portfolio;
+import com.portfolio.model.PortfolioSummary;
+import com.portfolio.model.Position;
+import com.portfolio.model.Stock;
+import com.portfolio.model.Transaction;
+
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * This interface defines the persistence operations the service layer needs for stocks,
+ * portfolios, positions and transactions. Implementations assign IDs to saved objects and
+ * return fresh objects from every read, so callers never share state through the repository.
+ * @author Gaoussou Thiam
+ * @date 10/19/2026
+ * @see com.portfolio.repository.DatabaseService
+ * @see com.portfolio.repository.InMemoryRepository
+ * @see com.portfolio.service.PortfolioManager
+ */
+public interface PortfolioRepository {
+
+    /**
+     * Saves a stock and sets its ID.
+     *
+     * @param stock The stock to save.
+     * @throws SQLException If the stock cannot be saved, for example because its symbol exists.
+     */
+    void saveStock(Stock stock) throws SQLException;
+
+    /**
+     * Retrieves a stock by its symbol.
+     *
+     * @param symbol The symbol of the stock to retrieve.
+     * @return The stock with the given symbol, or null if not found.
+     * @throws SQLException If a data access error occurs.
+     */
+    Stock getStockBySymbol(String symbol) throws SQLException;
+
+    /**
+     * Retrieves every stock, the stock master.
+     *
+     * @return The stocks in symbol order.
+     * @throws SQLException If a data access error occurs.
+     */
+    List<Stock> getAllStocks() throws SQLException;
+
+    /**
+     * Saves a portfolio and sets its ID.
+     *
+     * @param portfolio The portfolio to save.
+     * @throws SQLException If a data access error occurs.
+     */
+    void savePortfolio(Portfolio portfolio) throws SQLException;
+
+    /**
+     * Saves a position, associates it with a portfolio and sets its ID.
+     *
+     * @param portfolioId The ID of the portfolio that contains this position.
+     * @param position The position to save.
+     * @throws SQLException If the portfolio or stock does not exist or a data access error occurs.
+     */
+    void savePosition(int portfolioId, Position position) throws SQLException;
+
+    /**
+     * Saves a batch of transactions atomically and sets their IDs.
+     *
+     * @param transactions The transactions to save.
+     * @throws SQLException If any transaction cannot be saved; none is saved in that case.
+     */
+    void saveTransactions(List<Transaction> transactions) throws SQLException;
+
+    /**
+     * Retrieves the transactions of a portfolio in the order they took place.
+     *
+     * @param portfolioId The ID of the portfolio.
+     * @return The portfolio's transactions, oldest first.
+     * @throws SQLException If a data access error occurs.
+     */
+    List<Transaction> getTransactions(int portfolioId) throws SQLException;
+
+    /**
+     * Retrieves the transactions of every portfolio in one read, so a whole ledger can be
+     * loaded without a read per portfolio.
+     *
+     * @return The transactions in ascending portfolio ID order, each portfolio's oldest first.
+     * @throws SQLException If a data access error occurs.
+     */
+    List<Transaction> getAllTransactions() throws SQLException;
+
+    /**
+     * Retrieves a portfolio with all its positions, valued at current stock prices.
+     *
+     * @param portfolioId The ID of the portfolio to retrieve.
+     * @return The portfolio with all its positions, or null if not found.
+     * @throws SQLException If a data access error occurs.
+     */
+    Portfolio getPortfolio(int portfolioId) throws SQLException;
+
+    /**
+     * Retrieves a portfolio with one consolidated position per stock it holds, instead of one
+     * per purchase: the quantity is the sum of the lots and the purchase price their
+     * weighted-average cost. Consolidated positions have no ID. The lots themselves remain
+     * available from {@link #getPortfolio(int)}.
+     *
+     * @param portfolioId The ID of the portfolio to retrieve.
+     * @return The portfolio with its holdings, or null if not found.
+     * @throws SQLException If a data access error occurs.
+     */
+    Portfolio getHoldings(int portfolioId) throws SQLException;
+
+    /**
+     * Retrieves one page of a portfolio's positions in ascending position ID order, starting
+     * after a given position, so a large portfolio can be read in chunks without reading the
+     * positions of earlier pages again.
+     *
+     * @param portfolioId     The ID of the portfolio.
+     * @param afterPositionId The last position ID of the previous page, or 0 for the first page.
+     * @param limit           The maximum number of positions to return.
+     * @return The positions; fewer than the limit only on the last page.
+     * @throws SQLException If a data access error occurs.
+     */
+    List<Position> getPositions(int portfolioId, int afterPositionId, int limit) throws SQLException;
+
+    /**
+     * Retrieves one page of the positions of every portfolio in ascending order of portfolio ID
+     * and then position ID, starting after a given position, so the whole book can be read in
+     * one pass of chunks. The positions are returned grouped under their portfolios, without
+     * descriptions; a portfolio whose positions span two pages appears on both, and
+     * portfolios without positions do not appear at all.
+     *
+     * @param afterPortfolioId The portfolio of the last position of the previous page, or 0 for
+     *                         the first page.
+     * @param afterPositionId  The last position ID of the previous page, or 0 for the first page.
+     * @param limit            The maximum number of positions to return.
+     * @return The portfolios of the page in ascending ID order, each with its positions of the
+     *         page; fewer than the limit positions in total only on the last page.
+     * @throws SQLException If a data access error occurs.
+     */
+    List<Portfolio> getAllPositions(int afterPortfolioId, int afterPositionId, int limit) throws SQLException;
+
+    /**
+     * Retrieves all portfolios without their positions.
+     *
+     * @return A list of all portfolios.
+     * @throws SQLException If a data access error occurs.
+     */
+    List<Portfolio> getAllPortfolios() throws SQLException;
+
+    /**
+     * Retrieves the totals of every portfolio without reading its positions.
+     *
+     * @return The summaries in ascending portfolio ID order.
+     * @throws SQLException If a data access error occurs.
+     */
+    List<PortfolioSummary> getPortfolioSummaries() throws SQLException;
+
+    /**
+     * Retrieves the totals of one portfolio without reading its positions.
+     *
+     * @param portfolioId The ID of the portfolio.
+     * @return The summary, or null if the portfolio does not exist.
+     * @throws SQLException If a data access error occurs.
+     */
+    PortfolioSummary getPortfolioSummary(int portfolioId) throws SQLException;
+
+    /**
+     * Updates the current price of a stock.
+     *
+     * @param symbol The symbol of the stock to update.
+     * @param newPrice The new price of the stock.
+     * @throws SQLException If a data access error occurs.
+     */
+    void updateStockPrice(String symbol, double newPrice) throws SQLException;
+
+    /**
+     * Applies a split or ticker change to a stock and to every position and transaction in it,
+     * all at once. Does nothing if the symbol is unknown.
+     *
+     * @param action The corporate action.
+     * @throws SQLException If a data access error occurs, or the new symbol of a ticker change
+     *                      is taken; nothing is changed in that case.
+     */
+    void applyCorporateAction(CorporateAction action) throws SQLException;
+}
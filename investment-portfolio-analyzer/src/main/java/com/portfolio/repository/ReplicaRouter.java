@@ -0,0 +1,197 @@
+package com.portfolio.repository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This class opens connections for {@link DatabaseService}, sending writes to the primary
+ * database and balancing reads round-robin across read replicas.
+ * <p>
+ * A replica whose connection fails is taken out of rotation and its reads fail over to the
+ * next replica, or to the primary once none is left. After a retry delay the next read that
+ * reaches it acts as a health check: one caller tries to connect, and the replica rejoins the
+ * rotation if that succeeds or stays out for another delay if it does not.
+ * <p>
+ * Replicas may lag behind the primary. With a read-your-writes window, a thread that has just
+ * written reads from the primary until the window passes, so it always sees its own writes;
+ * other threads keep reading from replicas. Each thread is one session.
+ * @author Gaoussou Thiam
+ * @date 10/19/2026
+ * @see com.portfolio.repository.DatabaseService
+ * @see com.portfolio.util.DatabaseConfig
+ */
+final class ReplicaRouter {
+
+
+    /** Logger for replicas leaving and rejoining the rotation. */
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaRouter.class);
+
+    /** The JDBC URL of the primary database. */
+    private final String primaryUrl;
+
+    /** The username, shared by the primary and replicas. */
+    private final String user;
+
+    /** The password, shared by the primary and replicas. */
+    private final String password;
+
+    /** The read replicas. */
+    private final Replica[] replicas;
+
+    /** Counter that picks the replica of the next read. */
+    private final AtomicInteger next = new AtomicInteger();
+
+    /** How long a thread reads from the primary after writing, in nanoseconds; 0 if off. */
+    private final long readYourWritesNanos;
+
+    /** How long a failed replica stays out of rotation, in nanoseconds. */
+    private final long retryNanos;
+
+    /** When the current thread last wrote, from {@link System#nanoTime()}. */
+    private final ThreadLocal<long[]> lastWrite = ThreadLocal.withInitial(() -> new long[1]);
+
+    /**
+     * Constructs a router.
+     *
+     * @param primaryUrl           The JDBC URL of the primary database.
+     * @param replicaUrls          The JDBC URLs of the read replicas; empty to read from the primary.
+     * @param user                 The username.
+     * @param password             The password.
+     * @param readYourWritesMillis How long a thread reads from the primary after writing; 0 for never.
+     * @param retryMillis          How long a failed replica stays out of rotation.
+     */
+    ReplicaRouter(String primaryUrl, List<String> replicaUrls, String user, String password,
+                  long readYourWritesMillis, long retryMillis) {
+        this.primaryUrl = primaryUrl;
+        this.user = user;
+        this.password = password;
+        this.replicas = replicaUrls.stream().map(Replica::new).toArray(Replica[]::new);
+        this.readYourWritesNanos = TimeUnit.MILLISECONDS.toNanos(readYourWritesMillis);
+        this.retryNanos = TimeUnit.MILLISECONDS.toNanos(retryMillis);
+    }
+
+    /**
+     * Opens a connection to the primary, for writes.
+     *
+     * @return The connection.
+     * @throws SQLException If the primary cannot be reached.
+     */
+    Connection openPrimary() throws SQLException {
+        return DriverManager.getConnection(primaryUrl, user, password);
+    }
+
+    /**
+     * Opens a connection for a read: to the next healthy replica, or to the primary if there is
+     * none or the current thread wrote within the read-your-writes window.
+     *
+     * @return The connection.
+     * @throws SQLException If neither a replica nor the primary can be reached.
+     */
+    Connection openRead() throws SQLException {
+        if (replicas.length == 0) {
+            return openPrimary();
+        }
+        long now = System.nanoTime();
+        if (readYourWritesNanos > 0) {
+            long written = lastWrite.get()[0];
+            if (written != 0 && now - written < readYourWritesNanos) {
+                return openPrimary();
+            }
+        }
+        int first = Math.floorMod(next.getAndIncrement(), replicas.length);
+        for (int i = 0; i < replicas.length; i++) {
+            Replica replica = replicas[(first + i) % replicas.length];
+            if (!replica.tryUse(now, retryNanos)) {
+                continue;
+            }
+            try {
+                Connection connection = DriverManager.getConnection(replica.url, user, password);
+                replica.markUp();
+                return connection;
+            } catch (SQLException e) {
+                replica.markDown(now + retryNanos, e);
+            }
+        }
+        return openPrimary();
+    }
+
+    /**
+     * Records that the current thread wrote, starting its read-your-writes window.
+     */
+    void recordWrite() {
+        if (readYourWritesNanos > 0) {
+            long now = System.nanoTime();
+            // Zero means "never wrote", so avoid storing it for a clock that happens to read zero.
+            lastWrite.get()[0] = now == 0 ? 1 : now;
+        }
+    }
+
+    /**
+     * A read replica and its health.
+     */
+    private static final class Replica {
+
+        /** The JDBC URL. */
+        final String url;
+
+        /** When the replica may be tried again, from {@link System#nanoTime()}; 0 while healthy. */
+        final AtomicLong downUntil = new AtomicLong();
+
+        /**
+         * Constructs a healthy replica.
+         *
+         * @param url The JDBC URL.
+         */
+        Replica(String url) {
+            this.url = url;
+        }
+
+        /**
+         * Checks whether a read may use the replica. Once the retry delay of a failed replica
+         * has passed, exactly one caller is let through to check it, and the others keep
+         * skipping it for another delay.
+         *
+         * @param now        The current time.
+         * @param retryNanos The retry delay.
+         * @return True if the caller should connect to the replica.
+         */
+        boolean tryUse(long now, long retryNanos) {
+            long until = downUntil.get();
+            if (until == 0) {
+                return true;
+            }
+            return now - until >= 0 && downUntil.compareAndSet(until, now + retryNanos);
+        }
+
+        /**
+         * Puts the replica back into rotation after a successful connection.
+         */
+        void markUp() {
+            if (downUntil.get() != 0 && downUntil.getAndSet(0) != 0) {
+                logger.info("Read replica {} is back in rotation", url);
+            }
+        }
+
+        /**
+         * Takes the replica out of rotation after a failed connection.
+         *
+         * @param until When the replica may be tried again.
+         * @param cause The failure.
+         */
+        void markDown(long until, SQLException cause) {
+            // Never store 0, which means healthy.
+            if (downUntil.getAndSet(until == 0 ? 1 : until) == 0) {
+                logger.warn("Read replica {} is unreachable; failing over until it recovers: {}", url,
+                        cause.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,576 @@
+package com.portfolio.repository;
+
+import com.portfolio.metrics.MetricsRegistry;
+import com.portfolio.model.CorporateAction;
+import com.portfolio.model.Portfolio;
+import com.portfolio.model.PortfolioSummary;
+import com.portfolio.model.Position;
+import com.portfolio.model.Stock;
+import com.portfolio.model.Transaction;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.ToIntFunction;
+
+/**
+ * This class spreads portfolios across several databases, each holding the full schema. A
+ * portfolio lives on one shard together with its positions and transactions, while stocks are
+ * reference data copied to every shard so positions can keep their foreign keys.
+ * <p>
+ * IDs are shard-encoded: a row stored with the local auto-increment ID {@code local} on shard
+ * {@code s} of {@code n} is known to callers as {@code local * n + s}. IDs therefore never
+ * collide across shards, any ID routes to its shard with one modulo, and the shards need no
+ * coordination to allocate them. Stocks keep the ID the first shard assigns, which is copied
+ * to the others. New portfolios go to the shards in turn.
+ * <p>
+ * Reads of one portfolio go to its shard only. {@link #getAllPortfolios()} queries every shard
+ * in parallel and merges the results, which each shard returns in ID order, into global ID
+ * order. Writes that touch several shards, such as stocks, price updates and transaction
+ * batches spanning portfolios on different shards, are atomic per shard only.
+ * @author Gaoussou Thiam
+ * @date 10/19/2026
+ * @see com.portfolio.repository.DatabaseService
+ * @see com.portfolio.repository.PortfolioRepository
+ */
+public class ShardedRepository implements PortfolioRepository {
+
+
+    /** The shards; the first one assigns stock IDs. */
+    private final DatabaseService[] shards;
+
+    /** Counter that picks the shard of the next new portfolio. */
+    private final AtomicInteger nextShard = new AtomicInteger();
+
+    /** Registry that records call latencies. */
+    private final MetricsRegistry metrics = MetricsRegistry.getDefault();
+
+    /**
+     * Constructs a repository over one database per shard, sharing credentials.
+     *
+     * @param urls     The JDBC URLs of the shards, in a fixed order that must never change.
+     * @param user     The username.
+     * @param password The password.
+     */
+    public ShardedRepository(List<String> urls, String user, String password) {
+        this(urls.stream().map(url -> new DatabaseService(url, user, password)).toList());
+    }
+
+    /**
+     * Constructs a repository over existing shards.
+     *
+     * @param shards The shards, in a fixed order that must never change.
+     * @throws IllegalArgumentException If there are no shards.
+     */
+    public ShardedRepository(List<DatabaseService> shards) {
+        if (shards.isEmpty()) {
+            throw new IllegalArgumentException("At least one shard is required");
+        }
+        this.shards = shards.toArray(new DatabaseService[0]);
+    }
+
+    /**
+     * Saves a stock on the first shard, which assigns its ID, then copies it to the others.
+     *
+     * @param stock The stock to save.
+     * @throws SQLException If a shard cannot save it.
+     */
+    @Override
+    public void saveStock(Stock stock) throws SQLException {
+        long start = System.nanoTime();
+        try {
+            shards[0].saveStock(stock);
+            fanOut((shard, service) -> {
+                if (shard > 0) {
+                    service.replicateStock(stock);
+                }
+                return null;
+            });
+        } finally {
+            metrics.recordLatency("ShardedRepository.saveStock", start);
+        }
+    }
+
+    @Override
+    public Stock getStockBySymbol(String symbol) throws SQLException {
+        long start = System.nanoTime();
+        try {
+            return shards[0].getStockBySymbol(symbol);
+        } finally {
+            metrics.recordLatency("ShardedRepository.getStockBySymbol", start);
+        }
+    }
+
+    @Override
+    public List<Stock> getAllStocks() throws SQLException {
+        long start = System.nanoTime();
+        try {
+            return shards[0].getAllStocks();
+        } finally {
+            metrics.recordLatency("ShardedRepository.getAllStocks", start);
+        }
+    }
+
+    @Override
+    public void savePortfolio(Portfolio portfolio) throws SQLException {
+        long start = System.nanoTime();
+        try {
+            int shard = Math.floorMod(nextShard.getAndIncrement(), shards.length);
+            shards[shard].savePortfolio(portfolio);
+            portfolio.setPortfolioId(encode(portfolio.getPortfolioId(), shard));
+        } finally {
+            metrics.recordLatency("ShardedRepository.savePortfolio", start);
+        }
+    }
+
+    @Override
+    public void savePosition(int portfolioId, Position position) throws SQLException {
+        long start = System.nanoTime();
+        try {
+            int shard = shardOf(portfolioId);
+            shards[shard].savePosition(localId(portfolioId), position);
+            position.setPositionId(encode(position.getPositionId(), shard));
+        } finally {
+            metrics.recordLatency("ShardedRepository.savePosition", start);
+        }
+    }
+
+    /**
+     * Saves transactions, grouping them by shard and saving each group in parallel in one
+     * database transaction on its shard.
+     *
+     * @param transactions The transactions to save.
+     * @throws SQLException If a shard cannot save its group; groups on other shards may be saved.
+     */
+    @Override
+    public void saveTransactions(List<Transaction> transactions) throws SQLException {
+        if (transactions.isEmpty()) {
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            List<List<Transaction>> originals = new ArrayList<>(shards.length);
+            List<List<Transaction>> locals = new ArrayList<>(shards.length);
+            for (int i = 0; i < shards.length; i++) {
+                originals.add(new ArrayList<>());
+                locals.add(new ArrayList<>());
+            }
+            for (Transaction transaction : transactions) {
+                int shard = shardOf(transaction.getPortfolioId());
+                originals.get(shard).add(transaction);
+                locals.get(shard).add(new Transaction(localId(transaction.getPortfolioId()), transaction.getStock(),
+                        transaction.getType(), transaction.getQuantity(), transaction.getPrice(),
+                        transaction.getTransactionDate()));
+            }
+            fanOut((shard, service) -> {
+                service.saveTransactions(locals.get(shard));
+                return null;
+            });
+            for (int shard = 0; shard < shards.length; shard++) {
+                List<Transaction> saved = locals.get(shard);
+                for (int i = 0; i < saved.size(); i++) {
+                    originals.get(shard).get(i).setTransactionId(encode(saved.get(i).getTransactionId(), shard));
+                }
+            }
+        } finally {
+            metrics.recordLatency("ShardedRepository.saveTransactions", start);
+        }
+    }
+
+    @Override
+    public List<Transaction> getTransactions(int portfolioId) throws SQLException {
+        long start = System.nanoTime();
+        try {
+            int shard = shardOf(portfolioId);
+            List<Transaction> local = shards[shard].getTransactions(localId(portfolioId));
+            List<Transaction> transactions = new ArrayList<>(local.size());
+            for (Transaction transaction : local) {
+                Transaction global = new Transaction(portfolioId, transaction.getStock(), transaction.getType(),
+                        transaction.getQuantity(), transaction.getPrice(), transaction.getTransactionDate());
+                global.setTransactionId(encode(transaction.getTransactionId(), shard));
+                transactions.add(global);
+            }
+            return transactions;
+        } finally {
+            metrics.recordLatency("ShardedRepository.getTransactions", start);
+        }
+    }
+
+    /**
+     * Retrieves the transactions of every portfolio, reading all shards in parallel and
+     * merging the results in portfolio ID order.
+     *
+     * @return The transactions in ascending portfolio ID order, each portfolio's oldest first.
+     * @throws SQLException If a shard cannot be queried.
+     */
+    @Override
+    public List<Transaction> getAllTransactions() throws SQLException {
+        long start = System.nanoTime();
+        try {
+            return mergeById(fanOut((shard, service) -> {
+                List<Transaction> local = service.getAllTransactions();
+                List<Transaction> transactions = new ArrayList<>(local.size());
+                for (Transaction transaction : local) {
+                    Transaction global = new Transaction(encode(transaction.getPortfolioId(), shard),
+                            transaction.getStock(), transaction.getType(), transaction.getQuantity(),
+                            transaction.getPrice(), transaction.getTransactionDate());
+                    global.setTransactionId(encode(transaction.getTransactionId(), shard));
+                    transactions.add(global);
+                }
+                return transactions;
+            }), Transaction::getPortfolioId);
+        } finally {
+            metrics.recordLatency("ShardedRepository.getAllTransactions", start);
+        }
+    }
+
+    @Override
+    public Portfolio getPortfolio(int portfolioId) throws SQLException {
+        long start = System.nanoTime();
+        try {
+            int shard = shardOf(portfolioId);
+            Portfolio portfolio = shards[shard].getPortfolio(localId(portfolioId));
+            if (portfolio == null) {
+                return null;
+            }
+            portfolio.setPortfolioId(portfolioId);
+            for (Position position : portfolio.getPositions()) {
+                position.setPositionId(encode(position.getPositionId(), shard));
+            }
+            return portfolio;
+        } finally {
+            metrics.recordLatency("ShardedRepository.getPortfolio", start);
+        }
+    }
+
+    /**
+     * Retrieves a page of a portfolio's positions from its shard. Local position IDs on one
+     * shard are in the same order as their global IDs, so the shard's keyset applies as is.
+     *
+     * @param portfolioId     The global ID of the portfolio.
+     * @param afterPositionId The last global position ID of the previous page, or 0.
+     * @param limit           The maximum number of positions to return.
+     * @return The positions with global IDs.
+     * @throws SQLException If the shard cannot be queried.
+     */
+    @Override
+    public List<Position> getPositions(int portfolioId, int afterPositionId, int limit) throws SQLException {
+        long start = System.nanoTime();
+        try {
+            int shard = shardOf(portfolioId);
+            List<Position> positions = shards[shard].getPositions(localId(portfolioId), localId(afterPositionId),
+                    limit);
+            for (Position position : positions) {
+                position.setPositionId(encode(position.getPositionId(), shard));
+            }
+            return positions;
+        } finally {
+            metrics.recordLatency("ShardedRepository.getPositions", start);
+        }
+    }
+
+    /**
+     * Retrieves a page of the positions of every portfolio, reading a page from each shard in
+     * parallel, merging them in global portfolio ID order and keeping the first positions up to
+     * the limit. Each shard starts after the last of its portfolios at or before the keyset's
+     * portfolio, and only the shard holding that portfolio starts within it.
+     * <p>
+     * Every shard reads up to the limit, so a page reads up to one limit per shard to return
+     * one; the positions left over are read again on a later page.
+     *
+     * @param afterPortfolioId The global portfolio ID of the last position of the previous page,
+     *                         or 0 for the first page.
+     * @param afterPositionId  The last global position ID of the previous page, or 0.
+     * @param limit            The maximum number of positions to return.
+     * @return The portfolios of the page in ascending global ID order, each with its positions
+     *         of the page; fewer than the limit positions in total only on the last page.
+     * @throws SQLException If a shard cannot be queried.
+     */
+    @Override
+    public List<Portfolio> getAllPositions(int afterPortfolioId, int afterPositionId, int limit)
+            throws SQLException {
+        long start = System.nanoTime();
+        try {
+            List<Portfolio> merged = mergeById(fanOut((shard, service) -> {
+                List<Portfolio> local = shardOf(afterPortfolioId) == shard
+                        ? service.getAllPositions(localId(afterPortfolioId), localId(afterPositionId), limit)
+                        // The last local ID whose global ID is not after the keyset's portfolio.
+                        : service.getAllPositions(Math.floorDiv(afterPortfolioId - shard, shards.length),
+                                Integer.MAX_VALUE, limit);
+                for (Portfolio portfolio : local) {
+                    portfolio.setPortfolioId(encode(portfolio.getPortfolioId(), shard));
+                    for (Position position : portfolio.getPositions()) {
+                        position.setPositionId(encode(position.getPositionId(), shard));
+                    }
+                }
+                return local;
+            }), Portfolio::getPortfolioId);
+
+            List<Portfolio> page = new ArrayList<>();
+            int remaining = limit;
+            for (Portfolio portfolio : merged) {
+                if (remaining <= 0) {
+                    break;
+                }
+                List<Position> positions = portfolio.getPositions();
+                if (positions.size() > remaining) {
+                    Portfolio head = new Portfolio(portfolio.getName(), null);
+                    head.setPortfolioId(portfolio.getPortfolioId());
+                    positions.subList(0, remaining).forEach(head::addPosition);
+                    portfolio = head;
+                }
+                page.add(portfolio);
+                remaining -= Math.min(remaining, positions.size());
+            }
+            return page;
+        } finally {
+            metrics.recordLatency("ShardedRepository.getAllPositions", start);
+        }
+    }
+
+    @Override
+    public Portfolio getHoldings(int portfolioId) throws SQLException {
+        long start = System.nanoTime();
+        try {
+            Portfolio portfolio = shards[shardOf(portfolioId)].getHoldings(localId(portfolioId));
+            if (portfolio != null) {
+                portfolio.setPortfolioId(portfolioId);
+            }
+            return portfolio;
+        } finally {
+            metrics.recordLatency("ShardedRepository.getHoldings", start);
+        }
+    }
+
+    /**
+     * Retrieves every portfolio without positions, querying all shards in parallel and merging
+     * their results in ID order.
+     *
+     * @return All portfolios, in ascending ID order.
+     * @throws SQLException If a shard cannot be queried.
+     */
+    @Override
+    public List<Portfolio> getAllPortfolios() throws SQLException {
+        long start = System.nanoTime();
+        try {
+            return mergeById(fanOut((shard, service) -> {
+                List<Portfolio> portfolios = service.getAllPortfolios();
+                for (Portfolio portfolio : portfolios) {
+                    portfolio.setPortfolioId(encode(portfolio.getPortfolioId(), shard));
+                }
+                return portfolios;
+            }), Portfolio::getPortfolioId);
+        } finally {
+            metrics.recordLatency("ShardedRepository.getAllPortfolios", start);
+        }
+    }
+
+    /**
+     * Retrieves the summary of every portfolio, scanning the summary tables of all shards in
+     * parallel and merging the results in ID order.
+     *
+     * @return The summaries in ascending portfolio ID order.
+     * @throws SQLException If a shard cannot be queried.
+     */
+    @Override
+    public List<PortfolioSummary> getPortfolioSummaries() throws SQLException {
+        long start = System.nanoTime();
+        try {
+            return mergeById(fanOut((shard, service) -> {
+                List<PortfolioSummary> local = service.getPortfolioSummaries();
+                List<PortfolioSummary> summaries = new ArrayList<>(local.size());
+                for (PortfolioSummary summary : local) {
+                    summaries.add(new PortfolioSummary(encode(summary.getPortfolioId(), shard), summary.getName(),
+                            summary.getMarketValue(), summary.getCostBasis(), summary.getPositionCount(),
+                            summary.getLastUpdated()));
+                }
+                return summaries;
+            }), PortfolioSummary::getPortfolioId);
+        } finally {
+            metrics.recordLatency("ShardedRepository.getPortfolioSummaries", start);
+        }
+    }
+
+    @Override
+    public PortfolioSummary getPortfolioSummary(int portfolioId) throws SQLException {
+        long start = System.nanoTime();
+        try {
+            PortfolioSummary summary = shards[shardOf(portfolioId)].getPortfolioSummary(localId(portfolioId));
+            if (summary == null) {
+                return null;
+            }
+            return new PortfolioSummary(portfolioId, summary.getName(), summary.getMarketValue(),
+                    summary.getCostBasis(), summary.getPositionCount(), summary.getLastUpdated());
+        } finally {
+            metrics.recordLatency("ShardedRepository.getPortfolioSummary", start);
+        }
+    }
+
+    /**
+     * Updates the price of a stock on every shard in parallel.
+     *
+     * @param symbol The symbol of the stock to update.
+     * @param newPrice The new price of the stock.
+     * @throws SQLException If a shard cannot be updated; updating again is safe.
+     */
+    @Override
+    public void updateStockPrice(String symbol, double newPrice) throws SQLException {
+        long start = System.nanoTime();
+        try {
+            fanOut((shard, service) -> {
+                service.updateStockPrice(symbol, newPrice);
+                return null;
+            });
+        } finally {
+            metrics.recordLatency("ShardedRepository.updateStockPrice", start);
+        }
+    }
+
+    /**
+     * Applies a corporate action on every shard in parallel, since each holds a copy of the
+     * stock and its own positions in it. Each shard applies it in one database transaction.
+     *
+     * @param action The corporate action.
+     * @throws SQLException If a shard cannot apply it; other shards may have applied it.
+     */
+    @Override
+    public void applyCorporateAction(CorporateAction action) throws SQLException {
+        long start = System.nanoTime();
+        try {
+            fanOut((shard, service) -> {
+                service.applyCorporateAction(action);
+                return null;
+            });
+        } finally {
+            metrics.recordLatency("ShardedRepository.applyCorporateAction", start);
+        }
+    }
+
+    /**
+     * Gets the shard holding a portfolio.
+     *
+     * @param portfolioId The global portfolio ID.
+     * @return The shard index.
+     */
+    private int shardOf(int portfolioId) {
+        return Math.floorMod(portfolioId, shards.length);
+    }
+
+    /**
+     * Converts a global ID to the ID stored on its shard.
+     *
+     * @param id The global ID.
+     * @return The local ID.
+     */
+    private int localId(int id) {
+        return Math.floorDiv(id, shards.length);
+    }
+
+    /**
+     * Converts an ID stored on a shard to its global ID.
+     *
+     * @param localId The local ID; 0 if none was assigned.
+     * @param shard   The shard index.
+     * @return The global ID, or 0 if none was assigned.
+     */
+    private int encode(int localId, int shard) {
+        return localId == 0 ? 0 : Math.addExact(Math.multiplyExact(localId, shards.length), shard);
+    }
+
+    /**
+     * Merges per-shard results into one list in ascending global ID order, with a heap of one
+     * cursor per shard.
+     *
+     * @param perShard The results of each shard.
+     * @param id       Gets the global ID of a result.
+     * @param <T>      The type of the results.
+     * @return The merged results.
+     */
+    private static <T> List<T> mergeById(List<List<T>> perShard, ToIntFunction<T> id) {
+        int total = 0;
+        // Each cursor is {shard, index of the next result}, ordered by that result's ID.
+        PriorityQueue<int[]> cursors = new PriorityQueue<>(Math.max(1, perShard.size()),
+                Comparator.comparingInt(cursor -> id.applyAsInt(perShard.get(cursor[0]).get(cursor[1]))));
+        for (int shard = 0; shard < perShard.size(); shard++) {
+            List<T> results = perShard.get(shard);
+            // Already in key order for a primary key scan, in which case this is one linear pass.
+            results.sort(Comparator.comparingInt(id));
+            total += results.size();
+            if (!results.isEmpty()) {
+                cursors.add(new int[] {shard, 0});
+            }
+        }
+        List<T> merged = new ArrayList<>(total);
+        while (!cursors.isEmpty()) {
+            int[] cursor = cursors.poll();
+            List<T> results = perShard.get(cursor[0]);
+            merged.add(results.get(cursor[1]));
+            if (++cursor[1] < results.size()) {
+                cursors.add(cursor);
+            }
+        }
+        return merged;
+    }
+
+    /**
+     * Runs a call on every shard in parallel, each on its own virtual thread, and waits for all
+     * of them.
+     *
+     * @param call The call.
+     * @param <T>  The type of the results.
+     * @return The results, by shard.
+     * @throws SQLException The first failure by shard order, once every call has finished.
+     */
+    private <T> List<T> fanOut(ShardCall<T> call) throws SQLException {
+        if (shards.length == 1) {
+            return Collections.singletonList(call.apply(0, shards[0]));
+        }
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<T>> futures = new ArrayList<>(shards.length);
+            for (int i = 0; i < shards.length; i++) {
+                int shard = i;
+                futures.add(executor.submit(() -> call.apply(shard, shards[shard])));
+            }
+            List<T> results = new ArrayList<>(shards.length);
+            for (Future<T> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof SQLException cause) {
+                throw cause;
+            }
+            throw new SQLException("Shard call failed", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for shards", e);
+        }
+    }
+
+    /**
+     * A call made on one shard.
+     *
+     * @param <T> The type of the result.
+     */
+    @FunctionalInterface
+    private interface ShardCall<T> {
+
+        /**
+         * Runs the call.
+         *
+         * @param shard   The shard index.
+         * @param service The shard.
+         * @return The result.
+         * @throws SQLException If a database access error occurs.
+         */
+        T apply(int shard, DatabaseService service) throws SQLException;
+    }
+}
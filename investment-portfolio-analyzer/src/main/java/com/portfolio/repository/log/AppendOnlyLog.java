@@ -0,0 +1,303 @@
+package com.portfolio.repository.log;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * This class is a write-ahead log made of numbered, memory-mapped segments. Appends go to the
+ * newest segment and roll over to a new one when it is full.
+ * <p>
+ * Durability uses group commit. A writer that needs its records on disk waits for a log
+ * sequence number (LSN), the count of bytes appended so far. The first waiter forces every
+ * byte appended up to that moment in one call, outside the append lock, and every writer whose
+ * LSN it covered returns together. Under concurrent load one force therefore pays for many
+ * writes. If a force fails, nothing appended after the last successful one is known to be on
+ * disk, so every waiter, then and later, fails instead of returning.
+ * @author Gaoussou Thiam
+ * @date 10/19/2026
+ * @see com.portfolio.repository.log.LogSegment
+ * @see com.portfolio.repository.log.LogStructuredRepository
+ */
+final class AppendOnlyLog implements Closeable {
+
+
+    /** File name pattern of segments. */
+    private static final Pattern SEGMENT_NAME = Pattern.compile("log-(\\d{16})\\.seg");
+
+    /** The directory holding the segments. */
+    private final Path directory;
+
+    /** The size of each segment. */
+    private final int segmentSize;
+
+    /** Reusable checksum; only used under the monitor. */
+    private final CRC32C crc = new CRC32C();
+
+    /** Sealed segments still on disk, oldest first. */
+    private final List<LogSegment> sealed = new ArrayList<>();
+
+    /** The segment being appended to. */
+    private LogSegment current;
+
+    /** Bytes appended since the log was opened. */
+    private long appendedLsn;
+
+    /** Guards the group commit state. */
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    /** Signalled when a group commit finishes. */
+    private final Condition flushed = flushLock.newCondition();
+
+    /** LSN known to be on disk. */
+    private long durableLsn;
+
+    /** Whether a group commit leader is forcing. */
+    private boolean flushing;
+
+    /** The error of a failed force, after which no LSN is reported durable again. */
+    private Throwable forceFailure;
+
+    /**
+     * Constructs a log positioned at a recovered segment.
+     *
+     * @param directory   The directory holding the segments.
+     * @param segmentSize The size of each segment.
+     * @param sealed      Recovered full segments, oldest first.
+     * @param current     The segment to append to.
+     */
+    private AppendOnlyLog(Path directory, int segmentSize, List<LogSegment> sealed, LogSegment current) {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.sealed.addAll(sealed);
+        this.current = current;
+    }
+
+    /**
+     * Opens the log in a directory, replaying every segment from a sequence number onwards.
+     * Older segments are already covered by a snapshot and are deleted.
+     *
+     * @param directory   The directory holding the segments.
+     * @param segmentSize The size of new segments.
+     * @param from        The first sequence number to replay.
+     * @param handler     Receives each valid record in log order.
+     * @return The log, ready for appends.
+     * @throws IOException If a segment cannot be read or a sealed segment is corrupt.
+     */
+    static AppendOnlyLog open(Path directory, int segmentSize, long from, LogRecords.Handler handler)
+            throws IOException {
+        TreeMap<Long, Path> segments = new TreeMap<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Matcher matcher = SEGMENT_NAME.matcher(file.getFileName().toString());
+                if (matcher.matches()) {
+                    segments.put(Long.parseLong(matcher.group(1)), file);
+                }
+            }
+        }
+        for (Path obsolete : segments.headMap(from).values()) {
+            Files.deleteIfExists(obsolete);
+        }
+
+        List<LogSegment> recovered = new ArrayList<>();
+        long expected = from;
+        for (var entry : segments.tailMap(from).entrySet()) {
+            long sequence = entry.getKey();
+            if (sequence != expected) {
+                throw new IOException("Log segment " + expected + " is missing from " + directory);
+            }
+            boolean newest = sequence == segments.lastKey();
+            if (newest && !LogSegment.hasValidHeader(entry.getValue(), sequence)) {
+                // A crash interrupted the creation of this segment, so nothing was written to it.
+                Files.delete(entry.getValue());
+                break;
+            }
+            recovered.add(LogSegment.recover(entry.getValue(), sequence, newest, handler));
+            expected++;
+        }
+
+        LogSegment current = recovered.isEmpty()
+                ? LogSegment.create(segmentPath(directory, from), from, segmentSize)
+                : recovered.remove(recovered.size() - 1);
+        return new AppendOnlyLog(directory, segmentSize, recovered, current);
+    }
+
+    /**
+     * Appends a record, rolling to a new segment if the current one is full. The record is
+     * visible to recovery once {@link #awaitDurable} returns for the LSN that follows it.
+     *
+     * @param type    The record type.
+     * @param payload The payload.
+     * @throws IOException If a new segment cannot be created or the record is larger than a segment.
+     */
+    synchronized void append(byte type, ByteBuffer payload) throws IOException {
+        int size = current.append(type, payload, crc);
+        if (size < 0) {
+            roll();
+            size = current.append(type, payload, crc);
+            if (size < 0) {
+                throw new IOException("Record of " + payload.remaining() + " bytes does not fit in a log segment");
+            }
+        }
+        appendedLsn += size;
+    }
+
+    /**
+     * Gets the LSN after the last appended record.
+     *
+     * @return The appended LSN.
+     */
+    synchronized long getAppendedLsn() { return appendedLsn; }
+
+    /**
+     * Waits until every record up to an LSN is on disk, forcing the log itself if no other
+     * writer is already doing so.
+     *
+     * @param lsn The LSN to wait for.
+     * @throws IOException If interrupted while waiting, or if a force of the log has failed.
+     */
+    void awaitDurable(long lsn) throws IOException {
+        while (true) {
+            flushLock.lock();
+            try {
+                while (flushing && durableLsn < lsn && forceFailure == null) {
+                    flushed.await();
+                }
+                if (forceFailure != null) {
+                    throw new IOException("The log could not be forced to disk", forceFailure);
+                }
+                if (durableLsn >= lsn) {
+                    return;
+                }
+                flushing = true;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while waiting for the log to be forced", e);
+            } finally {
+                flushLock.unlock();
+            }
+
+            // Leader: force everything appended so far, without holding any lock.
+            LogSegment segment;
+            long target;
+            int from;
+            int to;
+            synchronized (this) {
+                segment = current;
+                target = appendedLsn;
+                from = segment.getFlushedOffset();
+                to = segment.getWriteOffset();
+            }
+            Throwable failure = null;
+            try {
+                segment.force(from, to);
+                synchronized (this) {
+                    segment.markFlushed(to);
+                }
+            } catch (RuntimeException | Error e) {
+                // MappedByteBuffer.force reports an I/O error as an UncheckedIOException.
+                failure = e;
+                throw e;
+            } finally {
+                flushLock.lock();
+                try {
+                    flushing = false;
+                    if (failure == null) {
+                        durableLsn = Math.max(durableLsn, target);
+                    } else if (forceFailure == null) {
+                        forceFailure = failure;
+                    }
+                    flushed.signalAll();
+                } finally {
+                    flushLock.unlock();
+                }
+            }
+        }
+    }
+
+    /**
+     * Seals the current segment and starts a new one.
+     *
+     * @return The sequence number of the new segment.
+     * @throws IOException If the new segment cannot be created.
+     */
+    synchronized long roll() throws IOException {
+        // Force the old segment first, so only the newest segment can ever have a torn tail.
+        current.force();
+        LogSegment next = LogSegment.create(segmentPath(directory, current.getSequence() + 1),
+                current.getSequence() + 1, segmentSize);
+        sealed.add(current);
+        current = next;
+        long lsn = appendedLsn;
+        flushLock.lock();
+        try {
+            durableLsn = Math.max(durableLsn, lsn);
+            flushed.signalAll();
+        } finally {
+            flushLock.unlock();
+        }
+        return next.getSequence();
+    }
+
+    /**
+     * Gets the number of sealed segments still on disk.
+     *
+     * @return The sealed segment count.
+     */
+    synchronized int getSealedCount() { return sealed.size(); }
+
+    /**
+     * Deletes the sealed segments before a sequence number, once a snapshot covers them.
+     *
+     * @param sequence The first sequence number to keep.
+     * @throws IOException If a segment cannot be deleted.
+     */
+    void deleteBefore(long sequence) throws IOException {
+        List<LogSegment> obsolete = new ArrayList<>();
+        synchronized (this) {
+            while (!sealed.isEmpty() && sealed.get(0).getSequence() < sequence) {
+                obsolete.add(sealed.remove(0));
+            }
+        }
+        for (LogSegment segment : obsolete) {
+            segment.close();
+            Files.deleteIfExists(segment.getPath());
+        }
+    }
+
+    /**
+     * Forces and closes every segment.
+     *
+     * @throws IOException If a segment cannot be closed.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        for (LogSegment segment : sealed) {
+            segment.close();
+        }
+        sealed.clear();
+        current.close();
+    }
+
+    /**
+     * Builds the path of a segment.
+     *
+     * @param directory The log directory.
+     * @param sequence  The sequence number.
+     * @return The path.
+     */
+    private static Path segmentPath(Path directory, long sequence) {
+        return directory.resolve(String.format("log-%016d.seg", sequence));
+    }
+}
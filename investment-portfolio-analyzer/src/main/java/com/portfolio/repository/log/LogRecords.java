@@ -0,0 +1,235 @@
+package com.portfolio.repository.log;
+
+import com.portfolio.model.Transaction;
+import com.portfolio.repository.InMemoryRepository.RowVisitor;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.zip.CRC32C;
+
+/**
+ * This class defines the on-disk record format shared by log segments and snapshots, and
+ * decodes records back into rows.
+ * <p>
+ * Each record is framed as a 4-byte length, a 4-byte CRC-32C and the body: a 1-byte type
+ * followed by the payload. Both the length and the CRC cover the body. A zero length marks
+ * the end of the written part of a preallocated file, and a CRC mismatch marks a torn or
+ * corrupt record.
+ * @author Gaoussou Thiam
+ * @date 10/19/2026
+ * @see com.portfolio.repository.log.RecordEncoder
+ */
+final class LogRecords {
+
+
+    /** A stock row. */
+    static final byte STOCK = 1;
+
+    /** A portfolio row. */
+    static final byte PORTFOLIO = 2;
+
+    /** A position row. */
+    static final byte POSITION = 3;
+
+    /** A batch of transaction rows saved atomically. */
+    static final byte TRANSACTIONS = 4;
+
+    /** A price change of an existing stock. */
+    static final byte STOCK_PRICE = 5;
+
+    /** A split of an existing stock. */
+    static final byte SPLIT = 6;
+
+    /** A ticker change of an existing stock. */
+    static final byte SYMBOL_CHANGE = 7;
+
+    /** The trailer of a complete snapshot, holding its record count. */
+    static final byte END = 127;
+
+    /** Bytes of framing before each body. */
+    static final int FRAME_HEADER = 8;
+
+    /** Result of {@link #read} when a record was read. */
+    static final int READ = 1;
+
+    /** Result of {@link #read} at the clean end of the written data. */
+    static final int END_OF_DATA = 0;
+
+    /** Result of {@link #read} at a torn or corrupt record. */
+    static final int CORRUPT = -1;
+
+    /**
+     * Receives the records read from a file.
+     */
+    @FunctionalInterface
+    interface Handler {
+
+        /**
+         * Receives one record.
+         *
+         * @param type    The record type.
+         * @param payload The payload, positioned at its start.
+         * @throws IOException If the record cannot be applied.
+         */
+        void record(byte type, ByteBuffer payload) throws IOException;
+    }
+
+    /**
+     * Prevents instantiation of this utility class.
+     */
+    private LogRecords() {
+    }
+
+    /**
+     * Writes one framed record.
+     *
+     * @param target  The buffer to write to, with at least {@code FRAME_HEADER + 1 + payload}
+     *                bytes remaining.
+     * @param type    The record type.
+     * @param payload The payload between its position and limit; its position is not changed.
+     * @param crc     A reusable checksum.
+     */
+    static void write(ByteBuffer target, byte type, ByteBuffer payload, CRC32C crc) {
+        int length = 1 + payload.remaining();
+        crc.reset();
+        crc.update(type);
+        crc.update(payload.duplicate());
+        int start = target.position();
+        target.position(start + FRAME_HEADER);
+        target.put(type);
+        target.put(payload.duplicate());
+        // Write the length last so a reader that sees it also sees the body, barring a torn page.
+        target.putInt(start + 4, (int) crc.getValue());
+        target.putInt(start, length);
+    }
+
+    /**
+     * Reads the framed record at the source's position and advances past it if it is valid.
+     *
+     * @param source  The data, positioned at a frame.
+     * @param handler Receives the record.
+     * @param crc     A reusable checksum.
+     * @return {@link #READ}, {@link #END_OF_DATA} or {@link #CORRUPT}.
+     * @throws IOException If the handler fails.
+     */
+    static int read(ByteBuffer source, Handler handler, CRC32C crc) throws IOException {
+        int start = source.position();
+        if (source.remaining() < FRAME_HEADER) {
+            return END_OF_DATA;
+        }
+        int length = source.getInt(start);
+        if (length == 0) {
+            return END_OF_DATA;
+        }
+        if (length < 0 || length > source.remaining() - FRAME_HEADER) {
+            return CORRUPT;
+        }
+        ByteBuffer body = source.duplicate();
+        body.position(start + FRAME_HEADER).limit(start + FRAME_HEADER + length);
+        crc.reset();
+        crc.update(body.duplicate());
+        if ((int) crc.getValue() != source.getInt(start + 4)) {
+            return CORRUPT;
+        }
+        byte type = body.get();
+        handler.record(type, body.slice());
+        source.position(start + FRAME_HEADER + length);
+        return READ;
+    }
+
+    /**
+     * Decodes a row record and passes it to a visitor.
+     *
+     * @param type    The record type.
+     * @param payload The payload.
+     * @param visitor The visitor.
+     * @throws IOException If the type is unknown or the visitor fails.
+     */
+    static void decode(byte type, ByteBuffer payload, RowVisitor visitor) throws IOException {
+        switch (type) {
+            case STOCK -> visitor.stock(payload.getInt(), getString(payload), getString(payload),
+                    getString(payload), payload.getDouble());
+            case PORTFOLIO -> visitor.portfolio(payload.getInt(), getString(payload), getString(payload));
+            case POSITION -> visitor.position(payload.getInt(), payload.getInt(), payload.getInt(),
+                    payload.getDouble(), payload.getDouble());
+            case TRANSACTIONS -> {
+                int count = payload.getInt();
+                for (int i = 0; i < count; i++) {
+                    visitor.transaction(payload.getInt(), payload.getInt(), payload.getInt(),
+                            Transaction.TransactionType.values()[payload.get()], payload.getDouble(),
+                            payload.getDouble(), getDate(payload));
+                }
+            }
+            case STOCK_PRICE -> visitor.stockPrice(getString(payload), payload.getDouble());
+            case SPLIT -> visitor.split(getString(payload), payload.getDouble());
+            case SYMBOL_CHANGE -> visitor.symbolChange(getString(payload), getString(payload));
+            default -> throw new IOException("Unknown record type " + type);
+        }
+    }
+
+    /**
+     * Gets the encoded size of a string.
+     *
+     * @param value The string, or null.
+     * @return The size in bytes.
+     */
+    static int sizeOf(String value) {
+        return 4 + (value == null ? 0 : value.length() * 3);
+    }
+
+    /**
+     * Writes a nullable string as a length and UTF-8 bytes.
+     *
+     * @param target The buffer.
+     * @param value  The string, or null.
+     */
+    static void putString(ByteBuffer target, String value) {
+        if (value == null) {
+            target.putInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        target.putInt(bytes.length);
+        target.put(bytes);
+    }
+
+    /**
+     * Reads a nullable string.
+     *
+     * @param source The buffer.
+     * @return The string, or null.
+     */
+    static String getString(ByteBuffer source) {
+        int length = source.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        source.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Writes a date as UTC epoch seconds and nanoseconds.
+     *
+     * @param target The buffer.
+     * @param date   The date.
+     */
+    static void putDate(ByteBuffer target, LocalDateTime date) {
+        target.putLong(date.toEpochSecond(ZoneOffset.UTC));
+        target.putInt(date.getNano());
+    }
+
+    /**
+     * Reads a date.
+     *
+     * @param source The buffer.
+     * @return The date.
+     */
+    static LocalDateTime getDate(ByteBuffer source) {
+        return LocalDateTime.ofEpochSecond(source.getLong(), source.getInt(), ZoneOffset.UTC);
+    }
+}
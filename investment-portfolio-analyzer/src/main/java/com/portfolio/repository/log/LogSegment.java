@@ -0,0 +1,258 @@
+package com.portfolio.repository.log;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32C;
+
+/**
+ * This class is one preallocated, memory-mapped file of the log. Appends copy framed records
+ * into the mapping, so they cost a memory copy rather than a system call, and durability comes
+ * from forcing the written range to disk.
+ * <p>
+ * A segment starts with a 16-byte header holding a magic number, a format version and the
+ * segment's sequence number. Its unwritten remainder is zero, which readers take as the end.
+ * Segments are not thread-safe; {@link AppendOnlyLog} serialises access.
+ * @author Gaoussou Thiam
+ * @date 10/19/2026
+ * @see com.portfolio.repository.log.AppendOnlyLog
+ */
+final class LogSegment {
+
+
+    /** Magic number at the start of every segment. */
+    static final int MAGIC = 0x504C4F47;
+
+    /** Version of the segment format. */
+    static final int VERSION = 1;
+
+    /** Size of the segment header. */
+    static final int HEADER = 16;
+
+    /** The sequence number of the segment. */
+    private final long sequence;
+
+    /** The segment file. */
+    private final Path path;
+
+    /** The open file. */
+    private final FileChannel channel;
+
+    /** The mapping of the whole file. */
+    private final MappedByteBuffer buffer;
+
+    /** Offset where the next record goes. */
+    private int writeOffset;
+
+    /** Offset up to which the segment has been forced to disk. */
+    private int flushedOffset;
+
+    /**
+     * Constructs a segment over an open, mapped file.
+     *
+     * @param sequence The sequence number.
+     * @param path     The segment file.
+     * @param channel  The open file.
+     * @param buffer   The mapping of the whole file.
+     */
+    private LogSegment(long sequence, Path path, FileChannel channel, MappedByteBuffer buffer) {
+        this.sequence = sequence;
+        this.path = path;
+        this.channel = channel;
+        this.buffer = buffer;
+        this.writeOffset = HEADER;
+        this.flushedOffset = HEADER;
+    }
+
+    /**
+     * Creates and maps a new, empty segment.
+     *
+     * @param path     The file to create.
+     * @param sequence The sequence number.
+     * @param size     The size to preallocate.
+     * @return The segment.
+     * @throws IOException If the file cannot be created or mapped.
+     */
+    static LogSegment create(Path path, long sequence, int size) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            buffer.putInt(0, MAGIC).putInt(4, VERSION).putLong(8, sequence);
+            buffer.force(0, HEADER);
+            return new LogSegment(sequence, path, channel, buffer);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Checks whether a file starts with a valid header for a sequence number. A crash while a
+     * segment was being created can leave a file without one.
+     *
+     * @param path     The segment file.
+     * @param sequence The expected sequence number.
+     * @return True if the header is valid.
+     * @throws IOException If the file cannot be read.
+     */
+    static boolean hasValidHeader(Path path, long sequence) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER);
+            while (header.hasRemaining() && channel.read(header) >= 0) {
+                // Keep reading until the header is full or the file ends.
+            }
+            return !header.hasRemaining() && header.getInt(0) == MAGIC && header.getInt(4) == VERSION
+                    && header.getLong(8) == sequence;
+        }
+    }
+
+    /**
+     * Maps an existing segment and replays its records. A torn record can only be the last
+     * thing written before a crash, so in the newest segment it ends the replay and is zeroed
+     * so later appends start on clean space. In an older segment it means corruption.
+     *
+     * @param path     The segment file.
+     * @param sequence The expected sequence number.
+     * @param newest   Whether this is the newest segment, whose tail may be torn.
+     * @param handler  Receives each valid record in order.
+     * @return The segment, positioned after its last valid record.
+     * @throws IOException If the file cannot be mapped, its header is invalid, an older segment
+     *                     is corrupt or the handler fails.
+     */
+    static LogSegment recover(Path path, long sequence, boolean newest, LogRecords.Handler handler)
+            throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+            if (buffer.capacity() < HEADER || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION
+                    || buffer.getLong(8) != sequence) {
+                throw new IOException("Invalid log segment header in " + path);
+            }
+            LogSegment segment = new LogSegment(sequence, path, channel, buffer);
+            ByteBuffer records = buffer.duplicate().position(HEADER);
+            CRC32C crc = new CRC32C();
+            int result;
+            do {
+                result = LogRecords.read(records, handler, crc);
+            } while (result == LogRecords.READ);
+            if (result == LogRecords.CORRUPT && !newest) {
+                throw new IOException("Corrupt record at offset " + records.position() + " of " + path);
+            }
+            segment.writeOffset = records.position();
+            segment.flushedOffset = records.position();
+            if (result == LogRecords.CORRUPT) {
+                segment.zeroTail();
+            }
+            return segment;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Appends a framed record if it fits.
+     *
+     * @param type    The record type.
+     * @param payload The payload.
+     * @param crc     A reusable checksum.
+     * @return The framed size, or -1 if the segment has no room for it.
+     */
+    int append(byte type, ByteBuffer payload, CRC32C crc) {
+        int size = LogRecords.FRAME_HEADER + 1 + payload.remaining();
+        if (size > buffer.capacity() - writeOffset) {
+            return -1;
+        }
+        LogRecords.write(buffer.duplicate().position(writeOffset), type, payload, crc);
+        writeOffset += size;
+        return size;
+    }
+
+    /**
+     * Forces everything written so far to disk.
+     *
+     * @return The offset now durable.
+     */
+    int force() {
+        int to = writeOffset;
+        if (to > flushedOffset) {
+            buffer.force(flushedOffset, to - flushedOffset);
+            flushedOffset = to;
+        }
+        return to;
+    }
+
+    /**
+     * Forces a range that an earlier append wrote; used by group commit outside the log lock.
+     *
+     * @param from The first offset.
+     * @param to   The end offset.
+     */
+    void force(int from, int to) {
+        if (to > from) {
+            buffer.force(from, to - from);
+        }
+    }
+
+    /**
+     * Records that a range was forced by {@link #force(int, int)}.
+     *
+     * @param to The end offset now durable.
+     */
+    void markFlushed(int to) {
+        flushedOffset = Math.max(flushedOffset, to);
+    }
+
+    /**
+     * Gets the offset up to which the segment is durable.
+     *
+     * @return The flushed offset.
+     */
+    int getFlushedOffset() { return flushedOffset; }
+
+    /**
+     * Gets the offset where the next record goes.
+     *
+     * @return The write offset.
+     */
+    int getWriteOffset() { return writeOffset; }
+
+    /**
+     * Gets the sequence number.
+     *
+     * @return The sequence number.
+     */
+    long getSequence() { return sequence; }
+
+    /**
+     * Gets the segment file.
+     *
+     * @return The path.
+     */
+    Path getPath() { return path; }
+
+    /**
+     * Forces the segment and closes the file. The mapping stays valid until it is collected.
+     *
+     * @throws IOException If the file cannot be closed.
+     */
+    void close() throws IOException {
+        force();
+        channel.close();
+    }
+
+    /**
+     * Zeroes everything after the write offset and forces it, erasing a torn record.
+     */
+    private void zeroTail() {
+        byte[] zeros = new byte[64 * 1024];
+        for (int offset = writeOffset; offset < buffer.capacity(); offset += zeros.length) {
+            buffer.put(offset, zeros, 0, Math.min(zeros.length, buffer.capacity() - offset));
+        }
+        buffer.force(writeOffset, buffer.capacity() - writeOffset);
+    }
+}
@@ -0,0 +1,352 @@
+package com.portfolio.repository.log;
+
+import com.portfolio.metrics.MetricsRegistry;
+import com.portfolio.model.CorporateAction;
+import com.portfolio.model.Portfolio;
+import com.portfolio.model.Position;
+import com.portfolio.model.Stock;
+import com.portfolio.model.Transaction;
+import com.portfolio.repository.InMemoryRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * This class is a local storage engine that persists the rows of {@link InMemoryRepository} in
+ * an append-only log, so a single process can run without MySQL and keep its data across
+ * restarts. Reads are served from the in-memory indexes; the log is only read at startup.
+ * <p>
+ * Every write is applied in memory and appended to the log as one CRC-checked record under a
+ * single lock, so the log order is the order the writes took effect. The writer then waits,
+ * outside the lock, until its record is forced to disk; concurrent writers share one force
+ * through group commit. A write returns only once it is durable.
+ * <p>
+ * A background compactor bounds recovery time. Once enough segments are sealed it starts a new
+ * segment, writes a snapshot of every row while writes continue, and deletes the segments and
+ * snapshots the new snapshot covers. The snapshot may already contain some writes logged after
+ * it started, so recovery loads it and then replays the log idempotently: inserts of stored IDs
+ * are skipped and price changes are reapplied in order. A split would not be idempotent, so
+ * corporate actions wait for a running compaction and are never both in a snapshot and after it.
+ * <p>
+ * On startup a record torn by a crash at the end of the log is discarded, which loses only
+ * writes that never returned. After any I/O error the repository stops accepting writes, since
+ * memory and the log may no longer agree; reads keep working.
+ * @author Gaoussou Thiam
+ * @date 10/19/2026
+ * @see com.portfolio.repository.InMemoryRepository
+ * @see com.portfolio.repository.log.AppendOnlyLog
+ * @see com.portfolio.repository.log.SnapshotFile
+ */
+public final class LogStructuredRepository extends InMemoryRepository implements Closeable {
+
+
+    /** Logger for recovery, compaction and failures. */
+    private static final Logger logger = LoggerFactory.getLogger(LogStructuredRepository.class);
+
+    /** Default size of a log segment. */
+    public static final int DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+
+    /** Default number of sealed segments that triggers a compaction. */
+    public static final int DEFAULT_COMPACT_AFTER_SEGMENTS = 4;
+
+    /** Seconds between checks of the compactor. */
+    private static final long COMPACTION_CHECK_SECONDS = 10;
+
+    /** The directory holding the log and snapshots. */
+    private final Path directory;
+
+    /** The number of sealed segments that triggers a compaction. */
+    private final int compactAfterSegments;
+
+    /** The log. */
+    private final AppendOnlyLog log;
+
+    /** Encodes written rows into log records; guarded by {@link #writeLock}. */
+    private final RecordEncoder encoder;
+
+    /** Makes applying a write in memory and appending it to the log atomic. */
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    /** Runs the compactor. */
+    private final ScheduledExecutorService compactor;
+
+    /** The I/O error that stopped writes, or null. */
+    private volatile Exception failure;
+
+    /** Whether the repository is closed. */
+    private volatile boolean closed;
+
+    /** Registry that records call latencies. */
+    private final MetricsRegistry metrics = MetricsRegistry.getDefault();
+
+    /**
+     * Opens or creates a repository with the default segment size and compaction threshold.
+     *
+     * @param directory The directory holding the log and snapshots; created if missing.
+     * @throws IOException If the stored data cannot be recovered.
+     */
+    public LogStructuredRepository(Path directory) throws IOException {
+        this(directory, DEFAULT_SEGMENT_SIZE, DEFAULT_COMPACT_AFTER_SEGMENTS);
+    }
+
+    /**
+     * Opens or creates a repository, recovering the newest snapshot and the log that follows it.
+     *
+     * @param directory            The directory holding the log and snapshots; created if missing.
+     * @param segmentSize          The size of new log segments.
+     * @param compactAfterSegments The number of sealed segments that triggers a compaction.
+     * @throws IOException If the stored data cannot be recovered.
+     */
+    public LogStructuredRepository(Path directory, int segmentSize, int compactAfterSegments) throws IOException {
+        this.directory = Files.createDirectories(directory);
+        this.compactAfterSegments = compactAfterSegments;
+        long start = System.nanoTime();
+        RowVisitor restorer = restorer();
+        long from = SnapshotFile.loadLatest(directory, restorer);
+        this.log = AppendOnlyLog.open(directory, segmentSize, from,
+                (type, payload) -> LogRecords.decode(type, payload, restorer));
+        this.encoder = new RecordEncoder(log::append);
+        metrics.recordLatency("LogStructuredRepository.recover", start);
+        logger.info("Recovered log storage in {} from segment {}", directory, from);
+
+        this.compactor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "log-compactor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        compactor.scheduleWithFixedDelay(this::compactIfNeeded, COMPACTION_CHECK_SECONDS,
+                COMPACTION_CHECK_SECONDS, TimeUnit.SECONDS);
+    }
+
+    @Override
+    public void saveStock(Stock stock) throws SQLException {
+        long start = System.nanoTime();
+        try {
+            write(() -> {
+                super.saveStock(stock);
+                encoder.stock(stock.getStockId(), stock.getSymbol(), stock.getCompanyName(), stock.getSector(),
+                        stock.getCurrentPrice());
+            });
+        } finally {
+            metrics.recordLatency("LogStructuredRepository.saveStock", start);
+        }
+    }
+
+    @Override
+    public void savePortfolio(Portfolio portfolio) throws SQLException {
+        long start = System.nanoTime();
+        try {
+            write(() -> {
+                super.savePortfolio(portfolio);
+                encoder.portfolio(portfolio.getPortfolioId(), portfolio.getName(), portfolio.getDescription());
+            });
+        } finally {
+            metrics.recordLatency("LogStructuredRepository.savePortfolio", start);
+        }
+    }
+
+    @Override
+    public void savePosition(int portfolioId, Position position) throws SQLException {
+        long start = System.nanoTime();
+        try {
+            write(() -> {
+                super.savePosition(portfolioId, position);
+                encoder.position(position.getPositionId(), portfolioId, position.getStock().getStockId(),
+                        position.getQuantity(), position.getPurchasePrice());
+            });
+        } finally {
+            metrics.recordLatency("LogStructuredRepository.savePosition", start);
+        }
+    }
+
+    @Override
+    public void saveTransactions(List<Transaction> transactions) throws SQLException {
+        if (transactions.isEmpty()) {
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            write(() -> {
+                super.saveTransactions(transactions);
+                encoder.transactions(transactions);
+            });
+        } finally {
+            metrics.recordLatency("LogStructuredRepository.saveTransactions", start);
+        }
+    }
+
+    @Override
+    public void updateStockPrice(String symbol, double newPrice) throws SQLException {
+        if (!containsSymbol(symbol)) {
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            write(() -> {
+                super.updateStockPrice(symbol, newPrice);
+                encoder.stockPrice(symbol, newPrice);
+            });
+        } finally {
+            metrics.recordLatency("LogStructuredRepository.updateStockPrice", start);
+        }
+    }
+
+    /**
+     * Applies a corporate action in memory and logs it as one record. Holds the compaction
+     * monitor, so the action is either logged before a snapshot's segment and included in the
+     * snapshot, or logged after the snapshot is written.
+     *
+     * @param action The corporate action.
+     * @throws SQLException If the new symbol is taken, or the repository is closed or failed.
+     */
+    @Override
+    public void applyCorporateAction(CorporateAction action) throws SQLException {
+        if (!containsSymbol(action.getSymbol())) {
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            synchronized (this) {
+                write(() -> {
+                    super.applyCorporateAction(action);
+                    if (action.getType() == CorporateAction.Type.SPLIT) {
+                        encoder.split(action.getSymbol(), action.getRatio());
+                    } else {
+                        encoder.symbolChange(action.getSymbol(), action.getNewSymbol());
+                    }
+                });
+            }
+        } finally {
+            metrics.recordLatency("LogStructuredRepository.applyCorporateAction", start);
+        }
+    }
+
+    /**
+     * Starts a new log segment, snapshots every row and deletes the segments and snapshots the
+     * snapshot covers. Writes continue while the snapshot is written.
+     *
+     * @throws IOException If the snapshot cannot be written; the log is left intact.
+     */
+    public synchronized void compact() throws IOException {
+        if (closed) {
+            throw new IOException("Log storage in " + directory + " is closed");
+        }
+        long start = System.nanoTime();
+        try {
+            // Every write logged before the roll was applied in memory before it was appended,
+            // so the snapshot below sees it.
+            long sequence = log.roll();
+            SnapshotFile.write(directory, sequence, this::visitRows);
+            log.deleteBefore(sequence);
+            SnapshotFile.deleteBefore(directory, sequence);
+            logger.info("Compacted log storage in {} up to segment {}", directory, sequence);
+        } finally {
+            metrics.recordLatency("LogStructuredRepository.compact", start);
+        }
+    }
+
+    /**
+     * Stops the compactor and closes the log. Writes fail afterwards.
+     *
+     * @throws IOException If the log cannot be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        compactor.shutdownNow();
+        // Same lock order as applyCorporateAction: the compaction monitor, then the write lock
+        synchronized (this) {
+            writeLock.lock();
+            try {
+                log.close();
+            } finally {
+                writeLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Applies a write in memory and appends it to the log atomically, then waits until it is
+     * durable.
+     *
+     * @param write The write.
+     * @throws SQLException If the write violates a constraint, or the repository is closed or failed.
+     */
+    private void write(LoggedWrite write) throws SQLException {
+        long lsn;
+        writeLock.lock();
+        try {
+            if (closed) {
+                throw new SQLException("Log storage in " + directory + " is closed");
+            }
+            if (failure != null) {
+                throw new SQLException("Log storage in " + directory + " failed and is read-only", failure);
+            }
+            write.apply();
+            lsn = log.getAppendedLsn();
+        } catch (IOException | UncheckedIOException e) {
+            throw fail(e);
+        } finally {
+            writeLock.unlock();
+        }
+        try {
+            log.awaitDurable(lsn);
+        } catch (IOException | UncheckedIOException e) {
+            throw fail(e);
+        }
+    }
+
+    /**
+     * Stops writes after an I/O error.
+     *
+     * @param e The error.
+     * @return The exception to throw to the writer.
+     */
+    private SQLException fail(Exception e) {
+        if (failure == null) {
+            failure = e;
+            logger.error("Log storage in {} failed; further writes are refused", directory, e);
+        }
+        return new SQLException("Unable to write to the log in " + directory, e);
+    }
+
+    /**
+     * Compacts if enough segments are sealed; run periodically by the compactor.
+     */
+    private void compactIfNeeded() {
+        if (closed || failure != null || log.getSealedCount() < compactAfterSegments) {
+            return;
+        }
+        try {
+            compact();
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Unable to compact log storage in {}", directory, e);
+        }
+    }
+
+    /**
+     * A write that applies a change in memory and encodes it into the log.
+     */
+    @FunctionalInterface
+    private interface LoggedWrite {
+
+        /**
+         * Applies and encodes the write.
+         *
+         * @throws SQLException If the write violates a constraint; nothing is applied or logged.
+         * @throws IOException  If the record cannot be appended.
+         */
+        void apply() throws SQLException, IOException;
+    }
+}
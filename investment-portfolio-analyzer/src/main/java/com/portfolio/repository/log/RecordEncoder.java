@@ -0,0 +1,179 @@
+package com.portfolio.repository.log;
+
+import com.portfolio.model.Transaction;
+import com.portfolio.repository.InMemoryRepository.RowVisitor;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * This class encodes rows into record payloads and hands each one to a sink, which frames it
+ * into a log segment or snapshot. It reuses one growing scratch buffer, so it is not thread-safe.
+ * @author Gaoussou Thiam
+ * @date 10/19/2026
+ * @see com.portfolio.repository.log.LogRecords
+ */
+final class RecordEncoder implements RowVisitor {
+
+
+    /** Bytes of one encoded transaction. */
+    private static final int TRANSACTION_SIZE = 4 + 4 + 4 + 1 + 8 + 8 + 12;
+
+    /**
+     * Receives encoded records.
+     */
+    @FunctionalInterface
+    interface Sink {
+
+        /**
+         * Receives one record.
+         *
+         * @param type    The record type.
+         * @param payload The payload between its position and limit.
+         * @throws IOException If the record cannot be written.
+         */
+        void accept(byte type, ByteBuffer payload) throws IOException;
+    }
+
+    /** Where encoded records go. */
+    private final Sink sink;
+
+    /** The scratch buffer payloads are built in. */
+    private ByteBuffer scratch = ByteBuffer.allocate(4096);
+
+    /**
+     * Constructs an encoder.
+     *
+     * @param sink Where encoded records go.
+     */
+    RecordEncoder(Sink sink) {
+        this.sink = sink;
+    }
+
+    @Override
+    public void stock(int stockId, String symbol, String companyName, String sector, double currentPrice)
+            throws IOException {
+        ByteBuffer payload = begin(4 + LogRecords.sizeOf(symbol) + LogRecords.sizeOf(companyName)
+                + LogRecords.sizeOf(sector) + 8);
+        payload.putInt(stockId);
+        LogRecords.putString(payload, symbol);
+        LogRecords.putString(payload, companyName);
+        LogRecords.putString(payload, sector);
+        payload.putDouble(currentPrice);
+        sink.accept(LogRecords.STOCK, payload.flip());
+    }
+
+    @Override
+    public void portfolio(int portfolioId, String name, String description) throws IOException {
+        ByteBuffer payload = begin(4 + LogRecords.sizeOf(name) + LogRecords.sizeOf(description));
+        payload.putInt(portfolioId);
+        LogRecords.putString(payload, name);
+        LogRecords.putString(payload, description);
+        sink.accept(LogRecords.PORTFOLIO, payload.flip());
+    }
+
+    @Override
+    public void position(int positionId, int portfolioId, int stockId, double quantity, double purchasePrice)
+            throws IOException {
+        ByteBuffer payload = begin(4 + 4 + 4 + 8 + 8);
+        payload.putInt(positionId).putInt(portfolioId).putInt(stockId).putDouble(quantity).putDouble(purchasePrice);
+        sink.accept(LogRecords.POSITION, payload.flip());
+    }
+
+    @Override
+    public void transaction(int transactionId, int portfolioId, int stockId, Transaction.TransactionType type,
+                            double quantity, double price, LocalDateTime transactionDate) throws IOException {
+        ByteBuffer payload = begin(4 + TRANSACTION_SIZE);
+        payload.putInt(1);
+        putTransaction(payload, transactionId, portfolioId, stockId, type, quantity, price, transactionDate);
+        sink.accept(LogRecords.TRANSACTIONS, payload.flip());
+    }
+
+    @Override
+    public void stockPrice(String symbol, double price) throws IOException {
+        ByteBuffer payload = begin(LogRecords.sizeOf(symbol) + 8);
+        LogRecords.putString(payload, symbol);
+        payload.putDouble(price);
+        sink.accept(LogRecords.STOCK_PRICE, payload.flip());
+    }
+
+    @Override
+    public void split(String symbol, double ratio) throws IOException {
+        ByteBuffer payload = begin(LogRecords.sizeOf(symbol) + 8);
+        LogRecords.putString(payload, symbol);
+        payload.putDouble(ratio);
+        sink.accept(LogRecords.SPLIT, payload.flip());
+    }
+
+    @Override
+    public void symbolChange(String symbol, String newSymbol) throws IOException {
+        ByteBuffer payload = begin(LogRecords.sizeOf(symbol) + LogRecords.sizeOf(newSymbol));
+        LogRecords.putString(payload, symbol);
+        LogRecords.putString(payload, newSymbol);
+        sink.accept(LogRecords.SYMBOL_CHANGE, payload.flip());
+    }
+
+    /**
+     * Encodes saved transactions as one record, so recovery restores all or none of them.
+     *
+     * @param transactions The transactions, with IDs assigned.
+     * @throws IOException If the record cannot be written.
+     */
+    void transactions(List<Transaction> transactions) throws IOException {
+        ByteBuffer payload = begin(4 + TRANSACTION_SIZE * transactions.size());
+        payload.putInt(transactions.size());
+        for (Transaction transaction : transactions) {
+            putTransaction(payload, transaction.getTransactionId(), transaction.getPortfolioId(),
+                    transaction.getStock().getStockId(), transaction.getType(), transaction.getQuantity(),
+                    transaction.getPrice(), transaction.getTransactionDate());
+        }
+        sink.accept(LogRecords.TRANSACTIONS, payload.flip());
+    }
+
+    /**
+     * Writes a snapshot trailer.
+     *
+     * @param records The number of records before the trailer.
+     * @throws IOException If the record cannot be written.
+     */
+    void end(long records) throws IOException {
+        ByteBuffer payload = begin(8);
+        payload.putLong(records);
+        sink.accept(LogRecords.END, payload.flip());
+    }
+
+    /**
+     * Encodes one transaction.
+     *
+     * @param payload         The buffer.
+     * @param transactionId   The transaction ID.
+     * @param portfolioId     The portfolio traded.
+     * @param stockId         The stock traded.
+     * @param type            Buy or sell.
+     * @param quantity        The quantity.
+     * @param price           The price.
+     * @param transactionDate When the trade took place.
+     */
+    private static void putTransaction(ByteBuffer payload, int transactionId, int portfolioId, int stockId,
+                                       Transaction.TransactionType type, double quantity, double price,
+                                       LocalDateTime transactionDate) {
+        payload.putInt(transactionId).putInt(portfolioId).putInt(stockId).put((byte) type.ordinal())
+                .putDouble(quantity).putDouble(price);
+        LogRecords.putDate(payload, transactionDate);
+    }
+
+    /**
+     * Clears the scratch buffer, growing it to hold at least the given payload size.
+     *
+     * @param size The largest size the payload can have.
+     * @return The cleared buffer.
+     */
+    private ByteBuffer begin(int size) {
+        if (scratch.capacity() < size) {
+            scratch = ByteBuffer.allocate(Math.max(size, scratch.capacity() * 2));
+        }
+        return scratch.clear();
+    }
+}
@@ -0,0 +1,234 @@
+package com.portfolio.repository.log;
+
+import com.portfolio.repository.InMemoryRepository.RowVisitor;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * This class writes and loads snapshots, each holding every row at the time a log segment was
+ * started. Recovery loads the newest snapshot and replays the log from that segment onwards.
+ * <p>
+ * A snapshot is written to a temporary file, forced and then renamed atomically, so a snapshot
+ * file either is complete or does not exist. It holds a 16-byte header with a magic number,
+ * the format version and the sequence number of the first segment to replay, then records in
+ * the log's framing, ending with a trailer that counts them.
+ * @author Gaoussou Thiam
+ * @date 10/19/2026
+ * @see com.portfolio.repository.log.LogStructuredRepository
+ */
+final class SnapshotFile {
+
+
+    /** Magic number at the start of every snapshot. */
+    static final int MAGIC = 0x50534E50;
+
+    /** Version of the snapshot format. */
+    static final int VERSION = 1;
+
+    /** Size of the snapshot header. */
+    static final int HEADER = 16;
+
+    /** File name pattern of snapshots. */
+    private static final Pattern SNAPSHOT_NAME = Pattern.compile("snapshot-(\\d{16})\\.snap");
+
+    /** Size of the write buffer. */
+    private static final int BUFFER_SIZE = 1024 * 1024;
+
+    /**
+     * Prevents instantiation of this utility class.
+     */
+    private SnapshotFile() {
+    }
+
+    /**
+     * Writes a snapshot.
+     *
+     * @param directory The directory holding the log.
+     * @param sequence  The first log segment the snapshot does not cover.
+     * @param rows      Visits every row, passing each to the given visitor.
+     * @throws IOException If the snapshot cannot be written.
+     */
+    static void write(Path directory, long sequence, RowSource rows) throws IOException {
+        Path target = snapshotPath(directory, sequence);
+        Path temporary = directory.resolve(target.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+            buffer.putInt(MAGIC).putInt(VERSION).putLong(sequence);
+            CRC32C crc = new CRC32C();
+            long[] count = new long[1];
+            RecordEncoder encoder = new RecordEncoder((type, payload) -> {
+                int size = LogRecords.FRAME_HEADER + 1 + payload.remaining();
+                if (size > buffer.remaining()) {
+                    drain(channel, buffer);
+                }
+                if (size > buffer.capacity()) {
+                    ByteBuffer large = ByteBuffer.allocate(size);
+                    LogRecords.write(large, type, payload, crc);
+                    drain(channel, large);
+                } else {
+                    LogRecords.write(buffer, type, payload, crc);
+                }
+                count[0]++;
+            });
+            rows.visit(encoder);
+            encoder.end(count[0]);
+            drain(channel, buffer);
+            channel.force(true);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temporary);
+            throw e;
+        }
+        Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE);
+        forceDirectory(directory);
+    }
+
+    /**
+     * Loads the newest snapshot in a directory, deleting temporary files left by a crash.
+     *
+     * @param directory The directory holding the log.
+     * @param visitor   Receives every row of the snapshot.
+     * @return The first log segment to replay; 1 if there is no snapshot.
+     * @throws IOException If the newest snapshot cannot be read or is incomplete.
+     */
+    static long loadLatest(Path directory, RowVisitor visitor) throws IOException {
+        TreeMap<Long, Path> snapshots = list(directory);
+        if (snapshots.isEmpty()) {
+            return 1;
+        }
+        long sequence = snapshots.lastKey();
+        Path path = snapshots.lastEntry().getValue();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.capacity() < HEADER || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION
+                    || buffer.getLong(8) != sequence) {
+                throw new IOException("Invalid snapshot header in " + path);
+            }
+            buffer.position(HEADER);
+            CRC32C crc = new CRC32C();
+            long[] count = new long[1];
+            boolean[] complete = new boolean[1];
+            while (!complete[0]) {
+                int result = LogRecords.read(buffer, (type, payload) -> {
+                    if (type == LogRecords.END) {
+                        if (payload.getLong() != count[0]) {
+                            throw new IOException("Record count mismatch in " + path);
+                        }
+                        complete[0] = true;
+                    } else {
+                        LogRecords.decode(type, payload, visitor);
+                        count[0]++;
+                    }
+                }, crc);
+                if (result != LogRecords.READ) {
+                    throw new IOException("Snapshot " + path + " is incomplete or corrupt at offset "
+                            + buffer.position());
+                }
+            }
+        }
+        return sequence;
+    }
+
+    /**
+     * Deletes the snapshots older than a sequence number.
+     *
+     * @param directory The directory holding the log.
+     * @param sequence  The sequence number of the snapshot to keep.
+     * @throws IOException If a snapshot cannot be deleted.
+     */
+    static void deleteBefore(Path directory, long sequence) throws IOException {
+        for (Path obsolete : list(directory).headMap(sequence).values()) {
+            Files.deleteIfExists(obsolete);
+        }
+    }
+
+    /**
+     * Lists the snapshots in a directory by sequence number, deleting leftover temporary files.
+     *
+     * @param directory The directory holding the log.
+     * @return The snapshots.
+     * @throws IOException If the directory cannot be listed.
+     */
+    private static TreeMap<Long, Path> list(Path directory) throws IOException {
+        TreeMap<Long, Path> snapshots = new TreeMap<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                String name = file.getFileName().toString();
+                Matcher matcher = SNAPSHOT_NAME.matcher(name);
+                if (matcher.matches()) {
+                    snapshots.put(Long.parseLong(matcher.group(1)), file);
+                } else if (name.startsWith("snapshot-") && name.endsWith(".tmp")) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+        return snapshots;
+    }
+
+    /**
+     * Writes the buffered bytes to a file and clears the buffer.
+     *
+     * @param channel The file.
+     * @param buffer  The buffer, with its position after the last byte to write.
+     * @throws IOException If the bytes cannot be written.
+     */
+    private static void drain(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Forces a directory so a rename in it survives a crash. Not every platform allows opening
+     * a directory, in which case the rename is left to the file system.
+     *
+     * @param directory The directory.
+     */
+    private static void forceDirectory(Path directory) {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // The platform does not support forcing directories.
+        }
+    }
+
+    /**
+     * Builds the path of a snapshot.
+     *
+     * @param directory The log directory.
+     * @param sequence  The sequence number.
+     * @return The path.
+     */
+    private static Path snapshotPath(Path directory, long sequence) {
+        return directory.resolve(String.format("snapshot-%016d.snap", sequence));
+    }
+
+    /**
+     * Supplies the rows of a snapshot.
+     */
+    @FunctionalInterface
+    interface RowSource {
+
+        /**
+         * Visits every row.
+         *
+         * @param visitor The visitor.
+         * @throws IOException If the visitor fails.
+         */
+        void visit(RowVisitor visitor) throws IOException;
+    }
+}
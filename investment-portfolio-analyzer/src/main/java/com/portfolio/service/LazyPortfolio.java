@@ -0,0 +1,168 @@
+package com.portfolio.service;
+
+import com.portfolio.model.PortfolioSummary;
+import com.portfolio.model.Position;
+
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * This class represents a portfolio too large to load at once. Its header and totals are read
+ * up front from the repository's aggregate, and its positions are fetched on demand in pages
+ * of ascending position ID, each page starting after the last ID of the previous one, so no
+ * page costs more than the one before it however deep the caller reads.
+ * <p>
+ * Pages are not cached: a page read twice is fetched twice and reflects positions added in
+ * between. Instances are not thread-safe.
+ * @author Gaoussou Thiam
+ * @date 10/19/2026
+ * @see com.portfolio.service.PortfolioManager#getLazyPortfolio(int, int)
+ * @see com.portfolio.model.PortfolioSummary
+ */
+public final class LazyPortfolio {
+
+
+    /**
+     * Fetches one page of positions.
+     */
+    @FunctionalInterface
+    interface PageLoader {
+
+        /**
+         * Fetches the positions after a given position ID.
+         *
+         * @param afterPositionId The last position ID of the previous page, or 0.
+         * @param limit           The maximum number of positions.
+         * @return The positions in ascending ID order.
+         * @throws SQLException If the positions cannot be read.
+         */
+        List<Position> load(int afterPositionId, int limit) throws SQLException;
+    }
+
+    /**
+     * The header and totals.
+     */
+    private final PortfolioSummary summary;
+
+    /**
+     * The maximum number of positions per page.
+     */
+    private final int pageSize;
+
+    /**
+     * Fetches pages.
+     */
+    private final PageLoader loader;
+
+    /**
+     * The last position ID returned by {@link #nextPage()}.
+     */
+    private int cursor;
+
+    /**
+     * Whether the last page has been returned.
+     */
+    private boolean exhausted;
+
+
+    /**
+     * Constructs a lazy portfolio.
+     *
+     * @param summary  The header and totals.
+     * @param pageSize The maximum number of positions per page.
+     * @param loader   Fetches pages.
+     */
+    LazyPortfolio(PortfolioSummary summary, int pageSize, PageLoader loader) {
+        this.summary = summary;
+        this.pageSize = pageSize;
+        this.loader = loader;
+    }
+
+    /**
+     * Gets the next page of positions after those already returned.
+     *
+     * @return Up to one page of positions; empty once every position has been returned.
+     * @throws SQLException If the positions cannot be read.
+     */
+    public List<Position> nextPage() throws SQLException {
+        if (exhausted) {
+            return List.of();
+        }
+        List<Position> page = getPage(cursor);
+        if (page.size() < pageSize) {
+            exhausted = true;
+        }
+        if (!page.isEmpty()) {
+            cursor = page.get(page.size() - 1).getPositionId();
+        }
+        return page;
+    }
+
+    /**
+     * Checks whether {@link #nextPage()} may return more positions. It can still return an
+     * empty page when the last page was exactly full.
+     *
+     * @return False once a short page has been returned.
+     */
+    public boolean hasMore() {
+        return !exhausted;
+    }
+
+    /**
+     * Gets the page of positions after a given position ID, without moving the cursor.
+     *
+     * @param afterPositionId The last position ID of the previous page, or 0 for the first page.
+     * @return Up to one page of positions.
+     * @throws SQLException If the positions cannot be read.
+     */
+    public List<Position> getPage(int afterPositionId) throws SQLException {
+        return loader.load(afterPositionId, pageSize);
+    }
+
+    /**
+     * Moves the cursor back to the first position.
+     */
+    public void reset() {
+        cursor = 0;
+        exhausted = false;
+    }
+
+    /**
+     * Gets the portfolio ID.
+     *
+     * @return The ID of the portfolio.
+     */
+    public int getPortfolioId() { return summary.getPortfolioId(); }
+
+    /**
+     * Gets the portfolio name.
+     *
+     * @return The name of the portfolio.
+     */
+    public String getName() { return summary.getName(); }
+
+    /**
+     * Gets the totals, as they stood when the portfolio was opened.
+     *
+     * @return The market value, cost basis and position count.
+     */
+    public PortfolioSummary getSummary() { return summary; }
+
+    /**
+     * Gets the maximum number of positions per page.
+     *
+     * @return The page size.
+     */
+    public int getPageSize() { return pageSize; }
+
+    /**
+     * Returns a string representation of the portfolio header.
+     *
+     * @return A formatted string containing the name and totals.
+     */
+    @Override
+    public String toString() {
+        return String.format("LazyPortfolio[id=%d, name=%s, positions=%d, value=%.2f]",
+                summary.getPortfolioId(), summary.getName(), summary.getPositionCount(), summary.getMarketValue());
+    }
+}
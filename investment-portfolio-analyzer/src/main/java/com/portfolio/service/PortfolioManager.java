@@ -1,11 +1,27 @@
 package com.portfolio.service;
 
+import com.portfolio.metrics.MetricsRegistry;
+import com.portfolio.metrics.ValuationEvent;
+import com.portfolio.model.CorporateAction;
 import com.portfolio.model.Portfolio;
+import com.portfolio.model.PortfolioSummary;
 import com.portfolio.model.Position;
 import com.portfolio.model.Stock;
+import com.portfolio.model.Transaction;
 import com.portfolio.repository.DatabaseService;
+import com.portfolio.repository.PortfolioRepository;
+import com.portfolio.service.alert.AlertEngine;
+import com.portfolio.service.backtest.PriceHistory;
+import com.portfolio.service.performance.PerformanceEngine;
+import com.portfolio.service.price.PriceBoard;
+import com.portfolio.service.ranking.PositionRanker;
+import com.portfolio.service.ranking.RankedPosition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.HashMap;
@@ -20,18 +36,77 @@ import java.util.stream.Collectors;
  * @see com.portfolio.model.Stock
  * @see com.portfolio.model.Position
  * @see com.portfolio.repository.DatabaseService
+ * @see com.portfolio.repository.PortfolioRepository
+ * @see com.portfolio.service.price.PriceBoard
+ * @see com.portfolio.service.alert.AlertEngine
+ * @see com.portfolio.service.performance.PerformanceEngine
+ * @see com.portfolio.service.ranking.PositionRanker
  */
 public class PortfolioManager {
 
 
-    /** Database service for data persistence operations. */
-    private final DatabaseService databaseService;
+    /** Logger for prices that cannot be published. */
+    private static final Logger logger = LoggerFactory.getLogger(PortfolioManager.class);
+
+    /** Number of positions read per page when ranking positions. */
+    private static final int RANKING_PAGE_SIZE = 500;
+
+    /** Repository for data persistence operations. */
+    private final PortfolioRepository repository;
+
+    /** Board of latest prices shared with other processes, or null. */
+    private final PriceBoard priceBoard;
+
+    /** Engine that fires price and portfolio alerts, or null. */
+    private final AlertEngine alertEngine;
+
+    /** Registry that records the latency of every operation. */
+    private final MetricsRegistry metrics = MetricsRegistry.getDefault();
+
+    /** Ranks positions across portfolios. */
+    private final PositionRanker ranker = new PositionRanker();
 
     /**
      * Constructs a PortfolioManager with a new DatabaseService.
      */
     public PortfolioManager() {
-        this.databaseService = new DatabaseService();
+        this(new DatabaseService());
+    }
+
+    /**
+     * Constructs a PortfolioManager over an existing repository, such as a DatabaseService
+     * connected to an embedded database or an InMemoryRepository for standalone simulations.
+     *
+     * @param repository The repository to use.
+     */
+    public PortfolioManager(PortfolioRepository repository) {
+        this(repository, null);
+    }
+
+    /**
+     * Constructs a PortfolioManager that shares latest prices with other processes through a
+     * price board. With a board opened for writing, every price change is published to it;
+     * with either kind of board, loaded portfolios are valued at the prices on the board.
+     *
+     * @param repository The repository to use.
+     * @param priceBoard The price board, or null to use the repository's prices only.
+     */
+    public PortfolioManager(PortfolioRepository repository, PriceBoard priceBoard) {
+        this(repository, priceBoard, null);
+    }
+
+    /**
+     * Constructs a PortfolioManager that also feeds price changes and new positions to an
+     * alert engine, so its price and portfolio alerts fire as prices move.
+     *
+     * @param repository  The repository to use.
+     * @param priceBoard  The price board, or null to use the repository's prices only.
+     * @param alertEngine The alert engine, or null to disable alerts.
+     */
+    public PortfolioManager(PortfolioRepository repository, PriceBoard priceBoard, AlertEngine alertEngine) {
+        this.repository = repository;
+        this.priceBoard = priceBoard;
+        this.alertEngine = alertEngine;
     }
 
     /**
@@ -43,9 +118,14 @@ public class PortfolioManager {
      * @throws SQLException If a database access error occurs.
      */
     public Portfolio createPortfolio(String name, String description) throws SQLException {
-        Portfolio portfolio = new Portfolio(name, description);
-        databaseService.savePortfolio(portfolio);
-        return portfolio;
+        long start = System.nanoTime();
+        try {
+            Portfolio portfolio = new Portfolio(name, description);
+            repository.savePortfolio(portfolio);
+            return portfolio;
+        } finally {
+            metrics.recordLatency("PortfolioManager.createPortfolio", start);
+        }
     }
 
     /**
@@ -59,21 +139,31 @@ public class PortfolioManager {
      * @throws SQLException If a database access error occurs.
      */
     public Stock addStock(String symbol, String companyName, String sector, double currentPrice) throws SQLException {
-        // Check if stock already exists
-        Stock existingStock = databaseService.getStockBySymbol(symbol);
-        if (existingStock != null) {
-            // Update the price if it's different
-            if (existingStock.getCurrentPrice() != currentPrice) {
-                databaseService.updateStockPrice(symbol, currentPrice);
-                existingStock.setCurrentPrice(currentPrice);
+        long start = System.nanoTime();
+        try {
+            // Check if stock already exists
+            Stock existingStock = repository.getStockBySymbol(symbol);
+            if (existingStock != null) {
+                // Update the price if it's different
+                if (existingStock.getCurrentPrice() != currentPrice) {
+                    repository.updateStockPrice(symbol, currentPrice);
+                    existingStock.setCurrentPrice(currentPrice);
+                    publish(existingStock);
+                    if (alertEngine != null) {
+                        alertEngine.onPriceChange(symbol, currentPrice);
+                    }
+                }
+                return existingStock;
             }
-            return existingStock;
-        }
 
-        // Create new stock
-        Stock newStock = new Stock(symbol, companyName, sector, currentPrice);
-        databaseService.saveStock(newStock);
-        return newStock;
+            // Create new stock
+            Stock newStock = new Stock(symbol, companyName, sector, currentPrice);
+            repository.saveStock(newStock);
+            publish(newStock);
+            return newStock;
+        } finally {
+            metrics.recordLatency("PortfolioManager.addStock", start);
+        }
     }
 
     /**
@@ -86,8 +176,47 @@ public class PortfolioManager {
      * @throws SQLException If a database access error occurs.
      */
     public void addPosition(int portfolioId, Stock stock, double quantity, double purchasePrice) throws SQLException {
-        Position position = new Position(stock, quantity, purchasePrice);
-        databaseService.savePosition(portfolioId, position);
+        long start = System.nanoTime();
+        try {
+            Position position = new Position(stock, quantity, purchasePrice);
+            repository.savePosition(portfolioId, position);
+            if (alertEngine != null) {
+                alertEngine.onPositionAdded(portfolioId, position);
+            }
+        } finally {
+            metrics.recordLatency("PortfolioManager.addPosition", start);
+        }
+    }
+
+    /**
+     * Records a batch of transactions, such as a rebalance proposal, in one database transaction.
+     *
+     * @param transactions The transactions to record.
+     * @throws SQLException If a database access error occurs.
+     */
+    public void recordTransactions(List<Transaction> transactions) throws SQLException {
+        long start = System.nanoTime();
+        try {
+            repository.saveTransactions(transactions);
+        } finally {
+            metrics.recordLatency("PortfolioManager.recordTransactions", start);
+        }
+    }
+
+    /**
+     * Gets the transactions of a portfolio, oldest first.
+     *
+     * @param portfolioId The ID of the portfolio.
+     * @return The portfolio's transactions.
+     * @throws SQLException If a database access error occurs.
+     */
+    public List<Transaction> getTransactions(int portfolioId) throws SQLException {
+        long start = System.nanoTime();
+        try {
+            return repository.getTransactions(portfolioId);
+        } finally {
+            metrics.recordLatency("PortfolioManager.getTransactions", start);
+        }
     }
 
     /**
@@ -98,7 +227,152 @@ public class PortfolioManager {
      * @throws SQLException If a database access error occurs.
      */
     public Portfolio getPortfolio(int portfolioId) throws SQLException {
-        return databaseService.getPortfolio(portfolioId);
+        long start = System.nanoTime();
+        try {
+            Portfolio portfolio = repository.getPortfolio(portfolioId);
+            if (portfolio != null && priceBoard != null) {
+                priceBoard.reprice(portfolio);
+            }
+            return portfolio;
+        } finally {
+            metrics.recordLatency("PortfolioManager.getPortfolio", start);
+        }
+    }
+
+    /**
+     * Gets a portfolio with one position per stock, summing its purchases at their
+     * weighted-average cost, so reading and valuing it scales with the number of stocks held
+     * rather than the number of purchases. Use {@link #getPortfolio(int)} for the individual lots.
+     *
+     * @param portfolioId The ID of the portfolio.
+     * @return The portfolio with its holdings, or null if not found.
+     * @throws SQLException If a database access error occurs.
+     */
+    public Portfolio getHoldings(int portfolioId) throws SQLException {
+        long start = System.nanoTime();
+        try {
+            Portfolio portfolio = repository.getHoldings(portfolioId);
+            if (portfolio != null && priceBoard != null) {
+                priceBoard.reprice(portfolio);
+            }
+            return portfolio;
+        } finally {
+            metrics.recordLatency("PortfolioManager.getHoldings", start);
+        }
+    }
+
+    /**
+     * Opens a portfolio too large to load at once: its totals are read from the repository's
+     * aggregate now, and its positions are read in pages of ascending position ID when asked
+     * for, each page priced from the price board if there is one.
+     *
+     * @param portfolioId The ID of the portfolio.
+     * @param pageSize    The maximum number of positions per page.
+     * @return The portfolio, or null if not found.
+     * @throws SQLException If a database access error occurs.
+     * @throws IllegalArgumentException If the page size is not positive.
+     */
+    public LazyPortfolio getLazyPortfolio(int portfolioId, int pageSize) throws SQLException {
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("Page size must be positive: " + pageSize);
+        }
+        long start = System.nanoTime();
+        try {
+            PortfolioSummary summary = repository.getPortfolioSummary(portfolioId);
+            return summary == null ? null : lazy(summary, pageSize);
+        } finally {
+            metrics.recordLatency("PortfolioManager.getLazyPortfolio", start);
+        }
+    }
+
+    /**
+     * Ranks the positions of every portfolio and returns those with the highest values of a
+     * metric, such as the largest contributors to profit. Positions are streamed in one pass of
+     * pages and only the top ones are kept, so memory grows with the count, not with the book.
+     *
+     * @param metric What to rank by; weights are of each portfolio's market value at the board prices.
+     * @param count  The most positions returned.
+     * @param sector The only sector ranked, or null for every sector.
+     * @return The ranked positions, highest first, priced from the price board if there is one.
+     * @throws SQLException If a database access error occurs.
+     * @throws IllegalArgumentException If the count is negative.
+     */
+    public List<RankedPosition> getTopPositions(PositionRanker.Metric metric, int count, String sector)
+            throws SQLException {
+        return rankPositions(metric, count, true, sector);
+    }
+
+    /**
+     * Ranks the positions of every portfolio and returns those with the lowest values of a
+     * metric, such as the biggest losers. Positions are streamed in one pass of pages and only
+     * the bottom ones are kept, so memory grows with the count, not with the book.
+     *
+     * @param metric What to rank by; weights are of each portfolio's market value at the board prices.
+     * @param count  The most positions returned.
+     * @param sector The only sector ranked, or null for every sector.
+     * @return The ranked positions, lowest first, priced from the price board if there is one.
+     * @throws SQLException If a database access error occurs.
+     * @throws IllegalArgumentException If the count is negative.
+     */
+    public List<RankedPosition> getBottomPositions(PositionRanker.Metric metric, int count, String sector)
+            throws SQLException {
+        return rankPositions(metric, count, false, sector);
+    }
+
+    /**
+     * Ranks the positions of every portfolio, reading the whole book in one pass of keyset
+     * pages, each priced from the price board if there is one.
+     *
+     * @param metric  What to rank by.
+     * @param count   The most positions returned.
+     * @param highest True for the highest values first, false for the lowest first.
+     * @param sector  The only sector ranked, or null for every sector.
+     * @return The ranked positions.
+     * @throws SQLException If a database access error occurs.
+     */
+    private List<RankedPosition> rankPositions(PositionRanker.Metric metric, int count, boolean highest,
+                                               String sector) throws SQLException {
+        long start = System.nanoTime();
+        try {
+            return ranker.rank((afterPortfolioId, afterPositionId, limit) -> {
+                long pageStart = System.nanoTime();
+                try {
+                    List<Portfolio> page = repository.getAllPositions(afterPortfolioId, afterPositionId, limit);
+                    if (priceBoard != null) {
+                        page.forEach(priceBoard::reprice);
+                    }
+                    return page;
+                } finally {
+                    metrics.recordLatency("PortfolioManager.getAllPositions", pageStart);
+                }
+            }, RANKING_PAGE_SIZE, metric, count, highest, sector);
+        } finally {
+            metrics.recordLatency("PortfolioManager.rankPositions", start);
+        }
+    }
+
+    /**
+     * Opens a portfolio whose positions are read in pages, each priced from the price board
+     * if there is one.
+     *
+     * @param summary  The portfolio's header and totals.
+     * @param pageSize The maximum number of positions per page.
+     * @return The portfolio.
+     */
+    private LazyPortfolio lazy(PortfolioSummary summary, int pageSize) {
+        int portfolioId = summary.getPortfolioId();
+        return new LazyPortfolio(summary, pageSize, (afterPositionId, limit) -> {
+            long pageStart = System.nanoTime();
+            try {
+                List<Position> page = repository.getPositions(portfolioId, afterPositionId, limit);
+                if (priceBoard != null) {
+                    priceBoard.reprice(page);
+                }
+                return page;
+            } finally {
+                metrics.recordLatency("PortfolioManager.getPositions", pageStart);
+            }
+        });
     }
 
     /**
@@ -108,7 +382,27 @@ public class PortfolioManager {
      * @throws SQLException If a database access error occurs.
      */
     public List<Portfolio> getAllPortfolios() throws SQLException {
-        return databaseService.getAllPortfolios();
+        long start = System.nanoTime();
+        try {
+            return repository.getAllPortfolios();
+        } finally {
+            metrics.recordLatency("PortfolioManager.getAllPortfolios", start);
+        }
+    }
+
+    /**
+     * Gets every portfolio's value, cost and position count without loading positions.
+     *
+     * @return The summaries in ascending portfolio ID order.
+     * @throws SQLException If a database access error occurs.
+     */
+    public List<PortfolioSummary> getPortfolioSummaries() throws SQLException {
+        long start = System.nanoTime();
+        try {
+            return repository.getPortfolioSummaries();
+        } finally {
+            metrics.recordLatency("PortfolioManager.getPortfolioSummaries", start);
+        }
     }
 
     /**
@@ -119,37 +413,47 @@ public class PortfolioManager {
      * @return A map of statistic names to their values.
      */
     public Map<String, Object> getPortfolioStats(Portfolio portfolio) {
-        Map<String, Object> stats = new HashMap<>();
+        long start = System.nanoTime();
+        ValuationEvent event = new ValuationEvent();
+        event.begin();
+        // Copied once: every getPositions() call copies the list
+        List<Position> positions = portfolio.getPositions();
+        try {
+            Map<String, Object> stats = new HashMap<>();
 
-        // Total value
-        double totalValue = portfolio.getTotalValue();
-        stats.put("totalValue", totalValue);
+            // Total value
+            double totalValue = portfolio.getTotalValue();
+            stats.put("totalValue", totalValue);
 
-        // Total cost
-        double totalCost = portfolio.getPositions().stream()
-                .mapToDouble(p -> p.getQuantity() * p.getPurchasePrice())
-                .sum();
-        stats.put("totalCost", totalCost);
+            // Total cost
+            double totalCost = positions.stream()
+                    .mapToDouble(p -> p.getQuantity() * p.getPurchasePrice())
+                    .sum();
+            stats.put("totalCost", totalCost);
 
-        // Total profit/loss
-        double totalPnL = portfolio.getPositions().stream()
-                .mapToDouble(Position::getUnrealizedPnL)
-                .sum();
-        stats.put("totalPnL", totalPnL);
+            // Total profit/loss
+            double totalPnL = positions.stream()
+                    .mapToDouble(Position::getUnrealizedPnL)
+                    .sum();
+            stats.put("totalPnL", totalPnL);
 
-        // Return percentage
-        double returnPercentage = (totalValue - totalCost) / totalCost * 100;
-        stats.put("returnPercentage", returnPercentage);
+            // Return percentage
+            double returnPercentage = (totalValue - totalCost) / totalCost * 100;
+            stats.put("returnPercentage", returnPercentage);
 
-        // Sector allocation
-        Map<String, Double> sectorAllocation = portfolio.getPositions().stream()
-                .collect(Collectors.groupingBy(
-                        p -> p.getStock().getSector(),
-                        Collectors.summingDouble(p -> (p.getCurrentValue() / totalValue) * 100)
-                ));
-        stats.put("sectorAllocation", sectorAllocation);
+            // Sector allocation
+            Map<String, Double> sectorAllocation = positions.stream()
+                    .collect(Collectors.groupingBy(
+                            p -> p.getStock().getSector(),
+                            Collectors.summingDouble(p -> (p.getCurrentValue() / totalValue) * 100)
+                    ));
+            stats.put("sectorAllocation", sectorAllocation);
 
-        return stats;
+            return stats;
+        } finally {
+            metrics.recordLatency("PortfolioManager.getPortfolioStats", start);
+            event.complete("PortfolioManager.getPortfolioStats", 1, positions.size());
+        }
     }
 
     /**
@@ -160,6 +464,215 @@ public class PortfolioManager {
      * @throws SQLException If a database access error occurs.
      */
     public void updateStockPrice(String symbol, double newPrice) throws SQLException {
-        databaseService.updateStockPrice(symbol, newPrice);
+        long start = System.nanoTime();
+        try {
+            repository.updateStockPrice(symbol, newPrice);
+            publish(symbol, newPrice);
+            if (alertEngine != null) {
+                alertEngine.onPriceChange(symbol, newPrice);
+            }
+        } finally {
+            metrics.recordLatency("PortfolioManager.updateStockPrice", start);
+        }
+    }
+
+    /**
+     * Applies a split, reverse split or ticker change to a stock, its positions and its
+     * transactions in one step, then adjusts the portfolios the caller already has loaded so
+     * they need not be read again. The new price is published to the price board, and alerts
+     * on the stock follow it rather than firing.
+     *
+     * @param action The corporate action.
+     * @param loaded Portfolios loaded before the action, adjusted in place; may be empty.
+     * @return The number of loaded positions adjusted.
+     * @throws SQLException If a database access error occurs, or the new symbol is taken;
+     *                      nothing is changed in that case.
+     */
+    public int applyCorporateAction(CorporateAction action, Iterable<Portfolio> loaded) throws SQLException {
+        long start = System.nanoTime();
+        try {
+            // The pre-split price, preferably the one last published, so the board gets the
+            // split price without reading the stock back from a replica or cache that may lag.
+            Stock split = null;
+            if (action.getType() == CorporateAction.Type.SPLIT && priceBoard != null && priceBoard.isWriter()) {
+                split = repository.getStockBySymbol(action.getSymbol());
+                if (split != null) {
+                    publishedPrice(split);
+                }
+            }
+            repository.applyCorporateAction(action);
+            if (split != null) {
+                action.applyTo(split);
+                publish(split);
+            }
+            if (alertEngine != null) {
+                alertEngine.onCorporateAction(action);
+            }
+            return action.applyTo(loaded);
+        } finally {
+            metrics.recordLatency("PortfolioManager.applyCorporateAction", start);
+        }
+    }
+
+    /**
+     * Adds an alert that fires once when a stock's price crosses a threshold, in whichever
+     * direction the threshold lies from the current price.
+     *
+     * @param symbol    The stock symbol.
+     * @param threshold The price to watch.
+     * @return The alert rule ID.
+     * @throws SQLException If a database access error occurs.
+     * @throws IllegalArgumentException If the stock is unknown.
+     * @throws IllegalStateException If alerts are disabled.
+     */
+    public long addPriceAlert(String symbol, double threshold) throws SQLException {
+        AlertEngine engine = requireAlertEngine();
+        Stock stock = repository.getStockBySymbol(symbol);
+        if (stock == null) {
+            throw new IllegalArgumentException("Unknown stock: " + symbol);
+        }
+        publishedPrice(stock);
+        return engine.addPriceAlert(stock, threshold);
+    }
+
+    /**
+     * Adds an alert that fires once when a portfolio's value drops by a percentage from its
+     * value now.
+     *
+     * @param portfolioId The ID of the portfolio.
+     * @param dropPercent The percentage of the value to lose, for example 5 for 5%.
+     * @return The alert rule ID.
+     * @throws SQLException If a database access error occurs.
+     * @throws IllegalArgumentException If the portfolio is unknown or the percentage is not
+     *                                  between 0 and 100.
+     * @throws IllegalStateException If alerts are disabled.
+     */
+    public long addPortfolioAlert(int portfolioId, double dropPercent) throws SQLException {
+        AlertEngine engine = requireAlertEngine();
+        Portfolio holdings = getHoldings(portfolioId);
+        if (holdings == null) {
+            throw new IllegalArgumentException("Unknown portfolio: " + portfolioId);
+        }
+        return engine.addPortfolioAlert(holdings, dropPercent / 100);
+    }
+
+    /**
+     * Removes an alert that has not fired.
+     *
+     * @param ruleId The alert rule ID.
+     * @return True if the alert was active.
+     */
+    public boolean removeAlert(long ruleId) {
+        return alertEngine != null && alertEngine.removeAlert(ruleId);
+    }
+
+    /**
+     * Loads every portfolio's transaction ledger into a performance engine and values it
+     * over a price history, so time-weighted and money-weighted returns can then be reported
+     * for any date range.
+     *
+     * @param engine  The engine to load.
+     * @param history The closing prices; read to the end but not closed.
+     * @throws SQLException If a database access error occurs.
+     * @throws IOException If the history cannot be read.
+     */
+    public void loadPerformance(PerformanceEngine engine, PriceHistory history) throws SQLException, IOException {
+        long start = System.nanoTime();
+        try {
+            // Two reads for the whole book: the portfolios, so those without trades are kept,
+            // and every transaction grouped by portfolio, oldest first
+            Map<Integer, List<Transaction>> ledger = new HashMap<>();
+            for (Portfolio portfolio : repository.getAllPortfolios()) {
+                ledger.put(portfolio.getPortfolioId(), new ArrayList<>());
+            }
+            for (Transaction transaction : repository.getAllTransactions()) {
+                ledger.computeIfAbsent(transaction.getPortfolioId(), id -> new ArrayList<>()).add(transaction);
+            }
+            engine.load(ledger, history);
+        } finally {
+            metrics.recordLatency("PortfolioManager.loadPerformance", start);
+        }
+    }
+
+    /**
+     * Sets the prices of a loaded portfolio to the latest ones on the price board, without
+     * reading the repository. Does nothing without a board.
+     *
+     * @param portfolio The portfolio to reprice.
+     */
+    public void refreshPrices(Portfolio portfolio) {
+        if (priceBoard != null) {
+            priceBoard.reprice(portfolio);
+        }
+    }
+
+    /**
+     * Publishes the price of a stock to the price board, if this process writes one.
+     *
+     * @param stock The stock, with its ID set.
+     */
+    private void publish(Stock stock) {
+        if (priceBoard != null && priceBoard.isWriter()) {
+            publish(stock.getStockId(), stock.getCurrentPrice());
+        }
+    }
+
+    /**
+     * Publishes a price to the price board. The change it belongs to is already stored, so a
+     * stock the board has no slot for is skipped with a warning rather than failing the caller;
+     * readers then fall back to the stored price.
+     *
+     * @param stockId The ID of the stock.
+     * @param price   The price to publish.
+     */
+    private void publish(int stockId, double price) {
+        if (!priceBoard.covers(stockId)) {
+            logger.warn("Stock ID {} does not fit the price board of {} slots; its price is not published",
+                    stockId, priceBoard.getCapacity());
+            return;
+        }
+        priceBoard.publish(stockId, price, System.currentTimeMillis());
+    }
+
+    /**
+     * Publishes a known price of a stock to the price board, if this process writes one. The
+     * stock is read only for its ID, which never changes, and only when there is a board to
+     * publish to; its stored price is not used, as the read may come from a lagging replica.
+     *
+     * @param symbol The symbol of the stock.
+     * @param price  The price to publish.
+     * @throws SQLException If a database access error occurs.
+     */
+    private void publish(String symbol, double price) throws SQLException {
+        if (priceBoard != null && priceBoard.isWriter()) {
+            Stock stock = repository.getStockBySymbol(symbol);
+            if (stock != null) {
+                publish(stock.getStockId(), price);
+            }
+        }
+    }
+
+    /**
+     * Sets a stock's price to the latest one on the price board, if there is one.
+     *
+     * @param stock The stock, with its ID set.
+     */
+    private void publishedPrice(Stock stock) {
+        if (priceBoard != null) {
+            stock.setCurrentPrice(priceBoard.price(stock));
+        }
+    }
+
+    /**
+     * Gets the alert engine, failing if alerts are disabled.
+     *
+     * @return The alert engine.
+     * @throws IllegalStateException If there is no alert engine.
+     */
+    private AlertEngine requireAlertEngine() {
+        if (alertEngine == null) {
+            throw new IllegalStateException("Alerts are not enabled");
+        }
+        return alertEngine;
     }
 }
\ No newline at end of file
@@ -0,0 +1,236 @@
+package com.portfolio.service;
+
+import com.portfolio.metrics.MetricsRegistry;
+import com.portfolio.repository.CachingRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * This class warms a {@link CachingRepository} in the background at startup, so the UI comes
+ * up at once and the first requests find what they need already loaded.
+ * <p>
+ * A single daemon thread opens the repository, loads the stock master and then the
+ * consolidated holdings of the portfolios read most often in earlier sessions, most often read
+ * first. Every step waits while a request is being served, so requests that arrive during the
+ * warm-up go first. {@link #getReady()} completes once the warm-up is done, or exceptionally
+ * if the repository cannot be read; requests are served either way, from the repository.
+ * <p>
+ * Read counts are kept in a text file of {@code portfolioId count} lines. At shutdown
+ * {@link #saveAccessCounts()} halves the stored counts and adds this session's, so the ranking
+ * follows recent use.
+ * @author Gaoussou Thiam
+ * @date 10/19/2026
+ * @see com.portfolio.repository.CachingRepository
+ * @see com.portfolio.InvestmentPortfolioApp
+ */
+public class StartupWarmer {
+
+
+    /** Logger for a failed warm-up. */
+    private static final Logger logger = LoggerFactory.getLogger(StartupWarmer.class);
+
+    /** The most portfolios whose read counts are kept. */
+    private static final int MAX_SAVED_COUNTS = 10_000;
+
+    /** The cache to warm. */
+    private final CachingRepository cache;
+
+    /** The file of read counts, or null to warm the stock master only. */
+    private final Path countsFile;
+
+    /** The most portfolios to warm. */
+    private final int limit;
+
+    /** Completed when the warm-up is done. */
+    private final CompletableFuture<Void> ready = new CompletableFuture<>();
+
+    /** The number of portfolios the warm-up will load. */
+    private volatile int planned;
+
+    /** The number of portfolios loaded so far. */
+    private final AtomicInteger warmed = new AtomicInteger();
+
+    /** Registry that records how long the warm-up took. */
+    private final MetricsRegistry metrics = MetricsRegistry.getDefault();
+
+    /**
+     * Constructs a warmer.
+     *
+     * @param cache      The cache to warm.
+     * @param countsFile The file of read counts of earlier sessions, which need not exist yet;
+     *                   null to warm the stock master only.
+     * @param limit      The most portfolios to warm.
+     */
+    public StartupWarmer(CachingRepository cache, Path countsFile, int limit) {
+        this.cache = cache;
+        this.countsFile = countsFile;
+        this.limit = limit;
+    }
+
+    /**
+     * Starts the warm-up on a daemon thread and returns at once.
+     *
+     * @return The future completed when the warm-up is done.
+     */
+    public CompletableFuture<Void> start() {
+        ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "startup-warm-up");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.execute(this::warm);
+        executor.shutdown();
+        return ready;
+    }
+
+    /**
+     * Gets the readiness signal.
+     *
+     * @return The future completed when the warm-up is done.
+     */
+    public CompletableFuture<Void> getReady() {
+        return ready;
+    }
+
+    /**
+     * Checks whether the warm-up has finished, successfully or not.
+     *
+     * @return True once nothing more will be loaded.
+     */
+    public boolean isReady() {
+        return ready.isDone();
+    }
+
+    /**
+     * Gets the number of portfolios the warm-up will load.
+     *
+     * @return The planned count; 0 until the read counts have been read.
+     */
+    public int getPlanned() {
+        return planned;
+    }
+
+    /**
+     * Gets the number of portfolios loaded so far.
+     *
+     * @return The loaded count.
+     */
+    public int getWarmed() {
+        return warmed.get();
+    }
+
+    /**
+     * Saves the read counts, halving those of earlier sessions and adding this session's.
+     * Does nothing without a counts file.
+     *
+     * @throws IOException If the file cannot be written.
+     */
+    public void saveAccessCounts() throws IOException {
+        if (countsFile == null) {
+            return;
+        }
+        Map<Integer, Long> counts = new HashMap<>();
+        readCounts(countsFile).forEach((portfolioId, count) -> {
+            if (count / 2 > 0) {
+                counts.put(portfolioId, count / 2);
+            }
+        });
+        cache.getAccessCounts().forEach((portfolioId, count) -> counts.merge(portfolioId, count, Long::sum));
+
+        Path parent = countsFile.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Path temporary = countsFile.resolveSibling(countsFile.getFileName() + ".tmp");
+        try (BufferedWriter writer = Files.newBufferedWriter(temporary)) {
+            for (Map.Entry<Integer, Long> entry : ranked(counts, MAX_SAVED_COUNTS)) {
+                writer.write(entry.getKey() + " " + entry.getValue());
+                writer.newLine();
+            }
+        }
+        Files.move(temporary, countsFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Runs the warm-up.
+     */
+    private void warm() {
+        long start = System.nanoTime();
+        try {
+            cache.open();
+            cache.prefetchStocks();
+            if (countsFile != null) {
+                List<Map.Entry<Integer, Long>> hottest = ranked(readCounts(countsFile), limit);
+                planned = hottest.size();
+                for (Map.Entry<Integer, Long> entry : hottest) {
+                    cache.prefetchPortfolio(entry.getKey());
+                    warmed.incrementAndGet();
+                }
+            }
+            ready.complete(null);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            ready.completeExceptionally(e);
+        } catch (SQLException | IOException | RuntimeException e) {
+            logger.warn("Warm-up stopped; requests are served from the repository: {}", e.getMessage());
+            ready.completeExceptionally(e);
+        } finally {
+            metrics.recordLatency("StartupWarmer.warm", start);
+        }
+    }
+
+    /**
+     * Reads a file of read counts, skipping malformed lines.
+     *
+     * @param file The file.
+     * @return The counts keyed by portfolio ID; empty if the file does not exist.
+     * @throws IOException If the file cannot be read.
+     */
+    private static Map<Integer, Long> readCounts(Path file) throws IOException {
+        Map<Integer, Long> counts = new HashMap<>();
+        if (!Files.exists(file)) {
+            return counts;
+        }
+        for (String line : Files.readAllLines(file)) {
+            String[] fields = line.trim().split("\\s+");
+            if (fields.length != 2) {
+                continue;
+            }
+            try {
+                counts.merge(Integer.parseInt(fields[0]), Long.parseLong(fields[1]), Long::sum);
+            } catch (NumberFormatException e) {
+                // A hand-edited or truncated line only loses that portfolio's history.
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * Ranks read counts, most reads first and then by portfolio ID.
+     *
+     * @param counts The counts keyed by portfolio ID.
+     * @param limit  The most entries returned.
+     * @return The highest counts.
+     */
+    private static List<Map.Entry<Integer, Long>> ranked(Map<Integer, Long> counts, int limit) {
+        return counts.entrySet().stream()
+                .sorted(Map.Entry.<Integer, Long>comparingByValue().reversed()
+                        .thenComparing(Map.Entry.comparingByKey()))
+                .limit(Math.max(0, limit))
+                .toList();
+    }
+}
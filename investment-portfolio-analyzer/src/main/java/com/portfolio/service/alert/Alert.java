@@ -0,0 +1,92 @@
+package com.portfolio.service.alert;
+
+import java.time.LocalDateTime;
+
+/**
+ * This class is an alert fired by the {@link AlertEngine} when one of its rules matched: the
+ * rule, what it watched and the price or portfolio value that triggered it.
+ * @author Gaoussou Thiam
+ * @date 10/19/2026
+ * @see com.portfolio.service.alert.AlertEngine
+ * @see com.portfolio.service.alert.AlertSink
+ */
+public final class Alert {
+
+
+    /** The ID of the rule that fired. */
+    private final long ruleId;
+
+    /** A description of the rule. */
+    private final String description;
+
+    /** The threshold the rule watched. */
+    private final double threshold;
+
+    /** The price or portfolio value that crossed the threshold. */
+    private final double observed;
+
+    /** When the rule fired. */
+    private final LocalDateTime firedAt;
+
+    /**
+     * Constructs a new Alert.
+     *
+     * @param ruleId      The ID of the rule that fired.
+     * @param description A description of the rule.
+     * @param threshold   The threshold the rule watched.
+     * @param observed    The price or portfolio value that crossed the threshold.
+     * @param firedAt     When the rule fired.
+     */
+    Alert(long ruleId, String description, double threshold, double observed, LocalDateTime firedAt) {
+        this.ruleId = ruleId;
+        this.description = description;
+        this.threshold = threshold;
+        this.observed = observed;
+        this.firedAt = firedAt;
+    }
+
+    /**
+     * Gets the ID of the rule that fired.
+     *
+     * @return The rule ID.
+     */
+    public long getRuleId() { return ruleId; }
+
+    /**
+     * Gets a description of the rule.
+     *
+     * @return The description, for example "AAPL rises to 180.00".
+     */
+    public String getDescription() { return description; }
+
+    /**
+     * Gets the threshold the rule watched.
+     *
+     * @return The price or portfolio value threshold.
+     */
+    public double getThreshold() { return threshold; }
+
+    /**
+     * Gets the price or portfolio value that crossed the threshold.
+     *
+     * @return The observed value.
+     */
+    public double getObserved() { return observed; }
+
+    /**
+     * Gets when the rule fired.
+     *
+     * @return The time.
+     */
+    public LocalDateTime getFiredAt() { return firedAt; }
+
+    /**
+     * Returns a string representation of the alert.
+     *
+     * @return A formatted string containing the alert.
+     */
+    @Override
+    public String toString() {
+        return String.format("Alert[rule=%d, %s, observed=%.2f]", ruleId, description, observed);
+    }
+}
@@ -0,0 +1,581 @@
+package com.portfolio.service.alert;
+
+import com.portfolio.metrics.MetricsRegistry;
+import com.portfolio.model.CorporateAction;
+import com.portfolio.model.Portfolio;
+import com.portfolio.model.Position;
+import com.portfolio.model.Stock;
+import com.portfolio.util.ConcurrentIntMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This class fires alerts when a stock price crosses a threshold or a portfolio's value drops
+ * by a given fraction, without scanning every rule on every price change.
+ * <p>
+ * Price rules are kept per symbol in two sorted maps, one for rules waiting for the price to
+ * rise to their threshold and one for rules waiting for it to fall below theirs. A move from
+ * p0 to p1 fires exactly the rules whose thresholds lie between the two, found by a range
+ * view of the map in O(log n + k). Rules fire once and are then removed.
+ * <p>
+ * Portfolio rules are checked against a running total per watched portfolio rather than by
+ * revaluing it. Each symbol knows the watched portfolios holding it and their quantities, so a
+ * price change adds the quantity times the change to each holder's total, and the holder's
+ * rules, sorted by the value that triggers them, fire from a range view the same way. A drop
+ * is measured from the portfolio's value when the rule was set.
+ * <p>
+ * The engine sees the prices and positions it is told about through {@link #onPriceChange}
+ * and {@link #onPositionAdded}, and follows splits and ticker changes through
+ * {@link #onCorporateAction}, so a split does not fire the rules below the old price. Fired
+ * alerts are handed to the sink on a single dispatcher thread, in order, so a slow sink never
+ * delays a price update.
+ * @author Gaoussou Thiam
+ * @date 10/19/2026
+ * @see com.portfolio.service.alert.AlertSink
+ * @see com.portfolio.service.PortfolioManager
+ */
+public final class AlertEngine implements Closeable {
+
+
+    /** Logger for failing sinks. */
+    private static final Logger logger = LoggerFactory.getLogger(AlertEngine.class);
+
+    /** Where fired alerts are delivered. */
+    private final AlertSink sink;
+
+    /** Delivers fired alerts to the sink. */
+    private final ExecutorService dispatcher;
+
+    /** Price rules, holders and last price by symbol. */
+    private final ConcurrentHashMap<String, SymbolState> symbols = new ConcurrentHashMap<>();
+
+    /** Running totals and rules of the watched portfolios, by portfolio ID. */
+    private final ConcurrentIntMap<PortfolioState> portfolios = new ConcurrentIntMap<>();
+
+    /** Every active rule by ID, for removal. */
+    private final ConcurrentHashMap<Long, Rule> rules = new ConcurrentHashMap<>();
+
+    /** Last assigned rule ID. */
+    private final AtomicLong ruleIds = new AtomicLong();
+
+    /** Registry that records call latencies. */
+    private final MetricsRegistry metrics = MetricsRegistry.getDefault();
+
+    /**
+     * Constructs an engine that delivers alerts to a sink.
+     *
+     * @param sink Where fired alerts are delivered.
+     */
+    public AlertEngine(AlertSink sink) {
+        this.sink = sink;
+        this.dispatcher = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "alert-dispatcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Adds a rule that fires once when a stock's price crosses a threshold: when it rises to
+     * the threshold if the price is below it now, otherwise when it falls below it.
+     *
+     * @param stock     The stock, at its current price unless the engine already tracks it.
+     * @param threshold The price to watch.
+     * @return The rule ID.
+     */
+    public long addPriceAlert(Stock stock, double threshold) {
+        long id = ruleIds.incrementAndGet();
+        SymbolState state = symbolState(stock);
+        synchronized (state) {
+            boolean rising = threshold > state.lastPrice;
+            String description = describe(stock.getSymbol(), rising, threshold);
+            PriceRule rule = new PriceRule(id, description, threshold, state, rising);
+            (rising ? state.rising : state.falling).computeIfAbsent(threshold, key -> new ArrayList<>()).add(rule);
+            rules.put(id, rule);
+        }
+        return id;
+    }
+
+    /**
+     * Adds a rule that fires once when a portfolio's value drops by a fraction from its value
+     * now. The first rule on a portfolio starts tracking its holdings; positions added later
+     * must be reported through {@link #onPositionAdded}.
+     *
+     * @param portfolio The portfolio with its positions, or its consolidated holdings.
+     * @param drop      The fraction of the value to lose, for example 0.05 for 5%.
+     * @return The rule ID.
+     * @throws IllegalArgumentException If the fraction is not between 0 and 1.
+     */
+    public long addPortfolioAlert(Portfolio portfolio, double drop) {
+        if (!(drop > 0 && drop < 1)) {
+            throw new IllegalArgumentException("Drop must be between 0 and 1: " + drop);
+        }
+        long id = ruleIds.incrementAndGet();
+        PortfolioState state = watch(portfolio);
+        synchronized (state) {
+            double trigger = state.value * (1 - drop);
+            String description = String.format("portfolio %d drops %.1f%% to %.2f", state.portfolioId, drop * 100,
+                    trigger);
+            PortfolioRule rule = new PortfolioRule(id, description, trigger, state);
+            state.rules.computeIfAbsent(trigger, key -> new ArrayList<>()).add(rule);
+            rules.put(id, rule);
+        }
+        return id;
+    }
+
+    /**
+     * Removes a rule that has not fired.
+     *
+     * @param ruleId The rule ID.
+     * @return True if the rule was active.
+     */
+    public boolean removeAlert(long ruleId) {
+        Rule rule = rules.remove(ruleId);
+        if (rule == null) {
+            return false;
+        }
+        rule.detach();
+        return true;
+    }
+
+    /**
+     * Gets the number of rules that have not fired.
+     *
+     * @return The number of active rules.
+     */
+    public int getActiveCount() {
+        return rules.size();
+    }
+
+    /**
+     * Applies a price change: fires the price rules whose thresholds it crossed and moves the
+     * totals of the watched portfolios holding the stock, firing their rules in turn.
+     *
+     * @param symbol   The symbol.
+     * @param newPrice The new price.
+     */
+    public void onPriceChange(String symbol, double newPrice) {
+        SymbolState state = symbols.get(symbol);
+        if (state == null) {
+            return;
+        }
+        long start = System.nanoTime();
+        List<Alert> fired = new ArrayList<>();
+        try {
+            synchronized (state) {
+                double oldPrice = state.lastPrice;
+                state.lastPrice = newPrice;
+                if (newPrice > oldPrice) {
+                    fire(state.rising.subMap(oldPrice, false, newPrice, true), newPrice, fired);
+                } else if (newPrice < oldPrice) {
+                    fire(state.falling.subMap(newPrice, false, oldPrice, true), newPrice, fired);
+                } else {
+                    return;
+                }
+                double change = newPrice - oldPrice;
+                for (Holder holder : state.holders.values()) {
+                    holder.portfolio.move(holder.quantity * change, fired);
+                }
+            }
+        } finally {
+            dispatch(fired);
+            metrics.recordLatency("AlertEngine.onPriceChange", start);
+        }
+    }
+
+    /**
+     * Adds a new position to the total of its portfolio, if the portfolio is watched.
+     *
+     * @param portfolioId The portfolio.
+     * @param position    The position, with its stock.
+     */
+    public void onPositionAdded(int portfolioId, Position position) {
+        PortfolioState portfolio = portfolios.get(portfolioId);
+        if (portfolio != null) {
+            hold(portfolio, position.getStock(), position.getQuantity());
+        }
+    }
+
+    /**
+     * Follows a split or ticker change of a tracked stock. A split divides the last price and
+     * the thresholds of the stock's price rules by the ratio and multiplies the quantities of
+     * its holders, so no rule fires and no portfolio total moves. A ticker change tracks the
+     * stock under its new symbol.
+     *
+     * @param action The corporate action, already applied to the repository.
+     */
+    public void onCorporateAction(CorporateAction action) {
+        SymbolState state = symbols.get(action.getSymbol());
+        if (state == null) {
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            synchronized (state) {
+                String symbol = action.getSymbol();
+                double ratio = action.getRatio();
+                if (action.getType() == CorporateAction.Type.SYMBOL_CHANGE) {
+                    symbol = action.getNewSymbol();
+                    symbols.remove(action.getSymbol(), state);
+                    symbols.put(symbol, state);
+                } else {
+                    state.lastPrice = state.lastPrice / ratio;
+                    for (Holder holder : state.holders.values()) {
+                        holder.quantity *= ratio;
+                    }
+                }
+                rescale(state.rising, symbol, ratio);
+                rescale(state.falling, symbol, ratio);
+            }
+        } finally {
+            metrics.recordLatency("AlertEngine.onCorporateAction", start);
+        }
+    }
+
+    /**
+     * Stops the dispatcher after delivering the alerts already fired.
+     */
+    @Override
+    public void close() {
+        dispatcher.shutdown();
+    }
+
+    /**
+     * Gets the state of a symbol, creating it at the stock's price if it is not tracked yet.
+     *
+     * @param stock The stock.
+     * @return The state.
+     */
+    private SymbolState symbolState(Stock stock) {
+        return symbols.computeIfAbsent(stock.getSymbol(), symbol -> new SymbolState(stock.getCurrentPrice()));
+    }
+
+    /**
+     * Gets the state of a watched portfolio, starting to track its holdings if needed.
+     *
+     * @param portfolio The portfolio with its positions.
+     * @return The state.
+     */
+    private synchronized PortfolioState watch(Portfolio portfolio) {
+        PortfolioState state = portfolios.get(portfolio.getPortfolioId());
+        if (state == null) {
+            state = new PortfolioState(portfolio.getPortfolioId());
+            portfolios.put(state.portfolioId, state);
+            for (Position position : portfolio.getPositions()) {
+                hold(state, position.getStock(), position.getQuantity());
+            }
+        }
+        return state;
+    }
+
+    /**
+     * Adds a quantity of a stock to a watched portfolio, valued at the stock's tracked price.
+     *
+     * @param portfolio The watched portfolio.
+     * @param stock     The stock.
+     * @param quantity  The quantity.
+     */
+    private void hold(PortfolioState portfolio, Stock stock, double quantity) {
+        SymbolState state = symbolState(stock);
+        List<Alert> fired = new ArrayList<>();
+        // Locks are always taken symbol first, then portfolio, as in onPriceChange.
+        synchronized (state) {
+            state.holders.computeIfAbsent(portfolio.portfolioId, id -> new Holder(portfolio)).quantity += quantity;
+            portfolio.move(quantity * state.lastPrice, fired);
+        }
+        dispatch(fired);
+    }
+
+    /**
+     * Divides the thresholds of a symbol's price rules by a split ratio and describes them
+     * under the symbol, re-keying the map.
+     *
+     * @param map    The rules of one direction, guarded by the symbol's state.
+     * @param symbol The symbol the stock now trades under.
+     * @param ratio  New shares per old share; 1 for a ticker change.
+     */
+    private static void rescale(NavigableMap<Double, List<Rule>> map, String symbol, double ratio) {
+        List<List<Rule>> atThresholds = new ArrayList<>(map.values());
+        map.clear();
+        for (List<Rule> atThreshold : atThresholds) {
+            double threshold = atThreshold.get(0).threshold / ratio;
+            for (Rule rule : atThreshold) {
+                rule.threshold = threshold;
+                rule.description = describe(symbol, ((PriceRule) rule).rising, threshold);
+            }
+            map.merge(threshold, atThreshold, (kept, merged) -> {
+                kept.addAll(merged);
+                return kept;
+            });
+        }
+    }
+
+    /**
+     * Describes a price rule.
+     *
+     * @param symbol    The symbol.
+     * @param rising    True if the rule waits for the price to rise.
+     * @param threshold The threshold.
+     * @return The description, for example "AAPL rises to 180.00".
+     */
+    private static String describe(String symbol, boolean rising, double threshold) {
+        return String.format("%s %s %.2f", symbol, rising ? "rises to" : "falls below", threshold);
+    }
+
+    /**
+     * Fires and removes every rule in a range of a sorted rule map.
+     *
+     * @param range    The range view of the rules to fire.
+     * @param observed The price or value that triggered them.
+     * @param fired    Receives the alerts.
+     */
+    private void fire(NavigableMap<Double, List<Rule>> range, double observed, List<Alert> fired) {
+        LocalDateTime now = null;
+        for (Iterator<List<Rule>> entries = range.values().iterator(); entries.hasNext(); ) {
+            for (Rule rule : entries.next()) {
+                if (rules.remove(rule.id) != null) {
+                    now = now == null ? LocalDateTime.now() : now;
+                    fired.add(new Alert(rule.id, rule.description, rule.threshold, observed, now));
+                }
+            }
+            entries.remove();
+        }
+    }
+
+    /**
+     * Hands fired alerts to the dispatcher.
+     *
+     * @param fired The alerts, in the order they fired.
+     */
+    private void dispatch(List<Alert> fired) {
+        for (Alert alert : fired) {
+            try {
+                dispatcher.execute(() -> deliver(alert));
+            } catch (RejectedExecutionException e) {
+                logger.warn("Alert engine is closed; dropping {}", alert);
+            }
+        }
+    }
+
+    /**
+     * Delivers one alert, keeping the dispatcher alive if the sink fails.
+     *
+     * @param alert The alert.
+     */
+    private void deliver(Alert alert) {
+        try {
+            sink.deliver(alert);
+        } catch (RuntimeException e) {
+            logger.warn("Alert sink failed to deliver {}", alert, e);
+        }
+    }
+
+    /**
+     * A rule that has not fired. The threshold and description of a price rule change with
+     * splits and ticker changes, guarded by the state of its symbol.
+     */
+    private abstract static class Rule {
+
+        /** The rule ID. */
+        final long id;
+
+        /** A description of the rule. */
+        String description;
+
+        /** The price or value that fires the rule. */
+        double threshold;
+
+        /**
+         * Constructs a rule.
+         *
+         * @param id          The rule ID.
+         * @param description A description of the rule.
+         * @param threshold   The price or value that fires the rule.
+         */
+        Rule(long id, String description, double threshold) {
+            this.id = id;
+            this.description = description;
+            this.threshold = threshold;
+        }
+
+        /**
+         * Removes the rule from the sorted map that holds it.
+         */
+        abstract void detach();
+
+        /**
+         * Removes this rule from the list of rules at its threshold in a sorted map.
+         *
+         * @param map The map.
+         */
+        void detachFrom(NavigableMap<Double, List<Rule>> map) {
+            List<Rule> atThreshold = map.get(threshold);
+            if (atThreshold != null && atThreshold.remove(this) && atThreshold.isEmpty()) {
+                map.remove(threshold);
+            }
+        }
+    }
+
+    /**
+     * A rule on the price of one stock.
+     */
+    private static final class PriceRule extends Rule {
+
+        /** The state of the stock's symbol. */
+        final SymbolState symbol;
+
+        /** True if the rule waits for the price to rise, false if to fall. */
+        final boolean rising;
+
+        /**
+         * Constructs a price rule.
+         *
+         * @param id          The rule ID.
+         * @param description A description of the rule.
+         * @param threshold   The price that fires the rule.
+         * @param symbol      The state of the stock's symbol.
+         * @param rising      True if the rule waits for the price to rise.
+         */
+        PriceRule(long id, String description, double threshold, SymbolState symbol, boolean rising) {
+            super(id, description, threshold);
+            this.symbol = symbol;
+            this.rising = rising;
+        }
+
+        @Override
+        void detach() {
+            synchronized (symbol) {
+                detachFrom(rising ? symbol.rising : symbol.falling);
+            }
+        }
+    }
+
+    /**
+     * A rule on the value of one portfolio.
+     */
+    private static final class PortfolioRule extends Rule {
+
+        /** The state of the portfolio. */
+        final PortfolioState portfolio;
+
+        /**
+         * Constructs a portfolio rule.
+         *
+         * @param id          The rule ID.
+         * @param description A description of the rule.
+         * @param threshold   The value at or below which the rule fires.
+         * @param portfolio   The state of the portfolio.
+         */
+        PortfolioRule(long id, String description, double threshold, PortfolioState portfolio) {
+            super(id, description, threshold);
+            this.portfolio = portfolio;
+        }
+
+        @Override
+        void detach() {
+            synchronized (portfolio) {
+                detachFrom(portfolio.rules);
+            }
+        }
+    }
+
+    /**
+     * The last price, price rules and watched holders of one symbol; guarded by itself.
+     */
+    private static final class SymbolState {
+
+        /** The last price seen. */
+        double lastPrice;
+
+        /** Rules waiting for the price to rise to their threshold, by threshold. */
+        final NavigableMap<Double, List<Rule>> rising = new TreeMap<>();
+
+        /** Rules waiting for the price to fall below their threshold, by threshold. */
+        final NavigableMap<Double, List<Rule>> falling = new TreeMap<>();
+
+        /** The watched portfolios holding the symbol, by portfolio ID. */
+        final Map<Integer, Holder> holders = new HashMap<>();
+
+        /**
+         * Constructs the state of a symbol.
+         *
+         * @param lastPrice The current price.
+         */
+        SymbolState(double lastPrice) {
+            this.lastPrice = lastPrice;
+        }
+    }
+
+    /**
+     * A watched portfolio's quantity of one symbol; guarded by the symbol's state.
+     */
+    private static final class Holder {
+
+        /** The watched portfolio. */
+        final PortfolioState portfolio;
+
+        /** The quantity held. */
+        double quantity;
+
+        /**
+         * Constructs a holder with no quantity yet.
+         *
+         * @param portfolio The watched portfolio.
+         */
+        Holder(PortfolioState portfolio) {
+            this.portfolio = portfolio;
+        }
+    }
+
+    /**
+     * The running total and rules of one watched portfolio; guarded by itself.
+     */
+    private final class PortfolioState {
+
+        /** The portfolio ID. */
+        final int portfolioId;
+
+        /** The value at the last prices seen. */
+        double value;
+
+        /** Rules by the value at or below which they fire. */
+        final NavigableMap<Double, List<Rule>> rules = new TreeMap<>();
+
+        /**
+         * Constructs the state of a portfolio with no holdings yet.
+         *
+         * @param portfolioId The portfolio ID.
+         */
+        PortfolioState(int portfolioId) {
+            this.portfolioId = portfolioId;
+        }
+
+        /**
+         * Moves the total and fires the rules it fell to.
+         *
+         * @param change The change in value.
+         * @param fired  Receives the alerts.
+         */
+        synchronized void move(double change, List<Alert> fired) {
+            value += change;
+            if (change < 0 && !rules.isEmpty()) {
+                fire(rules.tailMap(value, true), value, fired);
+            }
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.portfolio.service.alert;
+
+/**
+ * This interface receives the alerts fired by an {@link AlertEngine}, for example to print
+ * them, write them to a log or forward them to a notification service.
+ * @author Gaoussou Thiam
+ * @date 10/19/2026
+ * @see com.portfolio.service.alert.AlertEngine
+ */
+@FunctionalInterface
+public interface AlertSink {
+
+    /**
+     * Delivers an alert. Called on the engine's dispatcher thread, one alert at a time and in
+     * the order they fired, never on the thread that changed the price.
+     *
+     * @param alert The alert.
+     */
+    void deliver(Alert alert);
+}
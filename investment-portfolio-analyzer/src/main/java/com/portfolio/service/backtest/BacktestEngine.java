@@ -0,0 +1,351 @@
+package com.portfolio.service.backtest;
+
+import com.portfolio.metrics.ValuationEvent;
+import com.portfolio.model.Position;
+import com.portfolio.model.Transaction;
+import com.portfolio.service.rebalance.TargetAllocation;
+import com.portfolio.util.RangeAction;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * This class replays a price history against many portfolios at once.
+ * <p>
+ * The history is read a single time, in blocks of bars, and each block is handed to every
+ * portfolio in parallel on a fork-join pool while the next block is being read, so reading
+ * the history is shared by the whole run and overlaps with the valuation. Each portfolio is
+ * reduced up front to a sparse vector of quantities indexed by price column, with its target
+ * weights and scheduled trades resolved to the same columns, so a bar costs one pass over the
+ * symbols it holds or targets and allocates nothing.
+ * @author Gaoussou Thiam
+ * @date 10/19/2026
+ * @see com.portfolio.service.backtest.BacktestPlan
+ * @see com.portfolio.service.backtest.PriceHistory
+ * @see com.portfolio.service.backtest.BacktestResult
+ */
+public class BacktestEngine {
+
+
+    /** The number of bars read per block. */
+    private static final int BLOCK_BARS = 256;
+
+    /** The pool that steps portfolios in parallel. */
+    private final ForkJoinPool pool;
+
+    /**
+     * Constructs a BacktestEngine that runs on the common fork-join pool.
+     */
+    public BacktestEngine() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructs a BacktestEngine that runs on the given fork-join pool.
+     *
+     * @param pool The pool used to step portfolios in parallel.
+     */
+    public BacktestEngine(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Runs every plan over the whole history. The history is read to the end but not closed.
+     *
+     * @param plans   The plans, one per portfolio.
+     * @param history The prices to replay.
+     * @return The equity curve, drawdown and turnover of every portfolio.
+     * @throws IOException If the history cannot be read.
+     * @throws IllegalArgumentException If a plan holds, targets or trades a symbol the history
+     *                                  has no prices for.
+     */
+    public BacktestResult run(List<BacktestPlan> plans, PriceHistory history) throws IOException {
+        ValuationEvent event = new ValuationEvent();
+        event.begin();
+        List<String> symbols = history.getSymbols();
+        Map<String, Integer> columns = new HashMap<>();
+        for (int c = 0; c < symbols.size(); c++) {
+            columns.put(symbols.get(c), c);
+        }
+        int count = plans.size();
+        Book[] books = new Book[count];
+        pool.invoke(new RangeAction(0, count, 64, i -> books[i] = new Book(plans.get(i), columns)));
+
+        int width = symbols.size();
+        long[][] dayBlocks = {new long[BLOCK_BARS], new long[BLOCK_BARS]};
+        double[][] priceBlocks = {new double[BLOCK_BARS * width], new double[BLOCK_BARS * width]};
+        long[] days = new long[BLOCK_BARS];
+        int bars = 0;
+        int current = 0;
+        int read = history.read(dayBlocks[current], priceBlocks[current], BLOCK_BARS);
+        while (read > 0) {
+            long[] blockDays = dayBlocks[current];
+            double[] blockPrices = priceBlocks[current];
+            int blockBars = read;
+            ForkJoinTask<Void> pass = pool.submit(new RangeAction(0, count, 4,
+                    i -> books[i].step(blockDays, blockPrices, blockBars, width)));
+            if (bars + blockBars > days.length) {
+                days = Arrays.copyOf(days, Math.max(days.length * 2, bars + blockBars));
+            }
+            System.arraycopy(blockDays, 0, days, bars, blockBars);
+            bars += blockBars;
+            current = 1 - current;
+            try {
+                read = history.read(dayBlocks[current], priceBlocks[current], BLOCK_BARS);
+            } finally {
+                pass.join();
+            }
+        }
+
+        int[] ids = new int[count];
+        double[][] equity = new double[count][];
+        double[] maxDrawdowns = new double[count];
+        double[] tradedValues = new double[count];
+        long slots = 0;
+        for (int i = 0; i < count; i++) {
+            Book book = books[i];
+            ids[i] = book.portfolioId;
+            equity[i] = Arrays.copyOf(book.curve, bars);
+            maxDrawdowns[i] = book.maxDrawdown;
+            tradedValues[i] = book.traded;
+            slots += book.columns.length;
+        }
+        event.complete("BacktestEngine.run", count, slots * bars);
+        return new BacktestResult(ids, Arrays.copyOf(days, bars), equity, maxDrawdowns, tradedValues);
+    }
+
+    /**
+     * The state of one portfolio during a backtest. Every symbol the portfolio holds, targets
+     * or trades has a slot, fixed for the whole run.
+     */
+    private static final class Book {
+
+        /** The portfolio identifier. */
+        final int portfolioId;
+
+        /** The price column of each slot. */
+        final int[] columns;
+
+        /** The quantity held in each slot. */
+        final double[] quantities;
+
+        /** The target weight of each slot, or null if the plan never rebalances. */
+        final double[] weights;
+
+        /** The tolerated drift from the target weights. */
+        final double driftThreshold;
+
+        /** The number of bars between rebalances. */
+        final int rebalanceInterval;
+
+        /** The epoch day of each scheduled trade, ascending. */
+        final long[] tradeDays;
+
+        /** The slot of each scheduled trade. */
+        final int[] tradeSlots;
+
+        /** The signed quantity of each scheduled trade; negative for a sell. */
+        final double[] tradeQuantities;
+
+        /** The next scheduled trade to execute. */
+        int nextTrade;
+
+        /** Due trades waiting for their symbol to be priced, in schedule order. */
+        int[] waiting = new int[0];
+
+        /** The number of waiting trades. */
+        int waitingCount;
+
+        /** Cash, negative once buys have borrowed. */
+        double cash;
+
+        /** The value at the close of each bar so far. */
+        double[] curve = new double[BLOCK_BARS];
+
+        /** The number of bars stepped. */
+        int bars;
+
+        /** The highest value so far. */
+        double peak;
+
+        /** The deepest fall from a peak so far, as a fraction of the peak. */
+        double maxDrawdown;
+
+        /** The absolute value of all trades so far. */
+        double traded;
+
+        /**
+         * Resolves a plan to price columns.
+         *
+         * @param plan    The plan.
+         * @param columns The price column of every symbol in the history.
+         */
+        Book(BacktestPlan plan, Map<String, Integer> columns) {
+            this.portfolioId = plan.getPortfolio().getPortfolioId();
+            Map<String, Integer> slots = new LinkedHashMap<>();
+            List<Position> positions = plan.getPortfolio().getPositions();
+            for (Position position : positions) {
+                slots.putIfAbsent(position.getStock().getSymbol(), slots.size());
+            }
+            TargetAllocation target = plan.getTarget();
+            if (target != null) {
+                for (String symbol : target.getWeights().keySet()) {
+                    slots.putIfAbsent(symbol, slots.size());
+                }
+            }
+            List<Transaction> trades = plan.getTrades().stream()
+                    .sorted(Comparator.comparing(Transaction::getTransactionDate))
+                    .toList();
+            for (Transaction trade : trades) {
+                slots.putIfAbsent(trade.getStock().getSymbol(), slots.size());
+            }
+
+            this.columns = new int[slots.size()];
+            for (Map.Entry<String, Integer> entry : slots.entrySet()) {
+                Integer column = columns.get(entry.getKey());
+                if (column == null) {
+                    throw new IllegalArgumentException("No price history for " + entry.getKey()
+                            + " in portfolio " + portfolioId);
+                }
+                this.columns[entry.getValue()] = column;
+            }
+            this.quantities = new double[slots.size()];
+            for (Position position : positions) {
+                quantities[slots.get(position.getStock().getSymbol())] += position.getQuantity();
+            }
+            if (target != null) {
+                this.weights = new double[slots.size()];
+                for (Map.Entry<String, Double> entry : target.getWeights().entrySet()) {
+                    weights[slots.get(entry.getKey())] = entry.getValue();
+                }
+                this.driftThreshold = target.getDriftThreshold();
+            } else {
+                this.weights = null;
+                this.driftThreshold = 0.0;
+            }
+            this.rebalanceInterval = plan.getRebalanceInterval();
+            this.tradeDays = new long[trades.size()];
+            this.tradeSlots = new int[trades.size()];
+            this.tradeQuantities = new double[trades.size()];
+            for (int t = 0; t < trades.size(); t++) {
+                Transaction trade = trades.get(t);
+                tradeDays[t] = trade.getTransactionDate().toLocalDate().toEpochDay();
+                tradeSlots[t] = slots.get(trade.getStock().getSymbol());
+                tradeQuantities[t] = trade.getType() == Transaction.TransactionType.SELL
+                        ? -trade.getQuantity() : trade.getQuantity();
+            }
+        }
+
+        /**
+         * Steps through a block of bars: executes the trades due on each bar, values the
+         * portfolio at the close and rebalances it when one is due.
+         *
+         * @param days   The epoch day of each bar.
+         * @param prices The prices, bar by bar.
+         * @param count  The number of bars in the block.
+         * @param width  The number of price columns per bar.
+         */
+        void step(long[] days, double[] prices, int count, int width) {
+            if (bars + count > curve.length) {
+                curve = Arrays.copyOf(curve, Math.max(curve.length * 2, bars + count));
+            }
+            for (int b = 0; b < count; b++) {
+                int row = b * width;
+                int kept = 0;
+                for (int w = 0; w < waitingCount; w++) {
+                    if (!execute(waiting[w], prices, row)) {
+                        waiting[kept++] = waiting[w];
+                    }
+                }
+                waitingCount = kept;
+                // A trade whose symbol has no price yet waits for one without holding up the rest
+                while (nextTrade < tradeDays.length && tradeDays[nextTrade] <= days[b]) {
+                    int t = nextTrade++;
+                    if (!execute(t, prices, row)) {
+                        if (waitingCount == waiting.length) {
+                            waiting = Arrays.copyOf(waiting, Math.max(4, waiting.length * 2));
+                        }
+                        waiting[waitingCount++] = t;
+                    }
+                }
+
+                double value = cash;
+                for (int slot = 0; slot < columns.length; slot++) {
+                    double price = prices[row + columns[slot]];
+                    if (price > 0.0) {
+                        value += quantities[slot] * price;
+                    }
+                }
+                if (weights != null && bars > 0 && bars % rebalanceInterval == 0 && value > 0.0) {
+                    rebalance(prices, row, value);
+                }
+
+                curve[bars++] = value;
+                peak = Math.max(peak, value);
+                if (peak > 0.0) {
+                    maxDrawdown = Math.max(maxDrawdown, (peak - value) / peak);
+                }
+            }
+        }
+
+        /**
+         * Executes a scheduled trade at the current bar's price, selling no more than is held.
+         *
+         * @param t      The index of the scheduled trade.
+         * @param prices The prices, bar by bar.
+         * @param row    The offset of the current bar.
+         * @return False if the symbol has no price on this bar, so nothing was traded.
+         */
+        private boolean execute(int t, double[] prices, int row) {
+            int slot = tradeSlots[t];
+            double price = prices[row + columns[slot]];
+            if (!(price > 0.0)) {
+                return false;
+            }
+            trade(slot, Math.max(tradeQuantities[t], -quantities[slot]), price);
+            return true;
+        }
+
+        /**
+         * Trades every symbol whose weight has drifted outside the tolerated band straight
+         * back to its target, as the rebalancing engine does.
+         *
+         * @param prices The prices, bar by bar.
+         * @param row    The offset of the current bar.
+         * @param value  The portfolio's value at the close.
+         */
+        private void rebalance(double[] prices, int row, double value) {
+            for (int slot = 0; slot < columns.length; slot++) {
+                double price = prices[row + columns[slot]];
+                if (!(price > 0.0)) {
+                    continue;
+                }
+                double held = quantities[slot] * price;
+                if (Math.abs(held / value - weights[slot]) > driftThreshold) {
+                    trade(slot, (weights[slot] * value - held) / price, price);
+                }
+            }
+        }
+
+        /**
+         * Executes a trade against cash.
+         *
+         * @param slot     The slot traded.
+         * @param quantity The signed quantity; negative to sell.
+         * @param price    The execution price.
+         */
+        private void trade(int slot, double quantity, double price) {
+            double amount = quantity * price;
+            quantities[slot] += quantity;
+            cash -= amount;
+            traded += Math.abs(amount);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.portfolio.service.backtest;
+
+import com.portfolio.model.Portfolio;
+import com.portfolio.model.Transaction;
+import com.portfolio.service.rebalance.TargetAllocation;
+
+import java.util.List;
+
+/**
+ * This class describes what one portfolio does during a backtest: it starts from the
+ * portfolio's current positions, is rebalanced to a target allocation every so many bars,
+ * and executes scheduled trades on the first bar on or after each trade's date.
+ * <p>
+ * Trades execute at the bar's close, not at the transaction's own price, and a sell never
+ * sells more than is held. Cash starts at zero: buys not funded by sells borrow, so a trade
+ * never changes the portfolio's value on the bar it executes.
+ * @author Gaoussou Thiam
+ * @date 10/19/2026
+ * @see com.portfolio.service.backtest.BacktestEngine
+ * @see com.portfolio.service.rebalance.TargetAllocation
+ */
+public class BacktestPlan {
+
+
+    /** The portfolio whose positions the backtest starts from. */
+    private final Portfolio portfolio;
+
+    /** The allocation rebalanced to, or null to never rebalance. */
+    private final TargetAllocation target;
+
+    /** The number of bars between rebalances. */
+    private final int rebalanceInterval;
+
+    /** The scheduled trades. */
+    private final List<Transaction> trades;
+
+    /**
+     * Constructs a plan that holds the portfolio's positions unchanged.
+     *
+     * @param portfolio The portfolio.
+     */
+    public BacktestPlan(Portfolio portfolio) {
+        this(portfolio, null, 0, List.of());
+    }
+
+    /**
+     * Constructs a plan.
+     *
+     * @param portfolio         The portfolio whose positions the backtest starts from.
+     * @param target            A symbol-level allocation to rebalance to, or null to never rebalance.
+     * @param rebalanceInterval The number of bars between rebalances, for example 21 for
+     *                          roughly monthly on daily bars; ignored without a target.
+     * @param trades            The scheduled trades, in any order.
+     * @throws IllegalArgumentException If the target is by sector or the interval is not positive.
+     */
+    public BacktestPlan(Portfolio portfolio, TargetAllocation target, int rebalanceInterval,
+                        List<Transaction> trades) {
+        if (target != null && target.getBasis() != TargetAllocation.Basis.SYMBOL) {
+            throw new IllegalArgumentException("Backtests rebalance to symbol-level targets only");
+        }
+        if (target != null && rebalanceInterval <= 0) {
+            throw new IllegalArgumentException("Rebalance interval must be positive: " + rebalanceInterval);
+        }
+        this.portfolio = portfolio;
+        this.target = target;
+        this.rebalanceInterval = rebalanceInterval;
+        this.trades = List.copyOf(trades);
+    }
+
+    /**
+     * Gets the portfolio whose positions the backtest starts from.
+     *
+     * @return The portfolio.
+     */
+    public Portfolio getPortfolio() { return portfolio; }
+
+    /**
+     * Gets the allocation rebalanced to.
+     *
+     * @return The target, or null if the plan never rebalances.
+     */
+    public TargetAllocation getTarget() { return target; }
+
+    /**
+     * Gets the number of bars between rebalances.
+     *
+     * @return The interval.
+     */
+    public int getRebalanceInterval() { return rebalanceInterval; }
+
+    /**
+     * Gets the scheduled trades.
+     *
+     * @return The trades.
+     */
+    public List<Transaction> getTrades() { return trades; }
+
+    /**
+     * Returns a string representation of the plan.
+     *
+     * @return A formatted string containing the plan details.
+     */
+    @Override
+    public String toString() {
+        return String.format("BacktestPlan[portfolio=%d, target=%s, interval=%d, trades=%d]",
+                portfolio.getPortfolioId(), target, rebalanceInterval, trades.size());
+    }
+}
@@ -0,0 +1,163 @@
+package com.portfolio.service.backtest;
+
+import java.time.LocalDate;
+
+/**
+ * This class holds the outcome of a backtest: the dates of the bars replayed and, for every
+ * portfolio, its equity curve, deepest drawdown and turnover.
+ * @author Gaoussou Thiam
+ * @date 10/19/2026
+ * @see com.portfolio.service.backtest.BacktestEngine
+ */
+public class BacktestResult {
+
+
+    /** Portfolio IDs in row order. */
+    private final int[] portfolioIds;
+
+    /** The date of each bar as an epoch day. */
+    private final long[] days;
+
+    /** The value of each portfolio at the close of each bar, one row per portfolio. */
+    private final double[][] equity;
+
+    /** The deepest fall of each portfolio from a previous peak, as a fraction of the peak. */
+    private final double[] maxDrawdowns;
+
+    /** The absolute value of all trades of each portfolio, buys and sells. */
+    private final double[] tradedValues;
+
+    /**
+     * Constructs a new BacktestResult. The arrays are owned by the result.
+     *
+     * @param portfolioIds The portfolio IDs in row order.
+     * @param days         The bar dates as epoch days.
+     * @param equity       The equity curves, each as long as the dates.
+     * @param maxDrawdowns The deepest drawdown per portfolio.
+     * @param tradedValues The traded value per portfolio.
+     */
+    BacktestResult(int[] portfolioIds, long[] days, double[][] equity, double[] maxDrawdowns, double[] tradedValues) {
+        this.portfolioIds = portfolioIds;
+        this.days = days;
+        this.equity = equity;
+        this.maxDrawdowns = maxDrawdowns;
+        this.tradedValues = tradedValues;
+    }
+
+    /**
+     * Gets the number of portfolios in the result.
+     *
+     * @return The portfolio count.
+     */
+    public int getPortfolioCount() { return portfolioIds.length; }
+
+    /**
+     * Gets the ID of the portfolio in a row.
+     *
+     * @param row The row index.
+     * @return The portfolio ID.
+     */
+    public int getPortfolioId(int row) { return portfolioIds[row]; }
+
+    /**
+     * Gets the number of bars replayed.
+     *
+     * @return The bar count.
+     */
+    public int getBarCount() { return days.length; }
+
+    /**
+     * Gets the date of a bar.
+     *
+     * @param bar The bar index.
+     * @return The date.
+     */
+    public LocalDate getDate(int bar) { return LocalDate.ofEpochDay(days[bar]); }
+
+    /**
+     * Gets the value of a portfolio at the close of a bar.
+     *
+     * @param row The row index.
+     * @param bar The bar index.
+     * @return The value, after any trades on that bar.
+     */
+    public double getEquity(int row, int bar) { return equity[row][bar]; }
+
+    /**
+     * Gets the equity curve of a portfolio.
+     *
+     * @param row The row index.
+     * @return A copy of the value at the close of every bar.
+     */
+    public double[] getEquityCurve(int row) { return equity[row].clone(); }
+
+    /**
+     * Computes the drawdown curve of a portfolio: on every bar, how far its value is below
+     * the highest value reached so far, as a fraction of that peak.
+     *
+     * @param row The row index.
+     * @return The drawdown on every bar, 0 at a new peak.
+     */
+    public double[] getDrawdownCurve(int row) {
+        double[] curve = equity[row];
+        double[] drawdown = new double[curve.length];
+        double peak = 0.0;
+        for (int bar = 0; bar < curve.length; bar++) {
+            peak = Math.max(peak, curve[bar]);
+            drawdown[bar] = peak > 0.0 ? (peak - curve[bar]) / peak : 0.0;
+        }
+        return drawdown;
+    }
+
+    /**
+     * Gets the deepest drawdown of a portfolio.
+     *
+     * @param row The row index.
+     * @return The largest fall from a previous peak, as a fraction of the peak.
+     */
+    public double getMaxDrawdown(int row) { return maxDrawdowns[row]; }
+
+    /**
+     * Gets the absolute value of all the trades of a portfolio.
+     *
+     * @param row The row index.
+     * @return The value bought plus the value sold.
+     */
+    public double getTradedValue(int row) { return tradedValues[row]; }
+
+    /**
+     * Computes the turnover of a portfolio: half its traded value over its average value, so
+     * selling everything once and buying something else counts as 1.
+     *
+     * @param row The row index.
+     * @return The turnover over the whole backtest, or 0 if the portfolio never had value.
+     */
+    public double getTurnover(int row) {
+        double sum = 0.0;
+        for (double value : equity[row]) {
+            sum += value;
+        }
+        return sum > 0.0 ? tradedValues[row] / 2.0 / (sum / days.length) : 0.0;
+    }
+
+    /**
+     * Computes the total return of a portfolio from the first bar to the last.
+     *
+     * @param row The row index.
+     * @return The fractional change in value, or 0 if it had no value on the first bar.
+     */
+    public double getTotalReturn(int row) {
+        double[] curve = equity[row];
+        return curve.length == 0 || curve[0] <= 0.0 ? 0.0 : curve[curve.length - 1] / curve[0] - 1.0;
+    }
+
+    /**
+     * Returns a string representation of the result.
+     *
+     * @return A formatted string containing the result size.
+     */
+    @Override
+    public String toString() {
+        return String.format("BacktestResult[portfolios=%d, bars=%d]", portfolioIds.length, days.length);
+    }
+}
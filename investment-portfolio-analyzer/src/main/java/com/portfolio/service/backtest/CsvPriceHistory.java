@@ -0,0 +1,163 @@
+package com.portfolio.service.backtest;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * This class streams a price history from a CSV file with one row per trading day: a header
+ * of {@code date} followed by the symbols, then an ISO date and a closing price per symbol on
+ * every row. An empty cell means the symbol did not trade that day. Rows are parsed as they
+ * are read, so the file is never held in memory.
+ * @author Gaoussou Thiam
+ * @date 10/19/2026
+ * @see com.portfolio.service.backtest.PriceHistory
+ */
+public final class CsvPriceHistory implements PriceHistory {
+
+
+    /** The source of the rows. */
+    private final BufferedReader reader;
+
+    /** The symbols in column order. */
+    private final List<String> symbols;
+
+    /** The latest close of each symbol, NaN before its first quote. */
+    private final double[] last;
+
+    /** The epoch day of the last bar read. */
+    private long lastDay = Long.MIN_VALUE;
+
+    /** The number of the last line read, for error messages. */
+    private int lineNumber;
+
+    /**
+     * Opens a price history file.
+     *
+     * @param file The CSV file.
+     * @throws IOException If the file cannot be read or has no valid header.
+     */
+    public CsvPriceHistory(Path file) throws IOException {
+        this(Files.newBufferedReader(file));
+    }
+
+    /**
+     * Reads a price history from a reader, which is closed with the history.
+     *
+     * @param reader The source of the CSV rows.
+     * @throws IOException If the reader fails or the header is not valid.
+     */
+    public CsvPriceHistory(BufferedReader reader) throws IOException {
+        this.reader = reader;
+        String header = reader.readLine();
+        lineNumber = 1;
+        if (header == null) {
+            throw new IOException("Price history is empty");
+        }
+        String[] columns = header.split(",");
+        if (!columns[0].trim().equalsIgnoreCase("date")) {
+            throw new IOException("Price history header must start with date: " + header);
+        }
+        List<String> names = new ArrayList<>(columns.length - 1);
+        Set<String> seen = new HashSet<>();
+        for (int c = 1; c < columns.length; c++) {
+            String symbol = columns[c].trim();
+            if (!seen.add(symbol)) {
+                throw new IOException("Duplicate symbol in price history header: " + symbol);
+            }
+            names.add(symbol);
+        }
+        this.symbols = List.copyOf(names);
+        this.last = new double[names.size()];
+        Arrays.fill(last, Double.NaN);
+    }
+
+    @Override
+    public List<String> getSymbols() {
+        return symbols;
+    }
+
+    @Override
+    public int read(long[] days, double[] prices, int maxBars) throws IOException {
+        int width = last.length;
+        int bars = 0;
+        String line;
+        while (bars < maxBars && (line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            int end = line.indexOf(',');
+            long day = parseDay(end < 0 ? line : line.substring(0, end));
+            if (day <= lastDay) {
+                throw new IOException("Price history out of date order at line " + lineNumber);
+            }
+            lastDay = day;
+            for (int c = 0; c < width && end >= 0; c++) {
+                int start = end + 1;
+                end = line.indexOf(',', start);
+                String cell = line.substring(start, end < 0 ? line.length() : end).trim();
+                if (!cell.isEmpty()) {
+                    last[c] = parsePrice(cell);
+                }
+            }
+            days[bars] = day;
+            System.arraycopy(last, 0, prices, bars * width, width);
+            bars++;
+        }
+        return bars;
+    }
+
+    /**
+     * Closes the underlying reader.
+     *
+     * @throws IOException If the reader cannot be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    /**
+     * Parses the date cell of the current line.
+     *
+     * @param cell The cell.
+     * @return The epoch day.
+     * @throws IOException If the cell is not an ISO date.
+     */
+    private long parseDay(String cell) throws IOException {
+        try {
+            return LocalDate.parse(cell.trim()).toEpochDay();
+        } catch (DateTimeParseException e) {
+            throw new IOException("Invalid date at line " + lineNumber + ": " + cell, e);
+        }
+    }
+
+    /**
+     * Parses a price cell of the current line.
+     *
+     * @param cell The non-empty cell.
+     * @return The price.
+     * @throws IOException If the cell is not a positive number.
+     */
+    private double parsePrice(String cell) throws IOException {
+        double price;
+        try {
+            price = Double.parseDouble(cell);
+        } catch (NumberFormatException e) {
+            throw new IOException("Invalid price at line " + lineNumber + ": " + cell, e);
+        }
+        if (!(price > 0.0)) {
+            throw new IOException("Price must be positive at line " + lineNumber + ": " + cell);
+        }
+        return price;
+    }
+}
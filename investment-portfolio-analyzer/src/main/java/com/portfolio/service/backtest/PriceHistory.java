@@ -0,0 +1,36 @@
+package com.portfolio.service.backtest;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * This interface streams historical closing prices in time order, one bar per trading day, as
+ * rows of a primitive price vector with one column per symbol. Readers take bars in blocks so
+ * a source can be read once and shared by every portfolio being backtested.
+ * @author Gaoussou Thiam
+ * @date 10/19/2026
+ * @see com.portfolio.service.backtest.CsvPriceHistory
+ * @see com.portfolio.service.backtest.BacktestEngine
+ */
+public interface PriceHistory extends Closeable {
+
+    /**
+     * Gets the symbols in column order.
+     *
+     * @return The symbols.
+     */
+    List<String> getSymbols();
+
+    /**
+     * Reads the next block of bars. A symbol without a quote on a bar keeps its previous
+     * close; one never quoted yet is NaN.
+     *
+     * @param days    Receives the date of each bar as an epoch day, in ascending order.
+     * @param prices  Receives the prices, bar by bar, {@link #getSymbols()} columns per bar.
+     * @param maxBars The maximum number of bars to read.
+     * @return The number of bars read; 0 once the history is exhausted.
+     * @throws IOException If the history cannot be read or is not in time order.
+     */
+    int read(long[] days, double[] prices, int maxBars) throws IOException;
+}
@@ -0,0 +1,712 @@
+package com.portfolio.service.optimizer;
+
+import com.portfolio.metrics.ValuationEvent;
+import com.portfolio.model.Portfolio;
+import com.portfolio.model.Position;
+import com.portfolio.model.Stock;
+import com.portfolio.service.risk.CovarianceSnapshot;
+import com.portfolio.util.LinearAlgebra;
+import com.portfolio.util.RangeAction;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * This class computes mean-variance optimal weights for a book of portfolios over the stocks
+ * each holds or could hold.
+ * <p>
+ * Every objective is reduced to the quadratic program {@code min 1/2 w'Cw - g m'w} over
+ * long-only, fully invested weights with per-stock and per-sector caps, where C is the
+ * covariance and m the expected returns of the portfolio's stocks: g = 0 gives the minimum
+ * variance allocation, the root of the return less the target the cheapest allocation reaching
+ * a target return, and the root of {@code w'Cw - g (m'w - rf)}, whose sign is that of the
+ * Sharpe ratio's slope along the frontier, the highest Sharpe ratio. Each program is solved by
+ * accelerated projected gradient on flat primitive matrices; the projection onto the
+ * constraints is exact, by root-finding on the budget and sector multipliers. All the roots
+ * are found by regula falsi, which lands on the piecewise-linear ones in a few steps.
+ * Successive programs of a search start from the previous solution, and a portfolio optimised
+ * again starts from its last optimal weights, so re-optimising the book after small input
+ * changes converges in a few iterations. Portfolios are optimised in parallel on a fork-join
+ * pool.
+ * <p>
+ * Expected returns, covariances and the risk-free rate must be in the same units, for
+ * example all annualised.
+ * @author Gaoussou Thiam
+ * @date 10/19/2026
+ * @see com.portfolio.service.optimizer.OptimizationConstraints
+ * @see com.portfolio.service.optimizer.OptimalWeights
+ * @see com.portfolio.service.risk.CovarianceSnapshot
+ */
+public class MeanVarianceOptimizer {
+
+
+    /**
+     * Enum representing what the weights are optimised for.
+     */
+    public enum Objective {
+        /** The lowest variance. */
+        MIN_VARIANCE,
+        /** The highest excess return per unit of volatility. */
+        MAX_SHARPE,
+        /** The lowest variance with at least the target expected return. */
+        TARGET_RETURN
+    }
+
+    /** The most gradient steps per quadratic program. */
+    private static final int MAX_ITERATIONS = 2000;
+
+    /** Solutions that move less than this between steps have converged. */
+    private static final double TOLERANCE = 1e-9;
+
+    /** The most quadratic programs solved by a frontier search. */
+    private static final int SEARCH_STEPS = 40;
+
+    /** The most root-finding steps of a projection. */
+    private static final int PROJECTION_STEPS = 60;
+
+    /** How far the frontier search reaches above the natural scale of g, in powers of ten. */
+    private static final double SEARCH_DECADES = 4.0;
+
+    /** The symbols of the universe, in index order. */
+    private final List<String> symbols;
+
+    /** Lookup from symbol to index. */
+    private final Map<String, Integer> symbolIndex = new HashMap<>();
+
+    /** The sector of each symbol. */
+    private final String[] sectors;
+
+    /** The expected return of each symbol. */
+    private final double[] expectedReturns;
+
+    /** The covariance of the universe, row-major. */
+    private final double[] covariance;
+
+    /** The return of a riskless asset, used by the Sharpe ratio. */
+    private final double riskFreeRate;
+
+    /** The pool that optimises portfolios in parallel. */
+    private final ForkJoinPool pool;
+
+    /** The last optimal weights of every portfolio, used as warm starts. */
+    private final Map<Integer, OptimalWeights> previous = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs an optimizer over a universe of stocks using a published covariance estimate.
+     *
+     * @param universe        The stocks that may be held, with their sectors.
+     * @param expectedReturns The expected return of each stock, in universe order.
+     * @param covariance      The covariance snapshot; it must cover every stock of the universe.
+     * @param riskFreeRate    The return of a riskless asset.
+     */
+    public MeanVarianceOptimizer(List<Stock> universe, double[] expectedReturns, CovarianceSnapshot covariance,
+                                 double riskFreeRate) {
+        this(universe, expectedReturns, covariance.toMatrix(universe.stream().map(Stock::getSymbol).toList()),
+                riskFreeRate, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructs an optimizer over a universe of stocks.
+     *
+     * @param universe        The stocks that may be held, with their sectors.
+     * @param expectedReturns The expected return of each stock, in universe order.
+     * @param covariance      The covariance matrix of the stocks, in universe order.
+     * @param riskFreeRate    The return of a riskless asset.
+     * @param pool            The pool used to optimise portfolios in parallel.
+     * @throws IllegalArgumentException If the inputs do not match the universe.
+     */
+    public MeanVarianceOptimizer(List<Stock> universe, double[] expectedReturns, double[][] covariance,
+                                 double riskFreeRate, ForkJoinPool pool) {
+        int n = universe.size();
+        if (expectedReturns.length != n || covariance.length != n) {
+            throw new IllegalArgumentException("Expected returns and covariance must cover " + n + " stocks");
+        }
+        List<String> names = new ArrayList<>(n);
+        this.sectors = new String[n];
+        for (int i = 0; i < n; i++) {
+            Stock stock = universe.get(i);
+            names.add(stock.getSymbol());
+            symbolIndex.put(stock.getSymbol(), i);
+            sectors[i] = stock.getSector();
+        }
+        this.symbols = List.copyOf(names);
+        this.expectedReturns = expectedReturns.clone();
+        this.covariance = LinearAlgebra.flatten(covariance);
+        this.riskFreeRate = riskFreeRate;
+        this.pool = pool;
+    }
+
+    /**
+     * Optimises every portfolio in parallel.
+     *
+     * @param portfolios  The portfolios.
+     * @param objective   What to optimise for.
+     * @param constraints The constraints every allocation must meet.
+     * @return The optimal weights keyed by portfolio ID, in portfolio order.
+     */
+    public Map<Integer, OptimalWeights> optimize(List<Portfolio> portfolios, Objective objective,
+                                                 OptimizationConstraints constraints) {
+        ValuationEvent event = new ValuationEvent();
+        event.begin();
+        OptimalWeights[] results = new OptimalWeights[portfolios.size()];
+        pool.invoke(new RangeAction(0, portfolios.size(), 1,
+                i -> results[i] = optimize(portfolios.get(i), objective, constraints)));
+        Map<Integer, OptimalWeights> map = new LinkedHashMap<>();
+        long stocks = 0;
+        for (OptimalWeights result : results) {
+            map.put(result.getPortfolioId(), result);
+            stocks += result.getSymbols().size();
+        }
+        event.complete("MeanVarianceOptimizer.optimize", results.length, stocks);
+        return map;
+    }
+
+    /**
+     * Optimises one portfolio over the stocks it holds and the candidate stocks, starting
+     * from its last optimal weights if it has been optimised before.
+     *
+     * @param portfolio   The portfolio.
+     * @param objective   What to optimise for.
+     * @param constraints The constraints the allocation must meet.
+     * @return The optimal weights.
+     * @throws IllegalArgumentException If a stock is not in the universe, or a return is
+     *                                  targeted without a target.
+     */
+    public OptimalWeights optimize(Portfolio portfolio, Objective objective, OptimizationConstraints constraints) {
+        if (objective == Objective.TARGET_RETURN && Double.isNaN(constraints.getTargetReturn())) {
+            throw new IllegalArgumentException("Targeting a return requires a target return");
+        }
+        Set<String> names = new LinkedHashSet<>();
+        for (Position position : portfolio.getPositions()) {
+            names.add(position.getStock().getSymbol());
+        }
+        names.addAll(constraints.getCandidates());
+        int[] index = new int[names.size()];
+        int k = 0;
+        for (String name : names) {
+            Integer i = symbolIndex.get(name);
+            if (i == null) {
+                throw new IllegalArgumentException("No expected return or covariance for " + name);
+            }
+            index[k++] = i;
+        }
+
+        Program program = new Program(index, constraints);
+        OptimalWeights start = previous.get(portfolio.getPortfolioId());
+        if (start != null) {
+            for (int i = 0; i < index.length; i++) {
+                program.x[i] = start.getWeight(symbols.get(index[i]));
+            }
+        } else {
+            Arrays.fill(program.x, 1.0 / Math.max(1, index.length));
+        }
+        OptimalWeights result = program.solve(portfolio.getPortfolioId(), objective, constraints.getTargetReturn());
+        if (result.isFeasible()) {
+            previous.put(portfolio.getPortfolioId(), result);
+        }
+        return result;
+    }
+
+    /**
+     * Forgets the last optimal weights of every portfolio, so the next optimisation starts
+     * from equal weights, for example after the expected returns change completely.
+     */
+    public void clearWarmStarts() {
+        previous.clear();
+    }
+
+    /**
+     * Finds a root of a decreasing function by the Illinois variant of regula falsi, which
+     * halves the stale end's value when the same end moves twice so the bracket keeps closing.
+     *
+     * @param function  The function, positive at the low end and negative at the high end.
+     * @param lo        The low end of the bracket.
+     * @param fLo       The function at the low end.
+     * @param hi        The high end of the bracket.
+     * @param fHi       The function at the high end.
+     * @param tolerance The absolute value below which the function counts as zero.
+     * @param steps     The most evaluations.
+     * @return The root, or the end of the last bracket where the function is not positive.
+     */
+    private static double root(DoubleUnaryOperator function, double lo, double fLo, double hi, double fHi,
+                               double tolerance, int steps) {
+        int side = 0;
+        for (int step = 0; step < steps && fLo > 0.0 && fHi < 0.0; step++) {
+            double middle = (lo * fHi - hi * fLo) / (fHi - fLo);
+            if (!(middle > lo && middle < hi)) {
+                middle = (lo + hi) / 2.0;
+            }
+            double value = function.applyAsDouble(middle);
+            if (Math.abs(value) <= tolerance) {
+                return middle;
+            }
+            if (value > 0.0) {
+                lo = middle;
+                fLo = value;
+                if (side > 0) {
+                    fHi /= 2.0;
+                }
+                side = 1;
+            } else {
+                hi = middle;
+                fHi = value;
+                if (side < 0) {
+                    fLo /= 2.0;
+                }
+                side = -1;
+            }
+        }
+        return fLo <= 0.0 ? lo : hi;
+    }
+
+    /**
+     * The quadratic program of one portfolio, with its scratch vectors.
+     */
+    private final class Program {
+
+        /** The number of stocks. */
+        final int k;
+
+        /** The universe index of each stock. */
+        final int[] index;
+
+        /** The covariance of the stocks, row-major. */
+        final double[] c;
+
+        /** The expected return of each stock. */
+        final double[] m;
+
+        /** The largest weight of any one stock. */
+        final double upper;
+
+        /** The members of each capped sector. */
+        final int[][] members;
+
+        /** The cap of each capped sector. */
+        final double[] caps;
+
+        /** The capped sector of each stock, or -1. */
+        final int[] sectorOf;
+
+        /** Whether any allocation meets the constraints. */
+        final boolean feasible;
+
+        /** A bound on the largest eigenvalue of the covariance, the gradient's Lipschitz constant. */
+        final double lipschitz;
+
+        /** The current solution, always feasible once projected. */
+        final double[] x;
+
+        /** The previous solution. */
+        final double[] last;
+
+        /** The extrapolated point. */
+        final double[] y;
+
+        /** The point after a gradient step from the extrapolated point. */
+        final double[] stepped;
+
+        /** The projection threshold of each capped sector. */
+        final double[] thresholds;
+
+        /**
+         * Gathers the inputs of a portfolio's stocks.
+         *
+         * @param index       The universe index of each stock.
+         * @param constraints The constraints.
+         */
+        Program(int[] index, OptimizationConstraints constraints) {
+            this.k = index.length;
+            this.index = index;
+            int n = symbols.size();
+            this.c = new double[k * k];
+            this.m = new double[k];
+            for (int i = 0; i < k; i++) {
+                m[i] = expectedReturns[index[i]];
+                for (int j = 0; j < k; j++) {
+                    c[i * k + j] = covariance[index[i] * n + index[j]];
+                }
+            }
+            this.upper = constraints.getMaxWeight();
+
+            Map<String, List<Integer>> capped = new LinkedHashMap<>();
+            this.sectorOf = new int[k];
+            Arrays.fill(sectorOf, -1);
+            for (int i = 0; i < k; i++) {
+                // Stocks without a sector are never capped; the immutable caps map rejects a
+                // null key.
+                String sector = sectors[index[i]];
+                if (sector != null && constraints.getSectorCaps().containsKey(sector)) {
+                    capped.computeIfAbsent(sector, s -> new ArrayList<>()).add(i);
+                }
+            }
+            this.members = new int[capped.size()][];
+            this.caps = new double[capped.size()];
+            double room = 0.0;
+            int s = 0;
+            for (Map.Entry<String, List<Integer>> sector : capped.entrySet()) {
+                members[s] = sector.getValue().stream().mapToInt(Integer::intValue).toArray();
+                caps[s] = constraints.getSectorCaps().get(sector.getKey());
+                for (int i : members[s]) {
+                    sectorOf[i] = s;
+                }
+                room += Math.min(caps[s], members[s].length * upper);
+                s++;
+            }
+            for (int i = 0; i < k; i++) {
+                if (sectorOf[i] < 0) {
+                    room += upper;
+                }
+            }
+            this.feasible = k > 0 && room >= 1.0 - 1e-12;
+            this.thresholds = new double[caps.length];
+            this.x = new double[k];
+            this.last = new double[k];
+            this.y = new double[k];
+            this.stepped = new double[k];
+            this.lipschitz = largestEigenvalue();
+        }
+
+        /**
+         * Solves for an objective, searching the frontier where needed.
+         *
+         * @param portfolioId The portfolio identifier.
+         * @param objective   The objective.
+         * @param target      The target return, for {@link Objective#TARGET_RETURN}.
+         * @return The optimal weights.
+         */
+        OptimalWeights solve(int portfolioId, Objective objective, double target) {
+            if (!feasible) {
+                return result(portfolioId, objective, new double[k], false);
+            }
+            project(x, x);
+            double spread = 0.0;
+            for (int i = 0; i < k; i++) {
+                spread = Math.max(spread, Math.abs(m[i]));
+            }
+            if (objective == Objective.MIN_VARIANCE || spread == 0.0) {
+                minimize(0.0);
+                return result(portfolioId, objective, x.clone(), true);
+            }
+            double high = Math.max(lipschitz, Double.MIN_NORMAL) / spread * Math.pow(10.0, SEARCH_DECADES);
+            return objective == Objective.TARGET_RETURN
+                    ? targetReturn(portfolioId, target, spread, high)
+                    : maxSharpe(portfolioId, high);
+        }
+
+        /**
+         * Finds the lowest-variance allocation with at least the target return, at the g
+         * where the solution's return, which rises with g, reaches the target.
+         *
+         * @param portfolioId The portfolio identifier.
+         * @param target      The target return.
+         * @param spread      The largest absolute expected return, the scale of the tolerance.
+         * @param high        The largest g searched.
+         * @return The optimal weights.
+         */
+        OptimalWeights targetReturn(int portfolioId, double target, double spread, double high) {
+            minimize(0.0);
+            double shortfall = target - LinearAlgebra.dot(m, x, k);
+            if (shortfall <= 0.0) {
+                return result(portfolioId, Objective.TARGET_RETURN, x.clone(), true);
+            }
+            double[] best = x.clone();
+            double highShortfall = shortfallAt(high, target, best);
+            if (highShortfall > 0.0) {
+                return result(portfolioId, Objective.TARGET_RETURN, x.clone(), false);
+            }
+            root(g -> shortfallAt(g, target, best), 0.0, shortfall, high, highShortfall, 1e-9 * spread,
+                    SEARCH_STEPS);
+            return result(portfolioId, Objective.TARGET_RETURN, best, true);
+        }
+
+        /**
+         * Solves the program for one g and measures how far the solution's return falls short
+         * of the target, keeping the solution if it reaches the target.
+         *
+         * @param g      The weight of the expected return.
+         * @param target The target return.
+         * @param best   Receives the solution if its return reaches the target, as the
+         *               smallest such g is approached from above.
+         * @return The target less the solution's return.
+         */
+        double shortfallAt(double g, double target, double[] best) {
+            minimize(g);
+            double shortfall = target - LinearAlgebra.dot(m, x, k);
+            if (shortfall <= 0.0) {
+                System.arraycopy(x, 0, best, 0, k);
+            }
+            return shortfall;
+        }
+
+        /**
+         * Finds the allocation with the highest Sharpe ratio along the frontier, at the g
+         * where {@code w'Cw = g (m'w - rf)}: the first-order condition of the Sharpe ratio,
+         * which rises along the frontier while the left side is larger and falls after. The
+         * search starts from the g that satisfies the condition at the starting weights, so a
+         * warm start is usually already at the root, and widens the bracket from there.
+         *
+         * @param portfolioId The portfolio identifier.
+         * @param high        The largest g searched.
+         * @return The optimal weights.
+         */
+        OptimalWeights maxSharpe(int portfolioId, double high) {
+            double excess = LinearAlgebra.dot(m, x, k) - riskFreeRate;
+            double lo = excess > 0.0 ? Math.min(variance(x) / excess, high) : 0.0;
+            double fLo = tangency(lo);
+            double tolerance = 1e-9 * variance(x);
+            double hi = lo;
+            double fHi = fLo;
+            for (int step = 0; step < SEARCH_STEPS; step++) {
+                if (fHi > tolerance && hi < high) {
+                    lo = hi;
+                    fLo = fHi;
+                    hi = hi > 0.0 ? Math.min(2.0 * hi, high) : high;
+                    fHi = tangency(hi);
+                } else if (fLo < -tolerance && lo > 0.0) {
+                    hi = lo;
+                    fHi = fLo;
+                    lo = lo / 2.0;
+                    fLo = tangency(lo);
+                } else {
+                    break;
+                }
+            }
+            if (fLo > tolerance && fHi < -tolerance) {
+                minimize(root(this::tangency, lo, fLo, hi, fHi, tolerance, SEARCH_STEPS));
+            }
+            return result(portfolioId, Objective.MAX_SHARPE, x.clone(), true);
+        }
+
+        /**
+         * Solves the program for one g and measures the tangency condition at the solution.
+         *
+         * @param g The weight of the expected return.
+         * @return {@code w'Cw - g (m'w - rf)}, positive while the Sharpe ratio still rises.
+         */
+        double tangency(double g) {
+            minimize(g);
+            return variance(x) - g * (LinearAlgebra.dot(m, x, k) - riskFreeRate);
+        }
+
+        /**
+         * Minimises {@code 1/2 x'Cx - g m'x} over the constraints by accelerated projected
+         * gradient with adaptive restart, starting from the current solution.
+         *
+         * @param g The weight of the expected return.
+         */
+        void minimize(double g) {
+            double step = 1.0 / Math.max(lipschitz, Double.MIN_NORMAL);
+            double t = 1.0;
+            System.arraycopy(x, 0, y, 0, k);
+            for (int iteration = 0; iteration < MAX_ITERATIONS; iteration++) {
+                for (int i = 0; i < k; i++) {
+                    double sum = -g * m[i];
+                    int row = i * k;
+                    for (int j = 0; j < k; j++) {
+                        sum += c[row + j] * y[j];
+                    }
+                    stepped[i] = y[i] - step * sum;
+                }
+                System.arraycopy(x, 0, last, 0, k);
+                project(stepped, x);
+
+                double moved = 0.0;
+                double ascent = 0.0;
+                for (int i = 0; i < k; i++) {
+                    double delta = x[i] - last[i];
+                    moved = Math.max(moved, Math.abs(delta));
+                    ascent += (y[i] - x[i]) * delta;
+                }
+                if (moved < TOLERANCE) {
+                    return;
+                }
+                if (ascent > 0.0) {
+                    t = 1.0;
+                    System.arraycopy(x, 0, y, 0, k);
+                    continue;
+                }
+                double next = (1.0 + Math.sqrt(1.0 + 4.0 * t * t)) / 2.0;
+                double momentum = (t - 1.0) / next;
+                for (int i = 0; i < k; i++) {
+                    y[i] = x[i] + momentum * (x[i] - last[i]);
+                }
+                t = next;
+            }
+        }
+
+        /**
+         * Projects a point onto the constraints: the weights closest to it that are between 0
+         * and the per-stock cap, within every sector cap and sum to 1. Each stock's weight is
+         * its coordinate less a threshold, clipped to the bounds; the threshold is the budget
+         * multiplier, raised within a capped sector to the level that fills the sector exactly
+         * when the sector would otherwise exceed its cap. Both are roots of piecewise-linear
+         * sums, so regula falsi finds them exactly once it brackets a single piece.
+         *
+         * @param point The point.
+         * @param into  Receives the projection; may be the point itself.
+         */
+        void project(double[] point, double[] into) {
+            double min = Double.POSITIVE_INFINITY;
+            double max = Double.NEGATIVE_INFINITY;
+            for (int i = 0; i < k; i++) {
+                min = Math.min(min, point[i]);
+                max = Math.max(max, point[i]);
+            }
+            for (int s = 0; s < caps.length; s++) {
+                if (members[s].length * upper <= caps[s]) {
+                    thresholds[s] = Double.NEGATIVE_INFINITY;
+                    continue;
+                }
+                int[] sector = members[s];
+                double cap = caps[s];
+                DoubleUnaryOperator excess = tau -> {
+                    double sum = -cap;
+                    for (int i : sector) {
+                        sum += clip(point[i] - tau);
+                    }
+                    return sum;
+                };
+                double lo = min - upper;
+                thresholds[s] = root(excess, lo, excess.applyAsDouble(lo), max, excess.applyAsDouble(max), 1e-14,
+                        PROJECTION_STEPS);
+            }
+            DoubleUnaryOperator excess = mu -> allocated(point, mu) - 1.0;
+            double lo = min - upper;
+            double lambda = root(excess, lo, excess.applyAsDouble(lo), max, excess.applyAsDouble(max), 1e-14,
+                    PROJECTION_STEPS);
+            for (int i = 0; i < k; i++) {
+                into[i] = clip(point[i] - threshold(i, lambda));
+            }
+        }
+
+        /**
+         * Sums the weights a budget multiplier gives.
+         *
+         * @param point  The point being projected.
+         * @param lambda The budget multiplier.
+         * @return The total weight.
+         */
+        double allocated(double[] point, double lambda) {
+            double sum = 0.0;
+            for (int i = 0; i < k; i++) {
+                sum += clip(point[i] - threshold(i, lambda));
+            }
+            return sum;
+        }
+
+        /**
+         * Gets the threshold subtracted from a stock's coordinate.
+         *
+         * @param i      The stock.
+         * @param lambda The budget multiplier.
+         * @return The larger of the budget multiplier and the stock's sector threshold.
+         */
+        double threshold(int i, double lambda) {
+            return sectorOf[i] < 0 ? lambda : Math.max(lambda, thresholds[sectorOf[i]]);
+        }
+
+        /**
+         * Clips a weight to the per-stock bounds.
+         *
+         * @param weight The weight.
+         * @return The weight between 0 and the cap.
+         */
+        double clip(double weight) {
+            return Math.min(upper, Math.max(0.0, weight));
+        }
+
+        /**
+         * Computes the variance of an allocation.
+         *
+         * @param w The weights.
+         * @return w'Cw.
+         */
+        double variance(double[] w) {
+            double sum = 0.0;
+            for (int i = 0; i < k; i++) {
+                double row = 0.0;
+                for (int j = 0; j < k; j++) {
+                    row += c[i * k + j] * w[j];
+                }
+                sum += w[i] * row;
+            }
+            return sum;
+        }
+
+        /**
+         * Estimates the largest eigenvalue of the covariance by power iteration, padded so
+         * the gradient step stays stable, or bounds it by the largest absolute row sum if the
+         * iteration does not settle.
+         *
+         * @return The bound.
+         */
+        double largestEigenvalue() {
+            double rowBound = 0.0;
+            for (int i = 0; i < k; i++) {
+                double sum = 0.0;
+                for (int j = 0; j < k; j++) {
+                    sum += Math.abs(c[i * k + j]);
+                }
+                rowBound = Math.max(rowBound, sum);
+            }
+            double[] v = new double[k];
+            double[] w = new double[k];
+            Arrays.fill(v, 1.0 / Math.sqrt(Math.max(1, k)));
+            double eigenvalue = 0.0;
+            for (int iteration = 0; iteration < 50; iteration++) {
+                double norm = 0.0;
+                for (int i = 0; i < k; i++) {
+                    double sum = 0.0;
+                    for (int j = 0; j < k; j++) {
+                        sum += c[i * k + j] * v[j];
+                    }
+                    w[i] = sum;
+                    norm += sum * sum;
+                }
+                norm = Math.sqrt(norm);
+                if (norm == 0.0) {
+                    return 0.0;
+                }
+                if (Math.abs(norm - eigenvalue) <= 1e-6 * norm) {
+                    return Math.min(norm * 1.05, rowBound);
+                }
+                eigenvalue = norm;
+                for (int i = 0; i < k; i++) {
+                    v[i] = w[i] / norm;
+                }
+            }
+            return rowBound;
+        }
+
+        /**
+         * Builds the result of an allocation.
+         *
+         * @param portfolioId The portfolio identifier.
+         * @param objective   The objective.
+         * @param weights     The weights.
+         * @param met         Whether the constraints are met.
+         * @return The result.
+         */
+        OptimalWeights result(int portfolioId, Objective objective, double[] weights, boolean met) {
+            List<String> names = new ArrayList<>(k);
+            for (int i : index) {
+                names.add(symbols.get(i));
+            }
+            double expected = LinearAlgebra.dot(m, weights, k);
+            double volatility = Math.sqrt(Math.max(0.0, variance(weights)));
+            double ratio = volatility > 0.0 ? (expected - riskFreeRate) / volatility : Double.NaN;
+            return new OptimalWeights(portfolioId, objective, List.copyOf(names), weights, expected, volatility,
+                    ratio, met);
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.portfolio.service.optimizer;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This class holds the optimised allocation of one portfolio: a weight per stock, with the
+ * expected return, volatility and Sharpe ratio of the allocation.
+ * @author Gaoussou Thiam
+ * @date 10/19/2026
+ * @see com.portfolio.service.optimizer.MeanVarianceOptimizer
+ */
+public class OptimalWeights {
+
+
+    /** Identifier of the portfolio. */
+    private final int portfolioId;
+
+    /** The objective optimised. */
+    private final MeanVarianceOptimizer.Objective objective;
+
+    /** The symbols in weight order. */
+    private final List<String> symbols;
+
+    /** The weight of each symbol. */
+    private final double[] weights;
+
+    /** The expected return of the allocation. */
+    private final double expectedReturn;
+
+    /** The standard deviation of the allocation's return. */
+    private final double volatility;
+
+    /** The excess return over the risk-free rate per unit of volatility. */
+    private final double sharpeRatio;
+
+    /** Whether the constraints could be met. */
+    private final boolean feasible;
+
+    /**
+     * Constructs a new OptimalWeights. The weights array is owned by the result.
+     *
+     * @param portfolioId    The portfolio identifier.
+     * @param objective      The objective optimised.
+     * @param symbols        The symbols in weight order.
+     * @param weights        The weight of each symbol.
+     * @param expectedReturn The expected return of the allocation.
+     * @param volatility     The standard deviation of the allocation's return.
+     * @param sharpeRatio    The Sharpe ratio of the allocation.
+     * @param feasible       Whether the constraints could be met.
+     */
+    OptimalWeights(int portfolioId, MeanVarianceOptimizer.Objective objective, List<String> symbols, double[] weights,
+                   double expectedReturn, double volatility, double sharpeRatio, boolean feasible) {
+        this.portfolioId = portfolioId;
+        this.objective = objective;
+        this.symbols = symbols;
+        this.weights = weights;
+        this.expectedReturn = expectedReturn;
+        this.volatility = volatility;
+        this.sharpeRatio = sharpeRatio;
+        this.feasible = feasible;
+    }
+
+    /**
+     * Gets the portfolio ID.
+     *
+     * @return The portfolio identifier.
+     */
+    public int getPortfolioId() { return portfolioId; }
+
+    /**
+     * Gets the objective optimised.
+     *
+     * @return The objective.
+     */
+    public MeanVarianceOptimizer.Objective getObjective() { return objective; }
+
+    /**
+     * Gets the symbols considered, held or candidate.
+     *
+     * @return The symbols in weight order.
+     */
+    public List<String> getSymbols() { return symbols; }
+
+    /**
+     * Gets the weight of a symbol.
+     *
+     * @param symbol The symbol.
+     * @return Its weight, or 0 if it was not considered.
+     */
+    public double getWeight(String symbol) {
+        int index = symbols.indexOf(symbol);
+        return index < 0 ? 0.0 : weights[index];
+    }
+
+    /**
+     * Gets the weights by symbol.
+     *
+     * @return The weight of every symbol considered, in symbol order.
+     */
+    public Map<String, Double> getWeights() {
+        Map<String, Double> result = new LinkedHashMap<>();
+        for (int i = 0; i < weights.length; i++) {
+            result.put(symbols.get(i), weights[i]);
+        }
+        return result;
+    }
+
+    /**
+     * Gets the expected return of the allocation.
+     *
+     * @return The expected return, in the units of the optimizer's inputs.
+     */
+    public double getExpectedReturn() { return expectedReturn; }
+
+    /**
+     * Gets the volatility of the allocation.
+     *
+     * @return The standard deviation of its return.
+     */
+    public double getVolatility() { return volatility; }
+
+    /**
+     * Gets the Sharpe ratio of the allocation.
+     *
+     * @return The excess return per unit of volatility, or NaN without volatility.
+     */
+    public double getSharpeRatio() { return sharpeRatio; }
+
+    /**
+     * Checks whether the constraints could be met. An infeasible target return yields the
+     * highest-return allocation found; constraints with no allocation at all yield zero weights.
+     *
+     * @return True if every constraint holds.
+     */
+    public boolean isFeasible() { return feasible; }
+
+    /**
+     * Returns a string representation of the allocation.
+     *
+     * @return A formatted string containing the allocation's statistics.
+     */
+    @Override
+    public String toString() {
+        return String.format("OptimalWeights[portfolio=%d, %s, return=%.4f, volatility=%.4f, sharpe=%.3f%s]",
+                portfolioId, objective, expectedReturn, volatility, sharpeRatio, feasible ? "" : ", infeasible");
+    }
+}
@@ -0,0 +1,104 @@
+package com.portfolio.service.optimizer;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This class describes the constraints an optimised allocation must meet. Weights are always
+ * long-only and fully invested; on top of that each stock can be capped, each sector's total
+ * weight can be capped, and a minimum expected return can be required. Stocks that are not
+ * held yet can be offered as candidates to buy.
+ * @author Gaoussou Thiam
+ * @date 10/19/2026
+ * @see com.portfolio.service.optimizer.MeanVarianceOptimizer
+ */
+public class OptimizationConstraints {
+
+
+    /** The largest weight of any one stock. */
+    private final double maxWeight;
+
+    /** The largest total weight of each capped sector. */
+    private final Map<String, Double> sectorCaps;
+
+    /** Symbols that may be bought in addition to those held. */
+    private final List<String> candidates;
+
+    /** The expected return required by {@link MeanVarianceOptimizer.Objective#TARGET_RETURN}. */
+    private final double targetReturn;
+
+    /**
+     * Constructs a new OptimizationConstraints.
+     *
+     * @param maxWeight    The largest weight of any one stock, in (0, 1].
+     * @param sectorCaps   The largest total weight per sector, each in [0, 1]; sectors not
+     *                     listed are uncapped.
+     * @param candidates   Symbols that may be bought in addition to those held.
+     * @param targetReturn The expected return required when targeting a return.
+     * @throws IllegalArgumentException If the weight or a sector cap is out of range.
+     */
+    public OptimizationConstraints(double maxWeight, Map<String, Double> sectorCaps, List<String> candidates,
+                                   double targetReturn) {
+        if (!(maxWeight > 0.0 && maxWeight <= 1.0)) {
+            throw new IllegalArgumentException("Maximum weight must be in (0, 1]: " + maxWeight);
+        }
+        for (Map.Entry<String, Double> cap : sectorCaps.entrySet()) {
+            if (!(cap.getValue() >= 0.0 && cap.getValue() <= 1.0)) {
+                throw new IllegalArgumentException("Sector cap must be in [0, 1] for " + cap.getKey());
+            }
+        }
+        this.maxWeight = maxWeight;
+        this.sectorCaps = Map.copyOf(sectorCaps);
+        this.candidates = List.copyOf(candidates);
+        this.targetReturn = targetReturn;
+    }
+
+    /**
+     * Creates constraints that only require weights to be long-only and fully invested, over
+     * the stocks already held.
+     *
+     * @return The constraints.
+     */
+    public static OptimizationConstraints longOnly() {
+        return new OptimizationConstraints(1.0, Map.of(), List.of(), Double.NaN);
+    }
+
+    /**
+     * Gets the largest weight of any one stock.
+     *
+     * @return The maximum weight.
+     */
+    public double getMaxWeight() { return maxWeight; }
+
+    /**
+     * Gets the sector caps.
+     *
+     * @return The largest total weight per capped sector.
+     */
+    public Map<String, Double> getSectorCaps() { return sectorCaps; }
+
+    /**
+     * Gets the symbols that may be bought in addition to those held.
+     *
+     * @return The candidate symbols.
+     */
+    public List<String> getCandidates() { return candidates; }
+
+    /**
+     * Gets the expected return required when targeting a return.
+     *
+     * @return The target return.
+     */
+    public double getTargetReturn() { return targetReturn; }
+
+    /**
+     * Returns a string representation of the constraints.
+     *
+     * @return A formatted string containing the constraints.
+     */
+    @Override
+    public String toString() {
+        return String.format("OptimizationConstraints[maxWeight=%.2f, sectorCaps=%s, candidates=%d, target=%.4f]",
+                maxWeight, sectorCaps, candidates.size(), targetReturn);
+    }
+}
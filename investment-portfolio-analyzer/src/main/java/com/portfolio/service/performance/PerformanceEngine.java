@@ -0,0 +1,236 @@
+package com.portfolio.service.performance;
+
+import com.portfolio.metrics.ValuationEvent;
+import com.portfolio.model.Transaction;
+import com.portfolio.service.backtest.PriceHistory;
+import com.portfolio.util.RangeAction;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * This class maintains time-weighted and money-weighted returns for every portfolio from its
+ * transaction ledger and the daily closing prices.
+ * <p>
+ * The ledger is loaded once against a {@link PriceHistory}, which is read in a single pass in
+ * blocks of closes that are folded into every portfolio's {@link ReturnSeries} in parallel.
+ * From then on new transactions are recorded and new closes added incrementally, and a report
+ * over any date range reads the cached breakpoints of each series instead of replaying its
+ * transactions, so month-end reporting over the whole book is a binary search per portfolio.
+ * @author Gaoussou Thiam
+ * @date 10/19/2026
+ * @see com.portfolio.service.performance.ReturnSeries
+ * @see com.portfolio.service.performance.PeriodReturn
+ * @see com.portfolio.service.backtest.PriceHistory
+ */
+public class PerformanceEngine {
+
+
+    /** The number of closes read per block. */
+    private static final int BLOCK_BARS = 256;
+
+    /** The pool that updates series in parallel. */
+    private final ForkJoinPool pool;
+
+    /** The series of every portfolio by ID. */
+    private final Map<Integer, ReturnSeries> series = new ConcurrentHashMap<>();
+
+    /** The symbols in price column order. */
+    private volatile List<String> symbols = List.of();
+
+    /** Lookup from symbol to price column. */
+    private volatile Map<String, Integer> columns = Map.of();
+
+    /** The epoch day of the latest close. */
+    private long lastDay = Long.MIN_VALUE;
+
+    /**
+     * Constructs a PerformanceEngine that runs on the common fork-join pool.
+     */
+    public PerformanceEngine() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructs a PerformanceEngine that runs on the given fork-join pool.
+     *
+     * @param pool The pool used to update series in parallel.
+     */
+    public PerformanceEngine(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Replaces every series with one built from a ledger and a price history. The history is
+     * read to the end but not closed, and its symbols fix the price columns of later closes.
+     *
+     * @param ledger  The transactions of every portfolio, keyed by portfolio ID.
+     * @param history The closing prices to value the portfolios at.
+     * @throws IOException If the history cannot be read.
+     * @throws IllegalArgumentException If a transaction is in a symbol the history has no
+     *                                  prices for.
+     */
+    public synchronized void load(Map<Integer, List<Transaction>> ledger, PriceHistory history) throws IOException {
+        ValuationEvent event = new ValuationEvent();
+        event.begin();
+        List<String> names = history.getSymbols();
+        Map<String, Integer> lookup = new HashMap<>();
+        for (int c = 0; c < names.size(); c++) {
+            lookup.put(names.get(c), c);
+        }
+        Map<Integer, ReturnSeries> loaded = new LinkedHashMap<>();
+        for (Map.Entry<Integer, List<Transaction>> entry : ledger.entrySet()) {
+            ReturnSeries portfolio = new ReturnSeries(entry.getKey());
+            for (Transaction transaction : entry.getValue()) {
+                portfolio.record(transaction, column(lookup, transaction));
+            }
+            loaded.put(entry.getKey(), portfolio);
+        }
+        ReturnSeries[] books = loaded.values().toArray(new ReturnSeries[0]);
+
+        int width = names.size();
+        long[] days = new long[BLOCK_BARS];
+        double[] prices = new double[BLOCK_BARS * width];
+        boolean[] newMonths = new boolean[BLOCK_BARS];
+        long previous = Long.MIN_VALUE;
+        long closes = 0;
+        int read;
+        while ((read = history.read(days, prices, BLOCK_BARS)) > 0) {
+            for (int b = 0; b < read; b++) {
+                newMonths[b] = previous != Long.MIN_VALUE && !sameMonth(previous, days[b]);
+                previous = days[b];
+            }
+            int bars = read;
+            pool.invoke(new RangeAction(0, books.length, 4, i -> {
+                for (int b = 0; b < bars; b++) {
+                    books[i].close(days[b], newMonths[b], prices, b * width);
+                }
+            }));
+            closes += read;
+        }
+
+        series.clear();
+        series.putAll(loaded);
+        symbols = List.copyOf(names);
+        columns = lookup;
+        lastDay = previous;
+        event.complete("PerformanceEngine.load", books.length, closes * books.length);
+    }
+
+    /**
+     * Records a new transaction, to count on the first close on or after its date. A
+     * transaction dated before the latest close is rejected, since the closes since its date
+     * were valued without it; {@link #load} the ledger again to include it.
+     *
+     * @param transaction The transaction.
+     * @throws IllegalArgumentException If the symbol has no price column or the transaction is
+     *                                  dated before the latest close.
+     */
+    public synchronized void record(Transaction transaction) {
+        if (lastDay != Long.MIN_VALUE && transaction.getTransactionDate().toLocalDate().toEpochDay() < lastDay) {
+            throw new IllegalArgumentException("Transaction of " + transaction.getTransactionDate().toLocalDate()
+                    + " is before the latest close " + LocalDate.ofEpochDay(lastDay));
+        }
+        int column = column(columns, transaction);
+        series.computeIfAbsent(transaction.getPortfolioId(), ReturnSeries::new).record(transaction, column);
+    }
+
+    /**
+     * Adds a close to every series, after the latest one.
+     *
+     * @param date   The date of the close.
+     * @param prices The closing price of every symbol, in {@link #getSymbols()} order; NaN for
+     *               a symbol not quoted yet.
+     * @throws IllegalArgumentException If the date is not after the latest close or the
+     *                                  prices do not match the symbols.
+     */
+    public synchronized void close(LocalDate date, double[] prices) {
+        long day = date.toEpochDay();
+        if (day <= lastDay) {
+            throw new IllegalArgumentException("Close " + date + " is not after the latest close");
+        }
+        if (prices.length != symbols.size()) {
+            throw new IllegalArgumentException("Expected " + symbols.size() + " prices, got " + prices.length);
+        }
+        boolean newMonth = lastDay != Long.MIN_VALUE && !sameMonth(lastDay, day);
+        ReturnSeries[] books = series.values().toArray(new ReturnSeries[0]);
+        pool.invoke(new RangeAction(0, books.length, 64, i -> books[i].close(day, newMonth, prices, 0)));
+        lastDay = day;
+    }
+
+    /**
+     * Measures every portfolio's returns over a date range, in parallel.
+     *
+     * @param from The start date.
+     * @param to   The end date, on or after the start date.
+     * @return The returns keyed by portfolio ID.
+     * @throws IllegalArgumentException If the end date is before the start date.
+     */
+    public Map<Integer, PeriodReturn> report(LocalDate from, LocalDate to) {
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("End date " + to + " is before start date " + from);
+        }
+        ReturnSeries[] books = series.values().toArray(new ReturnSeries[0]);
+        PeriodReturn[] returns = new PeriodReturn[books.length];
+        pool.invoke(new RangeAction(0, books.length, 64, i -> returns[i] = books[i].getReturn(from, to)));
+        Map<Integer, PeriodReturn> report = new HashMap<>();
+        for (PeriodReturn result : returns) {
+            report.put(result.getPortfolioId(), result);
+        }
+        return report;
+    }
+
+    /**
+     * Gets the series of a portfolio.
+     *
+     * @param portfolioId The portfolio ID.
+     * @return The series, or null if the portfolio has no transactions.
+     */
+    public ReturnSeries getSeries(int portfolioId) {
+        return series.get(portfolioId);
+    }
+
+    /**
+     * Gets the symbols in price column order.
+     *
+     * @return The symbols of the loaded history.
+     */
+    public List<String> getSymbols() {
+        return symbols;
+    }
+
+    /**
+     * Resolves the price column of a transaction's symbol.
+     *
+     * @param lookup      The price column of every symbol.
+     * @param transaction The transaction.
+     * @return The column.
+     */
+    private static int column(Map<String, Integer> lookup, Transaction transaction) {
+        Integer column = lookup.get(transaction.getStock().getSymbol());
+        if (column == null) {
+            throw new IllegalArgumentException("No price history for " + transaction.getStock().getSymbol()
+                    + " in portfolio " + transaction.getPortfolioId());
+        }
+        return column;
+    }
+
+    /**
+     * Checks whether two epoch days are in the same calendar month.
+     *
+     * @param a The first day.
+     * @param b The second day.
+     * @return True if they share a year and month.
+     */
+    private static boolean sameMonth(long a, long b) {
+        LocalDate first = LocalDate.ofEpochDay(a);
+        LocalDate second = LocalDate.ofEpochDay(b);
+        return first.getYear() == second.getYear() && first.getMonth() == second.getMonth();
+    }
+}
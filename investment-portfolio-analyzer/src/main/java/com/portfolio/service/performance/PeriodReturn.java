@@ -0,0 +1,144 @@
+package com.portfolio.service.performance;
+
+import java.time.LocalDate;
+
+/**
+ * This class holds the returns of one portfolio over a date range, measured three ways: the
+ * time-weighted return, which removes the effect of when money was added or withdrawn; the
+ * money-weighted return, the annualised internal rate of return of the flows; and the
+ * Modified Dietz return, a linear approximation of the money-weighted return for the period.
+ * @author Gaoussou Thiam
+ * @date 10/19/2026
+ * @see com.portfolio.service.performance.ReturnSeries
+ * @see com.portfolio.service.performance.PerformanceEngine
+ */
+public class PeriodReturn {
+
+
+    /** Identifier of the portfolio. */
+    private final int portfolioId;
+
+    /** The close the period starts from. */
+    private final LocalDate from;
+
+    /** The close the period ends at. */
+    private final LocalDate to;
+
+    /** The value at the start. */
+    private final double startValue;
+
+    /** The value at the end. */
+    private final double endValue;
+
+    /** Money bought in minus money sold out during the period. */
+    private final double netFlow;
+
+    /** The compounded return of the sub-periods between flows. */
+    private final double timeWeighted;
+
+    /** The annualised internal rate of return. */
+    private final double moneyWeighted;
+
+    /** The Modified Dietz return for the period. */
+    private final double modifiedDietz;
+
+    /**
+     * Constructs a new PeriodReturn.
+     *
+     * @param portfolioId   The portfolio identifier.
+     * @param from          The close the period starts from.
+     * @param to            The close the period ends at.
+     * @param startValue    The value at the start.
+     * @param endValue      The value at the end.
+     * @param netFlow       Money bought in minus money sold out during the period.
+     * @param timeWeighted  The time-weighted return for the period.
+     * @param moneyWeighted The annualised internal rate of return, or NaN if undefined.
+     * @param modifiedDietz The Modified Dietz return, or NaN if undefined.
+     */
+    public PeriodReturn(int portfolioId, LocalDate from, LocalDate to, double startValue, double endValue,
+                        double netFlow, double timeWeighted, double moneyWeighted, double modifiedDietz) {
+        this.portfolioId = portfolioId;
+        this.from = from;
+        this.to = to;
+        this.startValue = startValue;
+        this.endValue = endValue;
+        this.netFlow = netFlow;
+        this.timeWeighted = timeWeighted;
+        this.moneyWeighted = moneyWeighted;
+        this.modifiedDietz = modifiedDietz;
+    }
+
+    /**
+     * Gets the portfolio ID.
+     *
+     * @return The portfolio identifier.
+     */
+    public int getPortfolioId() { return portfolioId; }
+
+    /**
+     * Gets the date of the close the period starts from.
+     *
+     * @return The start date, or null if the period starts before the portfolio's first trade.
+     */
+    public LocalDate getFrom() { return from; }
+
+    /**
+     * Gets the date of the close the period ends at.
+     *
+     * @return The end date, or null if the portfolio had not traded by then.
+     */
+    public LocalDate getTo() { return to; }
+
+    /**
+     * Gets the value at the start of the period.
+     *
+     * @return The start value.
+     */
+    public double getStartValue() { return startValue; }
+
+    /**
+     * Gets the value at the end of the period.
+     *
+     * @return The end value.
+     */
+    public double getEndValue() { return endValue; }
+
+    /**
+     * Gets the money bought in minus the money sold out during the period.
+     *
+     * @return The net flow.
+     */
+    public double getNetFlow() { return netFlow; }
+
+    /**
+     * Gets the time-weighted return.
+     *
+     * @return The fractional return for the period.
+     */
+    public double getTimeWeighted() { return timeWeighted; }
+
+    /**
+     * Gets the money-weighted return.
+     *
+     * @return The annualised internal rate of return, or NaN if undefined.
+     */
+    public double getMoneyWeighted() { return moneyWeighted; }
+
+    /**
+     * Gets the Modified Dietz return.
+     *
+     * @return The fractional return for the period, or NaN if undefined.
+     */
+    public double getModifiedDietz() { return modifiedDietz; }
+
+    /**
+     * Returns a string representation of the returns.
+     *
+     * @return A formatted string containing the returns as percentages.
+     */
+    @Override
+    public String toString() {
+        return String.format("PeriodReturn[portfolio=%d, %s..%s, twr=%.2f%%, mwr=%.2f%%, dietz=%.2f%%]",
+                portfolioId, from, to, timeWeighted * 100, moneyWeighted * 100, modifiedDietz * 100);
+    }
+}
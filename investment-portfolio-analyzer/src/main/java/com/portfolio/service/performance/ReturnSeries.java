@@ -0,0 +1,347 @@
+package com.portfolio.service.performance;
+
+import com.portfolio.model.Transaction;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * This class holds the running performance aggregates of one portfolio, built from its
+ * transactions and daily closing prices and extended one close at a time.
+ * <p>
+ * At each breakpoint it keeps the value, the cumulative log growth of the time-weighted
+ * return, and the cumulative sums of the net flows and of the flows times their date. The
+ * time-weighted and Modified Dietz returns between any two breakpoints are then differences of
+ * these sums, found by binary search, and the money-weighted return only visits the flows in
+ * the range. A breakpoint is kept for every month end, every day with a flow and the latest
+ * close; a range is measured from and to the last breakpoint on or before each date.
+ * <p>
+ * Buys count as money put in and sells as money taken out, at the transaction price; a trade
+ * counts on the first close on or after its date.
+ * @author Gaoussou Thiam
+ * @date 10/19/2026
+ * @see com.portfolio.service.performance.PerformanceEngine
+ * @see com.portfolio.service.performance.PeriodReturn
+ */
+public final class ReturnSeries {
+
+
+    /** Days per year used to annualise the money-weighted return. */
+    private static final double DAYS_PER_YEAR = 365.0;
+
+    /** Identifier of the portfolio. */
+    private final int portfolioId;
+
+    /** The price column of each symbol held. */
+    private int[] columns = new int[4];
+
+    /** The quantity held per column. */
+    private double[] quantities = new double[4];
+
+    /** The number of symbols held. */
+    private int slots;
+
+    /** Queued trades in date order; those before {@code nextTrade} are already folded in. */
+    private final List<Trade> pending = new ArrayList<>();
+
+    /** The first queued trade not yet folded into a close. */
+    private int nextTrade;
+
+    /** The epoch day of each breakpoint. */
+    private long[] days = new long[16];
+
+    /** The value at each breakpoint. */
+    private double[] values = new double[16];
+
+    /** The cumulative log growth of the time-weighted return at each breakpoint. */
+    private double[] growth = new double[16];
+
+    /** The cumulative net flow at each breakpoint. */
+    private double[] flows = new double[16];
+
+    /** The cumulative sum of each flow times its epoch day at each breakpoint. */
+    private double[] datedFlows = new double[16];
+
+    /** The number of breakpoints. */
+    private int count;
+
+    /** Whether the latest breakpoint had a flow, so it must be kept. */
+    private boolean tailHasFlow;
+
+    /**
+     * Constructs an empty series.
+     *
+     * @param portfolioId The portfolio identifier.
+     */
+    ReturnSeries(int portfolioId) {
+        this.portfolioId = portfolioId;
+    }
+
+    /**
+     * Queues a trade for the first close on or after its date. A trade dated on the latest
+     * close is taken to follow it and counts on the next one.
+     *
+     * @param transaction The trade.
+     * @param column      The price column of its symbol.
+     * @throws IllegalArgumentException If the trade is dated before the latest close, which
+     *                                  has already been valued without it.
+     */
+    synchronized void record(Transaction transaction, int column) {
+        Trade trade = new Trade(transaction, column);
+        if (count > 0 && trade.day < days[count - 1]) {
+            throw new IllegalArgumentException("Transaction of " + transaction.getTransactionDate().toLocalDate()
+                    + " is before the latest close " + LocalDate.ofEpochDay(days[count - 1]));
+        }
+        int at = pending.size();
+        while (at > nextTrade && pending.get(at - 1).day > trade.day) {
+            at--;
+        }
+        pending.add(at, trade);
+    }
+
+    /**
+     * Folds the trades due by a close into the holdings and adds the close as a breakpoint.
+     *
+     * @param day      The epoch day of the close.
+     * @param newMonth Whether the close is the first of a new month, so the previous
+     *                 breakpoint was a month end.
+     * @param prices   The closing prices; NaN for a symbol not quoted yet.
+     * @param offset   The offset of the close's first column in the prices.
+     */
+    synchronized void close(long day, boolean newMonth, double[] prices, int offset) {
+        double flow = 0.0;
+        while (nextTrade < pending.size() && pending.get(nextTrade).day <= day) {
+            Trade trade = pending.get(nextTrade++);
+            int slot = slot(trade.column);
+            quantities[slot] += trade.quantity;
+            flow += trade.amount;
+        }
+        if (nextTrade == pending.size() || nextTrade > 1024) {
+            pending.subList(0, nextTrade).clear();
+            nextTrade = 0;
+        }
+
+        double value = 0.0;
+        for (int s = 0; s < slots; s++) {
+            double price = prices[offset + columns[s]];
+            if (price > 0.0) {
+                value += quantities[s] * price;
+            }
+        }
+
+        int last = count - 1;
+        double previous = count > 0 ? values[last] : 0.0;
+        double logGrowth = count > 0 ? growth[last] : 0.0;
+        if (previous > 0.0 && value - flow > 0.0) {
+            logGrowth += Math.log((value - flow) / previous);
+        }
+        double cumulativeFlow = (count > 0 ? flows[last] : 0.0) + flow;
+        double cumulativeDated = (count > 0 ? datedFlows[last] : 0.0) + flow * day;
+
+        int at = count > 0 && !tailHasFlow && !newMonth ? last : count++;
+        if (at == days.length) {
+            int capacity = days.length * 2;
+            days = Arrays.copyOf(days, capacity);
+            values = Arrays.copyOf(values, capacity);
+            growth = Arrays.copyOf(growth, capacity);
+            flows = Arrays.copyOf(flows, capacity);
+            datedFlows = Arrays.copyOf(datedFlows, capacity);
+        }
+        days[at] = day;
+        values[at] = value;
+        growth[at] = logGrowth;
+        flows[at] = cumulativeFlow;
+        datedFlows[at] = cumulativeDated;
+        tailHasFlow = flow != 0.0;
+    }
+
+    /**
+     * Measures the returns between two dates from the breakpoints, without replaying trades.
+     *
+     * @param from The start date.
+     * @param to   The end date, on or after the start date.
+     * @return The time-weighted, money-weighted and Modified Dietz returns.
+     * @throws IllegalArgumentException If the end date is before the start date.
+     */
+    public synchronized PeriodReturn getReturn(LocalDate from, LocalDate to) {
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("End date " + to + " is before start date " + from);
+        }
+        int start = indexAt(from.toEpochDay());
+        int end = indexAt(to.toEpochDay());
+        double startValue = start < 0 ? 0.0 : values[start];
+        double endValue = end < 0 ? 0.0 : values[end];
+        double netFlow = flowAt(end) - flowAt(start);
+        double timeWeighted = Math.exp((end < 0 ? 0.0 : growth[end]) - (start < 0 ? 0.0 : growth[start])) - 1.0;
+
+        double modifiedDietz = Double.NaN;
+        double moneyWeighted = Double.NaN;
+        if (end > start && end >= 0) {
+            long startDay = start < 0 ? days[0] : days[start];
+            long endDay = days[end];
+            double span = endDay - startDay;
+            double dated = datedFlows[end] - (start < 0 ? 0.0 : datedFlows[start]);
+            double weightedFlow = span > 0 ? (endDay * netFlow - dated) / span : netFlow;
+            double base = startValue + weightedFlow;
+            if (base > 0.0) {
+                modifiedDietz = (endValue - startValue - netFlow) / base;
+            }
+            moneyWeighted = internalRate(start, end, startValue, endValue, modifiedDietz);
+        } else if (end == start && end >= 0) {
+            modifiedDietz = 0.0;
+        }
+        return new PeriodReturn(portfolioId, start < 0 ? null : LocalDate.ofEpochDay(days[start]),
+                end < 0 ? null : LocalDate.ofEpochDay(days[end]), startValue, endValue, netFlow,
+                timeWeighted, moneyWeighted, modifiedDietz);
+    }
+
+    /**
+     * Gets the portfolio ID.
+     *
+     * @return The portfolio identifier.
+     */
+    public int getPortfolioId() { return portfolioId; }
+
+    /**
+     * Gets the number of breakpoints kept.
+     *
+     * @return The breakpoint count.
+     */
+    public synchronized int getBreakpointCount() { return count; }
+
+    /**
+     * Gets the date of the latest close.
+     *
+     * @return The date, or null if no close has been added.
+     */
+    public synchronized LocalDate getLastClose() {
+        return count == 0 ? null : LocalDate.ofEpochDay(days[count - 1]);
+    }
+
+    /**
+     * Solves for the annualised rate at which the start value and the flows grow to the end
+     * value, by Newton's method on the continuously compounded rate, starting from the
+     * Modified Dietz estimate.
+     *
+     * @param start      The start breakpoint, or -1 before the first.
+     * @param end        The end breakpoint.
+     * @param startValue The value at the start.
+     * @param endValue   The value at the end.
+     * @param estimate   The Modified Dietz return, or NaN.
+     * @return The annualised rate, or NaN if it does not converge.
+     */
+    private double internalRate(int start, int end, double startValue, double endValue, double estimate) {
+        long endDay = days[end];
+        double years = (endDay - (start < 0 ? days[0] : days[start])) / DAYS_PER_YEAR;
+        if (years <= 0.0) {
+            return Double.NaN;
+        }
+        double rate = estimate > -1.0 ? Math.log1p(estimate) / years : 0.0;
+        for (int iteration = 0; iteration < 50; iteration++) {
+            double f = startValue * Math.exp(rate * years) - endValue;
+            double slope = startValue * years * Math.exp(rate * years);
+            for (int k = start + 1; k <= end; k++) {
+                double flow = flows[k] - flowAt(k - 1);
+                if (flow != 0.0) {
+                    double horizon = (endDay - days[k]) / DAYS_PER_YEAR;
+                    double grown = flow * Math.exp(rate * horizon);
+                    f += grown;
+                    slope += grown * horizon;
+                }
+            }
+            if (slope == 0.0 || !Double.isFinite(f)) {
+                return Double.NaN;
+            }
+            double step = f / slope;
+            rate -= step;
+            if (Math.abs(step) < 1e-10) {
+                return Math.expm1(rate);
+            }
+        }
+        return Double.NaN;
+    }
+
+    /**
+     * Finds the last breakpoint on or before a day.
+     *
+     * @param day The epoch day.
+     * @return The index, or -1 if the first breakpoint is later.
+     */
+    private int indexAt(long day) {
+        int low = 0;
+        int high = count;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (days[middle] <= day) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low - 1;
+    }
+
+    /**
+     * Gets the cumulative net flow at a breakpoint.
+     *
+     * @param index The index, or -1 before the first.
+     * @return The cumulative flow.
+     */
+    private double flowAt(int index) {
+        return index < 0 ? 0.0 : flows[index];
+    }
+
+    /**
+     * Finds or adds the slot of a price column.
+     *
+     * @param column The price column.
+     * @return The slot.
+     */
+    private int slot(int column) {
+        for (int s = 0; s < slots; s++) {
+            if (columns[s] == column) {
+                return s;
+            }
+        }
+        if (slots == columns.length) {
+            columns = Arrays.copyOf(columns, slots * 2);
+            quantities = Arrays.copyOf(quantities, slots * 2);
+        }
+        columns[slots] = column;
+        return slots++;
+    }
+
+    /**
+     * A trade resolved to a price column and a signed quantity and flow.
+     */
+    private static final class Trade {
+
+        /** The epoch day of the trade. */
+        final long day;
+
+        /** The price column of the symbol traded. */
+        final int column;
+
+        /** The quantity, negative for a sell. */
+        final double quantity;
+
+        /** The money put in, negative for a sell. */
+        final double amount;
+
+        /**
+         * Resolves a transaction.
+         *
+         * @param transaction The transaction.
+         * @param column      The price column of its symbol.
+         */
+        Trade(Transaction transaction, int column) {
+            double sign = transaction.getType() == Transaction.TransactionType.SELL ? -1.0 : 1.0;
+            this.day = transaction.getTransactionDate().toLocalDate().toEpochDay();
+            this.column = column;
+            this.quantity = sign * transaction.getQuantity();
+            this.amount = sign * transaction.getAmount();
+        }
+    }
+}
@@ -0,0 +1,390 @@
+package com.portfolio.service.price;
+
+import com.portfolio.model.Portfolio;
+import com.portfolio.model.Position;
+import com.portfolio.model.Stock;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * This class is a board of the latest stock prices in a memory-mapped file, shared by every
+ * process on a host. One process publishes prices into it and any number of processes read
+ * them straight from the mapped pages, without a database query, a copy or an allocation.
+ * <p>
+ * The file holds a 64-byte header and then one 64-byte slot per stock ID, so a slot never
+ * shares a cache line with another. Each slot holds a sequence number, the price and the time
+ * it was published. The sequence number is a seqlock: the writer makes it odd before changing
+ * the slot and even again after, and a reader retries until it sees the same even number
+ * before and after reading the price. A sequence number of zero means no price was published.
+ * <p>
+ * The writer holds an exclusive lock on the file, so a second writer fails to open it. If a
+ * writer dies in the middle of an update the slot stays odd; readers then report the price as
+ * unknown until the next writer opens the board and repairs the slot.
+ * <p>
+ * The capacity is fixed when the file is created, {@link #DEFAULT_CAPACITY} unless given, and
+ * only stock IDs below it have a slot. Readers get no price for a larger ID and fall back to
+ * the stock's own price; writers should check {@link #covers} before publishing, since the
+ * stored change the price belongs to has usually committed by then.
+ * @author Gaoussou Thiam
+ * @date 10/19/2026
+ * @see com.portfolio.service.PortfolioManager
+ * @see com.portfolio.model.Stock
+ */
+public final class PriceBoard implements Closeable {
+
+
+    /** Default number of slots, covering stock IDs below it. */
+    public static final int DEFAULT_CAPACITY = 65536;
+
+    /** Magic number at the start of every board. */
+    private static final int MAGIC = 0x50424F44;
+
+    /** Version of the board format. */
+    private static final int VERSION = 1;
+
+    /** Size of the header and of each slot, one cache line. */
+    private static final int SLOT_SIZE = 64;
+
+    /** Offset of the price within a slot. */
+    private static final int PRICE = 8;
+
+    /** Offset of the publication time within a slot. */
+    private static final int PUBLISHED = 16;
+
+    /** Reads a slot that a writer keeps changing this many times before giving up on it. */
+    private static final int MAX_ATTEMPTS = 1 << 16;
+
+    /** Accesses the longs of the mapped file with explicit memory ordering. */
+    private static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class,
+            ByteOrder.nativeOrder());
+
+    /** The mapped file. */
+    private final MappedByteBuffer buffer;
+
+    /** The number of slots. */
+    private final int capacity;
+
+    /** The file, kept open while the writer holds its lock; null for readers. */
+    private final FileChannel channel;
+
+    /** The writer's lock on the file; null for readers. */
+    private final FileLock lock;
+
+    /**
+     * Constructs a board over a mapped file.
+     *
+     * @param buffer   The mapped file.
+     * @param capacity The number of slots.
+     * @param channel  The file, for a writer; null for a reader.
+     * @param lock     The writer's lock; null for a reader.
+     */
+    private PriceBoard(MappedByteBuffer buffer, int capacity, FileChannel channel, FileLock lock) {
+        this.buffer = buffer;
+        this.capacity = capacity;
+        this.channel = channel;
+        this.lock = lock;
+    }
+
+    /**
+     * Opens a board for publishing with the default capacity, creating the file if missing.
+     *
+     * @param path The board file.
+     * @return The board.
+     * @throws IOException If the file cannot be mapped or another process is publishing to it.
+     */
+    public static PriceBoard openWriter(Path path) throws IOException {
+        return openWriter(path, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Opens a board for publishing, creating the file if missing. The prices already on an
+     * existing board are kept, so readers are not disturbed when the writer restarts.
+     *
+     * @param path     The board file.
+     * @param capacity The number of slots of a new board; stock IDs must be below it.
+     * @return The board.
+     * @throws IOException If the file cannot be mapped, has another capacity or another process
+     *                     is publishing to it.
+     */
+    public static PriceBoard openWriter(Path path, int capacity) throws IOException {
+        if (capacity < 1 || capacity >= Integer.MAX_VALUE / SLOT_SIZE) {
+            throw new IllegalArgumentException("Capacity out of range: " + capacity);
+        }
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            FileLock lock;
+            try {
+                lock = channel.tryLock();
+            } catch (OverlappingFileLockException e) {
+                lock = null;
+            }
+            if (lock == null) {
+                throw new IOException("Price board " + path + " already has a writer");
+            }
+            long size = (long) (capacity + 1) * SLOT_SIZE;
+            boolean created = channel.size() == 0;
+            if (!created && channel.size() != size) {
+                throw new IOException("Price board " + path + " has a different capacity than " + capacity);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            buffer.order(ByteOrder.nativeOrder());
+            if (created) {
+                buffer.putInt(4, VERSION).putInt(8, capacity);
+                // The magic number goes last, so readers never see a half-written header.
+                buffer.putInt(0, MAGIC);
+            } else {
+                checkHeader(buffer, path);
+            }
+            PriceBoard board = new PriceBoard(buffer, capacity, channel, lock);
+            board.repair();
+            return board;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Opens a board for reading. The file is mapped read-only and closed right away; the
+     * mapping stays valid until the board is garbage collected.
+     *
+     * @param path The board file, created by a writer.
+     * @return The board.
+     * @throws IOException If the file cannot be mapped or is not a price board.
+     */
+    public static PriceBoard openReader(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < SLOT_SIZE) {
+                throw new IOException("Price board " + path + " is not initialised");
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            buffer.order(ByteOrder.nativeOrder());
+            checkHeader(buffer, path);
+            int capacity = buffer.getInt(8);
+            if ((long) (capacity + 1) * SLOT_SIZE != size) {
+                throw new IOException("Price board " + path + " is truncated");
+            }
+            return new PriceBoard(buffer, capacity, null, null);
+        }
+    }
+
+    /**
+     * Publishes the price of a stock. Threads of the writing process publish one at a time, as
+     * the seqlock allows a single writer.
+     *
+     * @param stockId     The ID of the stock, which the board must {@linkplain #covers cover}.
+     * @param price       The price.
+     * @param publishedAt When the price took effect, in epoch milliseconds.
+     * @throws IllegalStateException    If the board was opened for reading.
+     * @throws IllegalArgumentException If the stock ID does not fit the board.
+     */
+    public synchronized void publish(int stockId, double price, long publishedAt) {
+        if (lock == null) {
+            throw new IllegalStateException("Price board is read-only");
+        }
+        if (!covers(stockId)) {
+            throw new IllegalArgumentException("Stock ID " + stockId + " does not fit a board of " + capacity);
+        }
+        int at = slot(stockId);
+        long sequence = (long) LONGS.get(buffer, at);
+        LONGS.setOpaque(buffer, at, sequence + 1);
+        // Readers must see the odd sequence number before either field changes.
+        VarHandle.storeStoreFence();
+        LONGS.setOpaque(buffer, at + PRICE, Double.doubleToRawLongBits(price));
+        LONGS.setOpaque(buffer, at + PUBLISHED, publishedAt);
+        LONGS.setRelease(buffer, at, sequence + 2);
+    }
+
+    /**
+     * Publishes the current price of a stock, timestamped now.
+     *
+     * @param stock The stock, with its ID set.
+     */
+    public void publish(Stock stock) {
+        publish(stock.getStockId(), stock.getCurrentPrice(), System.currentTimeMillis());
+    }
+
+    /**
+     * Gets the latest price of a stock.
+     *
+     * @param stockId The ID of the stock.
+     * @return The price, or NaN if none was published or the slot is being repaired.
+     */
+    public double price(int stockId) {
+        return Double.longBitsToDouble(read(stockId, PRICE, Double.doubleToRawLongBits(Double.NaN)));
+    }
+
+    /**
+     * Gets when the latest price of a stock was published.
+     *
+     * @param stockId The ID of the stock.
+     * @return The time in epoch milliseconds, or 0 if unknown.
+     */
+    public long publishedAt(int stockId) {
+        return read(stockId, PUBLISHED, 0);
+    }
+
+    /**
+     * Gets the latest price of a stock, falling back to the price it was loaded with.
+     *
+     * @param stock The stock.
+     * @return The price on the board if one was published, otherwise the stock's own price.
+     */
+    public double price(Stock stock) {
+        double price = price(stock.getStockId());
+        return Double.isNaN(price) ? stock.getCurrentPrice() : price;
+    }
+
+    /**
+     * Calculates the value of a portfolio at the prices on the board.
+     *
+     * @param portfolio The portfolio to value.
+     * @return The portfolio's value.
+     */
+    public double value(Portfolio portfolio) {
+        double total = 0.0;
+        for (Position position : portfolio.getPositions()) {
+            total += position.getQuantity() * price(position.getStock());
+        }
+        return total;
+    }
+
+    /**
+     * Sets the price of every stock in a portfolio to its price on the board, so the
+     * portfolio's own valuation methods use it.
+     *
+     * @param portfolio The portfolio to reprice.
+     */
+    public void reprice(Portfolio portfolio) {
+        reprice(portfolio.getPositions());
+    }
+
+    /**
+     * Sets the price of the stock of every given position to its price on the board, for
+     * positions loaded without their portfolio, such as one page of a large portfolio.
+     *
+     * @param positions The positions to reprice.
+     */
+    public void reprice(Iterable<Position> positions) {
+        for (Position position : positions) {
+            Stock stock = position.getStock();
+            stock.setCurrentPrice(price(stock));
+        }
+    }
+
+    /**
+     * Checks whether a stock ID has a slot on this board.
+     *
+     * @param stockId The ID of the stock.
+     * @return True if the ID is below the capacity, so its price can be published.
+     */
+    public boolean covers(int stockId) {
+        return stockId >= 0 && stockId < capacity;
+    }
+
+    /**
+     * Checks whether this board can publish prices.
+     *
+     * @return True for a board opened by {@link #openWriter}.
+     */
+    public boolean isWriter() {
+        return lock != null;
+    }
+
+    /**
+     * Gets the number of slots.
+     *
+     * @return The capacity; stock IDs must be below it.
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Releases the writer's lock, letting another process publish. Does nothing for a reader.
+     *
+     * @throws IOException If the file cannot be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        if (channel != null) {
+            buffer.force();
+            channel.close();
+        }
+    }
+
+    /**
+     * Reads one field of a slot consistently with its sequence number.
+     *
+     * @param stockId The ID of the stock.
+     * @param field   The offset of the field in the slot.
+     * @param absent  The value to return if the slot holds no price.
+     * @return The field.
+     */
+    private long read(int stockId, int field, long absent) {
+        if (!covers(stockId)) {
+            return absent;
+        }
+        int at = slot(stockId);
+        for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+            long before = (long) LONGS.getAcquire(buffer, at);
+            long value = (long) LONGS.getOpaque(buffer, at + field);
+            // The field must be read before the sequence number is checked again.
+            VarHandle.loadLoadFence();
+            long after = (long) LONGS.getOpaque(buffer, at);
+            if (before == after && (before & 1) == 0) {
+                return before == 0 ? absent : value;
+            }
+            Thread.onSpinWait();
+        }
+        return absent;
+    }
+
+    /**
+     * Makes the sequence number of every slot left odd by a writer that died even again.
+     */
+    private void repair() {
+        for (int stockId = 0; stockId < capacity; stockId++) {
+            int at = slot(stockId);
+            long sequence = (long) LONGS.get(buffer, at);
+            if ((sequence & 1) != 0) {
+                LONGS.setRelease(buffer, at, sequence + 1);
+            }
+        }
+    }
+
+    /**
+     * Gets the offset of a stock's slot.
+     *
+     * @param stockId The ID of the stock.
+     * @return The offset in the file.
+     */
+    private static int slot(int stockId) {
+        return (stockId + 1) * SLOT_SIZE;
+    }
+
+    /**
+     * Checks the header of a mapped board.
+     *
+     * @param buffer The mapped file.
+     * @param path   The file, for the error message.
+     * @throws IOException If the header is not a price board's.
+     */
+    private static void checkHeader(MappedByteBuffer buffer, Path path) throws IOException {
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            throw new IOException("Price board " + path + " is not initialised or has another version");
+        }
+    }
+}
@@ -0,0 +1,237 @@
+package com.portfolio.service.ranking;
+
+import com.portfolio.model.Position;
+
+import java.util.Arrays;
+
+/**
+ * This class keeps the highest-scoring positions offered to it, up to a fixed count, in a
+ * binary min-heap over parallel primitive arrays: the lowest kept score is at the root, so an
+ * offer that does not beat it is rejected after one comparison. Equal scores rank the lower
+ * position ID first, so results do not depend on the order positions are offered in.
+ * <p>
+ * The arrays start small and double up to the count, so a large count costs memory only for
+ * the positions actually kept. Instances are not thread-safe.
+ * @author Gaoussou Thiam
+ * @date 10/19/2026
+ * @see com.portfolio.service.ranking.PositionRanker
+ */
+final class BoundedHeap {
+
+
+    /** The initial capacity of the arrays. */
+    private static final int INITIAL_CAPACITY = 64;
+
+    /** The most positions kept. */
+    private final int limit;
+
+    /** The score of each kept position, in heap order. */
+    private double[] scores;
+
+    /** The ID of each kept position's portfolio, in heap order. */
+    private int[] portfolioIds;
+
+    /** The name of each kept position's portfolio, in heap order. */
+    private String[] portfolioNames;
+
+    /** The kept positions, in heap order. */
+    private Position[] positions;
+
+    /** The number of positions kept. */
+    private int size;
+
+    /**
+     * Constructs an empty heap.
+     *
+     * @param limit The most positions kept.
+     */
+    BoundedHeap(int limit) {
+        this.limit = limit;
+        int capacity = Math.min(limit, INITIAL_CAPACITY);
+        this.scores = new double[capacity];
+        this.portfolioIds = new int[capacity];
+        this.portfolioNames = new String[capacity];
+        this.positions = new Position[capacity];
+    }
+
+    /**
+     * Offers a position, keeping it if it is among the highest scores so far.
+     *
+     * @param score         The position's score.
+     * @param portfolioId   The ID of its portfolio.
+     * @param portfolioName The name of its portfolio.
+     * @param position      The position.
+     */
+    void offer(double score, int portfolioId, String portfolioName, Position position) {
+        if (size < limit) {
+            if (size == scores.length) {
+                int capacity = (int) Math.min(limit, 2L * scores.length);
+                scores = Arrays.copyOf(scores, capacity);
+                portfolioIds = Arrays.copyOf(portfolioIds, capacity);
+                portfolioNames = Arrays.copyOf(portfolioNames, capacity);
+                positions = Arrays.copyOf(positions, capacity);
+            }
+            set(size, score, portfolioId, portfolioName, position);
+            siftUp(size++);
+        } else if (limit > 0 && outranks(score, position.getPositionId(), 0)) {
+            set(0, score, portfolioId, portfolioName, position);
+            siftDown(0);
+        }
+    }
+
+    /**
+     * Gets the number of positions kept.
+     *
+     * @return The size.
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Sorts the kept positions from highest score down, emptying the heap. Afterwards
+     * {@link #score(int)}, {@link #portfolioId(int)}, {@link #portfolioName(int)} and
+     * {@link #position(int)} read them by rank.
+     *
+     * @return The number of ranked positions.
+     */
+    int sort() {
+        int count = size;
+        // Each removed root is the lowest left, so filling from the back leaves the highest first.
+        while (size > 1) {
+            swap(0, --size);
+            siftDown(0);
+        }
+        size = 0;
+        return count;
+    }
+
+    /**
+     * Gets the score at a rank after {@link #sort()}.
+     *
+     * @param rank The rank, from 0.
+     * @return The score.
+     */
+    double score(int rank) {
+        return scores[rank];
+    }
+
+    /**
+     * Gets the portfolio ID at a rank after {@link #sort()}.
+     *
+     * @param rank The rank, from 0.
+     * @return The ID of the portfolio.
+     */
+    int portfolioId(int rank) {
+        return portfolioIds[rank];
+    }
+
+    /**
+     * Gets the portfolio name at a rank after {@link #sort()}.
+     *
+     * @param rank The rank, from 0.
+     * @return The name of the portfolio.
+     */
+    String portfolioName(int rank) {
+        return portfolioNames[rank];
+    }
+
+    /**
+     * Gets the position at a rank after {@link #sort()}.
+     *
+     * @param rank The rank, from 0.
+     * @return The position.
+     */
+    Position position(int rank) {
+        return positions[rank];
+    }
+
+    /**
+     * Checks whether a score ranks above the one in a slot.
+     *
+     * @param score      The score.
+     * @param positionId The position ID, which breaks ties.
+     * @param slot       The slot.
+     * @return True if the score is higher, or equal with a lower position ID.
+     */
+    private boolean outranks(double score, int positionId, int slot) {
+        return score > scores[slot] || score == scores[slot] && positionId < positions[slot].getPositionId();
+    }
+
+    /**
+     * Moves an entry up until its parent does not rank below it.
+     *
+     * @param slot The slot of the entry.
+     */
+    private void siftUp(int slot) {
+        while (slot > 0) {
+            int parent = (slot - 1) >>> 1;
+            if (!outranks(scores[parent], positions[parent].getPositionId(), slot)) {
+                return;
+            }
+            swap(slot, parent);
+            slot = parent;
+        }
+    }
+
+    /**
+     * Moves an entry down until no child ranks below it.
+     *
+     * @param slot The slot of the entry.
+     */
+    private void siftDown(int slot) {
+        while (true) {
+            int lowest = slot;
+            int left = 2 * slot + 1;
+            int right = left + 1;
+            if (left < size && outranks(scores[lowest], positions[lowest].getPositionId(), left)) {
+                lowest = left;
+            }
+            if (right < size && outranks(scores[lowest], positions[lowest].getPositionId(), right)) {
+                lowest = right;
+            }
+            if (lowest == slot) {
+                return;
+            }
+            swap(slot, lowest);
+            slot = lowest;
+        }
+    }
+
+    /**
+     * Writes an entry into a slot.
+     *
+     * @param slot          The slot.
+     * @param score         The score.
+     * @param portfolioId   The portfolio ID.
+     * @param portfolioName The portfolio name.
+     * @param position      The position.
+     */
+    private void set(int slot, double score, int portfolioId, String portfolioName, Position position) {
+        scores[slot] = score;
+        portfolioIds[slot] = portfolioId;
+        portfolioNames[slot] = portfolioName;
+        positions[slot] = position;
+    }
+
+    /**
+     * Swaps two slots.
+     *
+     * @param a The first slot.
+     * @param b The second slot.
+     */
+    private void swap(int a, int b) {
+        double score = scores[a];
+        scores[a] = scores[b];
+        scores[b] = score;
+        int portfolioId = portfolioIds[a];
+        portfolioIds[a] = portfolioIds[b];
+        portfolioIds[b] = portfolioId;
+        String portfolioName = portfolioNames[a];
+        portfolioNames[a] = portfolioNames[b];
+        portfolioNames[b] = portfolioName;
+        Position position = positions[a];
+        positions[a] = positions[b];
+        positions[b] = position;
+    }
+}
@@ -0,0 +1,282 @@
+package com.portfolio.service.ranking;
+
+import com.portfolio.metrics.ValuationEvent;
+import com.portfolio.model.Portfolio;
+import com.portfolio.model.Position;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * This class ranks the positions of many portfolios by a metric and keeps only the top or
+ * bottom few, such as the twenty biggest losers or the ten largest contributors to P&amp;L
+ * across the book.
+ * <p>
+ * The whole book is read in one pass of keyset pages ordered by portfolio and then position,
+ * so each portfolio's positions arrive together and no portfolio costs a query of its own.
+ * Pages are read on a dedicated executor rather than a fork-join pool, since reading them
+ * blocks on the database, and the next page is read while the current one is ranked. The
+ * positions are offered to one {@link BoundedHeap}, so a ranking holds two pages and the kept
+ * positions however many positions the book has.
+ * @author Gaoussou Thiam
+ * @date 10/19/2026
+ * @see com.portfolio.service.ranking.RankedPosition
+ * @see com.portfolio.repository.PortfolioRepository#getAllPositions(int, int, int)
+ * @see com.portfolio.service.PortfolioManager
+ */
+public class PositionRanker {
+
+
+    /**
+     * Enum representing what positions are ranked by.
+     */
+    public enum Metric {
+        /** Unrealized profit or loss. */
+        PNL,
+        /** Percentage return on the purchase price. */
+        RETURN_PERCENT,
+        /** Current market value. */
+        VALUE,
+        /** Percentage of the portfolio's market value, at the prices the positions are ranked at. */
+        WEIGHT
+    }
+
+    /**
+     * Fetches one page of the positions of every portfolio.
+     */
+    @FunctionalInterface
+    public interface PageLoader {
+
+        /**
+         * Fetches the positions after a given position, in ascending order of portfolio ID and
+         * then position ID.
+         *
+         * @param afterPortfolioId The portfolio of the last position of the previous page, or 0.
+         * @param afterPositionId  The last position ID of the previous page, or 0.
+         * @param limit            The maximum number of positions.
+         * @return The portfolios of the page, each with its positions of the page.
+         * @throws SQLException If the positions cannot be read.
+         */
+        List<Portfolio> load(int afterPortfolioId, int afterPositionId, int limit) throws SQLException;
+    }
+
+    /** The executor that reads pages. */
+    private final ExecutorService reader;
+
+    /**
+     * Constructs a PositionRanker that reads pages on its own daemon threads.
+     */
+    public PositionRanker() {
+        this(Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "position-ranker-reader");
+            thread.setDaemon(true);
+            return thread;
+        }));
+    }
+
+    /**
+     * Constructs a PositionRanker that reads pages on the given executor.
+     *
+     * @param reader The executor used to read pages; it may block on I/O.
+     */
+    public PositionRanker(ExecutorService reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * Ranks the positions of every portfolio, reading them from the first page to the last.
+     *
+     * @param loader   Fetches the pages.
+     * @param pageSize The maximum number of positions per page.
+     * @param metric   What to rank by.
+     * @param count    The most positions returned.
+     * @param highest  True for the highest values first, false for the lowest first.
+     * @param sector   The only sector ranked, or null for every sector.
+     * @return The ranked positions, best first; positions whose metric is undefined, such as
+     *         the return of a position bought at no cost, are left out.
+     * @throws SQLException If a page cannot be read.
+     * @throws IllegalArgumentException If the count is negative or the page size is not positive.
+     */
+    public List<RankedPosition> rank(PageLoader loader, int pageSize, Metric metric, int count, boolean highest,
+                                     String sector) throws SQLException {
+        if (count < 0) {
+            throw new IllegalArgumentException("Count must not be negative: " + count);
+        }
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("Page size must be positive: " + pageSize);
+        }
+        ValuationEvent event = new ValuationEvent();
+        event.begin();
+        Scan scan = new Scan(metric, count, highest, sector);
+        Future<List<Portfolio>> next = reader.submit(() -> loader.load(0, 0, pageSize));
+        try {
+            while (next != null) {
+                List<Portfolio> page = await(next);
+                next = null;
+                List<List<Position>> positions = new ArrayList<>(page.size());
+                int size = 0;
+                for (Portfolio portfolio : page) {
+                    List<Position> group = portfolio.getPositions();
+                    positions.add(group);
+                    size += group.size();
+                }
+                // A full page starts the read of the next one before it is ranked.
+                if (size == pageSize) {
+                    int afterPortfolioId = page.get(page.size() - 1).getPortfolioId();
+                    List<Position> last = positions.get(positions.size() - 1);
+                    int afterPositionId = last.get(last.size() - 1).getPositionId();
+                    next = reader.submit(() -> loader.load(afterPortfolioId, afterPositionId, pageSize));
+                }
+                for (int i = 0; i < page.size(); i++) {
+                    scan.add(page.get(i), positions.get(i));
+                }
+            }
+        } finally {
+            if (next != null) {
+                next.cancel(false);
+            }
+        }
+        scan.finish();
+
+        BoundedHeap heap = scan.heap;
+        int ranked = heap.sort();
+        List<RankedPosition> result = new ArrayList<>(ranked);
+        for (int r = 0; r < ranked; r++) {
+            double value = highest ? heap.score(r) : -heap.score(r);
+            result.add(new RankedPosition(r + 1, heap.portfolioId(r), heap.portfolioName(r), heap.position(r),
+                    value));
+        }
+        event.complete("PositionRanker.rank", scan.portfolios, scan.scanned);
+        return result;
+    }
+
+    /**
+     * Waits for a page being read.
+     *
+     * @param page The page.
+     * @return The portfolios of the page.
+     * @throws SQLException If the page cannot be read or the wait is interrupted.
+     */
+    private static List<Portfolio> await(Future<List<Portfolio>> page) throws SQLException {
+        try {
+            return page.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof SQLException cause) {
+                throw cause;
+            }
+            throw new SQLException("Reading positions failed", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while reading positions", e);
+        }
+    }
+
+    /**
+     * The state of one ranking as pages are streamed into it.
+     * <p>
+     * A weight needs the portfolio's total, which is known only once all its positions have
+     * been read at the same prices. Within one portfolio weights rank as values do, so its
+     * positions are first kept by value and offered by weight once the next portfolio starts.
+     */
+    private static final class Scan {
+
+        /** What to rank by. */
+        private final Metric metric;
+
+        /** True to keep the highest values, false the lowest. */
+        private final boolean highest;
+
+        /** The only sector ranked, or null for every sector. */
+        private final String sector;
+
+        /** The ranking. */
+        private final BoundedHeap heap;
+
+        /** The current portfolio's positions by value when ranking by weight, otherwise null. */
+        private final BoundedHeap values;
+
+        /** The ID of the current portfolio, or 0 before the first. */
+        private int portfolioId;
+
+        /** The name of the current portfolio. */
+        private String portfolioName;
+
+        /** The market value of the current portfolio's positions read so far. */
+        private double total;
+
+        /** The number of portfolios read. */
+        private int portfolios;
+
+        /** The number of positions read. */
+        private long scanned;
+
+        /**
+         * Constructs an empty ranking.
+         *
+         * @param metric  What to rank by.
+         * @param count   The most positions kept.
+         * @param highest True to keep the highest values, false the lowest.
+         * @param sector  The only sector ranked, or null for every sector.
+         */
+        Scan(Metric metric, int count, boolean highest, String sector) {
+            this.metric = metric;
+            this.highest = highest;
+            this.sector = sector;
+            this.heap = new BoundedHeap(count);
+            this.values = metric == Metric.WEIGHT ? new BoundedHeap(count) : null;
+        }
+
+        /**
+         * Ranks the positions of one portfolio on a page.
+         *
+         * @param portfolio The portfolio.
+         * @param positions Its positions on the page.
+         */
+        void add(Portfolio portfolio, List<Position> positions) {
+            if (portfolio.getPortfolioId() != portfolioId) {
+                finish();
+                portfolioId = portfolio.getPortfolioId();
+                portfolioName = portfolio.getName();
+                total = 0.0;
+                portfolios++;
+            }
+            BoundedHeap target = metric == Metric.WEIGHT ? values : heap;
+            scanned += positions.size();
+            for (Position position : positions) {
+                total += position.getCurrentValue();
+                if (sector != null && !sector.equals(position.getStock().getSector())) {
+                    continue;
+                }
+                double value = switch (metric) {
+                    case PNL -> position.getUnrealizedPnL();
+                    case RETURN_PERCENT -> position.getReturnPercentage();
+                    case VALUE, WEIGHT -> position.getCurrentValue();
+                };
+                if (Double.isFinite(value)) {
+                    target.offer(highest ? value : -value, portfolioId, portfolioName, position);
+                }
+            }
+        }
+
+        /**
+         * Offers the current portfolio's positions by weight, once all of them have been read.
+         */
+        void finish() {
+            if (values == null) {
+                return;
+            }
+            int kept = values.sort();
+            for (int r = 0; r < kept && total > 0.0; r++) {
+                double weight = (highest ? values.score(r) : -values.score(r)) / total * 100.0;
+                if (Double.isFinite(weight)) {
+                    heap.offer(highest ? weight : -weight, portfolioId, portfolioName, values.position(r));
+                }
+            }
+        }
+    }
+}
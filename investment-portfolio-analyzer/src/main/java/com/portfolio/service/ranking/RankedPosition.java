@@ -0,0 +1,91 @@
+package com.portfolio.service.ranking;
+
+import com.portfolio.model.Position;
+
+/**
+ * This class holds one position of a ranking with its portfolio and the value it was ranked by.
+ * @author Gaoussou Thiam
+ * @date 10/19/2026
+ * @see com.portfolio.service.ranking.PositionRanker
+ */
+public class RankedPosition {
+
+
+    /** The rank, from 1. */
+    private final int rank;
+
+    /** Identifier of the position's portfolio. */
+    private final int portfolioId;
+
+    /** Name of the position's portfolio. */
+    private final String portfolioName;
+
+    /** The position. */
+    private final Position position;
+
+    /** The value of the ranking metric. */
+    private final double value;
+
+    /**
+     * Constructs a new RankedPosition.
+     *
+     * @param rank          The rank, from 1.
+     * @param portfolioId   The portfolio identifier.
+     * @param portfolioName The portfolio name.
+     * @param position      The position.
+     * @param value         The value of the ranking metric.
+     */
+    RankedPosition(int rank, int portfolioId, String portfolioName, Position position, double value) {
+        this.rank = rank;
+        this.portfolioId = portfolioId;
+        this.portfolioName = portfolioName;
+        this.position = position;
+        this.value = value;
+    }
+
+    /**
+     * Gets the rank.
+     *
+     * @return The rank, 1 for the first.
+     */
+    public int getRank() { return rank; }
+
+    /**
+     * Gets the portfolio ID.
+     *
+     * @return The identifier of the position's portfolio.
+     */
+    public int getPortfolioId() { return portfolioId; }
+
+    /**
+     * Gets the portfolio name.
+     *
+     * @return The name of the position's portfolio.
+     */
+    public String getPortfolioName() { return portfolioName; }
+
+    /**
+     * Gets the position.
+     *
+     * @return The position, priced as it was ranked.
+     */
+    public Position getPosition() { return position; }
+
+    /**
+     * Gets the value the position was ranked by.
+     *
+     * @return The value of the ranking metric.
+     */
+    public double getValue() { return value; }
+
+    /**
+     * Returns a string representation of the ranked position.
+     *
+     * @return A formatted string containing the rank, portfolio, position and value.
+     */
+    @Override
+    public String toString() {
+        return String.format("%d. %s in %s (%d): %.2f", rank, position.getStock().getSymbol(), portfolioName,
+                portfolioId, value);
+    }
+}
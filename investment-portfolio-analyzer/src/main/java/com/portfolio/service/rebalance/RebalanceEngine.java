@@ -0,0 +1,280 @@
+package com.portfolio.service.rebalance;
+
+import com.portfolio.model.Portfolio;
+import com.portfolio.model.Position;
+import com.portfolio.model.Stock;
+import com.portfolio.model.Transaction;
+import com.portfolio.util.RangeAction;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * This class computes the trades needed to bring portfolios back to their target allocations.
+ * Only holdings whose weight has drifted outside the tolerated band are traded, and each is
+ * traded straight back to its target, so the proposal is the smallest set of orders that puts
+ * every breached symbol or sector back on target. Portfolios are processed in parallel on a
+ * fork-join pool and the resulting orders are returned as a single batch of transactions.
+ * @author Gaoussou Thiam
+ * @date 10/19/2026
+ * @see com.portfolio.service.rebalance.TargetAllocation
+ * @see com.portfolio.model.Transaction
+ */
+public class RebalanceEngine {
+
+
+    /** The stock master used to price symbols that are targeted but not yet held. */
+    private final Map<String, Stock> stockMaster;
+
+    /** Stocks of the stock master grouped by sector, used to enter sectors with no holdings. */
+    private final Map<String, List<Stock>> stocksBySector;
+
+    /** Orders with a smaller absolute value than this are dropped. */
+    private final double minTradeValue;
+
+    /** Whether order quantities are truncated to whole shares. */
+    private final boolean wholeShares;
+
+    /** The pool that runs the per-portfolio computations. */
+    private final ForkJoinPool pool;
+
+    /**
+     * Constructs a RebalanceEngine that allows fractional shares and any trade size.
+     *
+     * @param stockMaster The stocks that may be bought, keyed by symbol.
+     */
+    public RebalanceEngine(Map<String, Stock> stockMaster) {
+        this(stockMaster, 0.0, false, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructs a RebalanceEngine.
+     *
+     * @param stockMaster   The stocks that may be bought, keyed by symbol.
+     * @param minTradeValue The smallest order value worth sending.
+     * @param wholeShares   Whether quantities are truncated to whole shares.
+     * @param pool          The pool used to process portfolios in parallel.
+     */
+    public RebalanceEngine(Map<String, Stock> stockMaster, double minTradeValue, boolean wholeShares,
+                           ForkJoinPool pool) {
+        this.stockMaster = Map.copyOf(stockMaster);
+        this.stocksBySector = new HashMap<>();
+        for (Stock stock : this.stockMaster.values()) {
+            stocksBySector.computeIfAbsent(stock.getSector(), s -> new ArrayList<>()).add(stock);
+        }
+        this.minTradeValue = minTradeValue;
+        this.wholeShares = wholeShares;
+        this.pool = pool;
+    }
+
+    /**
+     * Proposes trades for every portfolio against the same target allocation.
+     *
+     * @param portfolios The portfolios to rebalance.
+     * @param target     The target allocation applied to all of them.
+     * @return The proposed transactions, grouped by portfolio in input order.
+     */
+    public List<Transaction> propose(List<Portfolio> portfolios, TargetAllocation target) {
+        Map<Integer, TargetAllocation> targets = new HashMap<>();
+        for (Portfolio portfolio : portfolios) {
+            targets.put(portfolio.getPortfolioId(), target);
+        }
+        return propose(portfolios, targets);
+    }
+
+    /**
+     * Proposes trades for every portfolio against its own target allocation. Portfolios with
+     * no entry in the targets map are left untouched.
+     *
+     * @param portfolios The portfolios to rebalance.
+     * @param targets    The target allocation per portfolio ID.
+     * @return The proposed transactions, grouped by portfolio in input order.
+     */
+    public List<Transaction> propose(List<Portfolio> portfolios, Map<Integer, TargetAllocation> targets) {
+        // Presized so each task only sets its own slot, which is safe without locking
+        List<List<Transaction>> orders = new ArrayList<>(Collections.nCopies(portfolios.size(), List.of()));
+        pool.invoke(new RangeAction(0, portfolios.size(), 8, i -> {
+            Portfolio portfolio = portfolios.get(i);
+            TargetAllocation target = targets.get(portfolio.getPortfolioId());
+            if (target != null) {
+                orders.set(i, propose(portfolio, target));
+            }
+        }));
+
+        int total = 0;
+        for (List<Transaction> list : orders) {
+            total += list.size();
+        }
+        List<Transaction> batch = new ArrayList<>(total);
+        for (List<Transaction> list : orders) {
+            batch.addAll(list);
+        }
+        return batch;
+    }
+
+    /**
+     * Proposes trades for a single portfolio. Sells are listed before buys.
+     *
+     * @param portfolio The portfolio to rebalance.
+     * @param target    The target allocation.
+     * @return The proposed transactions.
+     */
+    public List<Transaction> propose(Portfolio portfolio, TargetAllocation target) {
+        Map<String, Holding> holdings = new LinkedHashMap<>();
+        double totalValue = 0.0;
+        for (Position position : portfolio.getPositions()) {
+            Stock stock = position.getStock();
+            Holding holding = holdings.computeIfAbsent(stock.getSymbol(), s -> new Holding(stock));
+            holding.quantity += position.getQuantity();
+            holding.value += position.getCurrentValue();
+            totalValue += position.getCurrentValue();
+        }
+        if (totalValue <= 0.0) {
+            return List.of();
+        }
+
+        Map<Stock, Double> deltas = target.getBasis() == TargetAllocation.Basis.SYMBOL
+                ? symbolDeltas(holdings, target, totalValue)
+                : sectorDeltas(holdings, target, totalValue);
+
+        List<Transaction> sells = new ArrayList<>();
+        List<Transaction> buys = new ArrayList<>();
+        for (Map.Entry<Stock, Double> entry : deltas.entrySet()) {
+            Stock stock = entry.getKey();
+            double delta = entry.getValue();
+            double price = stock.getCurrentPrice();
+            if (Math.abs(delta) < minTradeValue || price <= 0.0) {
+                continue;
+            }
+            double quantity = Math.abs(delta) / price;
+            if (delta < 0.0) {
+                Holding holding = holdings.get(stock.getSymbol());
+                quantity = Math.min(quantity, holding == null ? 0.0 : holding.quantity);
+            }
+            if (wholeShares) {
+                quantity = Math.floor(quantity);
+            }
+            if (quantity <= 0.0) {
+                continue;
+            }
+            if (delta < 0.0) {
+                sells.add(new Transaction(portfolio.getPortfolioId(), stock, Transaction.TransactionType.SELL,
+                        quantity, price));
+            } else {
+                buys.add(new Transaction(portfolio.getPortfolioId(), stock, Transaction.TransactionType.BUY,
+                        quantity, price));
+            }
+        }
+        sells.addAll(buys);
+        return sells;
+    }
+
+    /**
+     * Computes the value to trade per stock for a symbol-level target.
+     *
+     * @param holdings   The current holdings by symbol.
+     * @param target     The target allocation.
+     * @param totalValue The portfolio's market value.
+     * @return The signed value to trade per stock.
+     */
+    private Map<Stock, Double> symbolDeltas(Map<String, Holding> holdings, TargetAllocation target,
+                                            double totalValue) {
+        Set<String> symbols = new LinkedHashSet<>(holdings.keySet());
+        symbols.addAll(target.getWeights().keySet());
+
+        Map<Stock, Double> deltas = new LinkedHashMap<>();
+        for (String symbol : symbols) {
+            Holding holding = holdings.get(symbol);
+            double value = holding == null ? 0.0 : holding.value;
+            double weight = target.getWeight(symbol);
+            if (Math.abs(value / totalValue - weight) <= target.getDriftThreshold()) {
+                continue;
+            }
+            Stock stock = holding != null ? holding.stock : stockMaster.get(symbol);
+            if (stock == null) {
+                throw new IllegalArgumentException("No stock master entry to buy target symbol " + symbol);
+            }
+            deltas.put(stock, weight * totalValue - value);
+        }
+        return deltas;
+    }
+
+    /**
+     * Computes the value to trade per stock for a sector-level target. A breached sector is
+     * scaled pro rata across its existing holdings; a sector with no holdings is entered
+     * equally across the stock master's stocks in that sector.
+     *
+     * @param holdings   The current holdings by symbol.
+     * @param target     The target allocation.
+     * @param totalValue The portfolio's market value.
+     * @return The signed value to trade per stock.
+     */
+    private Map<Stock, Double> sectorDeltas(Map<String, Holding> holdings, TargetAllocation target,
+                                            double totalValue) {
+        Map<String, List<Holding>> bySector = new LinkedHashMap<>();
+        Map<String, Double> sectorValues = new HashMap<>();
+        for (Holding holding : holdings.values()) {
+            String sector = holding.stock.getSector();
+            bySector.computeIfAbsent(sector, s -> new ArrayList<>()).add(holding);
+            sectorValues.merge(sector, holding.value, Double::sum);
+        }
+        Set<String> sectors = new LinkedHashSet<>(bySector.keySet());
+        sectors.addAll(target.getWeights().keySet());
+
+        Map<Stock, Double> deltas = new LinkedHashMap<>();
+        for (String sector : sectors) {
+            double value = sectorValues.getOrDefault(sector, 0.0);
+            // Holdings without a sector have no target, so they are sold down
+            double weight = sector == null ? 0.0 : target.getWeight(sector);
+            if (Math.abs(value / totalValue - weight) <= target.getDriftThreshold()) {
+                continue;
+            }
+            double sectorDelta = weight * totalValue - value;
+            if (value > 0.0) {
+                for (Holding holding : bySector.get(sector)) {
+                    deltas.merge(holding.stock, sectorDelta * holding.value / value, Double::sum);
+                }
+            } else {
+                List<Stock> candidates = stocksBySector.get(sector);
+                if (candidates == null || candidates.isEmpty()) {
+                    throw new IllegalArgumentException("No stock master entry to buy target sector " + sector);
+                }
+                for (Stock stock : candidates) {
+                    deltas.merge(stock, sectorDelta / candidates.size(), Double::sum);
+                }
+            }
+        }
+        return deltas;
+    }
+
+    /**
+     * Aggregated quantity and value of one symbol across a portfolio's lots.
+     */
+    private static final class Holding {
+
+        /** The stock held. */
+        final Stock stock;
+
+        /** Total quantity held across lots. */
+        double quantity;
+
+        /** Total market value across lots. */
+        double value;
+
+        /**
+         * Constructs an empty holding.
+         *
+         * @param stock The stock held.
+         */
+        Holding(Stock stock) {
+            this.stock = stock;
+        }
+    }
+}
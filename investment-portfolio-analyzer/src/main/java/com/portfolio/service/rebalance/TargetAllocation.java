@@ -0,0 +1,125 @@
+package com.portfolio.service.rebalance;
+
+import java.util.Map;
+
+/**
+ * This class describes the target weights a portfolio should be rebalanced towards, either per
+ * symbol or per sector, together with the drift band inside which no trade is generated.
+ * Weights are fractions of the portfolio's market value; any weight left unassigned is treated
+ * as cash and never bought.
+ * @author Gaoussou Thiam
+ * @date 10/19/2026
+ * @see com.portfolio.service.rebalance.RebalanceEngine
+ */
+public class TargetAllocation {
+
+
+    /**
+     * Enum representing what the target weights are keyed by.
+     */
+    public enum Basis {
+        SYMBOL, SECTOR
+    }
+
+    /** Tolerance used when checking that weights do not exceed 100%. */
+    private static final double WEIGHT_TOLERANCE = 1e-9;
+
+    /** Whether the weights are keyed by symbol or by sector. */
+    private final Basis basis;
+
+    /** Target weight per symbol or sector. */
+    private final Map<String, Double> weights;
+
+    /** Absolute weight drift tolerated before a holding is traded back to target. */
+    private final double driftThreshold;
+
+    /**
+     * Constructs a new TargetAllocation.
+     *
+     * @param basis          Whether weights are keyed by symbol or sector.
+     * @param weights        The target weight per key, as fractions between 0 and 1.
+     * @param driftThreshold The absolute drift tolerated, for example 0.02 for two percentage points.
+     * @throws IllegalArgumentException If a weight is negative or the weights sum to more than 1.
+     */
+    public TargetAllocation(Basis basis, Map<String, Double> weights, double driftThreshold) {
+        double total = 0.0;
+        for (Map.Entry<String, Double> entry : weights.entrySet()) {
+            if (entry.getValue() < 0.0) {
+                throw new IllegalArgumentException("Negative target weight for " + entry.getKey());
+            }
+            total += entry.getValue();
+        }
+        if (total > 1.0 + WEIGHT_TOLERANCE) {
+            throw new IllegalArgumentException("Target weights sum to " + total + ", more than 100%");
+        }
+        if (driftThreshold < 0.0) {
+            throw new IllegalArgumentException("Drift threshold must not be negative");
+        }
+        this.basis = basis;
+        this.weights = Map.copyOf(weights);
+        this.driftThreshold = driftThreshold;
+    }
+
+    /**
+     * Creates a symbol-level target allocation.
+     *
+     * @param weights        The target weight per symbol.
+     * @param driftThreshold The absolute drift tolerated.
+     * @return The target allocation.
+     */
+    public static TargetAllocation bySymbol(Map<String, Double> weights, double driftThreshold) {
+        return new TargetAllocation(Basis.SYMBOL, weights, driftThreshold);
+    }
+
+    /**
+     * Creates a sector-level target allocation.
+     *
+     * @param weights        The target weight per sector.
+     * @param driftThreshold The absolute drift tolerated.
+     * @return The target allocation.
+     */
+    public static TargetAllocation bySector(Map<String, Double> weights, double driftThreshold) {
+        return new TargetAllocation(Basis.SECTOR, weights, driftThreshold);
+    }
+
+    /**
+     * Gets the basis of the weights.
+     *
+     * @return Whether weights are keyed by symbol or sector.
+     */
+    public Basis getBasis() { return basis; }
+
+    /**
+     * Gets the target weights.
+     *
+     * @return An unmodifiable map of key to weight.
+     */
+    public Map<String, Double> getWeights() { return weights; }
+
+    /**
+     * Gets the target weight of a key, or zero if it has none.
+     *
+     * @param key The symbol or sector.
+     * @return The target weight.
+     */
+    public double getWeight(String key) { return weights.getOrDefault(key, 0.0); }
+
+    /**
+     * Gets the drift threshold.
+     *
+     * @return The absolute drift tolerated.
+     */
+    public double getDriftThreshold() { return driftThreshold; }
+
+
+    /**
+     * Returns a string representation of the target allocation.
+     *
+     * @return A formatted string containing the allocation details.
+     */
+    @Override
+    public String toString() {
+        return String.format("TargetAllocation[basis=%s, targets=%d, drift=%.4f]",
+                basis, weights.size(), driftThreshold);
+    }
+}
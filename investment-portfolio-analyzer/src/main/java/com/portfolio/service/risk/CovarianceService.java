@@ -0,0 +1,295 @@
+package com.portfolio.service.risk;
+
+import com.portfolio.model.Stock;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This class maintains a symbol covariance matrix that is updated incrementally as prices arrive,
+ * instead of being recomputed from the full price history.
+ * <p>
+ * Prices are staged with {@link #onPrice(String, double)} and folded into the estimate once per
+ * bar by {@link #roll()}, which costs O(N^2) regardless of how much history has been seen. The
+ * matrix is kept as a packed lower triangle, so registering a new symbol only appends a row.
+ * Each roll publishes an immutable {@link CovarianceSnapshot} that any number of readers can
+ * use concurrently while the next bar is being accumulated.
+ * @author Gaoussou Thiam
+ * @date 10/19/2026
+ * @see com.portfolio.service.risk.CovarianceSnapshot
+ * @see com.portfolio.model.Stock
+ */
+public class CovarianceService {
+
+
+    /**
+     * Enum representing the estimator used to weight observations.
+     */
+    public enum Estimator {
+        /** Equally weighted sample covariance using Welford's online algorithm. */
+        WELFORD,
+        /** Exponentially weighted covariance with zero-mean returns (RiskMetrics style). */
+        EWMA
+    }
+
+    /** The RiskMetrics decay factor for daily returns. */
+    public static final double DEFAULT_LAMBDA = 0.94;
+
+    /** Initial number of symbols the arrays are sized for. */
+    private static final int INITIAL_CAPACITY = 64;
+
+    /** The estimator in use. */
+    private final Estimator estimator;
+
+    /** The EWMA decay factor; unused by the Welford estimator. */
+    private final double lambda;
+
+    /** Symbols in index order. */
+    private final List<String> symbols = new ArrayList<>();
+
+    /** Lookup from symbol to index. */
+    private final Map<String, Integer> symbolIndex = new HashMap<>();
+
+    /** Latest price staged for each symbol in the current bar. */
+    private double[] latest = new double[INITIAL_CAPACITY];
+
+    /** Price of each symbol at the close of the previous bar, or 0 if none yet. */
+    private double[] previous = new double[INITIAL_CAPACITY];
+
+    /** Running mean return per symbol (Welford only). */
+    private double[] means = new double[INITIAL_CAPACITY];
+
+    /** Packed lower triangle of co-moments (Welford) or covariances (EWMA). */
+    private double[] packed = new double[packedSize(INITIAL_CAPACITY)];
+
+    /** Scratch buffer for the returns of the current bar. */
+    private double[] returns = new double[INITIAL_CAPACITY];
+
+    /** Scratch buffer for the deviations from the updated means (Welford only). */
+    private double[] deviations = new double[INITIAL_CAPACITY];
+
+    /** The number of bars folded into the estimate. */
+    private long observations;
+
+    /** The most recently published snapshot. */
+    private volatile CovarianceSnapshot snapshot = new CovarianceSnapshot(List.of(), Map.of(), new double[0], 0);
+
+    /**
+     * Constructs a CovarianceService using the given estimator.
+     *
+     * @param estimator The estimator to use.
+     * @param lambda    The EWMA decay factor in (0, 1); ignored for Welford.
+     */
+    public CovarianceService(Estimator estimator, double lambda) {
+        if (estimator == Estimator.EWMA && !(lambda > 0.0 && lambda < 1.0)) {
+            throw new IllegalArgumentException("EWMA decay factor must be between 0 and 1 exclusive");
+        }
+        this.estimator = estimator;
+        this.lambda = lambda;
+    }
+
+    /**
+     * Creates a service with an equally weighted estimator.
+     *
+     * @return A new Welford-based service.
+     */
+    public static CovarianceService welford() {
+        return new CovarianceService(Estimator.WELFORD, 0.0);
+    }
+
+    /**
+     * Creates a service with an exponentially weighted estimator.
+     *
+     * @param lambda The decay factor in (0, 1).
+     * @return A new EWMA-based service.
+     */
+    public static CovarianceService ewma(double lambda) {
+        return new CovarianceService(Estimator.EWMA, lambda);
+    }
+
+    /**
+     * Registers a symbol so it is tracked from the next bar on. Registering an already
+     * tracked symbol is a no-op. The Welford estimator needs a fixed universe once data has
+     * been folded in, because pairwise co-moments assume a common sample.
+     *
+     * @param symbol The symbol to track.
+     * @return The index of the symbol.
+     * @throws IllegalStateException If a new symbol is added to a Welford estimate with data.
+     */
+    public synchronized int register(String symbol) {
+        Integer existing = symbolIndex.get(symbol);
+        if (existing != null) {
+            return existing;
+        }
+        if (estimator == Estimator.WELFORD && observations > 0) {
+            throw new IllegalStateException("Cannot add " + symbol + " to an equally weighted estimate in progress");
+        }
+        int index = symbols.size();
+        ensureCapacity(index + 1);
+        symbols.add(symbol);
+        symbolIndex.put(symbol, index);
+        return index;
+    }
+
+    /**
+     * Stages the latest price of a symbol for the current bar, registering it if needed.
+     *
+     * @param symbol The symbol.
+     * @param price  The latest traded price.
+     */
+    public synchronized void onPrice(String symbol, double price) {
+        if (!(price > 0.0)) {
+            throw new IllegalArgumentException("Price must be positive for " + symbol);
+        }
+        latest[register(symbol)] = price;
+    }
+
+    /**
+     * Stages the current price of a stock for the current bar.
+     *
+     * @param stock The stock whose current price is observed.
+     */
+    public void onPrice(Stock stock) {
+        onPrice(stock.getSymbol(), stock.getCurrentPrice());
+    }
+
+    /**
+     * Closes the current bar: computes each symbol's log return since the previous bar, folds
+     * the returns into the estimate and publishes a new snapshot. Symbols with no new price
+     * contribute a zero return; symbols seen for the first time only set their base price.
+     *
+     * @return The newly published snapshot.
+     */
+    public synchronized CovarianceSnapshot roll() {
+        int n = symbols.size();
+        boolean anyReturn = false;
+        for (int i = 0; i < n; i++) {
+            double base = previous[i];
+            double price = latest[i];
+            returns[i] = base > 0.0 && price > 0.0 ? Math.log(price / base) : 0.0;
+            anyReturn |= base > 0.0;
+            if (price > 0.0) {
+                previous[i] = price;
+            }
+        }
+        if (anyReturn) {
+            if (estimator == Estimator.EWMA) {
+                updateEwma(n);
+            } else {
+                updateWelford(n);
+            }
+            observations++;
+        }
+        snapshot = publish(n);
+        return snapshot;
+    }
+
+    /**
+     * Gets the most recently published snapshot without blocking writers.
+     *
+     * @return The current snapshot.
+     */
+    public CovarianceSnapshot snapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Gets the estimator in use.
+     *
+     * @return The estimator.
+     */
+    public Estimator getEstimator() { return estimator; }
+
+    /**
+     * Applies one exponentially weighted update: C = lambda * C + (1 - lambda) * r * r^T.
+     *
+     * @param n The number of tracked symbols.
+     */
+    private void updateEwma(int n) {
+        double weight = 1.0 - lambda;
+        if (observations == 0) {
+            // Seed with the first outer product so early estimates are not biased to zero.
+            weight = 1.0;
+        }
+        double decay = 1.0 - weight;
+        for (int i = 0; i < n; i++) {
+            double ri = returns[i] * weight;
+            int row = CovarianceSnapshot.offset(i, 0);
+            for (int j = 0; j <= i; j++) {
+                packed[row + j] = decay * packed[row + j] + ri * returns[j];
+            }
+        }
+    }
+
+    /**
+     * Applies one Welford update to the means and co-moments.
+     *
+     * @param n The number of tracked symbols.
+     */
+    private void updateWelford(int n) {
+        long count = observations + 1;
+        for (int i = 0; i < n; i++) {
+            double before = returns[i] - means[i];
+            means[i] += before / count;
+            deviations[i] = returns[i] - means[i];
+            returns[i] = before;
+        }
+        for (int i = 0; i < n; i++) {
+            double di = returns[i];
+            int row = CovarianceSnapshot.offset(i, 0);
+            for (int j = 0; j <= i; j++) {
+                packed[row + j] += di * deviations[j];
+            }
+        }
+    }
+
+    /**
+     * Builds an immutable snapshot of the current estimate.
+     *
+     * @param n The number of tracked symbols.
+     * @return The snapshot.
+     */
+    private CovarianceSnapshot publish(int n) {
+        int size = packedSize(n);
+        double[] copy = Arrays.copyOf(packed, size);
+        if (estimator == Estimator.WELFORD) {
+            double scale = observations > 1 ? 1.0 / (observations - 1) : 0.0;
+            for (int k = 0; k < size; k++) {
+                copy[k] *= scale;
+            }
+        }
+        return new CovarianceSnapshot(List.copyOf(symbols), Map.copyOf(symbolIndex), copy, observations);
+    }
+
+    /**
+     * Grows the per-symbol arrays and the packed matrix to hold at least the given number of symbols.
+     *
+     * @param required The number of symbols to accommodate.
+     */
+    private void ensureCapacity(int required) {
+        int capacity = latest.length;
+        if (required <= capacity) {
+            return;
+        }
+        int grown = Math.max(required, capacity + (capacity >> 1));
+        latest = Arrays.copyOf(latest, grown);
+        previous = Arrays.copyOf(previous, grown);
+        means = Arrays.copyOf(means, grown);
+        returns = Arrays.copyOf(returns, grown);
+        deviations = Arrays.copyOf(deviations, grown);
+        packed = Arrays.copyOf(packed, packedSize(grown));
+    }
+
+    /**
+     * Computes the length of a packed lower triangle.
+     *
+     * @param n The matrix dimension.
+     * @return The number of stored elements.
+     */
+    private static int packedSize(int n) {
+        return Math.toIntExact((long) n * (n + 1) / 2);
+    }
+}
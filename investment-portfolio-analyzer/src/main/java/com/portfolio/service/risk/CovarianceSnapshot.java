@@ -0,0 +1,176 @@
+package com.portfolio.service.risk;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This class is an immutable, point-in-time view of a symbol covariance matrix published by
+ * {@link CovarianceService}. The lower triangle is stored packed by rows in a single primitive
+ * array, so any pairwise lookup is a constant-time index computation.
+ * @author Gaoussou Thiam
+ * @date 10/19/2026
+ * @see com.portfolio.service.risk.CovarianceService
+ */
+public final class CovarianceSnapshot {
+
+
+    /** The symbols covered by the snapshot, in index order. */
+    private final List<String> symbols;
+
+    /** Lookup from symbol to its index. */
+    private final Map<String, Integer> symbolIndex;
+
+    /** Packed lower triangle of the covariance matrix, row by row. */
+    private final double[] packed;
+
+    /** The number of return observations folded into the estimate. */
+    private final long observations;
+
+    /**
+     * Constructs a new CovarianceSnapshot. The packed array is owned by the snapshot and must
+     * not be modified afterwards.
+     *
+     * @param symbols      The symbols in index order.
+     * @param symbolIndex  The lookup from symbol to index.
+     * @param packed       The packed lower triangle.
+     * @param observations The number of observations in the estimate.
+     */
+    CovarianceSnapshot(List<String> symbols, Map<String, Integer> symbolIndex, double[] packed, long observations) {
+        this.symbols = symbols;
+        this.symbolIndex = symbolIndex;
+        this.packed = packed;
+        this.observations = observations;
+    }
+
+    /**
+     * Computes the position of element (i, j) in a packed lower triangle.
+     *
+     * @param i The row index.
+     * @param j The column index.
+     * @return The offset into the packed array.
+     */
+    static int offset(int i, int j) {
+        return i >= j ? (int) ((long) i * (i + 1) / 2) + j : (int) ((long) j * (j + 1) / 2) + i;
+    }
+
+    /**
+     * Gets the covariance between two symbol indices.
+     *
+     * @param i The first symbol index.
+     * @param j The second symbol index.
+     * @return The covariance of their returns.
+     */
+    public double covariance(int i, int j) {
+        return packed[offset(i, j)];
+    }
+
+    /**
+     * Gets the covariance between two symbols.
+     *
+     * @param first  The first symbol.
+     * @param second The second symbol.
+     * @return The covariance of their returns.
+     * @throws IllegalArgumentException If either symbol is unknown.
+     */
+    public double covariance(String first, String second) {
+        return covariance(indexOf(first), indexOf(second));
+    }
+
+    /**
+     * Gets the variance of a symbol's returns.
+     *
+     * @param symbol The symbol.
+     * @return The variance of its returns.
+     */
+    public double variance(String symbol) {
+        int i = indexOf(symbol);
+        return covariance(i, i);
+    }
+
+    /**
+     * Gets the correlation between two symbol indices.
+     *
+     * @param i The first symbol index.
+     * @param j The second symbol index.
+     * @return The correlation of their returns, or 0 if either has no variance.
+     */
+    public double correlation(int i, int j) {
+        double denominator = Math.sqrt(covariance(i, i) * covariance(j, j));
+        return denominator > 0.0 ? covariance(i, j) / denominator : 0.0;
+    }
+
+    /**
+     * Gets the correlation between two symbols.
+     *
+     * @param first  The first symbol.
+     * @param second The second symbol.
+     * @return The correlation of their returns, or 0 if either has no variance.
+     */
+    public double correlation(String first, String second) {
+        return correlation(indexOf(first), indexOf(second));
+    }
+
+    /**
+     * Expands the covariance of a subset of symbols into a dense square matrix, in the
+     * order given. This is the shape expected by {@link ValueAtRiskEngine}.
+     *
+     * @param subset The symbols to include.
+     * @return The dense covariance matrix of the subset.
+     */
+    public double[][] toMatrix(List<String> subset) {
+        int n = subset.size();
+        int[] index = new int[n];
+        for (int i = 0; i < n; i++) {
+            index[i] = indexOf(subset.get(i));
+        }
+        double[][] matrix = new double[n][n];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j <= i; j++) {
+                double value = covariance(index[i], index[j]);
+                matrix[i][j] = value;
+                matrix[j][i] = value;
+            }
+        }
+        return matrix;
+    }
+
+    /**
+     * Gets the index of a symbol.
+     *
+     * @param symbol The symbol.
+     * @return Its index in the snapshot.
+     * @throws IllegalArgumentException If the symbol is unknown.
+     */
+    public int indexOf(String symbol) {
+        Integer index = symbolIndex.get(symbol);
+        if (index == null) {
+            throw new IllegalArgumentException("Symbol not tracked: " + symbol);
+        }
+        return index;
+    }
+
+    /**
+     * Gets the symbols covered by the snapshot.
+     *
+     * @return The symbols in index order.
+     */
+    public List<String> getSymbols() { return symbols; }
+
+    /**
+     * Gets the number of return observations in the estimate.
+     *
+     * @return The observation count.
+     */
+    public long getObservations() { return observations; }
+
+
+    /**
+     * Returns a string representation of the snapshot.
+     *
+     * @return A formatted string containing the snapshot size.
+     */
+    @Override
+    public String toString() {
+        return String.format("CovarianceSnapshot[symbols=%d, observations=%d]", symbols.size(), observations);
+    }
+}
@@ -0,0 +1,116 @@
+package com.portfolio.service.risk;
+
+/**
+ * This class holds the Value-at-Risk and Expected Shortfall computed for a single portfolio.
+ * Losses are reported as positive amounts in the portfolio's currency.
+ * @author Gaoussou Thiam
+ * @date 10/19/2026
+ * @see com.portfolio.service.risk.ValueAtRiskEngine
+ */
+public class RiskMeasure {
+
+
+    /** Identifier of the portfolio the measure was computed for. */
+    private final int portfolioId;
+
+    /** The simulation method that produced the scenarios. */
+    private final ValueAtRiskEngine.Method method;
+
+    /** The confidence level, for example 0.99. */
+    private final double confidence;
+
+    /** The number of scenarios evaluated. */
+    private final int scenarios;
+
+    /** The market value of the portfolio at the time of the calculation. */
+    private final double portfolioValue;
+
+    /** The loss not exceeded with the given confidence. */
+    private final double valueAtRisk;
+
+    /** The average loss in the scenarios at or beyond the Value-at-Risk. */
+    private final double expectedShortfall;
+
+    /**
+     * Constructs a new RiskMeasure.
+     *
+     * @param portfolioId       The portfolio identifier.
+     * @param method            The simulation method used.
+     * @param confidence        The confidence level.
+     * @param scenarios         The number of scenarios evaluated.
+     * @param portfolioValue    The current market value of the portfolio.
+     * @param valueAtRisk       The Value-at-Risk as a positive loss.
+     * @param expectedShortfall The Expected Shortfall as a positive loss.
+     */
+    public RiskMeasure(int portfolioId, ValueAtRiskEngine.Method method, double confidence, int scenarios,
+                       double portfolioValue, double valueAtRisk, double expectedShortfall) {
+        this.portfolioId = portfolioId;
+        this.method = method;
+        this.confidence = confidence;
+        this.scenarios = scenarios;
+        this.portfolioValue = portfolioValue;
+        this.valueAtRisk = valueAtRisk;
+        this.expectedShortfall = expectedShortfall;
+    }
+
+    /**
+     * Gets the portfolio ID.
+     *
+     * @return The portfolio identifier.
+     */
+    public int getPortfolioId() { return portfolioId; }
+
+    /**
+     * Gets the simulation method.
+     *
+     * @return The method used to generate the scenarios.
+     */
+    public ValueAtRiskEngine.Method getMethod() { return method; }
+
+    /**
+     * Gets the confidence level.
+     *
+     * @return The confidence level.
+     */
+    public double getConfidence() { return confidence; }
+
+    /**
+     * Gets the number of scenarios evaluated.
+     *
+     * @return The scenario count.
+     */
+    public int getScenarios() { return scenarios; }
+
+    /**
+     * Gets the portfolio value used as the base of the calculation.
+     *
+     * @return The portfolio market value.
+     */
+    public double getPortfolioValue() { return portfolioValue; }
+
+    /**
+     * Gets the Value-at-Risk.
+     *
+     * @return The Value-at-Risk as a positive loss.
+     */
+    public double getValueAtRisk() { return valueAtRisk; }
+
+    /**
+     * Gets the Expected Shortfall.
+     *
+     * @return The Expected Shortfall as a positive loss.
+     */
+    public double getExpectedShortfall() { return expectedShortfall; }
+
+
+    /**
+     * Returns a string representation of the risk measure.
+     *
+     * @return A formatted string containing the risk figures.
+     */
+    @Override
+    public String toString() {
+        return String.format("RiskMeasure[portfolio=%d, method=%s, confidence=%.4f, VaR=%.2f, ES=%.2f]",
+                portfolioId, method, confidence, valueAtRisk, expectedShortfall);
+    }
+}
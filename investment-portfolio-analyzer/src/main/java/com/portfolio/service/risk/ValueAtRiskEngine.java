@@ -0,0 +1,470 @@
+package com.portfolio.service.risk;
+
+import com.portfolio.metrics.ValuationEvent;
+import com.portfolio.model.Portfolio;
+import com.portfolio.model.Position;
+import com.portfolio.util.LinearAlgebra;
+import com.portfolio.util.RangeAction;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * This class computes Value-at-Risk and Expected Shortfall for a book of portfolios using
+ * either historical simulation or Monte Carlo simulation with correlated normal draws.
+ * <p>
+ * Work is split on a fork-join pool across a grid of portfolio batches and scenario blocks.
+ * Scenario losses are written to primitive buffers that are reused between waves of
+ * portfolios, and every Monte Carlo scenario block draws from its own {@link SplittableRandom}
+ * seeded from the block index, so results are identical for a given seed regardless of
+ * how many threads take part.
+ * @author Gaoussou Thiam
+ * @date 10/19/2026
+ * @see com.portfolio.service.risk.RiskMeasure
+ * @see com.portfolio.model.Portfolio
+ */
+public class ValueAtRiskEngine {
+
+
+    /**
+     * Enum representing the scenario generation method.
+     */
+    public enum Method {
+        HISTORICAL, MONTE_CARLO
+    }
+
+    /** Number of portfolios evaluated together by a single leaf task. */
+    private static final int PORTFOLIO_BATCH = 16;
+
+    /** Number of scenarios evaluated by a single leaf task; also the unit of random seeding. */
+    private static final int SCENARIO_BLOCK = 4096;
+
+    /** Upper bound on the number of buffered scenario losses held in memory at once. */
+    private static final int MAX_BUFFERED_LOSSES = 8 * 1024 * 1024;
+
+    /** Odd constant used to spread block seeds across the 64-bit seed space. */
+    private static final long SEED_STRIDE = 0x9E3779B97F4A7C15L;
+
+    /** The risk factor symbols, in the column order of returns and covariance inputs. */
+    private final List<String> symbols;
+
+    /** Lookup from symbol to its column index. */
+    private final Map<String, Integer> symbolIndex;
+
+    /** The pool that runs the simulation tasks. */
+    private final ForkJoinPool pool;
+
+    /**
+     * Constructs a ValueAtRiskEngine that runs on the common fork-join pool.
+     *
+     * @param symbols The risk factor symbols in column order.
+     */
+    public ValueAtRiskEngine(List<String> symbols) {
+        this(symbols, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructs a ValueAtRiskEngine that runs on the given fork-join pool.
+     *
+     * @param symbols The risk factor symbols in column order.
+     * @param pool    The pool used to run simulation tasks.
+     */
+    public ValueAtRiskEngine(List<String> symbols, ForkJoinPool pool) {
+        this.symbols = List.copyOf(symbols);
+        this.symbolIndex = new HashMap<>();
+        for (int i = 0; i < this.symbols.size(); i++) {
+            if (symbolIndex.put(this.symbols.get(i), i) != null) {
+                throw new IllegalArgumentException("Duplicate symbol: " + this.symbols.get(i));
+            }
+        }
+        this.pool = pool;
+    }
+
+    /**
+     * Computes VaR and Expected Shortfall by historical simulation. Each row of the
+     * returns matrix is one scenario holding the simple return of every symbol.
+     *
+     * @param portfolios The portfolios to evaluate.
+     * @param returns    Historical returns, one row per scenario and one column per symbol.
+     * @param confidence The confidence level, for example 0.99.
+     * @return The risk measures keyed by portfolio ID, in the order of the input list.
+     */
+    public Map<Integer, RiskMeasure> historical(List<Portfolio> portfolios, double[][] returns, double confidence) {
+        int n = symbols.size();
+        if (returns.length == 0) {
+            throw new IllegalArgumentException("At least one historical scenario is required");
+        }
+        double[] flat = new double[returns.length * n];
+        for (int s = 0; s < returns.length; s++) {
+            if (returns[s].length != n) {
+                throw new IllegalArgumentException("Scenario " + s + " has " + returns[s].length
+                        + " returns but " + n + " symbols are configured");
+            }
+            System.arraycopy(returns[s], 0, flat, s * n, n);
+        }
+
+        ScenarioKernel kernel = (exposures, from, to, scenarioFrom, scenarioTo, losses, offset) -> {
+            for (int s = scenarioFrom; s < scenarioTo; s++) {
+                int row = s * n;
+                for (int p = from; p < to; p++) {
+                    Exposure exposure = exposures[p];
+                    double pnl = 0.0;
+                    for (int k = 0; k < exposure.index.length; k++) {
+                        pnl += exposure.value[k] * flat[row + exposure.index[k]];
+                    }
+                    losses[p - offset][s] = -pnl;
+                }
+            }
+        };
+        return run(portfolios, Method.HISTORICAL, confidence, returns.length, kernel);
+    }
+
+    /**
+     * Computes VaR and Expected Shortfall by Monte Carlo simulation with zero mean returns.
+     *
+     * @param portfolios The portfolios to evaluate.
+     * @param covariance The covariance matrix of symbol returns over the risk horizon.
+     * @param scenarios  The number of scenarios to simulate.
+     * @param confidence The confidence level, for example 0.99.
+     * @param seed       The seed that makes the simulation reproducible.
+     * @return The risk measures keyed by portfolio ID, in the order of the input list.
+     */
+    public Map<Integer, RiskMeasure> monteCarlo(List<Portfolio> portfolios, double[][] covariance,
+                                                int scenarios, double confidence, long seed) {
+        return monteCarlo(portfolios, new double[symbols.size()], covariance, scenarios, confidence, seed);
+    }
+
+    /**
+     * Computes VaR and Expected Shortfall by Monte Carlo simulation with zero mean returns,
+     * using the covariance published by a {@link CovarianceService}.
+     *
+     * @param portfolios The portfolios to evaluate.
+     * @param covariance The covariance snapshot; it must cover every configured symbol.
+     * @param scenarios  The number of scenarios to simulate.
+     * @param confidence The confidence level, for example 0.99.
+     * @param seed       The seed that makes the simulation reproducible.
+     * @return The risk measures keyed by portfolio ID, in the order of the input list.
+     */
+    public Map<Integer, RiskMeasure> monteCarlo(List<Portfolio> portfolios, CovarianceSnapshot covariance,
+                                                int scenarios, double confidence, long seed) {
+        return monteCarlo(portfolios, covariance.toMatrix(symbols), scenarios, confidence, seed);
+    }
+
+    /**
+     * Computes VaR and Expected Shortfall by Monte Carlo simulation. Correlated returns are
+     * drawn as {@code mean + L * z} where L is the Cholesky factor of the covariance matrix;
+     * the factor is folded into a per-portfolio loading vector so each scenario costs one
+     * dot product per portfolio.
+     *
+     * @param portfolios The portfolios to evaluate.
+     * @param means      The expected symbol returns over the risk horizon.
+     * @param covariance The covariance matrix of symbol returns over the risk horizon.
+     * @param scenarios  The number of scenarios to simulate.
+     * @param confidence The confidence level, for example 0.99.
+     * @param seed       The seed that makes the simulation reproducible.
+     * @return The risk measures keyed by portfolio ID, in the order of the input list.
+     */
+    public Map<Integer, RiskMeasure> monteCarlo(List<Portfolio> portfolios, double[] means, double[][] covariance,
+                                                int scenarios, double confidence, long seed) {
+        int n = symbols.size();
+        if (covariance.length != n || means.length != n) {
+            throw new IllegalArgumentException("Covariance and means must match the " + n + " configured symbols");
+        }
+        if (scenarios <= 0) {
+            throw new IllegalArgumentException("Scenario count must be positive");
+        }
+        double[] factor = LinearAlgebra.cholesky(LinearAlgebra.flatten(covariance), n);
+
+        ScenarioKernel kernel = new ScenarioKernel() {
+            @Override
+            public void prepare(Exposure exposure) {
+                // loading = L^T * e, so that e . (L z) == loading . z
+                double[] loading = new double[n];
+                double drift = 0.0;
+                for (int k = 0; k < exposure.index.length; k++) {
+                    int row = exposure.index[k];
+                    double value = exposure.value[k];
+                    drift += value * means[row];
+                    int base = row * n;
+                    for (int j = 0; j <= row; j++) {
+                        loading[j] += factor[base + j] * value;
+                    }
+                }
+                exposure.loading = loading;
+                exposure.drift = drift;
+            }
+
+            @Override
+            public void fill(Exposure[] exposures, int from, int to, int scenarioFrom, int scenarioTo,
+                             double[][] losses, int offset) {
+                SplittableRandom random = new SplittableRandom(seed + (scenarioFrom / SCENARIO_BLOCK) * SEED_STRIDE);
+                double[] z = new double[n];
+                for (int s = scenarioFrom; s < scenarioTo; s++) {
+                    for (int j = 0; j < n; j++) {
+                        z[j] = random.nextGaussian();
+                    }
+                    for (int p = from; p < to; p++) {
+                        Exposure exposure = exposures[p];
+                        losses[p - offset][s] = -(exposure.drift + LinearAlgebra.dot(exposure.loading, z, n));
+                    }
+                }
+            }
+
+            @Override
+            public void release(Exposure exposure) {
+                exposure.loading = null;
+            }
+        };
+        return run(portfolios, Method.MONTE_CARLO, confidence, scenarios, kernel);
+    }
+
+    /**
+     * Runs a simulation over the whole book in waves sized to bound the loss buffer.
+     *
+     * @param portfolios The portfolios to evaluate.
+     * @param method     The method being run.
+     * @param confidence The confidence level.
+     * @param scenarios  The number of scenarios.
+     * @param kernel     The kernel that fills scenario losses.
+     * @return The risk measures keyed by portfolio ID.
+     */
+    private Map<Integer, RiskMeasure> run(List<Portfolio> portfolios, Method method, double confidence,
+                                          int scenarios, ScenarioKernel kernel) {
+        if (!(confidence > 0.0 && confidence < 1.0)) {
+            throw new IllegalArgumentException("Confidence must be between 0 and 1 exclusive");
+        }
+        // Results are keyed by portfolio ID, so a repeated portfolio would silently replace one
+        Set<Integer> ids = new HashSet<>();
+        for (Portfolio portfolio : portfolios) {
+            if (!ids.add(portfolio.getPortfolioId())) {
+                throw new IllegalArgumentException("Duplicate portfolio: " + portfolio.getPortfolioId());
+            }
+        }
+        ValuationEvent event = new ValuationEvent();
+        event.begin();
+        int count = portfolios.size();
+        Exposure[] exposures = new Exposure[count];
+        pool.invoke(new RangeAction(0, count, 64, i -> exposures[i] = exposure(portfolios.get(i))));
+
+        RiskMeasure[] measures = new RiskMeasure[count];
+        int waveSize = Math.max(PORTFOLIO_BATCH, MAX_BUFFERED_LOSSES / scenarios / PORTFOLIO_BATCH * PORTFOLIO_BATCH);
+        double[][] losses = new double[Math.min(waveSize, count)][scenarios];
+        int blocks = (scenarios + SCENARIO_BLOCK - 1) / SCENARIO_BLOCK;
+
+        for (int waveStart = 0; waveStart < count; waveStart += waveSize) {
+            final int start = waveStart;
+            final int end = Math.min(count, waveStart + waveSize);
+            int batches = (end - start + PORTFOLIO_BATCH - 1) / PORTFOLIO_BATCH;
+
+            pool.invoke(new RangeAction(start, end, 1, i -> kernel.prepare(exposures[i])));
+            pool.invoke(new RangeAction(0, batches * blocks, 1, cell -> {
+                int from = start + (cell / blocks) * PORTFOLIO_BATCH;
+                int scenarioFrom = (cell % blocks) * SCENARIO_BLOCK;
+                kernel.fill(exposures, from, Math.min(end, from + PORTFOLIO_BATCH),
+                        scenarioFrom, Math.min(scenarios, scenarioFrom + SCENARIO_BLOCK), losses, start);
+            }));
+            pool.invoke(new RangeAction(start, end, 1, i -> {
+                measures[i] = measure(exposures[i], method, confidence, losses[i - start], scenarios);
+                kernel.release(exposures[i]);
+            }));
+        }
+
+        Map<Integer, RiskMeasure> results = new LinkedHashMap<>();
+        long positions = 0;
+        for (int i = 0; i < count; i++) {
+            results.put(measures[i].getPortfolioId(), measures[i]);
+            positions += exposures[i].index.length;
+        }
+        event.complete(method == Method.HISTORICAL ? "ValueAtRiskEngine.historical" : "ValueAtRiskEngine.monteCarlo",
+                count, positions);
+        return results;
+    }
+
+    /**
+     * Builds the sparse exposure vector of a portfolio, netting positions in the same symbol.
+     *
+     * @param portfolio The portfolio to map onto the risk factors.
+     * @return The portfolio's exposure.
+     */
+    private Exposure exposure(Portfolio portfolio) {
+        Map<Integer, Double> bySymbol = new HashMap<>();
+        double value = 0.0;
+        for (Position position : portfolio.getPositions()) {
+            Integer index = symbolIndex.get(position.getStock().getSymbol());
+            if (index == null) {
+                throw new IllegalArgumentException("No risk factor for symbol " + position.getStock().getSymbol()
+                        + " in portfolio " + portfolio.getPortfolioId());
+            }
+            double marketValue = position.getCurrentValue();
+            bySymbol.merge(index, marketValue, Double::sum);
+            value += marketValue;
+        }
+
+        Exposure exposure = new Exposure(portfolio.getPortfolioId(), value, bySymbol.size());
+        int k = 0;
+        for (Map.Entry<Integer, Double> entry : bySymbol.entrySet()) {
+            exposure.index[k] = entry.getKey();
+            exposure.value[k] = entry.getValue();
+            k++;
+        }
+        return exposure;
+    }
+
+    /**
+     * Reduces a buffer of scenario losses to VaR and Expected Shortfall in linear time.
+     *
+     * @param exposure   The exposure the losses belong to.
+     * @param method     The method that produced the losses.
+     * @param confidence The confidence level.
+     * @param losses     The loss buffer; it is reordered in place.
+     * @param scenarios  The number of valid entries in the buffer.
+     * @return The risk measure.
+     */
+    private static RiskMeasure measure(Exposure exposure, Method method, double confidence,
+                                       double[] losses, int scenarios) {
+        int k = Math.min(scenarios - 1, Math.max(0, (int) Math.ceil(confidence * scenarios) - 1));
+        double valueAtRisk = select(losses, scenarios, k);
+        double tail = 0.0;
+        for (int i = k; i < scenarios; i++) {
+            tail += losses[i];
+        }
+        double expectedShortfall = tail / (scenarios - k);
+        return new RiskMeasure(exposure.portfolioId, method, confidence, scenarios,
+                exposure.portfolioValue, valueAtRisk, expectedShortfall);
+    }
+
+    /**
+     * Partially orders the first {@code length} elements so that the element at {@code k}
+     * is the one a full sort would place there, with no larger element before it and no
+     * smaller element after it.
+     *
+     * @param a      The array to partition.
+     * @param length The number of elements to consider.
+     * @param k      The rank to select.
+     * @return The k-th smallest element.
+     */
+    static double select(double[] a, int length, int k) {
+        int lo = 0;
+        int hi = length - 1;
+        while (hi > lo) {
+            int mid = (lo + hi) >>> 1;
+            if (a[mid] < a[lo]) swap(a, mid, lo);
+            if (a[hi] < a[lo]) swap(a, hi, lo);
+            if (a[hi] < a[mid]) swap(a, hi, mid);
+            double pivot = a[mid];
+            int i = lo;
+            int j = hi;
+            while (i <= j) {
+                while (a[i] < pivot) i++;
+                while (a[j] > pivot) j--;
+                if (i <= j) {
+                    swap(a, i, j);
+                    i++;
+                    j--;
+                }
+            }
+            if (k <= j) {
+                hi = j;
+            } else if (k >= i) {
+                lo = i;
+            } else {
+                return a[k];
+            }
+        }
+        return a[k];
+    }
+
+    /**
+     * Swaps two elements of an array.
+     *
+     * @param a The array.
+     * @param i The first index.
+     * @param j The second index.
+     */
+    private static void swap(double[] a, int i, int j) {
+        double t = a[i];
+        a[i] = a[j];
+        a[j] = t;
+    }
+
+    /**
+     * Fills scenario losses for a batch of portfolios over a block of scenarios.
+     */
+    private interface ScenarioKernel {
+
+        /**
+         * Prepares any per-portfolio state needed before losses are filled.
+         *
+         * @param exposure The exposure to prepare.
+         */
+        default void prepare(Exposure exposure) {
+        }
+
+        /**
+         * Writes the loss of each portfolio in {@code [from, to)} for each scenario in
+         * {@code [scenarioFrom, scenarioTo)} into the loss buffer.
+         *
+         * @param exposures    All exposures of the book.
+         * @param from         The first portfolio index, inclusive.
+         * @param to           The last portfolio index, exclusive.
+         * @param scenarioFrom The first scenario, inclusive.
+         * @param scenarioTo   The last scenario, exclusive.
+         * @param losses       The loss buffer of the current wave.
+         * @param offset       The portfolio index that maps to row zero of the buffer.
+         */
+        void fill(Exposure[] exposures, int from, int to, int scenarioFrom, int scenarioTo,
+                  double[][] losses, int offset);
+
+        /**
+         * Releases per-portfolio state once its measure has been computed.
+         *
+         * @param exposure The exposure to release.
+         */
+        default void release(Exposure exposure) {
+        }
+    }
+
+    /**
+     * Sparse market-value exposure of one portfolio to the risk factors.
+     */
+    private static final class Exposure {
+
+        /** The portfolio identifier. */
+        final int portfolioId;
+
+        /** The total market value of the portfolio. */
+        final double portfolioValue;
+
+        /** Column indices of the symbols held. */
+        final int[] index;
+
+        /** Market value held in each symbol. */
+        final double[] value;
+
+        /** Monte Carlo loading vector L^T * e, present only while a wave is running. */
+        double[] loading;
+
+        /** Expected P&amp;L from the mean returns. */
+        double drift;
+
+        /**
+         * Constructs an empty exposure.
+         *
+         * @param portfolioId    The portfolio identifier.
+         * @param portfolioValue The portfolio's market value.
+         * @param size           The number of distinct symbols held.
+         */
+        Exposure(int portfolioId, double portfolioValue, int size) {
+            this.portfolioId = portfolioId;
+            this.portfolioValue = portfolioValue;
+            this.index = new int[size];
+            this.value = new double[size];
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.portfolio.service.scenario;
+
+import com.portfolio.model.Portfolio;
+import com.portfolio.model.Position;
+import com.portfolio.model.Stock;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * This class is an immutable, copy-on-write view of stock prices layered over the live
+ * {@link Stock} objects. Revaluing against an overlay never calls {@link Stock#setCurrentPrice},
+ * so stress tests can run while the live book keeps updating. Deriving a new overlay only
+ * stores the prices that differ from its parent; unchanged prices are shared.
+ * @author Gaoussou Thiam
+ * @date 10/19/2026
+ * @see com.portfolio.service.scenario.ScenarioEngine
+ * @see com.portfolio.model.Stock
+ */
+public final class PriceOverlay {
+
+
+    /** The overlay that prices not overridden here fall back to; null for the root. */
+    private final PriceOverlay parent;
+
+    /** Prices overridden by this layer, keyed by symbol. */
+    private final Map<String, Double> prices;
+
+    /**
+     * Constructs a new PriceOverlay. The map is owned by the overlay.
+     *
+     * @param parent The parent overlay, or null to fall back to live prices.
+     * @param prices The prices overridden by this layer.
+     */
+    private PriceOverlay(PriceOverlay parent, Map<String, Double> prices) {
+        this.parent = parent;
+        this.prices = prices;
+    }
+
+    /**
+     * Creates an overlay that passes every price through to the live stocks.
+     *
+     * @return An empty overlay.
+     */
+    public static PriceOverlay live() {
+        return new PriceOverlay(null, Map.of());
+    }
+
+    /**
+     * Creates an overlay that freezes the current prices of the given stocks, so a set of
+     * scenarios is evaluated against one consistent base even while live prices move.
+     *
+     * @param stocks The stocks whose prices are captured.
+     * @return An overlay holding the captured prices.
+     */
+    public static PriceOverlay capture(Collection<Stock> stocks) {
+        Map<String, Double> captured = new HashMap<>();
+        for (Stock stock : stocks) {
+            captured.putIfAbsent(stock.getSymbol(), stock.getCurrentPrice());
+        }
+        return new PriceOverlay(null, captured);
+    }
+
+    /**
+     * Derives an overlay in which one symbol has a different price.
+     *
+     * @param symbol The symbol.
+     * @param price  Its price in the derived overlay.
+     * @return The derived overlay; this overlay is unchanged.
+     */
+    public PriceOverlay with(String symbol, double price) {
+        return new PriceOverlay(this, Map.of(symbol, price));
+    }
+
+    /**
+     * Derives an overlay in which a scenario's shocks are applied to the given stocks.
+     *
+     * @param scenario The scenario to apply.
+     * @param stocks   The stocks the scenario may affect.
+     * @return The derived overlay; this overlay is unchanged.
+     */
+    public PriceOverlay apply(Scenario scenario, Collection<Stock> stocks) {
+        Map<String, Double> shocked = new HashMap<>();
+        for (Stock stock : stocks) {
+            double multiplier = scenario.multiplier(stock);
+            if (multiplier != 1.0 && !shocked.containsKey(stock.getSymbol())) {
+                shocked.put(stock.getSymbol(), price(stock) * multiplier);
+            }
+        }
+        return new PriceOverlay(this, shocked);
+    }
+
+    /**
+     * Gets the price of a stock in this overlay.
+     *
+     * @param stock The stock.
+     * @return The overridden price if any layer sets one, otherwise the live price.
+     */
+    public double price(Stock stock) {
+        for (PriceOverlay layer = this; layer != null; layer = layer.parent) {
+            Double price = layer.prices.get(stock.getSymbol());
+            if (price != null) {
+                return price;
+            }
+        }
+        return stock.getCurrentPrice();
+    }
+
+    /**
+     * Calculates the value of a portfolio at the prices of this overlay.
+     *
+     * @param portfolio The portfolio to value.
+     * @return The portfolio's value.
+     */
+    public double value(Portfolio portfolio) {
+        double total = 0.0;
+        for (Position position : portfolio.getPositions()) {
+            total += position.getQuantity() * price(position.getStock());
+        }
+        return total;
+    }
+}
@@ -0,0 +1,112 @@
+package com.portfolio.service.scenario;
+
+/**
+ * This class represents a relative price move applied to one symbol, one sector, or every stock.
+ * A change of -0.15 means prices fall by 15%.
+ * @author Gaoussou Thiam
+ * @date 10/19/2026
+ * @see com.portfolio.service.scenario.Scenario
+ */
+public class PriceShock {
+
+
+    /**
+     * Enum representing what a shock applies to. When several shocks of a scenario match the
+     * same stock, the most specific one wins: symbol before sector before all.
+     */
+    public enum Scope {
+        SYMBOL, SECTOR, ALL
+    }
+
+    /** What the shock applies to. */
+    private final Scope scope;
+
+    /** The symbol or sector shocked; null for {@link Scope#ALL}. */
+    private final String key;
+
+    /** The relative price change. */
+    private final double change;
+
+    /**
+     * Constructs a new PriceShock.
+     *
+     * @param scope  What the shock applies to.
+     * @param key    The symbol or sector, or null for all stocks.
+     * @param change The relative price change, greater than -1.
+     */
+    public PriceShock(Scope scope, String key, double change) {
+        if (scope != Scope.ALL && key == null) {
+            throw new IllegalArgumentException("A " + scope + " shock needs a key");
+        }
+        if (!(change > -1.0)) {
+            throw new IllegalArgumentException("A price shock cannot take prices to zero or below");
+        }
+        this.scope = scope;
+        this.key = scope == Scope.ALL ? null : key;
+        this.change = change;
+    }
+
+    /**
+     * Creates a shock on a single symbol.
+     *
+     * @param symbol The symbol.
+     * @param change The relative price change.
+     * @return The shock.
+     */
+    public static PriceShock symbol(String symbol, double change) {
+        return new PriceShock(Scope.SYMBOL, symbol, change);
+    }
+
+    /**
+     * Creates a shock on every stock of a sector.
+     *
+     * @param sector The sector.
+     * @param change The relative price change.
+     * @return The shock.
+     */
+    public static PriceShock sector(String sector, double change) {
+        return new PriceShock(Scope.SECTOR, sector, change);
+    }
+
+    /**
+     * Creates a shock on every stock.
+     *
+     * @param change The relative price change.
+     * @return The shock.
+     */
+    public static PriceShock all(double change) {
+        return new PriceShock(Scope.ALL, null, change);
+    }
+
+    /**
+     * Gets the scope of the shock.
+     *
+     * @return What the shock applies to.
+     */
+    public Scope getScope() { return scope; }
+
+    /**
+     * Gets the symbol or sector shocked.
+     *
+     * @return The key, or null for all stocks.
+     */
+    public String getKey() { return key; }
+
+    /**
+     * Gets the relative price change.
+     *
+     * @return The change, for example -0.15.
+     */
+    public double getChange() { return change; }
+
+
+    /**
+     * Returns a string representation of the shock.
+     *
+     * @return A formatted string containing the shock details.
+     */
+    @Override
+    public String toString() {
+        return String.format("PriceShock[scope=%s, key=%s, change=%+.2f%%]", scope, key, change * 100);
+    }
+}
@@ -0,0 +1,100 @@
+package com.portfolio.service.scenario;
+
+import com.portfolio.model.Stock;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This class represents a named what-if scenario made of one or more price shocks, such as
+ * "tech -15%, healthcare +5%".
+ * @author Gaoussou Thiam
+ * @date 10/19/2026
+ * @see com.portfolio.service.scenario.PriceShock
+ * @see com.portfolio.service.scenario.ScenarioEngine
+ */
+public class Scenario {
+
+
+    /** Name of the scenario. */
+    private final String name;
+
+    /** The shocks that make up the scenario. */
+    private final List<PriceShock> shocks;
+
+    /** Shock per symbol. */
+    private final Map<String, Double> bySymbol = new HashMap<>();
+
+    /** Shock per sector. */
+    private final Map<String, Double> bySector = new HashMap<>();
+
+    /** Shock applied to every other stock. */
+    private final double broad;
+
+    /**
+     * Constructs a new Scenario. If several shocks share a scope and key, the last one wins.
+     *
+     * @param name   The name of the scenario.
+     * @param shocks The shocks that make up the scenario.
+     */
+    public Scenario(String name, List<PriceShock> shocks) {
+        this.name = name;
+        this.shocks = List.copyOf(shocks);
+        double all = 0.0;
+        for (PriceShock shock : this.shocks) {
+            switch (shock.getScope()) {
+                case SYMBOL:
+                    bySymbol.put(shock.getKey(), shock.getChange());
+                    break;
+                case SECTOR:
+                    bySector.put(shock.getKey(), shock.getChange());
+                    break;
+                case ALL:
+                    all = shock.getChange();
+                    break;
+            }
+        }
+        this.broad = all;
+    }
+
+    /**
+     * Gets the price multiplier the scenario applies to a stock, resolving the most specific
+     * matching shock.
+     *
+     * @param stock The stock.
+     * @return The factor its price is multiplied by, 1.0 if unaffected.
+     */
+    public double multiplier(Stock stock) {
+        Double change = bySymbol.get(stock.getSymbol());
+        if (change == null && stock.getSector() != null) {
+            change = bySector.get(stock.getSector());
+        }
+        return 1.0 + (change != null ? change : broad);
+    }
+
+    /**
+     * Gets the name of the scenario.
+     *
+     * @return The scenario name.
+     */
+    public String getName() { return name; }
+
+    /**
+     * Gets the shocks of the scenario.
+     *
+     * @return An unmodifiable list of shocks.
+     */
+    public List<PriceShock> getShocks() { return shocks; }
+
+
+    /**
+     * Returns a string representation of the scenario.
+     *
+     * @return A formatted string containing the scenario details.
+     */
+    @Override
+    public String toString() {
+        return String.format("Scenario[name=%s, shocks=%d]", name, shocks.size());
+    }
+}
@@ -0,0 +1,134 @@
+package com.portfolio.service.scenario;
+
+import com.portfolio.metrics.ValuationEvent;
+import com.portfolio.model.Portfolio;
+import com.portfolio.model.Position;
+import com.portfolio.model.Stock;
+import com.portfolio.util.RangeAction;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * This class revalues a book of portfolios under many what-if price scenarios at once.
+ * <p>
+ * Base prices are read once per symbol through a {@link PriceOverlay}, and every scenario is
+ * reduced to a row of price multipliers per symbol. Each position is then visited exactly once
+ * and its value is accumulated into all scenarios in a tight primitive loop, so the cost is one
+ * pass over positions no matter how many scenarios are run. Live {@link Stock} objects are
+ * never modified, and portfolios are revalued in parallel on a fork-join pool.
+ * @author Gaoussou Thiam
+ * @date 10/19/2026
+ * @see com.portfolio.service.scenario.Scenario
+ * @see com.portfolio.service.scenario.PriceOverlay
+ * @see com.portfolio.service.scenario.ScenarioResult
+ */
+public class ScenarioEngine {
+
+
+    /** The pool that revalues portfolios in parallel. */
+    private final ForkJoinPool pool;
+
+    /**
+     * Constructs a ScenarioEngine that runs on the common fork-join pool.
+     */
+    public ScenarioEngine() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructs a ScenarioEngine that runs on the given fork-join pool.
+     *
+     * @param pool The pool used to revalue portfolios.
+     */
+    public ScenarioEngine(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Runs scenarios against the book using a consistent snapshot of the current live prices.
+     *
+     * @param portfolios The portfolios to revalue.
+     * @param scenarios  The scenarios to run.
+     * @return The base and shocked values of every portfolio.
+     */
+    public ScenarioResult run(List<Portfolio> portfolios, List<Scenario> scenarios) {
+        return run(portfolios, scenarios, null);
+    }
+
+    /**
+     * Runs scenarios against the book, shocking prices relative to a base overlay.
+     *
+     * @param portfolios The portfolios to revalue.
+     * @param scenarios  The scenarios to run.
+     * @param base       The base prices, or null to capture the current live prices.
+     * @return The base and shocked values of every portfolio.
+     */
+    public ScenarioResult run(List<Portfolio> portfolios, List<Scenario> scenarios, PriceOverlay base) {
+        ValuationEvent event = new ValuationEvent();
+        event.begin();
+        int count = portfolios.size();
+        // Presized so each task only sets its own slot
+        List<List<Position>> positions = new ArrayList<>(Collections.nCopies(count, List.of()));
+        pool.invoke(new RangeAction(0, count, 64, i -> positions.set(i, portfolios.get(i).getPositions())));
+
+        // Index every distinct symbol of the book once.
+        Map<String, Integer> symbolIndex = new HashMap<>();
+        Map<String, Stock> stocks = new LinkedHashMap<>();
+        long positionCount = 0;
+        for (List<Position> list : positions) {
+            positionCount += list.size();
+            for (Position position : list) {
+                Stock stock = position.getStock();
+                if (stocks.putIfAbsent(stock.getSymbol(), stock) == null) {
+                    symbolIndex.put(stock.getSymbol(), symbolIndex.size());
+                }
+            }
+        }
+        PriceOverlay prices = base != null ? base : PriceOverlay.capture(stocks.values());
+
+        // Base price per symbol and the scenario multipliers laid out symbol-major.
+        int width = scenarios.size();
+        double[] basePrices = new double[stocks.size()];
+        double[] multipliers = new double[stocks.size() * width];
+        int s = 0;
+        for (Stock stock : stocks.values()) {
+            basePrices[s] = prices.price(stock);
+            for (int k = 0; k < width; k++) {
+                multipliers[s * width + k] = scenarios.get(k).multiplier(stock);
+            }
+            s++;
+        }
+
+        int[] ids = new int[count];
+        double[] baseValues = new double[count];
+        double[] values = new double[count * width];
+        pool.invoke(new RangeAction(0, count, 16, i -> {
+            ids[i] = portfolios.get(i).getPortfolioId();
+            int row = i * width;
+            double total = 0.0;
+            for (Position position : positions.get(i)) {
+                int symbol = symbolIndex.get(position.getStock().getSymbol());
+                double value = position.getQuantity() * basePrices[symbol];
+                total += value;
+                int column = symbol * width;
+                for (int k = 0; k < width; k++) {
+                    values[row + k] += value * multipliers[column + k];
+                }
+            }
+            baseValues[i] = total;
+        }));
+
+        List<String> names = new ArrayList<>(width);
+        for (Scenario scenario : scenarios) {
+            names.add(scenario.getName());
+        }
+        event.complete("ScenarioEngine.run", count, positionCount);
+        return new ScenarioResult(ids, List.copyOf(names), baseValues, values);
+    }
+}
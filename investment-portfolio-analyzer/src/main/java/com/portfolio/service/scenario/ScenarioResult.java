@@ -0,0 +1,124 @@
+package com.portfolio.service.scenario;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This class holds the outcome of running a set of scenarios against a book of portfolios:
+ * the base value of every portfolio and its value under every scenario, stored as a flat
+ * portfolio-major primitive matrix.
+ * @author Gaoussou Thiam
+ * @date 10/19/2026
+ * @see com.portfolio.service.scenario.ScenarioEngine
+ */
+public class ScenarioResult {
+
+
+    /** Portfolio IDs in row order. */
+    private final int[] portfolioIds;
+
+    /** Scenario names in column order. */
+    private final List<String> scenarioNames;
+
+    /** Value of each portfolio at the base prices. */
+    private final double[] baseValues;
+
+    /** Value of each portfolio under each scenario, row-major by portfolio. */
+    private final double[] values;
+
+    /**
+     * Constructs a new ScenarioResult. The arrays are owned by the result.
+     *
+     * @param portfolioIds  The portfolio IDs in row order.
+     * @param scenarioNames The scenario names in column order.
+     * @param baseValues    The base value per portfolio.
+     * @param values        The shocked values, row-major by portfolio.
+     */
+    ScenarioResult(int[] portfolioIds, List<String> scenarioNames, double[] baseValues, double[] values) {
+        this.portfolioIds = portfolioIds;
+        this.scenarioNames = scenarioNames;
+        this.baseValues = baseValues;
+        this.values = values;
+    }
+
+    /**
+     * Gets the number of portfolios in the result.
+     *
+     * @return The portfolio count.
+     */
+    public int getPortfolioCount() { return portfolioIds.length; }
+
+    /**
+     * Gets the ID of the portfolio in a row.
+     *
+     * @param row The row index.
+     * @return The portfolio ID.
+     */
+    public int getPortfolioId(int row) { return portfolioIds[row]; }
+
+    /**
+     * Gets the scenario names.
+     *
+     * @return The scenario names in column order.
+     */
+    public List<String> getScenarioNames() { return scenarioNames; }
+
+    /**
+     * Gets the base value of a portfolio.
+     *
+     * @param row The row index.
+     * @return The portfolio's value at the base prices.
+     */
+    public double getBaseValue(int row) { return baseValues[row]; }
+
+    /**
+     * Gets the value of a portfolio under a scenario.
+     *
+     * @param row      The row index.
+     * @param scenario The scenario column.
+     * @return The portfolio's shocked value.
+     */
+    public double getValue(int row, int scenario) { return values[row * scenarioNames.size() + scenario]; }
+
+    /**
+     * Gets the profit or loss of a portfolio under a scenario.
+     *
+     * @param row      The row index.
+     * @param scenario The scenario column.
+     * @return The shocked value minus the base value.
+     */
+    public double getPnL(int row, int scenario) { return getValue(row, scenario) - baseValues[row]; }
+
+    /**
+     * Sums the profit or loss of every portfolio under each scenario.
+     *
+     * @return The book-level P&amp;L keyed by scenario name, in scenario order.
+     */
+    public Map<String, Double> getBookPnL() {
+        int count = scenarioNames.size();
+        double[] totals = new double[count];
+        for (int row = 0; row < portfolioIds.length; row++) {
+            int base = row * count;
+            for (int k = 0; k < count; k++) {
+                totals[k] += values[base + k] - baseValues[row];
+            }
+        }
+        Map<String, Double> pnl = new LinkedHashMap<>();
+        for (int k = 0; k < count; k++) {
+            pnl.put(scenarioNames.get(k), totals[k]);
+        }
+        return pnl;
+    }
+
+
+    /**
+     * Returns a string representation of the result.
+     *
+     * @return A formatted string containing the result size.
+     */
+    @Override
+    public String toString() {
+        return String.format("ScenarioResult[portfolios=%d, scenarios=%d]", portfolioIds.length, scenarioNames.size());
+    }
+}
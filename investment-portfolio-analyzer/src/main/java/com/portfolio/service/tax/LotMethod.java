@@ -0,0 +1,16 @@
+package com.portfolio.service.tax;
+
+/**
+ * Enum representing how a sale is matched against open tax lots.
+ * @author Gaoussou Thiam
+ * @date 10/19/2026
+ * @see com.portfolio.service.tax.TaxLotLedger
+ */
+public enum LotMethod {
+    /** First in, first out: the oldest lots are sold first. */
+    FIFO,
+    /** Last in, first out: the newest lots are sold first. */
+    LIFO,
+    /** Specific identification: the seller names the lots to sell. */
+    SPECIFIC_ID
+}
@@ -0,0 +1,391 @@
+package com.portfolio.service.tax;
+
+import java.util.Arrays;
+
+/**
+ * This class holds the open tax lots of one stock within one portfolio in a primitive-backed
+ * ring buffer, ordered by acquisition. Lots are relieved from the head (FIFO), the tail (LIFO)
+ * or by lot ID. Every lot is consumed at most once, so relieving a sale is amortised O(1) for
+ * FIFO and LIFO however many lots are open, and O(log n) to locate a specific lot.
+ * <p>
+ * Lots closed out of the middle of the queue are left as empty tombstones and dropped once they
+ * reach either end, or compacted away when they outnumber the open lots.
+ * @author Gaoussou Thiam
+ * @date 10/19/2026
+ * @see com.portfolio.service.tax.TaxLotLedger
+ */
+public class LotQueue {
+
+
+    /** Quantities at or below this are treated as fully relieved. */
+    private static final double QUANTITY_EPSILON = 1e-9;
+
+    /** Initial ring capacity; always a power of two. */
+    private static final int INITIAL_CAPACITY = 8;
+
+    /** Lot ID of each slot; strictly increasing from head to tail. */
+    private int[] ids = new int[INITIAL_CAPACITY];
+
+    /** Remaining quantity of each slot; zero marks a tombstone. */
+    private double[] quantities = new double[INITIAL_CAPACITY];
+
+    /** Cost per share of each slot. */
+    private double[] costs = new double[INITIAL_CAPACITY];
+
+    /** Acquisition time of each slot in epoch seconds. */
+    private long[] acquired = new long[INITIAL_CAPACITY];
+
+    /** Ring index of the oldest slot. */
+    private int head;
+
+    /** Number of slots in use, tombstones included. */
+    private int size;
+
+    /** Number of slots that are open lots. */
+    private int open;
+
+    /** The ID the next lot will receive. */
+    private int nextLotId = 1;
+
+    /** Total open quantity across lots. */
+    private double totalQuantity;
+
+    /** Total cost basis across lots. */
+    private double totalCost;
+
+    /**
+     * Opens a new lot at the tail of the queue.
+     *
+     * @param quantity      The quantity acquired.
+     * @param costPerShare  The price paid per share.
+     * @param acquiredEpoch The acquisition time in epoch seconds.
+     * @return The ID of the new lot.
+     */
+    public int add(double quantity, double costPerShare, long acquiredEpoch) {
+        if (!(quantity > 0.0)) {
+            throw new IllegalArgumentException("Lot quantity must be positive");
+        }
+        if (size == ids.length) {
+            resize(ids.length << 1);
+        }
+        int slot = slot(size);
+        int id = nextLotId++;
+        ids[slot] = id;
+        quantities[slot] = quantity;
+        costs[slot] = costPerShare;
+        acquired[slot] = acquiredEpoch;
+        size++;
+        open++;
+        totalQuantity += quantity;
+        totalCost += quantity * costPerShare;
+        return id;
+    }
+
+    /**
+     * Relieves quantity from the oldest lots first.
+     *
+     * @param quantity  The quantity sold.
+     * @param salePrice The sale price per share.
+     * @return The realized profit or loss.
+     */
+    public double relieveFifo(double quantity, double salePrice) {
+        checkAvailable(quantity);
+        double realized = 0.0;
+        double remaining = quantity;
+        // The sale may exceed the lots by up to the epsilon, so stop when they run out.
+        while (remaining > QUANTITY_EPSILON && size > 0) {
+            int slot = slot(0);
+            double taken = Math.min(remaining, quantities[slot]);
+            realized += take(slot, taken, salePrice);
+            remaining -= taken;
+            trim();
+        }
+        return realized;
+    }
+
+    /**
+     * Relieves quantity from the newest lots first.
+     *
+     * @param quantity  The quantity sold.
+     * @param salePrice The sale price per share.
+     * @return The realized profit or loss.
+     */
+    public double relieveLifo(double quantity, double salePrice) {
+        checkAvailable(quantity);
+        double realized = 0.0;
+        double remaining = quantity;
+        while (remaining > QUANTITY_EPSILON && size > 0) {
+            int slot = slot(size - 1);
+            double taken = Math.min(remaining, quantities[slot]);
+            realized += take(slot, taken, salePrice);
+            remaining -= taken;
+            trim();
+        }
+        return realized;
+    }
+
+    /**
+     * Relieves quantity from the named lots in the order given.
+     *
+     * @param quantity  The quantity sold.
+     * @param salePrice The sale price per share.
+     * @param lotIds    The lots to relieve.
+     * @return The realized profit or loss.
+     * @throws IllegalArgumentException If a lot is not open or the lots do not cover the quantity.
+     */
+    public double relieveSpecific(double quantity, double salePrice, int... lotIds) {
+        checkAvailable(quantity);
+        int[] sorted = lotIds.clone();
+        Arrays.sort(sorted);
+        for (int i = 1; i < sorted.length; i++) {
+            if (sorted[i] == sorted[i - 1]) {
+                throw new IllegalArgumentException("Lot " + sorted[i] + " is named more than once");
+            }
+        }
+        int[] slots = new int[lotIds.length];
+        double available = 0.0;
+        for (int i = 0; i < lotIds.length; i++) {
+            slots[i] = find(lotIds[i]);
+            if (slots[i] < 0) {
+                throw new IllegalArgumentException("Lot " + lotIds[i] + " is not open");
+            }
+            available += quantities[slots[i]];
+        }
+        if (available + QUANTITY_EPSILON < quantity) {
+            throw new IllegalArgumentException("Lots " + Arrays.toString(lotIds)
+                    + " hold " + available + ", less than the " + quantity + " sold");
+        }
+
+        double realized = 0.0;
+        double remaining = quantity;
+        for (int i = 0; i < slots.length && remaining > QUANTITY_EPSILON; i++) {
+            double taken = Math.min(remaining, quantities[slots[i]]);
+            realized += take(slots[i], taken, salePrice);
+            remaining -= taken;
+        }
+        trim();
+        if (size > 2 * open + INITIAL_CAPACITY) {
+            compact();
+        }
+        return realized;
+    }
+
+    /**
+     * Calculates the unrealized profit or loss of the open lots at a price.
+     *
+     * @param price The current price per share.
+     * @return The unrealized profit or loss.
+     */
+    public double unrealizedPnL(double price) {
+        return totalQuantity * price - totalCost;
+    }
+
+    /**
+     * Gets the number of open lots.
+     *
+     * @return The open lot count.
+     */
+    public int getOpenLots() { return open; }
+
+    /**
+     * Gets the total open quantity.
+     *
+     * @return The quantity held across lots.
+     */
+    public double getTotalQuantity() { return totalQuantity; }
+
+    /**
+     * Gets the total cost basis of the open lots.
+     *
+     * @return The cost basis.
+     */
+    public double getTotalCost() { return totalCost; }
+
+    /**
+     * Gets the ID of the open lot at a position in acquisition order.
+     *
+     * @param index The position, from 0 for the oldest open lot.
+     * @return The lot ID.
+     */
+    public int getLotId(int index) { return ids[openSlot(index)]; }
+
+    /**
+     * Gets the remaining quantity of the open lot at a position in acquisition order.
+     *
+     * @param index The position, from 0 for the oldest open lot.
+     * @return The remaining quantity.
+     */
+    public double getLotQuantity(int index) { return quantities[openSlot(index)]; }
+
+    /**
+     * Gets the cost per share of the open lot at a position in acquisition order.
+     *
+     * @param index The position, from 0 for the oldest open lot.
+     * @return The cost per share.
+     */
+    public double getLotCost(int index) { return costs[openSlot(index)]; }
+
+    /**
+     * Gets the acquisition time of the open lot at a position in acquisition order.
+     *
+     * @param index The position, from 0 for the oldest open lot.
+     * @return The acquisition time in epoch seconds.
+     */
+    public long getLotAcquired(int index) { return acquired[openSlot(index)]; }
+
+    /**
+     * Takes quantity out of one slot and books the realized result.
+     *
+     * @param slot      The ring slot.
+     * @param taken     The quantity taken.
+     * @param salePrice The sale price per share.
+     * @return The realized profit or loss on the quantity taken.
+     */
+    private double take(int slot, double taken, double salePrice) {
+        double left = quantities[slot] - taken;
+        if (left <= QUANTITY_EPSILON) {
+            taken = quantities[slot];
+            left = 0.0;
+            open--;
+        }
+        quantities[slot] = left;
+        totalQuantity -= taken;
+        totalCost -= taken * costs[slot];
+        if (open == 0) {
+            totalQuantity = 0.0;
+            totalCost = 0.0;
+        }
+        return taken * (salePrice - costs[slot]);
+    }
+
+    /**
+     * Fails if more is sold than is held.
+     *
+     * @param quantity The quantity sold.
+     */
+    private void checkAvailable(double quantity) {
+        if (!(quantity > 0.0)) {
+            throw new IllegalArgumentException("Sale quantity must be positive");
+        }
+        if (quantity > totalQuantity + QUANTITY_EPSILON) {
+            throw new IllegalStateException("Cannot sell " + quantity + ", only " + totalQuantity + " held");
+        }
+    }
+
+    /**
+     * Drops tombstones from both ends of the queue.
+     */
+    private void trim() {
+        while (size > 0 && quantities[slot(0)] == 0.0) {
+            head = (head + 1) & (ids.length - 1);
+            size--;
+        }
+        while (size > 0 && quantities[slot(size - 1)] == 0.0) {
+            size--;
+        }
+    }
+
+    /**
+     * Locates an open lot by binary search over the increasing lot IDs.
+     *
+     * @param lotId The lot ID.
+     * @return The ring slot, or -1 if the lot is not open.
+     */
+    private int find(int lotId) {
+        int lo = 0;
+        int hi = size - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            int id = ids[slot(mid)];
+            if (id < lotId) {
+                lo = mid + 1;
+            } else if (id > lotId) {
+                hi = mid - 1;
+            } else {
+                int slot = slot(mid);
+                return quantities[slot] > 0.0 ? slot : -1;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Maps a position among open lots to its ring slot.
+     *
+     * @param index The position among open lots.
+     * @return The ring slot.
+     */
+    private int openSlot(int index) {
+        if (index < 0 || index >= open) {
+            throw new IndexOutOfBoundsException("Open lot " + index + " of " + open);
+        }
+        if (open == size) {
+            return slot(index);
+        }
+        compact();
+        return slot(index);
+    }
+
+    /**
+     * Removes every tombstone, keeping the open lots in order.
+     */
+    private void compact() {
+        int write = 0;
+        for (int read = 0; read < size; read++) {
+            int from = slot(read);
+            if (quantities[from] > 0.0) {
+                int to = slot(write++);
+                ids[to] = ids[from];
+                quantities[to] = quantities[from];
+                costs[to] = costs[from];
+                acquired[to] = acquired[from];
+            }
+        }
+        size = write;
+    }
+
+    /**
+     * Re-allocates the ring with a new capacity, moving the head to index zero.
+     *
+     * @param capacity The new capacity; a power of two.
+     */
+    private void resize(int capacity) {
+        int[] newIds = new int[capacity];
+        double[] newQuantities = new double[capacity];
+        double[] newCosts = new double[capacity];
+        long[] newAcquired = new long[capacity];
+        for (int i = 0; i < size; i++) {
+            int from = slot(i);
+            newIds[i] = ids[from];
+            newQuantities[i] = quantities[from];
+            newCosts[i] = costs[from];
+            newAcquired[i] = acquired[from];
+        }
+        ids = newIds;
+        quantities = newQuantities;
+        costs = newCosts;
+        acquired = newAcquired;
+        head = 0;
+    }
+
+    /**
+     * Maps a logical position to its ring slot.
+     *
+     * @param index The logical position from the head.
+     * @return The ring slot.
+     */
+    private int slot(int index) {
+        return (head + index) & (ids.length - 1);
+    }
+
+
+    /**
+     * Returns a string representation of the lot queue.
+     *
+     * @return A formatted string containing the queue totals.
+     */
+    @Override
+    public String toString() {
+        return String.format("LotQueue[lots=%d, quantity=%.2f, cost=%.2f]", open, totalQuantity, totalCost);
+    }
+}
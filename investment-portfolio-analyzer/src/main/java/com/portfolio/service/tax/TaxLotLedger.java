@@ -0,0 +1,221 @@
+package com.portfolio.service.tax;
+
+import com.portfolio.model.Stock;
+import com.portfolio.model.Transaction;
+
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.DoubleAdder;
+
+/**
+ * This class keeps lot-level accounting for every (portfolio, stock) pair, driven by BUY and
+ * SELL transactions. BUYs open a lot; SELLs relieve lots by FIFO, LIFO or specific lot ID
+ * and book the realized profit or loss, while the remaining lots carry the unrealized part.
+ * Pairs are independent and each is locked on its own, so ledgers for different portfolios or
+ * stocks can be fed concurrently.
+ * @author Gaoussou Thiam
+ * @date 10/19/2026
+ * @see com.portfolio.service.tax.LotQueue
+ * @see com.portfolio.model.Transaction
+ */
+public class TaxLotLedger {
+
+
+    /** The relief method used when none is given. */
+    private final LotMethod defaultMethod;
+
+    /** Open lots per portfolio ID and symbol. */
+    private final Map<Integer, Map<String, Holding>> holdings = new ConcurrentHashMap<>();
+
+    /** Realized profit or loss per portfolio ID. */
+    private final Map<Integer, DoubleAdder> realized = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs a TaxLotLedger that relieves sales FIFO by default.
+     */
+    public TaxLotLedger() {
+        this(LotMethod.FIFO);
+    }
+
+    /**
+     * Constructs a TaxLotLedger with the given default relief method.
+     *
+     * @param defaultMethod FIFO or LIFO.
+     */
+    public TaxLotLedger(LotMethod defaultMethod) {
+        if (defaultMethod == LotMethod.SPECIFIC_ID) {
+            throw new IllegalArgumentException("Specific identification needs lot IDs and cannot be the default");
+        }
+        this.defaultMethod = defaultMethod;
+    }
+
+    /**
+     * Applies a list of transactions in order, relieving sales with the default method.
+     *
+     * @param transactions The transactions, oldest first.
+     */
+    public void replay(List<Transaction> transactions) {
+        for (Transaction transaction : transactions) {
+            apply(transaction);
+        }
+    }
+
+    /**
+     * Applies a transaction, relieving a sale with the default method.
+     *
+     * @param transaction The BUY or SELL transaction.
+     * @return The realized profit or loss; always 0 for a BUY.
+     */
+    public double apply(Transaction transaction) {
+        return apply(transaction, defaultMethod);
+    }
+
+    /**
+     * Applies a transaction, relieving a sale with the given method.
+     *
+     * @param transaction The BUY or SELL transaction.
+     * @param method      FIFO or LIFO; ignored for a BUY.
+     * @return The realized profit or loss; always 0 for a BUY.
+     */
+    public double apply(Transaction transaction, LotMethod method) {
+        if (transaction.getType() == Transaction.TransactionType.SELL && method == LotMethod.SPECIFIC_ID) {
+            throw new IllegalArgumentException("Use applySpecific to sell specific lots");
+        }
+        Holding holding = holding(transaction);
+        double pnl;
+        synchronized (holding) {
+            holding.stock = transaction.getStock();
+            if (transaction.getType() == Transaction.TransactionType.BUY) {
+                holding.lots.add(transaction.getQuantity(), transaction.getPrice(), epochSeconds(transaction));
+                return 0.0;
+            }
+            pnl = method == LotMethod.LIFO
+                    ? holding.lots.relieveLifo(transaction.getQuantity(), transaction.getPrice())
+                    : holding.lots.relieveFifo(transaction.getQuantity(), transaction.getPrice());
+        }
+        book(transaction.getPortfolioId(), pnl);
+        return pnl;
+    }
+
+    /**
+     * Applies a sale against specific lots, relieved in the order given.
+     *
+     * @param sale   The SELL transaction.
+     * @param lotIds The lots to sell.
+     * @return The realized profit or loss.
+     */
+    public double applySpecific(Transaction sale, int... lotIds) {
+        if (sale.getType() != Transaction.TransactionType.SELL) {
+            throw new IllegalArgumentException("Only a SELL can relieve specific lots");
+        }
+        Holding holding = holding(sale);
+        double pnl;
+        synchronized (holding) {
+            holding.stock = sale.getStock();
+            pnl = holding.lots.relieveSpecific(sale.getQuantity(), sale.getPrice(), lotIds);
+        }
+        book(sale.getPortfolioId(), pnl);
+        return pnl;
+    }
+
+    /**
+     * Gets the open lots of a stock in a portfolio. The returned queue is live; callers that
+     * read it while transactions are applied must synchronize on it.
+     *
+     * @param portfolioId The portfolio ID.
+     * @param symbol      The stock symbol.
+     * @return The lot queue, or null if the stock was never bought in the portfolio.
+     */
+    public LotQueue getLots(int portfolioId, String symbol) {
+        Map<String, Holding> bySymbol = holdings.get(portfolioId);
+        Holding holding = bySymbol == null ? null : bySymbol.get(symbol);
+        return holding == null ? null : holding.lots;
+    }
+
+    /**
+     * Gets the realized profit or loss of a portfolio.
+     *
+     * @param portfolioId The portfolio ID.
+     * @return The realized profit or loss booked so far.
+     */
+    public double getRealizedPnL(int portfolioId) {
+        DoubleAdder adder = realized.get(portfolioId);
+        return adder == null ? 0.0 : adder.sum();
+    }
+
+    /**
+     * Gets the unrealized profit or loss of a portfolio's open lots at the current price of the
+     * stock most recently seen for each symbol.
+     *
+     * @param portfolioId The portfolio ID.
+     * @return The unrealized profit or loss.
+     */
+    public double getUnrealizedPnL(int portfolioId) {
+        Map<String, Holding> bySymbol = holdings.get(portfolioId);
+        if (bySymbol == null) {
+            return 0.0;
+        }
+        double total = 0.0;
+        for (Holding holding : bySymbol.values()) {
+            synchronized (holding) {
+                total += holding.lots.unrealizedPnL(holding.stock.getCurrentPrice());
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Finds or creates the holding a transaction applies to.
+     *
+     * @param transaction The transaction.
+     * @return The holding.
+     */
+    private Holding holding(Transaction transaction) {
+        Stock stock = transaction.getStock();
+        return holdings.computeIfAbsent(transaction.getPortfolioId(), id -> new ConcurrentHashMap<>())
+                .computeIfAbsent(stock.getSymbol(), s -> new Holding(stock));
+    }
+
+    /**
+     * Adds a realized result to a portfolio's total.
+     *
+     * @param portfolioId The portfolio ID.
+     * @param pnl         The realized profit or loss.
+     */
+    private void book(int portfolioId, double pnl) {
+        realized.computeIfAbsent(portfolioId, id -> new DoubleAdder()).add(pnl);
+    }
+
+    /**
+     * Converts a transaction's date to epoch seconds.
+     *
+     * @param transaction The transaction.
+     * @return The transaction time in epoch seconds (UTC).
+     */
+    private static long epochSeconds(Transaction transaction) {
+        return transaction.getTransactionDate().toEpochSecond(ZoneOffset.UTC);
+    }
+
+    /**
+     * The lots of one stock in one portfolio and the stock used to price them.
+     */
+    private static final class Holding {
+
+        /** The open lots. */
+        final LotQueue lots = new LotQueue();
+
+        /** The stock most recently seen in a transaction for this holding. */
+        Stock stock;
+
+        /**
+         * Constructs an empty holding.
+         *
+         * @param stock The stock held.
+         */
+        Holding(Stock stock) {
+            this.stock = stock;
+        }
+    }
+}
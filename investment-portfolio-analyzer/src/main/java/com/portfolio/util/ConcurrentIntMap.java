@@ -0,0 +1,427 @@
+package com.portfolio.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.IntFunction;
+
+/**
+ * This class is a concurrent hash map keyed by primitive {@code int}s. Keys are never boxed:
+ * each of its lock-striped segments is an open-addressing table of parallel key and value
+ * arrays with linear probing.
+ * <p>
+ * Lookups are lock-free in the common case. They read under an optimistic {@link StampedLock}
+ * stamp and only fall back to a read lock if a writer touched the segment meanwhile. Writers to
+ * different segments never contend. Null values are not supported, since an empty slot is
+ * marked by a null value.
+ * @author Gaoussou Thiam
+ * @date 10/19/2026
+ * @param <V> The type of the values.
+ */
+public final class ConcurrentIntMap<V> {
+
+
+    /** Number of bits of the hash that select a segment. */
+    private static final int SEGMENT_BITS = 4;
+
+    /** Number of segments. */
+    private static final int SEGMENTS = 1 << SEGMENT_BITS;
+
+    /** Initial capacity of each segment's table. */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /** The segments, selected by the high bits of the hash. */
+    private final Segment<V>[] segments;
+
+    /**
+     * Constructs an empty map.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public ConcurrentIntMap() {
+        segments = new Segment[SEGMENTS];
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment<>();
+        }
+    }
+
+    /**
+     * Gets the value of a key.
+     *
+     * @param key The key.
+     * @return The value, or null if the key is absent.
+     */
+    public V get(int key) {
+        int hash = hash(key);
+        return segmentFor(hash).get(key, hash);
+    }
+
+    /**
+     * Checks whether a key is present.
+     *
+     * @param key The key.
+     * @return True if the key is present.
+     */
+    public boolean containsKey(int key) {
+        return get(key) != null;
+    }
+
+    /**
+     * Associates a value with a key, replacing any previous value.
+     *
+     * @param key   The key.
+     * @param value The value, not null.
+     * @return The previous value, or null if the key was absent.
+     */
+    public V put(int key, V value) {
+        requireValue(value);
+        int hash = hash(key);
+        return segmentFor(hash).put(key, hash, value, false);
+    }
+
+    /**
+     * Associates a value with a key if the key is absent.
+     *
+     * @param key   The key.
+     * @param value The value, not null.
+     * @return The existing value, or null if the value was added.
+     */
+    public V putIfAbsent(int key, V value) {
+        requireValue(value);
+        int hash = hash(key);
+        return segmentFor(hash).put(key, hash, value, true);
+    }
+
+    /**
+     * Gets the value of a key, creating it atomically if the key is absent. The function runs
+     * while the key's segment is locked, so it must be short and must not touch this map.
+     *
+     * @param key      The key.
+     * @param function Creates the value of an absent key; must not return null.
+     * @return The existing or created value.
+     */
+    public V computeIfAbsent(int key, IntFunction<? extends V> function) {
+        int hash = hash(key);
+        Segment<V> segment = segmentFor(hash);
+        V value = segment.get(key, hash);
+        return value != null ? value : segment.computeIfAbsent(key, hash, function);
+    }
+
+    /**
+     * Removes a key.
+     *
+     * @param key The key.
+     * @return The removed value, or null if the key was absent.
+     */
+    public V remove(int key) {
+        int hash = hash(key);
+        return segmentFor(hash).remove(key, hash);
+    }
+
+    /**
+     * Gets the number of entries. The count is exact only when no writer is active.
+     *
+     * @return The size.
+     */
+    public int size() {
+        int size = 0;
+        for (Segment<V> segment : segments) {
+            size += segment.size;
+        }
+        return size;
+    }
+
+    /**
+     * Copies the values into a list. Each segment is copied atomically, but the map as a whole
+     * is not locked, so concurrent writes to other segments may or may not be included.
+     *
+     * @return The values in no particular order.
+     */
+    public List<V> values() {
+        List<V> values = new ArrayList<>(size());
+        for (Segment<V> segment : segments) {
+            segment.copyValues(values);
+        }
+        return values;
+    }
+
+    /**
+     * Spreads the bits of a key so sequential IDs scatter over segments and slots.
+     *
+     * @param key The key.
+     * @return The hash.
+     */
+    private static int hash(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Selects the segment of a hash.
+     *
+     * @param hash The hash.
+     * @return The segment.
+     */
+    private Segment<V> segmentFor(int hash) {
+        return segments[hash >>> (32 - SEGMENT_BITS)];
+    }
+
+    /**
+     * Rejects null values.
+     *
+     * @param value The value.
+     */
+    private static void requireValue(Object value) {
+        if (value == null) {
+            throw new NullPointerException("ConcurrentIntMap does not support null values");
+        }
+    }
+
+    /**
+     * The key and value arrays of a segment, replaced together on resize so an optimistic
+     * reader always sees a matching pair.
+     */
+    private static final class Table {
+
+        /** Keys by slot. */
+        final int[] keys;
+
+        /** Values by slot; null marks an empty slot. */
+        final Object[] values;
+
+        /**
+         * Constructs an empty table.
+         *
+         * @param capacity The number of slots, a power of two.
+         */
+        Table(int capacity) {
+            keys = new int[capacity];
+            values = new Object[capacity];
+        }
+    }
+
+    /**
+     * One lock-striped open-addressing table.
+     *
+     * @param <V> The type of the values.
+     */
+    private static final class Segment<V> {
+
+        /** Guards writes; lets reads proceed optimistically. */
+        private final StampedLock lock = new StampedLock();
+
+        /** The current table. */
+        private volatile Table table = new Table(INITIAL_CAPACITY);
+
+        /** Number of entries. */
+        private volatile int size;
+
+        /**
+         * Looks a key up, optimistically first.
+         *
+         * @param key  The key.
+         * @param hash The key's hash.
+         * @return The value, or null if absent.
+         */
+        V get(int key, int hash) {
+            long stamp = lock.tryOptimisticRead();
+            if (stamp != 0L) {
+                Object value = find(table, key, hash);
+                if (lock.validate(stamp)) {
+                    return cast(value);
+                }
+            }
+            stamp = lock.readLock();
+            try {
+                return cast(find(table, key, hash));
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        /**
+         * Adds or replaces a value.
+         *
+         * @param key         The key.
+         * @param hash        The key's hash.
+         * @param value       The value.
+         * @param onlyIfAbsent Whether to keep an existing value.
+         * @return The previous value, or null if absent.
+         */
+        V put(int key, int hash, V value, boolean onlyIfAbsent) {
+            long stamp = lock.writeLock();
+            try {
+                Table current = table;
+                int slot = slot(current, key, hash);
+                Object previous = current.values[slot];
+                if (previous == null) {
+                    insert(current, slot, key, value);
+                } else if (!onlyIfAbsent) {
+                    current.values[slot] = value;
+                }
+                return cast(previous);
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        /**
+         * Creates the value of a key under the write lock unless another writer did so first.
+         *
+         * @param key      The key.
+         * @param hash     The key's hash.
+         * @param function Creates the value.
+         * @return The existing or created value.
+         */
+        V computeIfAbsent(int key, int hash, IntFunction<? extends V> function) {
+            long stamp = lock.writeLock();
+            try {
+                Table current = table;
+                int slot = slot(current, key, hash);
+                Object existing = current.values[slot];
+                if (existing != null) {
+                    return cast(existing);
+                }
+                V created = function.apply(key);
+                requireValue(created);
+                insert(current, slot, key, created);
+                return created;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        /**
+         * Removes a key, shifting later entries of its probe run back so lookups stay correct.
+         *
+         * @param key  The key.
+         * @param hash The key's hash.
+         * @return The removed value, or null if absent.
+         */
+        V remove(int key, int hash) {
+            long stamp = lock.writeLock();
+            try {
+                Table current = table;
+                int mask = current.keys.length - 1;
+                int slot = slot(current, key, hash);
+                Object removed = current.values[slot];
+                if (removed == null) {
+                    return null;
+                }
+                int gap = slot;
+                int next = (gap + 1) & mask;
+                while (current.values[next] != null) {
+                    int home = hash(current.keys[next]) & mask;
+                    // Move the entry into the gap if its home slot does not lie in (gap, next].
+                    if (((next - home) & mask) >= ((next - gap) & mask)) {
+                        current.keys[gap] = current.keys[next];
+                        current.values[gap] = current.values[next];
+                        gap = next;
+                    }
+                    next = (next + 1) & mask;
+                }
+                current.values[gap] = null;
+                size--;
+                return cast(removed);
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        /**
+         * Copies the values into a list under the read lock.
+         *
+         * @param target The list to append to.
+         */
+        void copyValues(List<V> target) {
+            long stamp = lock.readLock();
+            try {
+                for (Object value : table.values) {
+                    if (value != null) {
+                        target.add(cast(value));
+                    }
+                }
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        /**
+         * Fills an empty slot, growing the table once it is three quarters full.
+         *
+         * @param current The current table.
+         * @param slot    The empty slot found for the key.
+         * @param key     The key.
+         * @param value   The value.
+         */
+        private void insert(Table current, int slot, int key, Object value) {
+            current.keys[slot] = key;
+            current.values[slot] = value;
+            size++;
+            if (size * 4 > current.keys.length * 3) {
+                Table grown = new Table(current.keys.length * 2);
+                for (int i = 0; i < current.keys.length; i++) {
+                    if (current.values[i] != null) {
+                        int k = current.keys[i];
+                        int target = slot(grown, k, hash(k));
+                        grown.keys[target] = k;
+                        grown.values[target] = current.values[i];
+                    }
+                }
+                table = grown;
+            }
+        }
+
+        /**
+         * Finds a key's value, bounded so a torn optimistic read cannot loop forever.
+         *
+         * @param current The table to search.
+         * @param key     The key.
+         * @param hash    The key's hash.
+         * @return The value, or null if absent.
+         */
+        private static Object find(Table current, int key, int hash) {
+            int[] keys = current.keys;
+            Object[] values = current.values;
+            int mask = keys.length - 1;
+            for (int probe = 0, slot = hash & mask; probe <= mask; probe++, slot = (slot + 1) & mask) {
+                Object value = values[slot];
+                if (value == null) {
+                    return null;
+                }
+                if (keys[slot] == key) {
+                    return value;
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Finds the slot holding a key or the empty slot where it belongs.
+         *
+         * @param current The table to search; it always has an empty slot.
+         * @param key     The key.
+         * @param hash    The key's hash.
+         * @return The slot.
+         */
+        private static int slot(Table current, int key, int hash) {
+            int mask = current.keys.length - 1;
+            int slot = hash & mask;
+            while (current.values[slot] != null && current.keys[slot] != key) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+
+        /**
+         * Casts a stored value.
+         *
+         * @param value The stored value.
+         * @param <V>   The type of the values.
+         * @return The value.
+         */
+        @SuppressWarnings("unchecked")
+        private static <V> V cast(Object value) {
+            return (V) value;
+        }
+    }
+}
@@ -2,11 +2,17 @@ package com.portfolio.util;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Properties;
 
 /**
  * This class provides centralized access to database configuration settings.
  * It loads settings from a properties file and provides default values if the file is missing.
+ * <p>
+ * Besides the primary database, the file may list read replicas in {@code db.replica.urls},
+ * separated by commas; they share the primary's credentials. To shard portfolios across
+ * several databases instead, list them all in {@code db.shard.urls}.
  * @author Gaoussou Thiam
  * @date 02/17/2026
  */
@@ -65,4 +71,54 @@ public class DatabaseConfig {
     public static String getPassword() {
         return properties.getProperty("db.password");
     }
-}
\ No newline at end of file
+
+    /**
+     * Gets the URLs of the read replicas.
+     *
+     * @return The JDBC URLs of the replicas; empty if every read goes to the primary.
+     */
+    public static List<String> getReplicaUrls() {
+        return splitUrls("db.replica.urls");
+    }
+
+    /**
+     * Gets how long a thread keeps reading from the primary after it writes, so it sees its
+     * own writes despite replication lag.
+     *
+     * @return The window in milliseconds; 0 to always read from replicas.
+     */
+    public static long getReadYourWritesMillis() {
+        return Long.parseLong(properties.getProperty("db.replica.readYourWritesMillis", "0"));
+    }
+
+    /**
+     * Gets how long a replica that failed is left out before it is tried again.
+     *
+     * @return The delay in milliseconds.
+     */
+    public static long getReplicaRetryMillis() {
+        return Long.parseLong(properties.getProperty("db.replica.retryMillis", "5000"));
+    }
+
+    /**
+     * Gets the URLs of the shards that portfolios are spread across.
+     *
+     * @return The JDBC URLs of the shards in their fixed order; empty if the data is not sharded.
+     */
+    public static List<String> getShardUrls() {
+        return splitUrls("db.shard.urls");
+    }
+
+    /**
+     * Splits a comma-separated list of URLs.
+     *
+     * @param key The property holding the list.
+     * @return The trimmed, non-empty URLs.
+     */
+    private static List<String> splitUrls(String key) {
+        return Arrays.stream(properties.getProperty(key, "").split(","))
+                .map(String::trim)
+                .filter(url -> !url.isEmpty())
+                .toList();
+    }
+}
@@ -0,0 +1,97 @@
+package com.portfolio.util;
+
+/**
+ * This class provides the small set of dense linear algebra routines used by the
+ * risk and optimisation engines. Matrices are stored as flat row-major primitive
+ * arrays so that hot loops stay free of object indirection.
+ * @author Gaoussou Thiam
+ * @date 10/19/2026
+ */
+public final class LinearAlgebra {
+
+
+    /** Pivots below this value are treated as zero when factorising semi-definite matrices. */
+    private static final double PIVOT_EPSILON = 1e-14;
+
+    /**
+     * Prevents instantiation of this utility class.
+     */
+    private LinearAlgebra() {
+    }
+
+    /**
+     * Flattens a square matrix into a row-major array.
+     *
+     * @param matrix The square matrix to flatten.
+     * @return A row-major copy of the matrix.
+     * @throws IllegalArgumentException If the matrix is not square.
+     */
+    public static double[] flatten(double[][] matrix) {
+        int n = matrix.length;
+        double[] flat = new double[n * n];
+        for (int i = 0; i < n; i++) {
+            if (matrix[i].length != n) {
+                throw new IllegalArgumentException("Matrix is not square at row " + i);
+            }
+            System.arraycopy(matrix[i], 0, flat, i * n, n);
+        }
+        return flat;
+    }
+
+    /**
+     * Computes the lower-triangular Cholesky factor L of a symmetric positive
+     * semi-definite matrix A such that A = L * L^T. Columns whose pivot collapses to
+     * zero (perfectly correlated or zero-variance factors) are left as zero instead
+     * of failing the factorisation.
+     *
+     * @param a The symmetric matrix in row-major order.
+     * @param n The dimension of the matrix.
+     * @return The lower-triangular factor in row-major order.
+     * @throws IllegalArgumentException If the matrix is not positive semi-definite.
+     */
+    public static double[] cholesky(double[] a, int n) {
+        if (a.length != n * n) {
+            throw new IllegalArgumentException("Expected " + (n * n) + " elements but got " + a.length);
+        }
+        double[] l = new double[n * n];
+        for (int j = 0; j < n; j++) {
+            double diagonal = a[j * n + j];
+            for (int k = 0; k < j; k++) {
+                diagonal -= l[j * n + k] * l[j * n + k];
+            }
+            double scale = Math.max(1.0, Math.abs(a[j * n + j]));
+            if (diagonal < -PIVOT_EPSILON * scale) {
+                throw new IllegalArgumentException("Matrix is not positive semi-definite at column " + j);
+            }
+            if (diagonal <= PIVOT_EPSILON * scale) {
+                continue;
+            }
+            double pivot = Math.sqrt(diagonal);
+            l[j * n + j] = pivot;
+            for (int i = j + 1; i < n; i++) {
+                double sum = a[i * n + j];
+                for (int k = 0; k < j; k++) {
+                    sum -= l[i * n + k] * l[j * n + k];
+                }
+                l[i * n + j] = sum / pivot;
+            }
+        }
+        return l;
+    }
+
+    /**
+     * Computes the dot product of two vectors.
+     *
+     * @param x The first vector.
+     * @param y The second vector.
+     * @param length The number of leading elements to include.
+     * @return The dot product of the first {@code length} elements.
+     */
+    public static double dot(double[] x, double[] y, int length) {
+        double sum = 0.0;
+        for (int i = 0; i < length; i++) {
+            sum += x[i] * y[i];
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,60 @@
+package com.portfolio.util;
+
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+
+/**
+ * This class is a fork-join action that applies a function to every index of a range,
+ * splitting the range in halves until it is no larger than a threshold. It is the common
+ * building block the analysis engines use to parallelise over portfolios and scenarios.
+ * @author Gaoussou Thiam
+ * @date 10/19/2026
+ */
+public final class RangeAction extends RecursiveAction {
+
+
+    /** Serialization version; actions are never serialized, but ForkJoinTask is Serializable. */
+    private static final long serialVersionUID = 1L;
+
+    /** The first index, inclusive. */
+    private final int lo;
+
+    /** The last index, exclusive. */
+    private final int hi;
+
+    /** Ranges of at most this size are run directly. */
+    private final int threshold;
+
+    /** The function applied to each index. */
+    private final transient IntConsumer body;
+
+    /**
+     * Constructs a new RangeAction.
+     *
+     * @param lo        The first index, inclusive.
+     * @param hi        The last index, exclusive.
+     * @param threshold The largest range run without splitting.
+     * @param body      The function applied to each index.
+     */
+    public RangeAction(int lo, int hi, int threshold, IntConsumer body) {
+        this.lo = lo;
+        this.hi = hi;
+        this.threshold = Math.max(1, threshold);
+        this.body = body;
+    }
+
+    /**
+     * Runs the body directly for small ranges and splits larger ones.
+     */
+    @Override
+    protected void compute() {
+        if (hi - lo <= threshold) {
+            for (int i = lo; i < hi; i++) {
+                body.accept(i);
+            }
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        invokeAll(new RangeAction(lo, mid, threshold, body), new RangeAction(mid, hi, threshold, body));
+    }
+}
@@ -0,0 +1,80 @@
+package com.portfolio.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * This class creates the application tables on an existing database connection from the
+ * bundled {@code Portfolio.sql} script. It is used to bootstrap embedded databases, such as
+ * H2 in MySQL compatibility mode, for benchmarks and load tests. Comments are stripped and
+ * the {@code CREATE DATABASE} and {@code USE} statements are skipped, since the target
+ * database is chosen by the connection.
+ * @author Gaoussou Thiam
+ * @date 10/19/2026
+ */
+public final class SchemaLoader {
+
+
+    /** The name of the schema script on the classpath. */
+    private static final String SCHEMA_FILE = "Portfolio.sql";
+
+    /**
+     * Prevents instantiation of this utility class.
+     */
+    private SchemaLoader() {
+    }
+
+    /**
+     * Creates the application tables and indexes on the given connection.
+     *
+     * @param conn The connection to the target database.
+     * @throws SQLException If a statement fails or the script cannot be read.
+     */
+    public static void apply(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            for (String sql : statements()) {
+                stmt.execute(sql);
+            }
+        }
+    }
+
+    /**
+     * Reads the schema script and splits it into executable statements.
+     *
+     * @return The statements, in script order.
+     * @throws SQLException If the script cannot be found or read.
+     */
+    static List<String> statements() throws SQLException {
+        String script;
+        try (InputStream input = SchemaLoader.class.getClassLoader().getResourceAsStream(SCHEMA_FILE)) {
+            if (input == null) {
+                throw new SQLException("Unable to find " + SCHEMA_FILE + " on the classpath");
+            }
+            script = new String(input.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new SQLException("Unable to read " + SCHEMA_FILE, e);
+        }
+
+        // Drop block comments (including the commented-out sample data) and line comments
+        script = script.replaceAll("(?s)/\\*.*?\\*/", "");
+        script = script.replaceAll("(?m)--.*$", "");
+
+        List<String> statements = new ArrayList<>();
+        for (String part : script.split(";")) {
+            String sql = part.trim();
+            String upper = sql.toUpperCase(Locale.ROOT);
+            if (sql.isEmpty() || upper.startsWith("CREATE DATABASE") || upper.startsWith("USE ")) {
+                continue;
+            }
+            statements.add(sql);
+        }
+        return statements;
+    }
+}
@@ -0,0 +1,42 @@
+package com.portfolio.util;
+
+/**
+ * This class numbers ticker symbols, so generated stock universes for benchmarks and load
+ * tests get distinct symbols that pass the schema's {@code ^[A-Z]{1,5}$} check: A to Z, then
+ * AA to ZZ, and so on, like spreadsheet columns.
+ * @author Gaoussou Thiam
+ * @date 10/19/2026
+ * @see com.portfolio.util.SchemaLoader
+ */
+public final class TickerSymbols {
+
+
+    /** The number of symbols of up to five letters. */
+    public static final int MAX_SYMBOLS = 26 + 26 * 26 + 26 * 26 * 26 + 26 * 26 * 26 * 26 + 26 * 26 * 26 * 26 * 26;
+
+    /**
+     * Prevents instantiation of this utility class.
+     */
+    private TickerSymbols() {
+    }
+
+    /**
+     * Builds the symbol with a given number.
+     *
+     * @param index A number from 0, below {@link #MAX_SYMBOLS}.
+     * @return The symbol.
+     * @throws IllegalArgumentException If the number is out of range.
+     */
+    public static String symbol(int index) {
+        if (index < 0 || index >= MAX_SYMBOLS) {
+            throw new IllegalArgumentException("Symbol number out of range: " + index);
+        }
+        StringBuilder symbol = new StringBuilder();
+        int value = index;
+        do {
+            symbol.append((char) ('A' + value % 26));
+            value = value / 26 - 1;
+        } while (value >= 0);
+        return symbol.reverse().toString();
+    }
+}
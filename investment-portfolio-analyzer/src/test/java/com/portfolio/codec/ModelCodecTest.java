@@ -0,0 +1,327 @@
+package com.portfolio.codec;
+
+import com.portfolio.model.Portfolio;
+import com.portfolio.model.Position;
+import com.portfolio.model.Stock;
+import com.portfolio.model.Transaction;
+import org.junit.jupiter.api.Test;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Tests for {@link ModelCodec}: round trips of every message kind, dictionary back-references,
+ * version checks, and truncated or overrunning messages being rejected rather than misread.
+ * @author Gaoussou Thiam
+ * @date 10/19/2026
+ * @see com.portfolio.codec.ModelCodec
+ */
+class ModelCodecTest {
+
+
+    /** The codec, reused between messages as its callers do. */
+    private final ModelCodec codec = new ModelCodec();
+
+    @Test
+    void stockRoundTrips() {
+        Stock stock = stock(7, "NESN", "Nestlé S.A. 🍫", null, 101.25);
+
+        Stock decoded = codec.decodeStock(encode(buffer -> codec.encode(stock, buffer)));
+
+        assertStock(stock, decoded);
+        assertNull(decoded.getSector());
+    }
+
+    @Test
+    void portfolioRoundTripsWithPositions() {
+        Stock apple = stock(1, "AAPL", "Apple Inc.", "Technology", 190.5);
+        Stock exxon = stock(2, "XOM", "Exxon Mobil", "Energy", 110.0);
+        Portfolio portfolio = new Portfolio("Growth", null, LocalDateTime.of(2024, 1, 2, 3, 4, 5, 6));
+        portfolio.setPortfolioId(42);
+        portfolio.addPosition(position(10, apple, 5, 150.0, LocalDateTime.of(1969, 7, 20, 20, 17, 40)));
+        portfolio.addPosition(position(11, exxon, 2.5, 95.5, null));
+        portfolio.addPosition(position(300, apple, 1, 180.0, LocalDateTime.of(2024, 6, 1, 0, 0)));
+
+        Portfolio decoded = codec.decodePortfolio(encode(buffer -> codec.encode(portfolio, buffer)));
+
+        assertEquals(42, decoded.getPortfolioId());
+        assertEquals("Growth", decoded.getName());
+        assertNull(decoded.getDescription());
+        assertEquals(portfolio.getCreationDate(), decoded.getCreationDate());
+        assertEquals(3, decoded.getPositions().size());
+        for (int i = 0; i < 3; i++) {
+            Position expected = portfolio.getPositions().get(i);
+            Position actual = decoded.getPositions().get(i);
+            assertEquals(expected.getPositionId(), actual.getPositionId());
+            assertEquals(expected.getQuantity(), actual.getQuantity());
+            assertEquals(expected.getPurchasePrice(), actual.getPurchasePrice());
+            assertEquals(expected.getPurchaseDate(), actual.getPurchaseDate());
+            assertStock(expected.getStock(), actual.getStock());
+        }
+    }
+
+    @Test
+    void transactionsRoundTrip() {
+        Stock apple = stock(1, "AAPL", "Apple Inc.", "Technology", 190.5);
+        Stock msft = stock(3, "MSFT", "Microsoft", "Technology", 410.0);
+        List<Transaction> transactions = List.of(
+                transaction(1, 9, apple, Transaction.TransactionType.BUY, 10, 150.0,
+                        LocalDateTime.of(2024, 3, 1, 9, 30, 0, 123_456_789)),
+                transaction(2, 9, msft, Transaction.TransactionType.SELL, 4, 400.0,
+                        LocalDateTime.of(2024, 3, 2, 16, 0)),
+                transaction(70_000, 12, apple, Transaction.TransactionType.SELL, 0.5, 191.0,
+                        LocalDateTime.of(1999, 12, 31, 23, 59, 59)));
+
+        List<Transaction> decoded = codec.decodeTransactions(encode(buffer -> codec.encode(transactions, buffer)));
+
+        assertEquals(transactions.size(), decoded.size());
+        for (int i = 0; i < transactions.size(); i++) {
+            Transaction expected = transactions.get(i);
+            Transaction actual = decoded.get(i);
+            assertEquals(expected.getTransactionId(), actual.getTransactionId());
+            assertEquals(expected.getPortfolioId(), actual.getPortfolioId());
+            assertEquals(expected.getType(), actual.getType());
+            assertEquals(expected.getQuantity(), actual.getQuantity());
+            assertEquals(expected.getPrice(), actual.getPrice());
+            assertEquals(expected.getTransactionDate(), actual.getTransactionDate());
+            assertStock(expected.getStock(), actual.getStock());
+        }
+        assertTrue(codec.decodeTransactions(encode(buffer -> codec.encode(List.of(), buffer))).isEmpty());
+    }
+
+    @Test
+    void repeatedStocksAndSectorsAreBackReferences() {
+        Stock apple = stock(1, "AAPL", "Apple Inc.", "Technology", 190.5);
+        Stock msft = stock(3, "MSFT", "Microsoft", "Technology", 410.0);
+        Portfolio portfolio = new Portfolio("Tech", "Large caps");
+        for (int i = 0; i < 50; i++) {
+            portfolio.addPosition(position(i + 1, i % 2 == 0 ? apple : msft, 1, 100.0, null));
+        }
+        ByteBuffer once = encode(buffer -> codec.encode(portfolio, buffer));
+        Portfolio single = new Portfolio("Tech", "Large caps");
+        single.addPosition(position(1, apple, 1, 100.0, null));
+        single.addPosition(position(2, msft, 1, 100.0, null));
+        ByteBuffer twice = encode(buffer -> codec.encode(single, buffer));
+
+        Portfolio decoded = codec.decodePortfolio(once);
+
+        List<Position> positions = decoded.getPositions();
+        assertSame(positions.get(0).getStock(), positions.get(2).getStock());
+        assertSame(positions.get(1).getStock(), positions.get(49).getStock());
+        assertSame(positions.get(0).getStock().getSector(), positions.get(1).getStock().getSector());
+        // Each further position costs its own fields and a one-byte stock reference, no stock.
+        int perPosition = (once.remaining() - twice.remaining()) / 48;
+        assertTrue(perPosition <= 1 + 1 + 8 + 8 + 1, "bytes per repeated position: " + perPosition);
+    }
+
+    @Test
+    void unsavedStocksAreWrittenInFull() {
+        Stock first = new Stock("NEW", "Unsaved", "Tech", 1.0);
+        Stock second = new Stock("NEW", "Unsaved", "Tech", 1.0);
+        Portfolio portfolio = new Portfolio("Draft", null);
+        portfolio.addPosition(position(1, first, 1, 1.0, null));
+        portfolio.addPosition(position(2, second, 1, 1.0, null));
+
+        Portfolio decoded = codec.decodePortfolio(encode(buffer -> codec.encode(portfolio, buffer)));
+
+        assertNotSame(decoded.getPositions().get(0).getStock(), decoded.getPositions().get(1).getStock());
+    }
+
+    @Test
+    void dictionariesDoNotCarryOverBetweenMessages() {
+        Stock apple = stock(1, "AAPL", "Apple Inc.", "Technology", 190.5);
+        ByteBuffer first = encode(buffer -> codec.encode(apple, buffer));
+        ByteBuffer second = encode(buffer -> codec.encode(apple, buffer));
+
+        assertEquals(first, second);
+        assertStock(apple, codec.decodeStock(first));
+        assertStock(apple, codec.decodeStock(second));
+    }
+
+    @Test
+    void unknownVersionsAndWrongKindsAreRejected() {
+        ByteBuffer message = encode(buffer -> codec.encode(stock(1, "AAPL", "Apple", "Tech", 1.0), buffer));
+
+        ByteBuffer newer = copy(message);
+        newer.put(1, (byte) (ModelCodec.VERSION + 1));
+        assertThrows(IllegalArgumentException.class, () -> codec.decodeStock(newer));
+
+        ByteBuffer unversioned = copy(message);
+        unversioned.put(1, (byte) 0);
+        assertThrows(IllegalArgumentException.class, () -> codec.decodeStock(unversioned));
+
+        assertThrows(IllegalArgumentException.class, () -> codec.decodePortfolio(copy(message)));
+        assertThrows(IllegalArgumentException.class, () -> codec.decodeTransactions(copy(message)));
+    }
+
+    @Test
+    void danglingReferencesAreRejected() {
+        ByteBuffer stockReference = ByteBuffer.allocate(16);
+        stockReference.put(ModelCodec.STOCK);
+        ModelCodec.putVarint(stockReference, ModelCodec.VERSION);
+        ModelCodec.putVarint(stockReference, 2);
+        assertThrows(IllegalArgumentException.class, () -> codec.decodeStock(stockReference.flip()));
+
+        ByteBuffer symbolReference = ByteBuffer.allocate(32);
+        symbolReference.put(ModelCodec.STOCK);
+        ModelCodec.putVarint(symbolReference, ModelCodec.VERSION);
+        ModelCodec.putVarint(symbolReference, 1);
+        ModelCodec.putVarint(symbolReference, 5);
+        // The symbol refers to the second dictionary string before any was written.
+        ModelCodec.putVarint(symbolReference, 3);
+        assertThrows(IllegalArgumentException.class, () -> codec.decodeStock(symbolReference.flip()));
+    }
+
+    @Test
+    void truncatedMessagesAreRejected() {
+        Stock apple = stock(1, "AAPL", "Apple Inc.", "Technology", 190.5);
+        Portfolio portfolio = new Portfolio("Growth", "Long only", LocalDateTime.of(2024, 1, 2, 3, 4));
+        portfolio.addPosition(position(1, apple, 5, 150.0, LocalDateTime.of(2024, 1, 3, 0, 0)));
+        portfolio.addPosition(position(2, apple, 1, 160.0, null));
+        ByteBuffer message = encode(buffer -> codec.encode(portfolio, buffer));
+
+        for (int length = 0; length < message.remaining(); length++) {
+            ByteBuffer truncated = ByteBuffer.wrap(Arrays.copyOf(message.array(), length));
+            try {
+                codec.decodePortfolio(truncated);
+                fail("Decoded a portfolio from " + length + " of " + message.remaining() + " bytes");
+            } catch (BufferUnderflowException | IllegalArgumentException e) {
+                // Rejected, as it should be.
+            }
+        }
+    }
+
+    @Test
+    void overrunningLengthsAndCountsAreRejected() {
+        ByteBuffer string = ByteBuffer.allocate(32);
+        string.put(ModelCodec.STOCK);
+        ModelCodec.putVarint(string, ModelCodec.VERSION);
+        ModelCodec.putVarint(string, 1);
+        ModelCodec.putVarint(string, 5);
+        ModelCodec.putVarint(string, 1);
+        ModelCodec.putVarint(string, 1000);
+        string.put((byte) 'A');
+        IllegalArgumentException overrun = assertThrows(IllegalArgumentException.class,
+                () -> codec.decodeStock(string.flip()));
+        assertTrue(overrun.getMessage().contains("overruns"), overrun.getMessage());
+
+        for (int count : new int[]{Integer.MAX_VALUE, -1, 3}) {
+            ByteBuffer transactions = ByteBuffer.allocate(16);
+            transactions.put(ModelCodec.TRANSACTIONS);
+            ModelCodec.putVarint(transactions, ModelCodec.VERSION);
+            ModelCodec.putVarint(transactions, count);
+            transactions.put((byte) 0);
+            assertThrows(IllegalArgumentException.class, () -> codec.decodeTransactions(transactions.flip()),
+                    "count " + count);
+        }
+    }
+
+    @Test
+    void malformedVarintsAreRejected() {
+        ByteBuffer varint = ByteBuffer.wrap(new byte[]{ModelCodec.STOCK, (byte) 0x81, (byte) 0x80, (byte) 0x80,
+                (byte) 0x80, (byte) 0x80, 0});
+        assertThrows(IllegalArgumentException.class, () -> codec.decodeStock(varint));
+    }
+
+    /**
+     * Encodes a message into a fresh buffer.
+     *
+     * @param encoder Writes the message into the buffer it is given.
+     * @return The message, flipped for reading.
+     */
+    private static ByteBuffer encode(Consumer<ByteBuffer> encoder) {
+        ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+        encoder.accept(buffer);
+        return buffer.flip();
+    }
+
+    /**
+     * Copies a message into a new buffer.
+     *
+     * @param message The message.
+     * @return The copy, positioned at its start.
+     */
+    private static ByteBuffer copy(ByteBuffer message) {
+        return ByteBuffer.wrap(Arrays.copyOfRange(message.array(), message.position(), message.limit()));
+    }
+
+    /**
+     * Builds a saved stock.
+     *
+     * @param stockId     The stock ID.
+     * @param symbol      The ticker symbol.
+     * @param companyName The company name.
+     * @param sector      The sector, or null.
+     * @param price       The current price.
+     * @return The stock.
+     */
+    private static Stock stock(int stockId, String symbol, String companyName, String sector, double price) {
+        Stock stock = new Stock(symbol, companyName, sector, price, LocalDateTime.of(2024, 5, 6, 7, 8, 9, 10));
+        stock.setStockId(stockId);
+        return stock;
+    }
+
+    /**
+     * Builds a saved position.
+     *
+     * @param positionId    The position ID.
+     * @param stock         The stock held.
+     * @param quantity      The quantity.
+     * @param purchasePrice The purchase price.
+     * @param purchaseDate  The purchase date, or null.
+     * @return The position.
+     */
+    private static Position position(int positionId, Stock stock, double quantity, double purchasePrice,
+                                     LocalDateTime purchaseDate) {
+        Position position = new Position(stock, quantity, purchasePrice, purchaseDate);
+        position.setPositionId(positionId);
+        return position;
+    }
+
+    /**
+     * Builds a saved transaction.
+     *
+     * @param transactionId The transaction ID.
+     * @param portfolioId   The portfolio traded.
+     * @param stock         The stock traded.
+     * @param type          Buy or sell.
+     * @param quantity      The quantity.
+     * @param price         The price.
+     * @param date          When the trade took place.
+     * @return The transaction.
+     */
+    private static Transaction transaction(int transactionId, int portfolioId, Stock stock,
+                                           Transaction.TransactionType type, double quantity, double price,
+                                           LocalDateTime date) {
+        Transaction transaction = new Transaction(portfolioId, stock, type, quantity, price, date);
+        transaction.setTransactionId(transactionId);
+        return transaction;
+    }
+
+    /**
+     * Checks that a decoded stock matches the encoded one field by field.
+     *
+     * @param expected The encoded stock.
+     * @param actual   The decoded stock.
+     */
+    private static void assertStock(Stock expected, Stock actual) {
+        assertEquals(expected.getStockId(), actual.getStockId());
+        assertEquals(expected.getSymbol(), actual.getSymbol());
+        assertEquals(expected.getCompanyName(), actual.getCompanyName());
+        assertEquals(expected.getSector(), actual.getSector());
+        assertEquals(expected.getCurrentPrice(), actual.getCurrentPrice());
+        assertEquals(expected.getLastUpdated(), actual.getLastUpdated());
+    }
+}
@@ -0,0 +1,205 @@
+package com.portfolio.repository;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Tests for {@link ReplicaRouter} against embedded H2 databases standing in for the primary
+ * and its replicas. Each database holds its own name, so a test can tell where a connection
+ * went. A replica is down while its database does not exist: its URL only opens an existing
+ * one, so it comes back as soon as the database is created.
+ * @author Gaoussou Thiam
+ * @date 10/19/2026
+ * @see com.portfolio.repository.ReplicaRouter
+ */
+class ReplicaRouterTest {
+
+
+    /** Retry delay short enough to wait out in a test. */
+    private static final long RETRY_MILLIS = 100;
+
+    /** Connections that keep the in-memory databases alive until the test ends. */
+    private final List<Connection> keepAlive = new ArrayList<>();
+
+    /**
+     * Drops every database the test created.
+     *
+     * @throws SQLException If a database cannot be shut down.
+     */
+    @AfterEach
+    void shutDown() throws SQLException {
+        for (Connection connection : keepAlive) {
+            try (Statement stmt = connection.createStatement()) {
+                stmt.execute("SHUTDOWN");
+            }
+        }
+    }
+
+    @Test
+    void readsRotateAcrossReplicas() throws SQLException {
+        ReplicaRouter router = new ReplicaRouter(database("primary"), List.of(database("east"), database("west")),
+                "sa", "", 0, RETRY_MILLIS);
+
+        assertEquals(List.of("east", "west", "east", "west"), reads(router, 4));
+        assertEquals("primary", name(router.openPrimary()));
+    }
+
+    @Test
+    void readsFromPrimaryWithoutReplicas() throws SQLException {
+        ReplicaRouter router = new ReplicaRouter(database("primary"), List.of(), "sa", "", 0, RETRY_MILLIS);
+
+        assertEquals(List.of("primary", "primary"), reads(router, 2));
+    }
+
+    @Test
+    void failedReplicaLeavesRotationAndRejoinsAfterRetryDelay() throws Exception {
+        String missing = "west-" + UUID.randomUUID();
+        ReplicaRouter router = new ReplicaRouter(database("primary"), List.of(database("east"), url(missing)),
+                "sa", "", 0, RETRY_MILLIS);
+
+        // The second read fails over from west to east, which then serves every read.
+        assertEquals(List.of("east", "east", "east", "east"), reads(router, 4));
+
+        create(missing, "west");
+        // Still out of rotation until the retry delay has passed.
+        assertEquals(List.of("east", "east"), reads(router, 2));
+
+        Thread.sleep(RETRY_MILLIS * 2);
+        List<String> names = reads(router, 4);
+        assertEquals(2, names.stream().filter("west"::equals).count(), "west rejoined: " + names);
+        assertEquals(2, names.stream().filter("east"::equals).count(), "east still used: " + names);
+    }
+
+    @Test
+    void readsFallBackToPrimaryWhenEveryReplicaIsDown() throws SQLException {
+        ReplicaRouter router = new ReplicaRouter(database("primary"),
+                List.of(url("east-" + UUID.randomUUID()), url("west-" + UUID.randomUUID())),
+                "sa", "", 0, RETRY_MILLIS);
+
+        assertEquals(List.of("primary", "primary", "primary"), reads(router, 3));
+    }
+
+    @Test
+    void writerReadsFromPrimaryWithinReadYourWritesWindow() throws Exception {
+        long windowMillis = 300;
+        ReplicaRouter router = new ReplicaRouter(database("primary"), List.of(database("replica")),
+                "sa", "", windowMillis, RETRY_MILLIS);
+
+        assertEquals("replica", name(router.openRead()));
+        router.recordWrite();
+        assertEquals("primary", name(router.openRead()));
+
+        // The window belongs to the thread that wrote; others keep reading from replicas.
+        AtomicReference<String> other = new AtomicReference<>();
+        AtomicReference<SQLException> failure = new AtomicReference<>();
+        Thread reader = new Thread(() -> {
+            try {
+                other.set(name(router.openRead()));
+            } catch (SQLException e) {
+                failure.set(e);
+            }
+        });
+        reader.start();
+        reader.join();
+        if (failure.get() != null) {
+            throw failure.get();
+        }
+        assertEquals("replica", other.get());
+
+        Thread.sleep(windowMillis * 2);
+        assertEquals("replica", name(router.openRead()));
+    }
+
+    @Test
+    void writesDoNotPinReadsWithoutWindow() throws SQLException {
+        ReplicaRouter router = new ReplicaRouter(database("primary"), List.of(database("replica")),
+                "sa", "", 0, RETRY_MILLIS);
+
+        router.recordWrite();
+        assertEquals("replica", name(router.openRead()));
+    }
+
+    /**
+     * Creates a uniquely named database that knows its name.
+     *
+     * @param name The name it reports.
+     * @return Its URL, which opens it only while it exists.
+     * @throws SQLException If it cannot be created.
+     */
+    private String database(String name) throws SQLException {
+        String database = name + "-" + UUID.randomUUID();
+        create(database, name);
+        return url(database);
+    }
+
+    /**
+     * Creates a database that reports a name.
+     *
+     * @param database The database to create.
+     * @param name     The name it reports.
+     * @throws SQLException If it cannot be created.
+     */
+    private void create(String database, String name) throws SQLException {
+        Connection connection = DriverManager.getConnection("jdbc:h2:mem:" + database + ";DB_CLOSE_DELAY=-1",
+                "sa", "");
+        keepAlive.add(connection);
+        try (Statement stmt = connection.createStatement()) {
+            stmt.execute("CREATE TABLE node (name VARCHAR(20))");
+            stmt.execute("INSERT INTO node VALUES ('" + name + "')");
+        }
+    }
+
+    /**
+     * Gets the URL of a database that fails to connect until the database is created.
+     *
+     * @param database The database.
+     * @return The URL.
+     */
+    private static String url(String database) {
+        return "jdbc:h2:mem:" + database + ";IFEXISTS=TRUE";
+    }
+
+    /**
+     * Opens several reads and records where each went.
+     *
+     * @param router The router.
+     * @param count  The number of reads.
+     * @return The name of the database each read reached.
+     * @throws SQLException If a read cannot be opened.
+     */
+    private static List<String> reads(ReplicaRouter router, int count) throws SQLException {
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            names.add(name(router.openRead()));
+        }
+        return names;
+    }
+
+    /**
+     * Reads the name of the database a connection reached, closing the connection.
+     *
+     * @param connection The connection.
+     * @return The name.
+     * @throws SQLException If the name cannot be read.
+     */
+    private static String name(Connection connection) throws SQLException {
+        try (connection;
+             Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT name FROM node")) {
+            rs.next();
+            return rs.getString(1);
+        }
+    }
+}
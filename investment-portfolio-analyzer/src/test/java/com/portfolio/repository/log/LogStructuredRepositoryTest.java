@@ -0,0 +1,210 @@
+package com.portfolio.repository.log;
+
+import com.portfolio.model.CorporateAction;
+import com.portfolio.model.Portfolio;
+import com.portfolio.model.PortfolioSummary;
+import com.portfolio.model.Position;
+import com.portfolio.model.Stock;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for the recovery of {@link LogStructuredRepository}: a torn record at the end of the
+ * log, snapshots written by compaction, and replaying the log over a snapshot that already
+ * holds some of its writes.
+ * @author Gaoussou Thiam
+ * @date 10/19/2026
+ * @see com.portfolio.repository.log.LogStructuredRepository
+ * @see com.portfolio.repository.log.AppendOnlyLog
+ * @see com.portfolio.repository.log.SnapshotFile
+ */
+class LogStructuredRepositoryTest {
+
+
+    /** Segment size small enough for a test to fill several segments. */
+    private static final int SEGMENT_SIZE = 4096;
+
+    /** A compaction threshold the background compactor never reaches in a test. */
+    private static final int NEVER_COMPACT = Integer.MAX_VALUE;
+
+    /** The directory holding the log and snapshots. */
+    @TempDir
+    Path directory;
+
+    @Test
+    void tornRecordAtEndOfLogIsDiscarded() throws Exception {
+        try (LogStructuredRepository repository = open()) {
+            repository.saveStock(new Stock("AAA", "Alpha", "Tech", 10.0));
+            repository.saveStock(new Stock("BBB", "Beta", "Energy", 20.0));
+        }
+
+        // Flip a byte in the body of the last record, as a crash in the middle of writing it would.
+        Path segment = segments().get(segments().size() - 1);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer data = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+            int last = lastRecord(data);
+            int offset = last + LogRecords.FRAME_HEADER + 2;
+            data.put(offset, (byte) (data.get(offset) ^ 0xFF));
+        }
+
+        try (LogStructuredRepository repository = open()) {
+            assertNotNull(repository.getStockBySymbol("AAA"));
+            assertNull(repository.getStockBySymbol("BBB"));
+            repository.saveStock(new Stock("CCC", "Gamma", "Health", 30.0));
+        }
+
+        // The torn record was erased, so the write appended after it is found on the next start.
+        try (LogStructuredRepository repository = open()) {
+            assertEquals(List.of("AAA", "CCC"), repository.getAllStocks().stream().map(Stock::getSymbol).toList());
+            assertEquals(2, repository.getStockBySymbol("CCC").getStockId());
+        }
+    }
+
+    @Test
+    void compactionSnapshotsRowsAndDeletesCoveredSegments() throws Exception {
+        int portfolioId;
+        try (LogStructuredRepository repository = open()) {
+            Stock stock = new Stock("AAA", "Alpha", "Tech", 10.0);
+            repository.saveStock(stock);
+            Portfolio portfolio = new Portfolio("Growth", "Long only");
+            repository.savePortfolio(portfolio);
+            portfolioId = portfolio.getPortfolioId();
+            for (int i = 0; i < 200; i++) {
+                repository.savePosition(portfolioId, new Position(stock, 1, 10.0));
+            }
+            assertTrue(segments().size() > 1, "positions fill several segments");
+
+            repository.compact();
+            assertEquals(1, segments().size());
+            assertEquals(1, snapshots().size());
+
+            // Writes after the snapshot go to the log, including a split that must apply once.
+            repository.updateStockPrice("AAA", 12.0);
+            repository.applyCorporateAction(new CorporateAction("AAA", 2.0));
+            repository.savePosition(portfolioId, new Position(stock, 1, 6.0));
+
+            repository.compact();
+            assertEquals(1, segments().size());
+            assertEquals(1, snapshots().size(), "the older snapshot is deleted");
+            repository.updateStockPrice("AAA", 7.0);
+        }
+
+        try (LogStructuredRepository repository = open()) {
+            PortfolioSummary summary = repository.getPortfolioSummary(portfolioId);
+            assertEquals(201, summary.getPositionCount());
+            assertEquals(7.0, repository.getStockBySymbol("AAA").getCurrentPrice());
+            assertEquals((200 * 2 + 1) * 7.0, summary.getMarketValue(), 1e-9);
+            assertEquals(200 * 10.0 + 6.0, summary.getCostBasis(), 1e-9);
+        }
+    }
+
+    @Test
+    void replayOverSnapshotHoldingLoggedWritesIsIdempotent() throws Exception {
+        try (LogStructuredRepository repository = open()) {
+            Stock stock = new Stock("AAA", "Alpha", "Tech", 10.0);
+            repository.saveStock(stock);
+            Portfolio portfolio = new Portfolio("Growth", "Long only");
+            repository.savePortfolio(portfolio);
+            repository.savePosition(portfolio.getPortfolioId(), new Position(stock, 5, 10.0));
+            repository.updateStockPrice("AAA", 12.0);
+            repository.updateStockPrice("AAA", 15.0);
+        }
+
+        // A snapshot written while those writes were logged: it holds the rows and the first
+        // price change, but recovery still replays the whole log after it.
+        SnapshotFile.write(directory, 1, visitor -> {
+            visitor.stock(1, "AAA", "Alpha", "Tech", 12.0);
+            visitor.portfolio(1, "Growth", "Long only");
+            visitor.position(1, 1, 1, 5, 10.0);
+        });
+
+        try (LogStructuredRepository repository = open()) {
+            assertEquals(1, repository.getAllStocks().size());
+            assertEquals(15.0, repository.getStockBySymbol("AAA").getCurrentPrice());
+            assertEquals(1, repository.getAllPortfolios().size());
+            assertEquals(1, repository.getPositions(1, 0, 10).size());
+            PortfolioSummary summary = repository.getPortfolioSummary(1);
+            assertEquals(1, summary.getPositionCount());
+            assertEquals(5 * 15.0, summary.getMarketValue(), 1e-9);
+
+            // IDs continue after the restored rows.
+            Stock next = new Stock("BBB", "Beta", "Energy", 20.0);
+            repository.saveStock(next);
+            assertEquals(2, next.getStockId());
+        }
+    }
+
+    /**
+     * Opens the repository in the test directory.
+     *
+     * @return The repository.
+     * @throws IOException If it cannot be recovered.
+     */
+    private LogStructuredRepository open() throws IOException {
+        return new LogStructuredRepository(directory, SEGMENT_SIZE, NEVER_COMPACT);
+    }
+
+    /**
+     * Lists the log segments, oldest first.
+     *
+     * @return The segment files.
+     * @throws IOException If the directory cannot be listed.
+     */
+    private List<Path> segments() throws IOException {
+        return list("log-");
+    }
+
+    /**
+     * Lists the snapshots, oldest first.
+     *
+     * @return The snapshot files.
+     * @throws IOException If the directory cannot be listed.
+     */
+    private List<Path> snapshots() throws IOException {
+        return list("snapshot-");
+    }
+
+    /**
+     * Lists the files of the test directory with a name prefix, in name order.
+     *
+     * @param prefix The prefix.
+     * @return The files.
+     * @throws IOException If the directory cannot be listed.
+     */
+    private List<Path> list(String prefix) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().startsWith(prefix)).sorted().toList();
+        }
+    }
+
+    /**
+     * Finds the last record of a segment by following the frame lengths.
+     *
+     * @param data The segment.
+     * @return The offset of the last record's frame.
+     */
+    private static int lastRecord(ByteBuffer data) {
+        int offset = LogSegment.HEADER;
+        int last = -1;
+        while (offset + LogRecords.FRAME_HEADER <= data.capacity() && data.getInt(offset) != 0) {
+            last = offset;
+            offset += LogRecords.FRAME_HEADER + data.getInt(offset);
+        }
+        return last;
+    }
+}
@@ -0,0 +1,38 @@
+package com.portfolio.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Tests for the replica and shard settings of {@link DatabaseConfig}, read from the test
+ * copy of {@code database.properties}.
+ * @author Gaoussou Thiam
+ * @date 10/19/2026
+ * @see com.portfolio.util.DatabaseConfig
+ */
+class DatabaseConfigTest {
+
+
+    @Test
+    void replicaUrlsAreTrimmedAndBlanksSkipped() {
+        assertEquals(List.of("jdbc:h2:mem:east", "jdbc:h2:mem:west"), DatabaseConfig.getReplicaUrls());
+    }
+
+    @Test
+    void readYourWritesWindowIsRead() {
+        assertEquals(250, DatabaseConfig.getReadYourWritesMillis());
+    }
+
+    @Test
+    void replicaRetryDelayDefaultsWhenUnset() {
+        assertEquals(5000, DatabaseConfig.getReplicaRetryMillis());
+    }
+
+    @Test
+    void shardUrlsAreEmptyWhenUnset() {
+        assertEquals(List.of(), DatabaseConfig.getShardUrls());
+    }
+}